@@ -0,0 +1,141 @@
+package de.dytanic.cloudnet.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread safe histogram for latencies with logarithmic buckets. The bucket with the index i counts all latencies from
+ * 2^(i-1) until 2^i - 1 microseconds, the first bucket all latencies under one microsecond and the last bucket all
+ * latencies, which are longer as the bound of the bucket before.
+ * <p>
+ * Recording a latency costs a few atomic additions and allocates nothing, so it can be used on hot paths
+ */
+public final class LatencyHistogram {
+
+    public static final int BUCKET_COUNT = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong count = new AtomicLong(), totalNanos = new AtomicLong(), maxNanos = new AtomicLong();
+
+    /**
+     * Records a measured latency
+     *
+     * @param latency  the latency, negative values are recorded as zero
+     * @param timeUnit the time unit of the latency
+     */
+    public void record(long latency, TimeUnit timeUnit)
+    {
+        Validate.checkNotNull(timeUnit);
+
+        this.recordNanos(timeUnit.toNanos(latency));
+    }
+
+    public void recordNanos(long nanos)
+    {
+        if (nanos < 0) nanos = 0;
+
+        this.buckets.incrementAndGet(getBucketIndex(nanos));
+        this.count.incrementAndGet();
+        this.totalNanos.addAndGet(nanos);
+
+        long max;
+        while ((max = this.maxNanos.get()) < nanos && !this.maxNanos.compareAndSet(max, nanos)) ;
+    }
+
+    public long getCount()
+    {
+        return this.count.get();
+    }
+
+    public long getTotalNanos()
+    {
+        return this.totalNanos.get();
+    }
+
+    public long getMaxNanos()
+    {
+        return this.maxNanos.get();
+    }
+
+    public double getMeanMillis()
+    {
+        long count = this.count.get();
+
+        return count == 0 ? 0D : (double) this.totalNanos.get() / count / 1000000D;
+    }
+
+    /**
+     * Returns the upper bound of the bucket, in that the latency of the given percentile is located
+     *
+     * @param percentile the percentile between 0 and 100, like 99 for the latency, which is longer as 99% of all latencies
+     * @return the upper bound of the bucket in nanoseconds or 0, if nothing is recorded
+     */
+    public long getPercentileNanos(double percentile)
+    {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("Invalid percentile " + percentile);
+
+        long[] buckets = this.getBuckets();
+        long count = 0;
+
+        for (long bucket : buckets)
+            count += bucket;
+
+        if (count == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100D)), current = 0;
+
+        for (int i = 0; i < buckets.length; i++)
+            if ((current += buckets[i]) >= rank)
+                return Math.min(getBucketUpperBoundNanos(i), this.maxNanos.get());
+
+        return this.maxNanos.get();
+    }
+
+    /**
+     * Returns a copy of the counts of all buckets
+     */
+    public long[] getBuckets()
+    {
+        long[] buckets = new long[BUCKET_COUNT];
+
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            buckets[i] = this.buckets.get(i);
+
+        return buckets;
+    }
+
+    /**
+     * Returns the exclusive upper bound of the latencies in nanoseconds, which are counted in the bucket with the index
+     */
+    public static long getBucketUpperBoundNanos(int index)
+    {
+        return index >= BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << index) * 1000L;
+    }
+
+    public void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            this.buckets.set(i, 0);
+
+        this.count.set(0);
+        this.totalNanos.set(0);
+        this.maxNanos.set(0);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LatencyHistogram(count=" + this.getCount() + ", meanMillis=" + this.getMeanMillis() +
+            ", p50Nanos=" + this.getPercentileNanos(50) + ", p99Nanos=" + this.getPercentileNanos(99) +
+            ", maxNanos=" + this.getMaxNanos() + ")";
+    }
+
+    private static int getBucketIndex(long nanos)
+    {
+        long micros = nanos / 1000L;
+
+        return Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKET_COUNT - 1);
+    }
+}
@@ -0,0 +1,452 @@
+package de.dytanic.cloudnet.common.concurrent;
+
+import de.dytanic.cloudnet.common.Validate;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A timer for many timeouts, which holds them in a wheel of buckets. One thread moves every tick to the next bucket
+ * and expires the timeouts of it, so adding, cancelling and expiring a timeout costs a constant time independent of
+ * the count of pending timeouts. A cancelled timeout is removed from its bucket with the next tick, so the task isn't
+ * referenced by the timer anymore.
+ * <p>
+ * A timeout expires at the earliest after its delay, but at most one tick later. The thread parks, while no timeout is
+ * pending, and is started with the first timeout
+ */
+public final class HashedWheelTimer {
+
+    public static final long DEFAULT_TICK_MILLIS = 10;
+
+    public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    //The count of new timeouts, that are moved into the wheel per tick, so that a flood of new timeouts can't delay the tick
+    private static final int MAX_TRANSFERRED_TIMEOUTS_PER_TICK = 100000;
+
+    private final String name;
+
+    private final Executor executor;
+
+    private final long tickNanos, startTime = System.nanoTime();
+
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>(), cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong pendingTimeouts = new AtomicLong();
+
+    private final Object lock = new Object();
+
+    private volatile Thread thread;
+
+    private volatile boolean stopped;
+
+    /**
+     * The ticks, that are processed since the start time. Only used by the thread of the timer
+     */
+    private long tick;
+
+    public HashedWheelTimer(String name)
+    {
+        this(name, null);
+    }
+
+    public HashedWheelTimer(String name, Executor executor)
+    {
+        this(name, executor, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * Creates a new timer, its thread is started with the first timeout
+     *
+     * @param name          the name of the thread of the timer
+     * @param executor      the executor, in which the expired timeouts are run or null to run them in the thread of the timer
+     * @param tickDuration  the duration of a tick, which is the precision of the timer
+     * @param timeUnit      the time unit of the tick duration
+     * @param ticksPerWheel the count of buckets in the wheel, is rounded up to a power of two
+     */
+    public HashedWheelTimer(String name, Executor executor, long tickDuration, TimeUnit timeUnit, int ticksPerWheel)
+    {
+        Validate.checkNotNull(name);
+        Validate.checkNotNull(timeUnit);
+
+        if (tickDuration <= 0) throw new IllegalArgumentException("The tick duration has to be positive");
+        if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) throw new IllegalArgumentException("Invalid ticks per wheel " + ticksPerWheel);
+
+        this.name = name;
+        this.executor = executor;
+        this.tickNanos = timeUnit.toNanos(tickDuration);
+
+        int wheelSize = Integer.highestOneBit(ticksPerWheel);
+        if (wheelSize < ticksPerWheel) wheelSize <<= 1;
+
+        this.wheel = new Bucket[wheelSize];
+        this.mask = wheelSize - 1;
+
+        for (int i = 0; i < wheelSize; i++)
+            this.wheel[i] = new Bucket();
+    }
+
+    /**
+     * Schedules a task, which runs once after the delay
+     *
+     * @param task     the task, which should run after the delay
+     * @param delay    the delay, after that the task should run
+     * @param timeUnit the time unit of the delay
+     * @return the timeout, with that the task can cancelled
+     * @throws IllegalStateException if the timer is stopped
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit timeUnit)
+    {
+        Validate.checkNotNull(task);
+        Validate.checkNotNull(timeUnit);
+
+        if (this.stopped) throw new IllegalStateException("The timer " + this.name + " is stopped");
+
+        Timeout timeout = new Timeout(task, System.nanoTime() + timeUnit.toNanos(Math.max(delay, 0)) - this.startTime);
+        this.newTimeouts.add(timeout);
+
+        if (this.pendingTimeouts.getAndIncrement() == 0)
+            synchronized (this.lock)
+            {
+                this.lock.notifyAll();
+            }
+
+        if (this.thread == null) this.start();
+
+        return timeout;
+    }
+
+    /**
+     * Offers the scheduled task after its delayed timestamp. The task is called in the executor of the timer and offered
+     * again with its new timestamp, as long as it is repeatable
+     *
+     * @param scheduledTask the task, which should called
+     * @return the same task
+     */
+    public <V> IScheduledTask<V> offerTask(IScheduledTask<V> scheduledTask)
+    {
+        Validate.checkNotNull(scheduledTask);
+
+        this.newTimeout(new Runnable() {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    scheduledTask.call();
+                } catch (Throwable ignored)
+                {
+                }
+
+                if (scheduledTask.isRepeatable() && !stopped) offerTask(scheduledTask);
+            }
+        }, getRemainingDelayMillis(scheduledTask), TimeUnit.MILLISECONDS);
+
+        return scheduledTask;
+    }
+
+    public <V> IScheduledTask<V> schedule(Callable<V> callable, long delay, TimeUnit timeUnit)
+    {
+        return this.schedule(callable, delay, 0, 1, timeUnit);
+    }
+
+    public <V> IScheduledTask<V> schedule(Callable<V> callable, long delay, long repeat, TimeUnit timeUnit)
+    {
+        return this.schedule(callable, delay, repeat, -1, timeUnit);
+    }
+
+    public <V> IScheduledTask<V> schedule(Callable<V> callable, long delay, long repeat, long repeats, TimeUnit timeUnit)
+    {
+        return this.offerTask(new DefaultScheduledTask<>(callable, delay, repeat, repeats, timeUnit));
+    }
+
+    /**
+     * Returns the delay until the delayed timestamp of the task. The timestamp is truncated to milliseconds, so one
+     * millisecond more ensures, that the task never runs before its delay
+     */
+    static long getRemainingDelayMillis(IScheduledTask<?> scheduledTask)
+    {
+        return scheduledTask.getDelayedTimeStamp() - System.currentTimeMillis() + 1;
+    }
+
+    /**
+     * Returns the count of timeouts, which are not expired or cancelled
+     */
+    public long getPendingTimeouts()
+    {
+        return this.pendingTimeouts.get();
+    }
+
+    /**
+     * Stops the thread of the timer. The pending timeouts don't expire anymore
+     */
+    public void stop()
+    {
+        this.stopped = true;
+
+        synchronized (this.lock)
+        {
+            if (this.thread != null) this.thread.interrupt();
+
+            this.lock.notifyAll();
+        }
+    }
+
+    private void start()
+    {
+        synchronized (this.lock)
+        {
+            if (this.thread != null || this.stopped) return;
+
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run()
+                {
+                    HashedWheelTimer.this.run();
+                }
+            }, this.name);
+            thread.setDaemon(true);
+
+            this.thread = thread;
+            thread.start();
+        }
+    }
+
+    private void run()
+    {
+        try
+        {
+            while (!this.stopped)
+            {
+                if (this.pendingTimeouts.get() == 0)
+                {
+                    synchronized (this.lock)
+                    {
+                        while (this.pendingTimeouts.get() == 0 && !this.stopped)
+                        {
+                            //The cancelled timeouts are removed before parking, so their tasks are released
+                            this.removeCancelledTimeouts();
+
+                            if (this.pendingTimeouts.get() == 0 && this.cancelledTimeouts.isEmpty())
+                                this.lock.wait();
+                        }
+                    }
+
+                    //The wheel contains no pending timeout, so the ticks while parking can be skipped
+                    this.tick = Math.max(this.tick, (System.nanoTime() - this.startTime) / this.tickNanos);
+                }
+
+                long deadline = this.waitForNextTick();
+
+                this.removeCancelledTimeouts();
+                this.transferTimeouts();
+                this.wheel[(int) (this.tick & this.mask)].expire(deadline);
+                this.tick++;
+            }
+        } catch (InterruptedException ignored)
+        {
+        }
+
+        this.newTimeouts.clear();
+        this.cancelledTimeouts.clear();
+    }
+
+    private long waitForNextTick() throws InterruptedException
+    {
+        long deadline = this.tickNanos * (this.tick + 1);
+
+        while (true)
+        {
+            long sleepNanos = deadline - (System.nanoTime() - this.startTime);
+
+            if (sleepNanos <= 0) return deadline;
+
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        }
+    }
+
+    private void removeCancelledTimeouts()
+    {
+        Timeout timeout;
+
+        while ((timeout = this.cancelledTimeouts.poll()) != null)
+            //The bucket is null, if the timeout wasn't transferred into the wheel yet
+            if (timeout.bucket != null) timeout.bucket.remove(timeout);
+    }
+
+    private void transferTimeouts()
+    {
+        for (int i = 0; i < MAX_TRANSFERRED_TIMEOUTS_PER_TICK; i++)
+        {
+            Timeout timeout = this.newTimeouts.poll();
+
+            if (timeout == null) break;
+            if (timeout.state != Timeout.STATE_PENDING) continue;
+
+            long expiryTick = Math.max(timeout.deadline / this.tickNanos, this.tick);
+            timeout.remainingRounds = (expiryTick - this.tick) / this.wheel.length;
+
+            this.wheel[(int) (expiryTick & this.mask)].add(timeout);
+        }
+    }
+
+    /*= ------------------------------------------------------------- =*/
+
+    /**
+     * A task, which is scheduled in the timer
+     */
+    public final class Timeout {
+
+        private static final int STATE_PENDING = 0, STATE_CANCELLED = 1, STATE_EXPIRED = 2;
+
+        //Is cleared on the cancellation, so a cancelled timeout doesn't keep the references of the task
+        private volatile Runnable task;
+
+        /**
+         * The deadline in nanoseconds relative to the start time of the timer
+         */
+        private final long deadline;
+
+        //Not private, because the field updater can't access private fields of nested classes
+        volatile int state = STATE_PENDING;
+
+        //The following fields are only used by the thread of the timer
+        private long remainingRounds;
+
+        private Timeout next, previous;
+
+        private Bucket bucket;
+
+        private Timeout(Runnable task, long deadline)
+        {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout, the task doesn't run, if it's not expired yet. The timeout is removed from the wheel
+         * with the next tick of the timer
+         *
+         * @return true if the timeout was cancelled or false if it's already expired or cancelled
+         */
+        public boolean cancel()
+        {
+            if (!STATE_UPDATER.compareAndSet(this, STATE_PENDING, STATE_CANCELLED)) return false;
+
+            this.task = null;
+            cancelledTimeouts.add(this);
+
+            //The thread of the timer removes the cancelled timeouts before it parks
+            if (pendingTimeouts.decrementAndGet() == 0)
+                synchronized (lock)
+                {
+                    lock.notifyAll();
+                }
+
+            return true;
+        }
+
+        public boolean isCancelled()
+        {
+            return this.state == STATE_CANCELLED;
+        }
+
+        public boolean isExpired()
+        {
+            return this.state == STATE_EXPIRED;
+        }
+
+        private void expire()
+        {
+            if (!STATE_UPDATER.compareAndSet(this, STATE_PENDING, STATE_EXPIRED)) return;
+
+            pendingTimeouts.decrementAndGet();
+
+            Runnable task = this.task;
+            this.task = null;
+
+            try
+            {
+                if (executor != null)
+                    executor.execute(task);
+                else
+                    task.run();
+
+            } catch (Throwable throwable)
+            {
+                throwable.printStackTrace();
+            }
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+    /**
+     * A doubly linked list of the timeouts, which expire in the same tick of a round
+     */
+    private static final class Bucket {
+
+        private Timeout head, tail;
+
+        private void add(Timeout timeout)
+        {
+            timeout.bucket = this;
+
+            if (this.head == null)
+                this.head = this.tail = timeout;
+            else
+            {
+                this.tail.next = timeout;
+                timeout.previous = this.tail;
+                this.tail = timeout;
+            }
+        }
+
+        private Timeout remove(Timeout timeout)
+        {
+            Timeout next = timeout.next;
+
+            if (timeout.previous != null) timeout.previous.next = next;
+            if (timeout.next != null) timeout.next.previous = timeout.previous;
+
+            if (timeout == this.head) this.head = next;
+            if (timeout == this.tail) this.tail = timeout.previous;
+
+            timeout.next = timeout.previous = null;
+            timeout.bucket = null;
+
+            return next;
+        }
+
+        private void expire(long deadline)
+        {
+            Timeout timeout = this.head;
+
+            while (timeout != null)
+            {
+                if (timeout.state != Timeout.STATE_PENDING)
+                    timeout = this.remove(timeout);
+
+                else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline)
+                {
+                    Timeout expiredTimeout = timeout;
+                    timeout = this.remove(timeout);
+
+                    expiredTimeout.expire();
+                } else
+                {
+                    timeout.remainingRounds--;
+                    timeout = timeout.next;
+                }
+            }
+        }
+    }
+}
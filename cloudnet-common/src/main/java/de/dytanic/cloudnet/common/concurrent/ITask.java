@@ -1,12 +1,14 @@
 package de.dytanic.cloudnet.common.concurrent;
 
 import java.util.Collection;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.function.Function;
 
 public interface ITask<V> extends Future<V>, Callable<V> {
 
+    /**
+     * Adds listeners to the task. A listener, which is added after the task was completed, is called directly
+     */
     ITask<V> addListener(ITaskListener<V>... listeners);
 
     ITask<V> clearListeners();
@@ -18,4 +20,109 @@ public interface ITask<V> extends Future<V>, Callable<V> {
     V getDef(V def);
 
     V get(long time, TimeUnit timeUnit, V def);
-}
\ No newline at end of file
+
+    /**
+     * Returns a new task, which is completed with the result of the function, after this task was completed. The
+     * function is invoked by the thread, which completes this task, so no thread waits for the result
+     *
+     * @param function the function, which maps the result of this task
+     * @return the new task, which fails, if this task or the function fails
+     */
+    default <U> ITask<U> thenApply(Function<? super V, ? extends U> function)
+    {
+        return ListenableTask.fromCompletionStage(this.toCompletableFuture().thenApply(function));
+    }
+
+    /**
+     * Returns a new task, which is completed with the result of the function, after this task was completed. The
+     * function is invoked by the executor, so an expensive mapping doesn't block the thread, which completes this task
+     *
+     * @param function the function, which maps the result of this task
+     * @param executor the executor, which invokes the function
+     * @return the new task, which fails, if this task or the function fails
+     */
+    default <U> ITask<U> thenApplyAsync(Function<? super V, ? extends U> function, Executor executor)
+    {
+        return ListenableTask.fromCompletionStage(this.toCompletableFuture().thenApplyAsync(function, executor));
+    }
+
+    /**
+     * Returns a new task, which is completed with the result of the task, that the function returns for the result
+     * of this task
+     *
+     * @param function the function, which starts the next task
+     * @return the new task, which fails, if this task, the function or the next task fails
+     */
+    default <U> ITask<U> thenCompose(Function<? super V, ? extends ITask<U>> function)
+    {
+        return ListenableTask.fromCompletionStage(this.toCompletableFuture().thenCompose(new Function<V, CompletionStage<U>>() {
+            @Override
+            public CompletionStage<U> apply(V value)
+            {
+                return function.apply(value).toCompletableFuture();
+            }
+        }));
+    }
+
+    /**
+     * Returns a new task, which is completed with the result of this task or with the result of the function, if this
+     * task fails
+     *
+     * @param function the function, which maps the failure of this task to a result
+     */
+    default ITask<V> exceptionally(Function<Throwable, ? extends V> function)
+    {
+        return ListenableTask.fromCompletionStage(this.toCompletableFuture().exceptionally(new Function<Throwable, V>() {
+            @Override
+            public V apply(Throwable throwable)
+            {
+                //The failures of the dependent stages are wrapped in a CompletionException
+                return function.apply(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+            }
+        }));
+    }
+
+    /**
+     * Returns a CompletableFuture, which is completed with the result of this task. A completion of the returned
+     * future has no effect on this task
+     */
+    default CompletableFuture<V> toCompletableFuture()
+    {
+        CompletableFuture<V> future = new CompletableFuture<>();
+
+        this.addListener(new ITaskListener<V>() {
+            @Override
+            public void onComplete(ITask<V> task, V value)
+            {
+                future.complete(value);
+            }
+
+            @Override
+            public void onCancelled(ITask<V> task)
+            {
+                future.cancel(false);
+            }
+
+            @Override
+            public void onFailure(ITask<V> task, Throwable th)
+            {
+                future.completeExceptionally(th);
+            }
+        });
+
+        //The listeners of some tasks aren't called, if the task was completed before the listener was added
+        if (this.isDone())
+            try
+            {
+                future.complete(this.get());
+            } catch (ExecutionException exception)
+            {
+                future.completeExceptionally(exception.getCause());
+            } catch (Throwable throwable)
+            {
+                future.completeExceptionally(throwable);
+            }
+
+        return future;
+    }
+}
@@ -1,24 +1,47 @@
 package de.dytanic.cloudnet.common.concurrent;
 
 import de.dytanic.cloudnet.common.Validate;
-import lombok.Getter;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Queue;
 import java.util.concurrent.*;
-
-@Getter
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A task, which is based on a CompletableFuture. The listeners and the dependent tasks of thenApply, thenCompose and
+ * exceptionally are invoked by the thread, which completes the task, so a pending task blocks no thread, except the
+ * threads, which wait with get() for the result. The listeners are invoked before the waiting threads are released.
+ * <p>
+ * A task with a callable is completed by call(), a task without callable with complete(V) or fail(Throwable), for
+ * example by the network thread, which receives the response
+ */
 public class ListenableTask<V> implements ITask<V> {
 
-    @Getter
-    private Collection<ITaskListener<V>> listeners;
-
-    private volatile V value;
+    private final Queue<ITaskListener<V>> listeners = new ConcurrentLinkedQueue<>();
 
-    private volatile boolean done, cancelled;
+    private final CompletableFuture<V> future = new CompletableFuture<>();
 
-    @Getter
     private final Callable<V> callable;
 
+    private volatile boolean cancelled;
+
+    //written before completed is set
+    private V value;
+
+    private Throwable failure;
+
+    private volatile boolean completed;
+
+    /**
+     * Creates a task without callable, which is completed with complete(V) or fail(Throwable)
+     */
+    public ListenableTask()
+    {
+        this.callable = null;
+    }
+
     public ListenableTask(Callable<V> callable)
     {
         this(callable, null);
@@ -33,29 +56,85 @@ public class ListenableTask<V> implements ITask<V> {
         if (listener != null) this.addListener(listener);
     }
 
+    /**
+     * Returns a task, which is already completed with the value
+     */
+    public static <V> ListenableTask<V> completedTask(V value)
+    {
+        ListenableTask<V> task = new ListenableTask<>();
+        task.complete(value);
+
+        return task;
+    }
+
+    /**
+     * Returns a task, which is already failed with the throwable
+     */
+    public static <V> ListenableTask<V> failedTask(Throwable throwable)
+    {
+        ListenableTask<V> task = new ListenableTask<>();
+        task.fail(throwable);
+
+        return task;
+    }
+
+    /**
+     * Returns a task, which is completed with the result of the stage
+     */
+    public static <V> ListenableTask<V> fromCompletionStage(CompletionStage<V> stage)
+    {
+        Validate.checkNotNull(stage);
+
+        ListenableTask<V> task = new ListenableTask<>();
+
+        stage.whenComplete(new BiConsumer<V, Throwable>() {
+            @Override
+            public void accept(V value, Throwable throwable)
+            {
+                if (throwable != null)
+                    task.fail(unwrap(throwable));
+                else
+                    task.complete(value);
+            }
+        });
+
+        return task;
+    }
+
     @Override
     public ITask<V> addListener(ITaskListener<V>... listeners)
     {
         if (listeners == null) return this;
 
-        initListenersCollectionIfNotExists();
-
         for (ITaskListener<V> listener : listeners)
             if (listener != null)
                 this.listeners.add(listener);
 
+        //A listener, which was added after the completion, isn't polled anymore by the completing thread
+        if (this.completed) this.invokeListeners();
+
         return this;
     }
 
     @Override
     public ITask<V> clearListeners()
     {
-        if (this.listeners != null)
-            this.listeners.clear();
-
+        this.listeners.clear();
         return this;
     }
 
+    @Override
+    public Collection<ITaskListener<V>> getListeners()
+    {
+        return Collections.unmodifiableCollection(this.listeners);
+    }
+
+    @Override
+    public Callable<V> getCallable()
+    {
+        return this.callable;
+    }
+
     @Override
     public V getDef(V def)
     {
@@ -70,108 +149,162 @@ public class ListenableTask<V> implements ITask<V> {
         try
         {
             return get(time, timeUnit);
-        } catch (Throwable ignored)
+        } catch (TimeoutException ignored)
         {
-            ignored.printStackTrace();
+            //The default value is the expected result of a timeout
+        } catch (Throwable throwable)
+        {
+            throwable.printStackTrace();
         }
 
         return def;
     }
 
+    /**
+     * Completes the task with a CancellationException and calls the onCancelled method of the listeners. A running
+     * callable isn't interrupted, its result is ignored
+     *
+     * @return true, if the task was cancelled by this call or false, if it was already completed
+     */
     @Override
     public boolean cancel(boolean mayInterruptIfRunning)
     {
-        return this.cancelled = mayInterruptIfRunning;
+        return this.complete0(null, new CancellationException());
+    }
+
+    @Override
+    public boolean isCancelled()
+    {
+        return this.cancelled;
+    }
+
+    @Override
+    public boolean isDone()
+    {
+        return this.completed;
     }
 
     @Override
     public V get() throws InterruptedException, ExecutionException
     {
-        synchronized (this)
-        {
-            if (!isDone()) this.wait();
-        }
+        //The result is available to the listeners, before the future is completed
+        if (!this.completed) this.future.get();
 
-        return value;
+        return this.report();
     }
 
     @Override
     public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException
     {
-        synchronized (this)
-        {
-            if (!isDone()) this.wait(unit.toMillis(timeout));
-        }
+        if (!this.completed) this.future.get(timeout, unit);
+
+        return this.report();
+    }
+
+    /*= ------------------------------------------------------------------------------------------------------ =*/
 
-        return value;
+    @Override
+    public CompletableFuture<V> toCompletableFuture()
+    {
+        return this.future.thenApply(Function.identity());
     }
 
     /*= ------------------------------------------------------------------------------------------------------ =*/
 
+    /**
+     * Completes the task with the value
+     *
+     * @return true, if the task was completed by this call or false, if it was already completed
+     */
+    public boolean complete(V value)
+    {
+        return this.complete0(value, null);
+    }
+
+    /**
+     * Completes the task exceptionally with the throwable
+     *
+     * @return true, if the task was completed by this call or false, if it was already completed
+     */
+    public boolean fail(Throwable throwable)
+    {
+        Validate.checkNotNull(throwable);
+
+        return this.complete0(null, throwable);
+    }
+
     @Override
     public V call()
     {
-        if (!isCancelled())
-        {
+        if (!this.completed && this.callable != null)
             try
             {
-                this.value = this.callable.call();
+                this.complete(this.callable.call());
             } catch (Throwable ex)
             {
-                this.invokeFailure(ex);
+                this.fail(ex);
             }
-        }
 
-        this.done = true;
-        this.invokeTaskListener();
+        return this.completed ? this.value : null;
+    }
+
+    /*= ---------------------------------------------------------------------------------- =*/
 
+    private boolean complete0(V value, Throwable failure)
+    {
         synchronized (this)
         {
-            try
-            {
-                this.notifyAll();
-            } catch (Throwable ignored)
-            {
-            }
+            if (this.completed) return false;
+
+            this.value = value;
+            this.failure = failure;
+            this.cancelled = failure instanceof CancellationException;
+            this.completed = true;
         }
 
-        return this.value;
-    }
+        this.invokeListeners();
 
-    /*= ---------------------------------------------------------------------------------- =*/
+        if (failure != null)
+            this.future.completeExceptionally(failure);
+        else
+            this.future.complete(value);
+
+        return true;
+    }
 
-    private void initListenersCollectionIfNotExists()
+    private V report() throws ExecutionException
     {
-        if (this.listeners == null)
-            this.listeners = new ConcurrentLinkedQueue<>();
+        if (this.failure instanceof CancellationException) throw (CancellationException) this.failure;
+        if (this.failure != null) throw new ExecutionException(this.failure);
+
+        return this.value;
     }
 
-    private void invokeTaskListener()
+    /**
+     * Invokes each listener exactly once. A listener is removed from the queue, before it's invoked, so a listener,
+     * which is added concurrently to the completion, is invoked either by the completing or by the adding thread
+     */
+    private void invokeListeners()
     {
-        if (this.listeners != null)
-            for (ITaskListener<V> listener : this.listeners)
-                try
-                {
-                    if (this.cancelled)
-                        listener.onCancelled(this);
-                    else
-                        listener.onComplete(this, this.value);
-                } catch (Exception exception)
-                {
-                    exception.printStackTrace();
-                }
+        ITaskListener<V> listener;
+
+        while ((listener = this.listeners.poll()) != null)
+            try
+            {
+                if (this.failure instanceof CancellationException)
+                    listener.onCancelled(this);
+                else if (this.failure != null)
+                    listener.onFailure(this, this.failure);
+                else
+                    listener.onComplete(this, this.value);
+            } catch (Exception exception)
+            {
+                exception.printStackTrace();
+            }
     }
 
-    private void invokeFailure(Throwable ex)
+    private static Throwable unwrap(Throwable throwable)
     {
-        if (this.listeners != null)
-            for (ITaskListener<V> listener : this.listeners)
-                try
-                {
-                    listener.onFailure(this, ex);
-                } catch (Exception exception)
-                {
-                    exception.printStackTrace();
-                }
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
     }
-}
\ No newline at end of file
+}
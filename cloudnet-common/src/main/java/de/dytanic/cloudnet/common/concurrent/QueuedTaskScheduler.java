@@ -0,0 +1,366 @@
+package de.dytanic.cloudnet.common.concurrent;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A task scheduler, which workers are parked on a blocking queue until a task is available, instead of polling the
+ * queue in an interval. Delayed and repeating tasks are held in a hashed wheel timer, which moves them into the work
+ * queue, when they are due.
+ * <p>
+ * Workers are created on demand up to the maximal thread size, if no worker is idle, and stop after they were idle for
+ * the thread life time
+ */
+@Getter
+public class QueuedTaskScheduler implements ITaskScheduler {
+
+    protected static final long DEFAULT_THREAD_LIFE_MILLIS = 60000;
+
+    protected static final AtomicInteger GROUP_COUNT = new AtomicInteger();
+
+    protected final BlockingQueue<IScheduledTask<?>> taskEntries = new LinkedBlockingQueue<>();
+
+    protected final Queue<IWorkableThread> workers = new ConcurrentLinkedQueue<>();
+
+    protected final ThreadGroup threadGroup = new ThreadGroup("QueuedTaskScheduler-" + GROUP_COUNT.incrementAndGet());
+
+    protected final AtomicLong threadCount = new AtomicLong();
+
+    @Getter(AccessLevel.NONE)
+    protected final AtomicInteger idleWorkers = new AtomicInteger();
+
+    @Getter(AccessLevel.NONE)
+    protected final Object workerLock = new Object();
+
+    protected final HashedWheelTimer timer = new HashedWheelTimer(this.threadGroup.getName() + "#Timer");
+
+    /**
+     * Is increased by cancelAll(), the delayed tasks of an older generation are not offered anymore, after they are due
+     */
+    @Getter(AccessLevel.NONE)
+    protected final AtomicLong generation = new AtomicLong();
+
+    @Setter
+    protected volatile int maxThreadSize;
+
+    @Setter
+    protected volatile long threadLifeMillis;
+
+    protected volatile boolean shutdown;
+
+    public QueuedTaskScheduler()
+    {
+        this(Runtime.getRuntime().availableProcessors() * 2, DEFAULT_THREAD_LIFE_MILLIS);
+    }
+
+    public QueuedTaskScheduler(int maxThreadSize)
+    {
+        this(maxThreadSize, DEFAULT_THREAD_LIFE_MILLIS);
+    }
+
+    public QueuedTaskScheduler(int maxThreadSize, long threadLifeMillis)
+    {
+        this.maxThreadSize = maxThreadSize <= 0 ? Runtime.getRuntime().availableProcessors() : maxThreadSize;
+        this.threadLifeMillis = threadLifeMillis;
+    }
+
+    @Override
+    public int getCurrentWorkerCount()
+    {
+        return this.workers.size();
+    }
+
+    @Override
+    public IWorkableThread createWorker()
+    {
+        return new Worker();
+    }
+
+    @Override
+    public IWorkableThread hasFreeWorker()
+    {
+        for (IWorkableThread workableThread : this.workers)
+            if (workableThread.isEmpty())
+                return workableThread;
+
+        return null;
+    }
+
+    @Override
+    public Collection<IWorkableThread> getWorkers()
+    {
+        return this.workers;
+    }
+
+    @Override
+    public <V> IScheduledTask<V> schedule(Callable<V> callable)
+    {
+        return schedule(callable, 0);
+    }
+
+    @Override
+    public <V> IScheduledTask<V> schedule(Callable<V> callable, long delay)
+    {
+        return schedule(callable, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public <V> IScheduledTask<V> schedule(Callable<V> callable, long delay, TimeUnit timeUnit)
+    {
+        return schedule(callable, delay, 0, timeUnit);
+    }
+
+    @Override
+    public <V> IScheduledTask<V> schedule(Callable<V> callable, long delay, long repeat)
+    {
+        return schedule(callable, delay, repeat, 1);
+    }
+
+    @Override
+    public <V> IScheduledTask<V> schedule(Callable<V> callable, long delay, long repeat, TimeUnit timeUnit)
+    {
+        return schedule(callable, delay, repeat, -1, timeUnit);
+    }
+
+    @Override
+    public <V> IScheduledTask<V> schedule(Callable<V> callable, long delay, long repeat, long repeats)
+    {
+        return schedule(callable, delay, repeat, repeats, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public <V> IScheduledTask<V> schedule(Callable<V> callable, long delay, long repeat, long repeats, TimeUnit timeUnit)
+    {
+        return offerTask(new DefaultScheduledTask<>(callable, delay, repeat, repeats, timeUnit));
+    }
+
+    @Override
+    public IScheduledTask<Void> schedule(Runnable runnable)
+    {
+        return schedule(runnable, 0);
+    }
+
+    @Override
+    public IScheduledTask<Void> schedule(Runnable runnable, long delay)
+    {
+        return schedule(runnable, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public IScheduledTask<Void> schedule(Runnable runnable, long delay, TimeUnit timeUnit)
+    {
+        return schedule(runnable, delay, 0, timeUnit);
+    }
+
+    @Override
+    public IScheduledTask<Void> schedule(Runnable runnable, long delay, long repeat)
+    {
+        return schedule(runnable, delay, repeat, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public IScheduledTask<Void> schedule(Runnable runnable, long delay, long repeat, TimeUnit timeUnit)
+    {
+        return schedule(runnable, delay, repeat, -1, timeUnit);
+    }
+
+    @Override
+    public IScheduledTask<Void> schedule(Runnable runnable, long delay, long repeat, long repeats)
+    {
+        return schedule(runnable, delay, repeat, repeats, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public IScheduledTask<Void> schedule(Runnable runnable, long delay, long repeat, long repeats, TimeUnit timeUnit)
+    {
+        return schedule(new VoidCallable(runnable), delay, repeat, repeats, timeUnit);
+    }
+
+    @Override
+    public void execute(Runnable command)
+    {
+        schedule(command);
+    }
+
+    @Override
+    public <V> IScheduledTask<V> offerTask(IScheduledTask<V> scheduledTask)
+    {
+        if (scheduledTask == null || this.shutdown) return scheduledTask;
+
+        if (scheduledTask.getDelayedTimeStamp() > System.currentTimeMillis())
+            this.offerDelayedEntry(scheduledTask);
+        else
+            this.offerEntry(scheduledTask);
+
+        return scheduledTask;
+    }
+
+    @Override
+    public void shutdown()
+    {
+        this.shutdown = true;
+        this.timer.stop();
+        this.cancelAll();
+    }
+
+    @Override
+    public ITaskScheduler cancelAll()
+    {
+        for (IWorkableThread worker : this.workers)
+            worker.interrupt();
+
+        this.generation.incrementAndGet();
+
+        this.taskEntries.clear();
+        this.workers.clear();
+        return this;
+    }
+
+    private void offerEntry(IScheduledTask<?> scheduledTask)
+    {
+        this.taskEntries.offer(scheduledTask);
+
+        //An idle worker takes the task from the queue, otherwise a new worker is required
+        if (this.idleWorkers.get() == 0)
+            synchronized (this.workerLock)
+            {
+                if (this.getCurrentWorkerCount() < this.maxThreadSize && !this.shutdown)
+                    this.createWorker();
+            }
+    }
+
+    private void offerDelayedEntry(IScheduledTask<?> scheduledTask)
+    {
+        long generation = this.generation.get();
+
+        this.timer.newTimeout(new Runnable() {
+            @Override
+            public void run()
+            {
+                if (generation == QueuedTaskScheduler.this.generation.get() && !shutdown) offerEntry(scheduledTask);
+            }
+        }, HashedWheelTimer.getRemainingDelayMillis(scheduledTask), TimeUnit.MILLISECONDS);
+    }
+
+    /*= ------------------------------------------------------------- =*/
+
+    @AllArgsConstructor
+    private final class VoidCallable implements Callable<Void> {
+
+        private final Runnable runnable;
+
+        @Override
+        public Void call() throws Exception
+        {
+            runnable.run();
+            return null;
+        }
+    }
+
+    private final class Worker extends Thread implements IWorkableThread {
+
+        protected volatile IScheduledTask<?> scheduledTask = null;
+
+        public Worker()
+        {
+            super(threadGroup, threadGroup.getName() + "#" + threadCount.incrementAndGet());
+
+            workers.add(this);
+
+            setDaemon(true);
+            start();
+        }
+
+        @Override
+        public void run()
+        {
+            while (!isInterrupted())
+            {
+                idleWorkers.incrementAndGet();
+
+                try
+                {
+                    scheduledTask = taskEntries.poll(threadLifeMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException exception)
+                {
+                    break;
+                } finally
+                {
+                    idleWorkers.decrementAndGet();
+                }
+
+                if (scheduledTask == null)
+                {
+                    //The worker is removed in the lock, so a new task can't miss it as free worker
+                    synchronized (workerLock)
+                    {
+                        if (taskEntries.isEmpty())
+                        {
+                            workers.remove(this);
+                            return;
+                        }
+                    }
+
+                    continue;
+                }
+
+                try
+                {
+                    scheduledTask.call();
+                } catch (Throwable ignored)
+                {
+                }
+
+                //The task has set the time stamp of the next execution
+                if (scheduledTask.isRepeatable()) offerTask(scheduledTask);
+
+                scheduledTask = null;
+            }
+
+            workers.remove(this);
+        }
+
+        @Override
+        public <V> IWorkableThread setTask(IScheduledTask<V> scheduledTask)
+        {
+            this.scheduledTask = scheduledTask;
+            return this;
+        }
+
+        @Override
+        public IScheduledTask<?> getTask()
+        {
+            return this.scheduledTask;
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return this.scheduledTask == null;
+        }
+
+        @Override
+        public int getTasksCount()
+        {
+            return this.scheduledTask == null ? 0 : 1;
+        }
+
+        @Override
+        public void close() throws Exception
+        {
+            this.interrupt();
+        }
+    }
+}
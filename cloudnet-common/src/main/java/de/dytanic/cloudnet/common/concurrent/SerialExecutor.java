@@ -0,0 +1,79 @@
+package de.dytanic.cloudnet.common.concurrent;
+
+import de.dytanic.cloudnet.common.Validate;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An executor, which runs its tasks one after another in the order, in that they are offered. The tasks are run on the
+ * underlying executor, but never two tasks of the same serial executor at the same time.
+ * <p>
+ * After a batch of tasks, the serial executor gives the thread back to the underlying executor and offers itself again,
+ * so that one busy serial executor can't block the other ones
+ */
+public final class SerialExecutor implements Executor {
+
+    private static final int MAX_TASKS_PER_BATCH = 64;
+
+    private final Executor executor;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Runnable batchTask = new Runnable() {
+        @Override
+        public void run()
+        {
+            runBatch();
+        }
+    };
+
+    public SerialExecutor(Executor executor)
+    {
+        Validate.checkNotNull(executor);
+
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable command)
+    {
+        Validate.checkNotNull(command);
+
+        this.tasks.add(command);
+
+        if (this.running.compareAndSet(false, true)) this.executor.execute(this.batchTask);
+    }
+
+    private void runBatch()
+    {
+        for (int i = 0; i < MAX_TASKS_PER_BATCH; i++)
+        {
+            Runnable task = this.tasks.poll();
+
+            if (task == null)
+            {
+                this.running.set(false);
+
+                //A task could be offered after the poll, but before the flag was reset
+                if (this.tasks.isEmpty() || !this.running.compareAndSet(false, true)) return;
+
+                continue;
+            }
+
+            try
+            {
+                task.run();
+            } catch (Throwable throwable)
+            {
+                throwable.printStackTrace();
+            }
+        }
+
+        this.executor.execute(this.batchTask);
+    }
+}
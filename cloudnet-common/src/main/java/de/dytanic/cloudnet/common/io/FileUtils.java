@@ -218,26 +218,7 @@ public final class FileUtils {
 
         try (ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream())
         {
-            try (ZipOutputStream zipOutputStream = new ZipOutputStream(byteBuffer, StandardCharsets.UTF_8))
-            {
-                for (Path dir : directories)
-                    if (Files.exists(dir))
-                    {
-                        if (Files.isDirectory(dir))
-                        {
-                            convert0(zipOutputStream, dir);
-                        } else
-                        {
-                            zipOutputStream.putNextEntry(new ZipEntry(dir.toFile().getName()));
-                            try (InputStream inputStream = Files.newInputStream(dir))
-                            {
-                                copy(inputStream, zipOutputStream);
-                            }
-                            zipOutputStream.closeEntry();
-                        }
-                    }
-            }
-
+            convert(byteBuffer, directories);
             return byteBuffer.toByteArray();
 
         } catch (IOException e)
@@ -248,6 +229,35 @@ public final class FileUtils {
         return emptyZipByteArray();
     }
 
+    /**
+     * Writes the directories as zip archive directly into the outputStream, without to buffer the archive.
+     * The outputStream will not closed
+     */
+    public static void convert(OutputStream outputStream, Path... directories) throws IOException
+    {
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+
+        if (directories != null)
+            for (Path dir : directories)
+                if (Files.exists(dir))
+                {
+                    if (Files.isDirectory(dir))
+                    {
+                        convert0(zipOutputStream, dir);
+                    } else
+                    {
+                        zipOutputStream.putNextEntry(new ZipEntry(dir.toFile().getName()));
+                        try (InputStream inputStream = Files.newInputStream(dir))
+                        {
+                            copy(inputStream, zipOutputStream);
+                        }
+                        zipOutputStream.closeEntry();
+                    }
+                }
+
+        zipOutputStream.finish();
+    }
+
     private static void convert0(ZipOutputStream zipOutputStream, Path directory) throws IOException
     {
         Files.walkFileTree(
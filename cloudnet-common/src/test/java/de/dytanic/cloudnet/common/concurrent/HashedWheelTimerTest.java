@@ -0,0 +1,138 @@
+package de.dytanic.cloudnet.common.concurrent;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HashedWheelTimerTest {
+
+    private static final int TIMEOUT_COUNT = 1000;
+
+    @Test
+    public void testTimeouts() throws Exception
+    {
+        HashedWheelTimer timer = new HashedWheelTimer("HashedWheelTimerTest");
+
+        //Every second timeout is cancelled, the other ones have to expire after their delay
+        CountDownLatch latch = new CountDownLatch(TIMEOUT_COUNT / 2);
+        AtomicInteger earlyTimeouts = new AtomicInteger(), cancelledTimeouts = new AtomicInteger();
+        Random random = new Random(42);
+
+        for (int i = 0; i < TIMEOUT_COUNT; i++)
+        {
+            long delay = random.nextInt(1000), deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            boolean cancel = i % 2 == 0;
+
+            HashedWheelTimer.Timeout timeout = timer.newTimeout(new Runnable() {
+                @Override
+                public void run()
+                {
+                    if (cancel) cancelledTimeouts.incrementAndGet();
+                    if (System.nanoTime() < deadline) earlyTimeouts.incrementAndGet();
+
+                    latch.countDown();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+
+            if (cancel) Assert.assertTrue(timeout.cancel());
+        }
+
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, earlyTimeouts.get());
+        Assert.assertEquals(0, cancelledTimeouts.get());
+        Assert.assertEquals(0, timer.getPendingTimeouts());
+
+        timer.stop();
+    }
+
+    @Test
+    public void testCancelledTimeoutIsReleased() throws Exception
+    {
+        HashedWheelTimer timer = new HashedWheelTimer("HashedWheelTimerTest");
+
+        //The timeout is kept like by a waiting callback, but its task mustn't be referenced anymore after the cancel
+        Object capturedObject = new Object();
+        WeakReference<Object> reference = new WeakReference<>(capturedObject);
+
+        HashedWheelTimer.Timeout timeout = newCapturingTimeout(timer, capturedObject);
+
+        capturedObject = null;
+        Assert.assertTrue(timeout.cancel());
+
+        for (int i = 0; i < 100 && reference.get() != null; i++)
+        {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        Assert.assertNull(reference.get());
+        Assert.assertTrue(timeout.isCancelled());
+
+        timer.stop();
+    }
+
+    @Test
+    public void testScheduledTask() throws Exception
+    {
+        HashedWheelTimer timer = new HashedWheelTimer("HashedWheelTimerTest");
+
+        AtomicInteger counter = new AtomicInteger();
+        IScheduledTask<Integer> task = timer.schedule(counter::incrementAndGet, 20, 5, 4, TimeUnit.MILLISECONDS);
+
+        long time = System.currentTimeMillis();
+        Assert.assertEquals(4, task.get(5, TimeUnit.SECONDS).intValue());
+        Assert.assertTrue(System.currentTimeMillis() - time >= 35);
+
+        timer.stop();
+    }
+
+    /**
+     * Measures the scheduling and the expiration of 100000 pending timeouts. It only prints the timings, so it is
+     * ignored in the normal test runs
+     */
+    @Test
+    @Ignore("Throughput benchmark, run it manually")
+    public void testThroughput() throws Exception
+    {
+        final int timeoutCount = 100000;
+
+        HashedWheelTimer timer = new HashedWheelTimer("HashedWheelTimerTest");
+
+        for (int round = 0; round < 3; round++)
+        {
+            CountDownLatch latch = new CountDownLatch(timeoutCount);
+            Random random = new Random(42);
+
+            long time = System.nanoTime();
+
+            for (int i = 0; i < timeoutCount; i++)
+                timer.newTimeout(latch::countDown, random.nextInt(1000), TimeUnit.MILLISECONDS);
+
+            long scheduleTime = System.nanoTime() - time;
+
+            latch.await(30, TimeUnit.SECONDS);
+
+            System.out.println("Scheduled " + timeoutCount + " timeouts in " + TimeUnit.NANOSECONDS.toMillis(scheduleTime) +
+                "ms, all expired after " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - time) + "ms");
+        }
+
+        timer.stop();
+    }
+
+    private static HashedWheelTimer.Timeout newCapturingTimeout(HashedWheelTimer timer, Object capturedObject)
+    {
+        return timer.newTimeout(new Runnable() {
+            @Override
+            public void run()
+            {
+                System.identityHashCode(capturedObject);
+            }
+        }, 30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,243 @@
+package de.dytanic.cloudnet.common.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class ListenableTaskTest {
+
+    private static final int PENDING_TASKS = 200;
+
+    @Test
+    public void testListener() throws Exception
+    {
+        AtomicInteger completions = new AtomicInteger();
+        ITaskListener<String> listener = new ITaskListener<String>() {
+            @Override
+            public void onComplete(ITask<String> task, String value)
+            {
+                Assert.assertTrue(task.isDone());
+                Assert.assertEquals("value", value);
+
+                completions.incrementAndGet();
+            }
+        };
+
+        ListenableTask<String> task = new ListenableTask<>(new Callable<String>() {
+            @Override
+            public String call()
+            {
+                return "value";
+            }
+        }, listener);
+
+        Assert.assertFalse(task.isDone());
+        Assert.assertEquals("value", task.call());
+        Assert.assertEquals(1, completions.get());
+
+        //A listener, which is added after the completion, is called directly and only once
+        task.addListener(listener);
+        Assert.assertEquals(2, completions.get());
+
+        Assert.assertFalse(task.complete("other"));
+        Assert.assertEquals("value", task.get());
+        Assert.assertEquals(2, completions.get());
+    }
+
+    @Test
+    public void testFailure() throws Exception
+    {
+        Throwable[] failure = new Throwable[1];
+
+        ListenableTask<String> task = new ListenableTask<>();
+        task.addListener(new ITaskListener<String>() {
+            @Override
+            public void onFailure(ITask<String> task, Throwable th)
+            {
+                failure[0] = th;
+            }
+        });
+
+        Assert.assertTrue(task.fail(new IllegalStateException()));
+        Assert.assertTrue(failure[0] instanceof IllegalStateException);
+
+        try
+        {
+            task.get(1, TimeUnit.SECONDS);
+            Assert.fail("The task should complete exceptionally");
+        } catch (ExecutionException exception)
+        {
+            Assert.assertTrue(exception.getCause() instanceof IllegalStateException);
+        }
+
+        try
+        {
+            new ListenableTask<String>().get(10, TimeUnit.MILLISECONDS);
+            Assert.fail("A pending task should time out");
+        } catch (TimeoutException ignored)
+        {
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception
+    {
+        ListenableTask<String> task = new ListenableTask<>();
+        AtomicInteger cancelledListeners = new AtomicInteger();
+
+        task.addListener(new ITaskListener<String>() {
+            @Override
+            public void onCancelled(ITask<String> task)
+            {
+                cancelledListeners.incrementAndGet();
+            }
+        });
+
+        Assert.assertTrue(task.cancel(false));
+        Assert.assertFalse(task.cancel(true));
+        Assert.assertFalse(task.complete("value"));
+
+        Assert.assertTrue(task.isDone());
+        Assert.assertTrue(task.isCancelled());
+        Assert.assertEquals(1, cancelledListeners.get());
+
+        //A waiting thread is released by the cancellation
+        try
+        {
+            task.get();
+            Assert.fail("The task should be cancelled");
+        } catch (CancellationException ignored)
+        {
+        }
+
+        //A completed task can't be cancelled anymore
+        ListenableTask<String> completedTask = ListenableTask.completedTask("value");
+
+        Assert.assertFalse(completedTask.cancel(true));
+        Assert.assertFalse(completedTask.isCancelled());
+        Assert.assertEquals("value", completedTask.get());
+    }
+
+    @Test
+    public void testComposition() throws Exception
+    {
+        ListenableTask<Integer> task = new ListenableTask<>();
+        ListenableTask<String> nextTask = new ListenableTask<>();
+
+        ITask<String> composedTask = task
+            .thenApply(new Function<Integer, Integer>() {
+                @Override
+                public Integer apply(Integer value)
+                {
+                    return value * 2;
+                }
+            })
+            .thenCompose(new Function<Integer, ITask<String>>() {
+                @Override
+                public ITask<String> apply(Integer value)
+                {
+                    return nextTask.thenApply(new Function<String, String>() {
+                        @Override
+                        public String apply(String prefix)
+                        {
+                            return prefix + value;
+                        }
+                    });
+                }
+            });
+
+        task.complete(21);
+        Assert.assertFalse(composedTask.isDone());
+
+        nextTask.complete("result-");
+        Assert.assertEquals("result-42", composedTask.get(1, TimeUnit.SECONDS));
+
+        ITask<Integer> recoveredTask = ListenableTask.<Integer>failedTask(new IllegalArgumentException())
+            .thenApply(new Function<Integer, Integer>() {
+                @Override
+                public Integer apply(Integer value)
+                {
+                    return value + 1;
+                }
+            })
+            .exceptionally(new Function<Throwable, Integer>() {
+                @Override
+                public Integer apply(Throwable throwable)
+                {
+                    return throwable instanceof IllegalArgumentException ? -1 : 0;
+                }
+            });
+
+        Assert.assertEquals(-1, recoveredTask.get(1, TimeUnit.SECONDS).intValue());
+    }
+
+    @Test
+    public void testAsyncComposition() throws Exception
+    {
+        ListenableTask<Integer> task = new ListenableTask<>();
+        Thread completingThread = Thread.currentThread();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        ITask<Boolean> mappedTask = task.thenApplyAsync(new Function<Integer, Boolean>() {
+            @Override
+            public Boolean apply(Integer value)
+            {
+                return Thread.currentThread() != completingThread;
+            }
+        }, executor);
+
+        task.complete(1);
+
+        //The function is invoked by the executor and not by the thread, which completes the task
+        Assert.assertTrue(mappedTask.get(1, TimeUnit.SECONDS));
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testPendingTasksWithoutThreads() throws Exception
+    {
+        List<ListenableTask<Integer>> tasks = new ArrayList<>();
+        AtomicInteger sum = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(PENDING_TASKS);
+        int threads = Thread.activeCount();
+
+        for (int i = 0; i < PENDING_TASKS; i++)
+        {
+            ListenableTask<Integer> task = new ListenableTask<>();
+            tasks.add(task);
+
+            task.thenApply(new Function<Integer, Integer>() {
+                @Override
+                public Integer apply(Integer value)
+                {
+                    sum.addAndGet(value);
+                    latch.countDown();
+                    return value;
+                }
+            });
+        }
+
+        //The pending tasks occupy no thread, they are completed by one other thread
+        Assert.assertTrue(Thread.activeCount() <= threads);
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run()
+            {
+                for (int i = 0; i < tasks.size(); i++)
+                    tasks.get(i).complete(i);
+            }
+        });
+        thread.start();
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(PENDING_TASKS * (PENDING_TASKS - 1) / 2, sum.get());
+    }
+}
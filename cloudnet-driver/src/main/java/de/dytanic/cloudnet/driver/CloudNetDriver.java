@@ -1,7 +1,6 @@
 package de.dytanic.cloudnet.driver;
 
 import de.dytanic.cloudnet.common.Validate;
-import de.dytanic.cloudnet.common.Value;
 import de.dytanic.cloudnet.common.collection.Pair;
 import de.dytanic.cloudnet.common.concurrent.*;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
@@ -18,6 +17,8 @@ import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNode;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot;
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.def.internal.InternalSyncPacketChannel;
+import de.dytanic.cloudnet.driver.network.rpc.RPCClient;
+import de.dytanic.cloudnet.driver.network.rpc.RPCServiceRegistry;
 import de.dytanic.cloudnet.driver.permission.IPermissionGroup;
 import de.dytanic.cloudnet.driver.permission.IPermissionUser;
 import de.dytanic.cloudnet.driver.service.*;
@@ -30,12 +31,12 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Getter
 @RequiredArgsConstructor
-public abstract class CloudNetDriver {
+public abstract class CloudNetDriver implements ICloudServiceInfoProvider {
 
     @Getter
     @Setter(AccessLevel.PROTECTED)
@@ -47,7 +48,11 @@ public abstract class CloudNetDriver {
 
     protected final IModuleProvider moduleProvider = new DefaultModuleProvider();
 
-    protected final ITaskScheduler taskScheduler = new DefaultTaskScheduler();
+    protected final ITaskScheduler taskScheduler = new QueuedTaskScheduler();
+
+    protected final RPCServiceRegistry rpcServiceRegistry = new RPCServiceRegistry();
+
+    protected final RPCClient rpcClient = new RPCClient(this.taskScheduler);
 
     protected DriverEnvironment driverEnvironment = DriverEnvironment.EMBEDDED;
 
@@ -360,6 +365,17 @@ public abstract class CloudNetDriver {
 
     public abstract ITask<Collection<IPermissionGroup>> getGroupsAsync();
 
+    /**
+     * Creates a new batch for the queries of the services, tasks and groups. The queries of a batch are executed
+     * together, on a wrapper in one network round-trip
+     *
+     * @return the new batch, which executes the queries with the asynchronous methods of this driver
+     */
+    public CloudServiceQueryBatch batch()
+    {
+        return new CloudServiceQueryBatch(this, null);
+    }
+
     /*= ------------------------------------------------------------------------------------------------ =*/
 
     public <R> ITask<R> sendCallablePacket(INetworkChannel networkChannel, String channel, String id, JsonDocument data, Function<JsonDocument, R> function)
@@ -391,45 +407,22 @@ public abstract class CloudNetDriver {
 
     public <R> ITask<R> sendCallablePacket(INetworkChannel networkChannel, String channel, JsonDocument header, byte[] body, Function<Pair<JsonDocument, byte[]>, R> function)
     {
-        return sendCallablePacket0(networkChannel, channel, header, body, function);
+        return sendCallablePacket0(networkChannel, channel, header, body, function, InternalSyncPacketChannel.DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
     }
 
-    private <R> ITask<R> sendCallablePacket0(INetworkChannel networkChannel, String channel, JsonDocument header, byte[] body, Function<Pair<JsonDocument, byte[]>, R> function)
+    public <R> ITask<R> sendCallablePacket(INetworkChannel networkChannel, String channel, JsonDocument header, byte[] body, Function<Pair<JsonDocument, byte[]>, R> function,
+                                           long timeout, TimeUnit timeUnit)
     {
-        header.append(PacketConstants.SYNC_PACKET_CHANNEL_PROPERTY, channel);
-
-        Value<R> value = new Value<>();
-
-        ITask<R> listenableTask = new ListenableTask<>(new Callable<R>() {
-            @Override
-            public R call() throws Exception
-            {
-                return value.getValue();
-            }
-        });
-
-        InternalSyncPacketChannel.sendCallablePacket(networkChannel, header, body, new ITaskListener<Pair<JsonDocument, byte[]>>() {
-
-            @Override
-            public void onComplete(ITask<Pair<JsonDocument, byte[]>> task, Pair<JsonDocument, byte[]> result)
-            {
-                value.setValue(function.apply(result));
-                try
-                {
-                    listenableTask.call();
-                } catch (Exception e)
-                {
-                    e.printStackTrace();
-                }
-            }
+        return sendCallablePacket0(networkChannel, channel, header, body, function, timeout, timeUnit);
+    }
 
-            @Override
-            public void onFailure(ITask<Pair<JsonDocument, byte[]>> task, Throwable th)
-            {
-                th.printStackTrace();
-            }
-        });
+    private <R> ITask<R> sendCallablePacket0(INetworkChannel networkChannel, String channel, JsonDocument header, byte[] body, Function<Pair<JsonDocument, byte[]>, R> function,
+                                             long timeout, TimeUnit timeUnit)
+    {
+        header.append(PacketConstants.SYNC_PACKET_CHANNEL_PROPERTY, channel);
 
-        return listenableTask;
+        //The response is deserialized by the callback executor, so a large response doesn't stall the network thread
+        return InternalSyncPacketChannel.sendCallablePacket(networkChannel, header, body, null, timeout, timeUnit)
+            .thenApplyAsync(function, InternalSyncPacketChannel.getCallbackExecutor());
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,69 @@
 package de.dytanic.cloudnet.driver.event;
 
+import de.dytanic.cloudnet.common.LatencyHistogram;
 import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
+import de.dytanic.cloudnet.common.concurrent.SerialExecutor;
+import de.dytanic.cloudnet.driver.CloudNetDriver;
+import lombok.Getter;
 
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 public final class DefaultEventManager implements IEventManager {
 
-    //Map<Channel, Listeners>
-    private final Map<String, List<IRegisteredEventListener>> registeredListeners = new HashMap<>();
+    private static final int ASYNC_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    private static final int ASYNC_QUEUE_CAPACITY = 1024;
+
+    private static final long SLOW_LISTENER_LOG_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * The current immutable state of the registered listeners. The registrations replace it with compareAndSet in a
+     * loop, so no registration is lost and a call of an event only reads it once
+     */
+    private final AtomicReference<EventListenerSnapshot> snapshot = new AtomicReference<>(EventListenerSnapshot.EMPTY);
+
+    private final Executor asyncExecutor;
+
+    //Calls the synchronous listeners of the events of callEventAsync in the order of the calls
+    private final SerialExecutor asyncCallExecutor;
+
+    //Every listener instance gets its own serial executor for its async methods, so they handle the events one after
+    //another in the order of the calls
+    private final Map<Object, SerialExecutor> listenerExecutors = Maps.newConcurrentHashMap();
+
+    /**
+     * If enabled, the execution time of every listener call is recorded in the latency histogram of the listener and
+     * listeners, which are slower than the threshold, are logged. Enabled by default, it can be disabled with the system
+     * property "cloudnet.events.instrumentation=false"
+     */
+    @Getter
+    private volatile boolean instrumentation = Boolean.parseBoolean(System.getProperty("cloudnet.events.instrumentation", "true"));
+
+    private volatile long slowListenerThreshold = TimeUnit.MILLISECONDS.toNanos(Long.getLong("cloudnet.events.slowListenerThreshold", 50L));
+
+    //The times of the last slow listener messages, so a listener, which is always slow, doesn't flood the log
+    private final Map<IRegisteredEventListener, Long> slowListenerLogTimes = Maps.newConcurrentHashMap();
+
+    public DefaultEventManager()
+    {
+        this(createAsyncExecutor());
+    }
+
+    public DefaultEventManager(Executor asyncExecutor)
+    {
+        Validate.checkNotNull(asyncExecutor);
+
+        this.asyncExecutor = asyncExecutor;
+        this.asyncCallExecutor = new SerialExecutor(asyncExecutor);
+    }
 
     @Override
     public IEventManager registerListener(Object listener)
@@ -25,11 +79,13 @@ public final class DefaultEventManager implements IEventManager {
     {
         Validate.checkNotNull(listener);
 
-        for (Map.Entry<String, List<IRegisteredEventListener>> listeners : this.registeredListeners.entrySet())
-            for (IRegisteredEventListener registeredEventListener : listeners.getValue())
-                if (registeredEventListener.getInstance().equals(listener))
-                    listeners.getValue().remove(registeredEventListener);
-
+        this.removeListeners(new Predicate<IRegisteredEventListener>() {
+            @Override
+            public boolean test(IRegisteredEventListener registeredEventListener)
+            {
+                return registeredEventListener.getInstance().equals(listener);
+            }
+        });
         return this;
     }
 
@@ -38,11 +94,13 @@ public final class DefaultEventManager implements IEventManager {
     {
         Validate.checkNotNull(listener);
 
-        for (Map.Entry<String, List<IRegisteredEventListener>> listeners : this.registeredListeners.entrySet())
-            for (IRegisteredEventListener registeredEventListener : listeners.getValue())
-                if (registeredEventListener.getInstance().getClass().equals(listener))
-                    listeners.getValue().remove(registeredEventListener);
-
+        this.removeListeners(new Predicate<IRegisteredEventListener>() {
+            @Override
+            public boolean test(IRegisteredEventListener registeredEventListener)
+            {
+                return registeredEventListener.getInstance().getClass().equals(listener);
+            }
+        });
         return this;
     }
 
@@ -51,11 +109,13 @@ public final class DefaultEventManager implements IEventManager {
     {
         Validate.checkNotNull(classLoader);
 
-        for (Map.Entry<String, List<IRegisteredEventListener>> listeners : this.registeredListeners.entrySet())
-            for (IRegisteredEventListener registeredEventListener : listeners.getValue())
-                if (registeredEventListener.getInstance().getClass().getClassLoader().equals(classLoader))
-                    listeners.getValue().remove(registeredEventListener);
-
+        this.removeListeners(new Predicate<IRegisteredEventListener>() {
+            @Override
+            public boolean test(IRegisteredEventListener registeredEventListener)
+            {
+                return classLoader.equals(registeredEventListener.getInstance().getClass().getClassLoader());
+            }
+        });
         return this;
     }
 
@@ -84,7 +144,10 @@ public final class DefaultEventManager implements IEventManager {
     @Override
     public IEventManager unregisterAll()
     {
-        this.registeredListeners.clear();
+        this.snapshot.set(EventListenerSnapshot.EMPTY);
+        this.listenerExecutors.clear();
+        this.slowListenerLogTimes.clear();
+
         return this;
     }
 
@@ -94,36 +157,215 @@ public final class DefaultEventManager implements IEventManager {
         if (channel == null) channel = "*";
         Validate.checkNotNull(event);
 
-        fireEvent(channel, event);
+        fireEvent(channel, event, null);
         return event;
     }
 
+    @Override
+    public <T extends Event> ITask<T> callEventAsync(String channel, T event)
+    {
+        String eventChannel = channel == null ? "*" : channel;
+        Validate.checkNotNull(event);
+
+        ListenableTask<T> task = new ListenableTask<>();
+
+        this.asyncCallExecutor.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    fireEvent(eventChannel, event, task);
+                } catch (Throwable throwable)
+                {
+                    task.fail(throwable);
+                }
+            }
+        });
+
+        return task;
+    }
+
+    @Override
+    public Collection<IRegisteredEventListener> getRegisteredListeners()
+    {
+        return Collections.unmodifiableList(Arrays.asList(this.snapshot.get().getAllListeners()));
+    }
+
+    public void setInstrumentation(boolean instrumentation)
+    {
+        this.instrumentation = instrumentation;
+    }
+
+    public long getSlowListenerThreshold(TimeUnit timeUnit)
+    {
+        Validate.checkNotNull(timeUnit);
+
+        return timeUnit.convert(this.slowListenerThreshold, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets the execution time, from which on a listener call is logged as slow. A threshold of 0 or less disables the log
+     */
+    public void setSlowListenerThreshold(long threshold, TimeUnit timeUnit)
+    {
+        Validate.checkNotNull(timeUnit);
+
+        this.slowListenerThreshold = timeUnit.toNanos(threshold);
+    }
+
+    /**
+     * Resets the recorded execution times of all registered listeners
+     */
+    public void resetStatistics()
+    {
+        for (IRegisteredEventListener listener : this.snapshot.get().getAllListeners())
+            if (listener.getLatencyHistogram() != null)
+                listener.getLatencyHistogram().reset();
+    }
+
     /*= ----------------------------------------------------------------- =*/
 
-    private void fireEvent(String channel, Event event)
+    /**
+     * Calls the synchronous listeners on the current thread and offers the event to the async listeners afterwards, so
+     * they see the event after all changes of the synchronous listeners. The task is completed, after all listeners
+     * handled the event
+     */
+    private <T extends Event> void fireEvent(String channel, T event, ListenableTask<T> task)
     {
-        if (channel.equals("*"))
+        IRegisteredEventListener[] listeners = this.snapshot.get().getListeners(channel, event.getClass());
+        int asyncListeners = 0;
+
+        for (IRegisteredEventListener listener : listeners)
+            if (listener.isAsync())
+                asyncListeners++;
+            else
+                this.fireListener(listener, event);
+
+        if (asyncListeners == 0)
         {
-            List<IRegisteredEventListener> listeners = new ArrayList<>();
+            if (task != null) task.complete(event);
+            return;
+        }
+
+        AtomicInteger pendingListeners = new AtomicInteger(asyncListeners);
+
+        for (IRegisteredEventListener listener : listeners)
+            if (listener.isAsync())
+                this.getListenerExecutor(listener).execute(new AsyncListenerCall<>(listener, event, task, pendingListeners));
+    }
+
+    private void fireListener(IRegisteredEventListener listener, Event event)
+    {
+        if (!this.instrumentation)
+        {
+            listener.fireEvent(event);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+
+        try
+        {
+            listener.fireEvent(event);
+        } finally
+        {
+            this.recordExecutionTime(listener, event, System.nanoTime() - startTime);
+        }
+    }
+
+    private void recordExecutionTime(IRegisteredEventListener listener, Event event, long executionTime)
+    {
+        LatencyHistogram latencyHistogram = listener.getLatencyHistogram();
+        if (latencyHistogram != null) latencyHistogram.recordNanos(executionTime);
+
+        long slowListenerThreshold = this.slowListenerThreshold;
+        if (slowListenerThreshold <= 0 || executionTime < slowListenerThreshold) return;
+
+        long time = System.nanoTime();
+        Long lastLogTime = this.slowListenerLogTimes.get(listener);
+
+        if (lastLogTime != null && time - lastLogTime < SLOW_LISTENER_LOG_INTERVAL) return;
+        this.slowListenerLogTimes.put(listener, time);
+
+        if (CloudNetDriver.getInstance() != null && CloudNetDriver.getInstance().getLogger() != null)
+            CloudNetDriver.getInstance().getLogger().warning(
+                "The event listener " + listener.getInstance().getClass().getName() + "#" + listener.getHandlerMethod().getName() +
+                    " needed " + TimeUnit.NANOSECONDS.toMillis(executionTime) + "ms for the event " + event.getClass().getName() +
+                    (latencyHistogram != null ? " (" + latencyHistogram + ")" : "")
+            );
+    }
+
+    private SerialExecutor getListenerExecutor(IRegisteredEventListener listener)
+    {
+        SerialExecutor executor = this.listenerExecutors.get(listener.getInstance());
 
-            for (List<IRegisteredEventListener> entry : this.registeredListeners.values())
-                listeners.addAll(entry);
+        if (executor == null)
+        {
+            executor = new SerialExecutor(this.asyncExecutor);
 
-            fireEvent0(listeners, event);
+            SerialExecutor previous = this.listenerExecutors.putIfAbsent(listener.getInstance(), executor);
+            if (previous != null) executor = previous;
+        }
 
-        } else if (this.registeredListeners.containsKey(channel))
-            fireEvent0(this.registeredListeners.get(channel), event);
+        return executor;
     }
 
-    private void fireEvent0(List<IRegisteredEventListener> listeners, Event event)
+    private void removeListeners(Predicate<IRegisteredEventListener> predicate)
     {
-        Collections.sort(listeners);
+        EventListenerSnapshot snapshot, newSnapshot;
+
+        do
+        {
+            snapshot = this.snapshot.get();
+            newSnapshot = snapshot.remove(predicate);
+
+            if (newSnapshot == snapshot) return;
+        } while (!this.snapshot.compareAndSet(snapshot, newSnapshot));
 
-        for (IRegisteredEventListener listener : listeners) listener.fireEvent(event);
+        for (IRegisteredEventListener listener : snapshot.getAllListeners())
+            if (predicate.test(listener))
+            {
+                this.listenerExecutors.remove(listener.getInstance());
+                this.slowListenerLogTimes.remove(listener);
+            }
+    }
+
+    /**
+     * A thread pool with a limited count of threads and a bounded queue. If the queue is full, the calling thread runs
+     * the listeners itself, so a flood of events slows down the caller instead of filling the memory
+     */
+    private static Executor createAsyncExecutor()
+    {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            ASYNC_THREADS,
+            ASYNC_THREADS,
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(ASYNC_QUEUE_CAPACITY),
+            new ThreadFactory() {
+
+                private final AtomicInteger threadId = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable)
+                {
+                    Thread thread = new Thread(runnable, "EventManager-Async-" + this.threadId.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     private void registerListener0(Object listener)
     {
+        List<IRegisteredEventListener> registeredEventListeners = new ArrayList<>();
+
         for (Method method : listener.getClass().getDeclaredMethods())
             if (
                 method.getParameterCount() == 1 &&
@@ -132,18 +374,58 @@ public final class DefaultEventManager implements IEventManager {
             {
                 EventListener eventListener = method.getAnnotation(EventListener.class);
 
-                IRegisteredEventListener registeredEventListener = new DefaultRegisteredEventListener(
+                registeredEventListeners.add(new DefaultRegisteredEventListener(
                     eventListener,
                     eventListener.priority(),
                     listener,
                     method,
                     (Class<? extends Event>) method.getParameters()[0].getType()
-                );
+                ));
+            }
+
+        if (registeredEventListeners.isEmpty()) return;
 
-                if (!this.registeredListeners.containsKey(eventListener.channel()))
-                    this.registeredListeners.put(eventListener.channel(), new CopyOnWriteArrayList<>());
+        //The listeners are created only once, a retry after a concurrent change only copies the arrays
+        EventListenerSnapshot snapshot;
 
-                this.registeredListeners.get(eventListener.channel()).add(registeredEventListener);
+        do
+        {
+            snapshot = this.snapshot.get();
+        } while (!this.snapshot.compareAndSet(snapshot, snapshot.add(registeredEventListeners)));
+    }
+
+    private final class AsyncListenerCall<T extends Event> implements Runnable {
+
+        private final IRegisteredEventListener listener;
+
+        private final T event;
+
+        private final ListenableTask<T> task;
+
+        private final AtomicInteger pendingListeners;
+
+        private AsyncListenerCall(IRegisteredEventListener listener, T event, ListenableTask<T> task, AtomicInteger pendingListeners)
+        {
+            this.listener = listener;
+            this.event = event;
+            this.task = task;
+            this.pendingListeners = pendingListeners;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                fireListener(this.listener, this.event);
+            } catch (Throwable throwable)
+            {
+                //Without a task nobody waits for the result, so the exception is reported here
+                if (this.task == null || !this.task.fail(throwable)) throwable.printStackTrace();
+            } finally
+            {
+                if (this.pendingListeners.decrementAndGet() == 0 && this.task != null) this.task.complete(this.event);
             }
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,21 @@
 package de.dytanic.cloudnet.driver.event;
 
-import lombok.AllArgsConstructor;
+import de.dytanic.cloudnet.common.LatencyHistogram;
+import de.dytanic.cloudnet.common.Validate;
+import lombok.AccessLevel;
 import lombok.Getter;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 @Getter
-@AllArgsConstructor
 public class DefaultRegisteredEventListener implements IRegisteredEventListener {
 
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Event.class);
+
     protected EventListener eventListener;
 
     protected EventPriority priority;
@@ -19,4 +26,61 @@ public class DefaultRegisteredEventListener implements IRegisteredEventListener
 
     protected Class<? extends Event> eventClass;
 
-}
\ No newline at end of file
+    protected final boolean async;
+
+    /**
+     * The handler method, which is bound to the instance and adapted to the type (Event)void, so it's invoked with
+     * invokeExact without the reflection checks of Method.invoke
+     */
+    @Getter(AccessLevel.NONE)
+    private final MethodHandle invoker;
+
+    //The execution times of the listener, recorded by the event manager, if the instrumentation is enabled
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+    public DefaultRegisteredEventListener(EventListener eventListener, EventPriority priority, Object instance, Method handlerMethod, Class<? extends Event> eventClass)
+    {
+        this.eventListener = eventListener;
+        this.priority = priority;
+        this.instance = instance;
+        this.handlerMethod = handlerMethod;
+        this.eventClass = eventClass;
+        this.async = eventListener != null && eventListener.async();
+
+        this.invoker = createInvoker(instance, handlerMethod);
+    }
+
+    @Override
+    public <T extends Event> T fireEvent(T event)
+    {
+        Validate.checkNotNull(event);
+
+        if (this.eventClass.isInstance(event))
+            try
+            {
+                this.invoker.invokeExact((Event) event);
+            } catch (Throwable throwable)
+            {
+                throw new EventListenerException("An error on offerTask method " + this.handlerMethod.getName() + " in class " + this.instance.getClass(), throwable);
+            }
+
+        return event;
+    }
+
+    private static MethodHandle createInvoker(Object instance, Method handlerMethod)
+    {
+        handlerMethod.setAccessible(true);
+
+        try
+        {
+            MethodHandle methodHandle = MethodHandles.lookup().unreflect(handlerMethod);
+
+            if (!Modifier.isStatic(handlerMethod.getModifiers())) methodHandle = methodHandle.bindTo(instance);
+
+            return methodHandle.asType(INVOKER_TYPE);
+        } catch (IllegalAccessException exception)
+        {
+            throw new EventListenerException("Cannot access the method " + handlerMethod.getName() + " in class " + instance.getClass(), exception);
+        }
+    }
+}
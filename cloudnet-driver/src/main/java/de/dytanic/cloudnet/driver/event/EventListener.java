@@ -13,4 +13,11 @@ public @interface EventListener {
 
     EventPriority priority() default EventPriority.NORMAL;
 
+    /**
+     * If true, the listener is not called on the thread, which calls the event, but on the async executor of the event
+     * manager, after all synchronous listeners are called. The async methods of one listener object handle the events
+     * one after another in the order of the calls, but they can't cancel or change the event for the other listeners
+     */
+    boolean async() default false;
+
 }
\ No newline at end of file
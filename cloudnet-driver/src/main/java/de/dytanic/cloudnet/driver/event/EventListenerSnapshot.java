@@ -0,0 +1,160 @@
+package de.dytanic.cloudnet.driver.event;
+
+import de.dytanic.cloudnet.common.collection.Maps;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * An immutable state of the registered listeners of the DefaultEventManager. A registration or unregistration creates a
+ * new snapshot, which replaces the old one atomically, so the events are called without a lock and without a copy of
+ * the listeners, while other threads change the registrations
+ */
+final class EventListenerSnapshot {
+
+    static final IRegisteredEventListener[] EMPTY_LISTENERS = new IRegisteredEventListener[0];
+
+    static final EventListenerSnapshot EMPTY = new EventListenerSnapshot(Collections.emptyMap(), EMPTY_LISTENERS);
+
+    //Map<Channel, Listeners>, the arrays are sorted by the priority and the order of the registration
+    private final Map<String, IRegisteredEventListener[]> channelListeners;
+
+    //The listeners of all channels, sorted by the priority and the order of the registration
+    private final IRegisteredEventListener[] allListeners;
+
+    /**
+     * Map<Channel, Map<EventClass, Listeners>>. The listeners, which handle an event class or one of its super classes
+     * on a channel. The arrays are created on the first call of an event class and only from this snapshot, so the
+     * cache can't contain listeners of an other snapshot
+     */
+    private final Map<String, Map<Class<?>, IRegisteredEventListener[]>> dispatchCache = Maps.newConcurrentHashMap();
+
+    private EventListenerSnapshot(Map<String, IRegisteredEventListener[]> channelListeners, IRegisteredEventListener[] allListeners)
+    {
+        this.channelListeners = channelListeners;
+        this.allListeners = allListeners;
+    }
+
+    /**
+     * Returns a new snapshot with the listeners added behind all listeners with the same or a higher priority
+     */
+    EventListenerSnapshot add(Collection<IRegisteredEventListener> listeners)
+    {
+        Map<String, IRegisteredEventListener[]> channelListeners = new HashMap<>(this.channelListeners);
+        IRegisteredEventListener[] allListeners = this.allListeners;
+
+        for (IRegisteredEventListener listener : listeners)
+        {
+            String channel = getChannel(listener);
+
+            channelListeners.put(channel, addSorted(channelListeners.getOrDefault(channel, EMPTY_LISTENERS), listener));
+            allListeners = addSorted(allListeners, listener);
+        }
+
+        return new EventListenerSnapshot(channelListeners, allListeners);
+    }
+
+    /**
+     * Returns a new snapshot without the listeners, which match the predicate, or this snapshot, if no listener matches
+     */
+    EventListenerSnapshot remove(Predicate<IRegisteredEventListener> predicate)
+    {
+        IRegisteredEventListener[] allListeners = filter(this.allListeners, predicate);
+
+        if (allListeners.length == this.allListeners.length) return this;
+
+        Map<String, IRegisteredEventListener[]> channelListeners = new HashMap<>();
+
+        for (Map.Entry<String, IRegisteredEventListener[]> entry : this.channelListeners.entrySet())
+        {
+            IRegisteredEventListener[] listeners = filter(entry.getValue(), predicate);
+
+            if (listeners.length > 0) channelListeners.put(entry.getKey(), listeners);
+        }
+
+        return new EventListenerSnapshot(channelListeners, allListeners);
+    }
+
+    IRegisteredEventListener[] getAllListeners()
+    {
+        return this.allListeners;
+    }
+
+    IRegisteredEventListener[] getListeners(String channel, Class<?> eventClass)
+    {
+        Map<Class<?>, IRegisteredEventListener[]> channelListeners = this.dispatchCache.get(channel);
+
+        if (channelListeners == null)
+        {
+            channelListeners = Maps.newConcurrentHashMap();
+
+            Map<Class<?>, IRegisteredEventListener[]> previous = this.dispatchCache.putIfAbsent(channel, channelListeners);
+            if (previous != null) channelListeners = previous;
+        }
+
+        IRegisteredEventListener[] listeners = channelListeners.get(eventClass);
+
+        if (listeners == null)
+        {
+            listeners = this.collectListeners(channel, eventClass);
+            channelListeners.put(eventClass, listeners);
+        }
+
+        return listeners;
+    }
+
+    private IRegisteredEventListener[] collectListeners(String channel, Class<?> eventClass)
+    {
+        //The channel "*" calls the listeners of all channels
+        IRegisteredEventListener[] listeners = channel.equals("*") ? this.allListeners : this.channelListeners.get(channel);
+
+        if (listeners == null) return EMPTY_LISTENERS;
+
+        return filter(listeners, new Predicate<IRegisteredEventListener>() {
+            @Override
+            public boolean test(IRegisteredEventListener listener)
+            {
+                return !listener.getEventClass().isAssignableFrom(eventClass);
+            }
+        });
+    }
+
+    private static String getChannel(IRegisteredEventListener listener)
+    {
+        return listener.getEventListener() != null ? listener.getEventListener().channel() : "*";
+    }
+
+    /**
+     * Returns a copy of the sorted array with the listener behind all listeners with the same or a higher priority
+     */
+    private static IRegisteredEventListener[] addSorted(IRegisteredEventListener[] listeners, IRegisteredEventListener listener)
+    {
+        int index = listeners.length;
+
+        while (index > 0 && listeners[index - 1].compareTo(listener) > 0) index--;
+
+        IRegisteredEventListener[] result = new IRegisteredEventListener[listeners.length + 1];
+
+        System.arraycopy(listeners, 0, result, 0, index);
+        result[index] = listener;
+        System.arraycopy(listeners, index, result, index + 1, listeners.length - index);
+
+        return result;
+    }
+
+    /**
+     * Returns the listeners, which don't match the predicate, in the same order
+     */
+    private static IRegisteredEventListener[] filter(IRegisteredEventListener[] listeners, Predicate<IRegisteredEventListener> removePredicate)
+    {
+        List<IRegisteredEventListener> result = new ArrayList<>(listeners.length);
+
+        for (IRegisteredEventListener listener : listeners)
+            if (!removePredicate.test(listener))
+                result.add(listener);
+
+        if (result.size() == listeners.length) return listeners;
+
+        return result.isEmpty() ? EMPTY_LISTENERS : result.toArray(EMPTY_LISTENERS);
+    }
+}
@@ -1,6 +1,9 @@
 package de.dytanic.cloudnet.driver.event;
 
 import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+
+import java.util.Collection;
 
 public interface IEventManager {
 
@@ -20,6 +23,18 @@ public interface IEventManager {
 
     <T extends Event> T callEvent(String channel, T event);
 
+    /**
+     * Calls the event on the async executor of the event manager instead of the calling thread. The synchronous
+     * listeners are called in the order of the calls of this method, the returned task is completed with the event,
+     * after all listeners, the async listeners included, handled it
+     */
+    <T extends Event> ITask<T> callEventAsync(String channel, T event);
+
+    /**
+     * Returns all registered listeners of all channels, sorted by their priority
+     */
+    Collection<IRegisteredEventListener> getRegisteredListeners();
+
     /*= ---------------------------------------------------------- =*/
 
     default <T extends Event> T callEvent(T event)
@@ -27,6 +42,11 @@ public interface IEventManager {
         return this.callEvent("*", event);
     }
 
+    default <T extends Event> ITask<T> callEventAsync(T event)
+    {
+        return this.callEventAsync("*", event);
+    }
+
     default IEventManager registerListeners(Object... listeners)
     {
         Validate.checkNotNull(listeners);
@@ -1,5 +1,6 @@
 package de.dytanic.cloudnet.driver.event;
 
+import de.dytanic.cloudnet.common.LatencyHistogram;
 import de.dytanic.cloudnet.common.Validate;
 
 import java.lang.reflect.Method;
@@ -16,6 +17,44 @@ public interface IRegisteredEventListener extends Comparable<IRegisteredEventLis
 
     Class<? extends Event> getEventClass();
 
+    default boolean isAsync()
+    {
+        return this.getEventListener() != null && this.getEventListener().async();
+    }
+
+    /**
+     * Returns the histogram, in that the event manager records the execution times of the listener, or null, if the
+     * implementation doesn't provide one
+     */
+    default LatencyHistogram getLatencyHistogram()
+    {
+        return null;
+    }
+
+    /**
+     * Returns how often the listener handled an event, or -1, if the execution times aren't recorded
+     */
+    default long getInvocationCount()
+    {
+        return this.getLatencyHistogram() == null ? -1 : this.getLatencyHistogram().getCount();
+    }
+
+    /**
+     * Returns the summed up execution time of the listener in nanoseconds, or -1, if the execution times aren't recorded
+     */
+    default long getTotalExecutionTime()
+    {
+        return this.getLatencyHistogram() == null ? -1 : this.getLatencyHistogram().getTotalNanos();
+    }
+
+    /**
+     * Returns the longest execution time of the listener in nanoseconds, or -1, if the execution times aren't recorded
+     */
+    default long getMaxExecutionTime()
+    {
+        return this.getLatencyHistogram() == null ? -1 : this.getLatencyHistogram().getMaxNanos();
+    }
+
     default <T extends Event> T fireEvent(T event)
     {
         Validate.checkNotNull(event);
@@ -1,5 +1,8 @@
 package de.dytanic.cloudnet.driver.network;
 
+import de.dytanic.cloudnet.driver.network.protocol.IPacketHeaderCodec;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionStatistics;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListenerRegistry;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketSender;
 
@@ -47,4 +50,82 @@ public interface INetworkChannel extends IPacketSender, AutoCloseable {
      * Returns that, the channel based of the client site connection
      */
     boolean isClientProvidedChannel();
-}
\ No newline at end of file
+
+    /**
+     * Sends the packet and runs the task in the I/O thread of the channel, directly after the packet is encoded and
+     * before all packets, which are sent afterwards. So the settings of the outgoing packets can be changed behind a
+     * packet, which has to be written with the previous settings
+     *
+     * @param packet      the packet, which should be sent
+     * @param writtenTask the task, which should run after the packet is encoded
+     */
+    void sendPacket(IPacket packet, Runnable writtenTask);
+
+    /**
+     * Returns true, if the channel can take new packets without to grow the outgoing buffers over
+     * the high water mark. Senders of large amounts of data should wait with waitUntilWritable()
+     */
+    boolean isWritable();
+
+    /**
+     * Blocks the current thread, until the channel is writable again or closed. On the I/O thread of the
+     * channel, this method returns immediately
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    void waitUntilWritable() throws InterruptedException;
+
+    /**
+     * Returns the codec, with that the headers of all outgoing packets are encoded.
+     * The default codec is the JSON codec, until an other codec is negotiated
+     */
+    IPacketHeaderCodec getPacketHeaderCodec();
+
+    /**
+     * Sets the codec, with that the headers of all outgoing packets should encoded.
+     * The other side of the channel has to support the codec, for incoming packets all known codecs are allowed
+     *
+     * @param packetHeaderCodec the codec, which should use for all following packets
+     */
+    void setPacketHeaderCodec(IPacketHeaderCodec packetHeaderCodec);
+
+    /**
+     * Returns the version of the frame format, with that all outgoing packets are written.
+     * The default version is the legacy format, until an other version is negotiated
+     *
+     * @see de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion
+     */
+    int getPacketWireVersion();
+
+    /**
+     * Sets the version of the frame format, with that all outgoing packets should written.
+     * The other side of the channel has to support the version, for incoming packets all known versions are allowed
+     *
+     * @param packetWireVersion the version, which should use for all following packets
+     */
+    void setPacketWireVersion(int packetWireVersion);
+
+    /**
+     * Returns the compression of the outgoing packet frames or null, if the frames are not compressed
+     */
+    PacketCompressionConfiguration getPacketCompression();
+
+    /**
+     * Sets the compression of all outgoing packet frames. The other side of the channel has to support the wire version
+     * COMPRESSED_FRAMES, compressed incoming frames are allowed at every time
+     *
+     * @param packetCompression the compression, which should use for all following packets or null to disable it
+     */
+    void setPacketCompression(PacketCompressionConfiguration packetCompression);
+
+    /**
+     * Returns the compression, that is configured for the listener of the network server, which accepted this channel.
+     * Is null for client channels or if the listener doesn't compress the frames
+     */
+    PacketCompressionConfiguration getListenerPacketCompression();
+
+    /**
+     * Returns the statistics of the compressed and decompressed frames of this channel
+     */
+    PacketCompressionStatistics getPacketCompressionStatistics();
+}
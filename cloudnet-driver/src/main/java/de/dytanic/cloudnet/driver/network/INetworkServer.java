@@ -1,5 +1,7 @@
 package de.dytanic.cloudnet.driver.network;
 
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
+
 /**
  * The network server represents a server that can register and receive INetworkClient connections and packets
  * It is made for a simple read and write network with a client and a server.
@@ -24,4 +26,15 @@ public interface INetworkServer extends INetworkComponent, AutoCloseable {
      * @return true when the binding was successful or false if an error was threw or the port is already bind
      */
     boolean addListener(HostAndPort hostAndPort);
+
+    /**
+     * Binds the server to a specific address that is as parameter defined. The channels of the listener offer
+     * the compression of the packet frames in the authorization, if the compression isn't null
+     *
+     * @param hostAndPort       the address that should the server bind
+     * @param packetCompression the compression for the channels of this listener or null, if the frames shouldn't compressed
+     * @return true when the binding was successful or false if an error was threw or the port is already bind
+     * @see INetworkChannel#getListenerPacketCompression()
+     */
+    boolean addListener(HostAndPort hostAndPort, PacketCompressionConfiguration packetCompression);
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package de.dytanic.cloudnet.driver.network.def.internal;
 
+import de.dytanic.cloudnet.common.LatencyHistogram;
 import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.annotation.UnsafeClass;
 import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.common.concurrent.HashedWheelTimer;
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.concurrent.ITaskListener;
 import de.dytanic.cloudnet.common.concurrent.ListenableTask;
@@ -14,7 +16,9 @@ import de.dytanic.cloudnet.driver.network.protocol.Packet;
 
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.Callable;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This is the internal api channel for synchronized communication between driver api and cloudnet node.
@@ -27,34 +31,65 @@ import java.util.concurrent.Callable;
 @UnsafeClass
 public final class InternalSyncPacketChannel {
 
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30000;
+
     private final static Map<UUID, SynchronizedCallback> WAITING_PACKETS = Maps.newConcurrentHashMap();
 
+    /**
+     * The count of threads, which complete the tasks of the responses and timeouts
+     */
+    private final static int CALLBACK_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * Completes the tasks of the responses and timeouts outside of the I/O threads and the task scheduler. The count of
+     * threads is limited, further completions wait in the queue, so a flood of responses can't create new threads
+     */
+    private final static Executor CALLBACK_EXECUTOR = createCallbackExecutor();
+
+    /**
+     * Expires the callbacks, which got no response in their timeout, without a scan of all waiting packets. The
+     * callbacks are completed in the callback executor, so that a blocking listener can't delay the timer
+     */
+    private final static HashedWheelTimer TIMEOUT_TIMER = new HashedWheelTimer("InternalSyncPacketChannel-Timeouts", CALLBACK_EXECUTOR);
+
+    private final static LatencyHistogram LATENCY_HISTOGRAM = new LatencyHistogram();
+
+    private final static AtomicLong TIMED_OUT_PACKETS = new AtomicLong();
+
     private InternalSyncPacketChannel()
     {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Removes the callback of the response and cancels its timeout. The task is completed in the callback executor,
+     * because its listeners can call other sync methods, which would wait for a response of the blocked I/O thread
+     */
     public static boolean handleIncomingChannel(Packet packet)
     {
         Validate.checkNotNull(packet);
 
-        if (WAITING_PACKETS.containsKey(packet.getUniqueId()))
-        {
-            try
-            {
-                SynchronizedCallback syncEntry = WAITING_PACKETS.get(packet.getUniqueId());
-                syncEntry.response = new Pair<>(packet.getHeader(), packet.getBody());
-                syncEntry.task.call();
-            } catch (Throwable e)
-            {
-                e.printStackTrace();
-            }
+        SynchronizedCallback syncEntry = WAITING_PACKETS.remove(packet.getUniqueId());
 
-            WAITING_PACKETS.remove(packet.getUniqueId());
+        if (syncEntry == null) return false;
 
-            return true;
+        //The timeout is null, if the response was faster as the registration of the timeout
+        if (syncEntry.timeout != null) syncEntry.timeout.cancel();
 
-        } else return false;
+        LATENCY_HISTOGRAM.recordNanos(System.nanoTime() - syncEntry.sendTime);
+
+        //The body is copied here, because the packet is released after the dispatch
+        Pair<JsonDocument, byte[]> response = new Pair<>(packet.getHeader(), packet.getBody());
+
+        CALLBACK_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                syncEntry.task.complete(response);
+            }
+        });
+
+        return true;
     }
 
     public static ITask<Pair<JsonDocument, byte[]>> sendCallablePacket(INetworkChannel channel, JsonDocument header, byte[] body)
@@ -63,56 +98,117 @@ public final class InternalSyncPacketChannel {
     }
 
     public static ITask<Pair<JsonDocument, byte[]>> sendCallablePacket(INetworkChannel channel, JsonDocument header, byte[] body, ITaskListener<Pair<JsonDocument, byte[]>> listener)
+    {
+        return sendCallablePacket(channel, header, body, listener, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends a packet into the internal callable channel and returns a task, which is completed with the response. If no
+     * response is received in the timeout, the task completes exceptionally with a TimeoutException
+     *
+     * @param channel  the channel, to that the packet should sent
+     * @param header   the header of the packet
+     * @param body     the body of the packet or null
+     * @param listener an optional listener for the task
+     * @param timeout  the maximal time, that is waited for the response
+     * @param timeUnit the time unit of the timeout
+     * @return the task for the response
+     */
+    public static ITask<Pair<JsonDocument, byte[]>> sendCallablePacket(INetworkChannel channel, JsonDocument header, byte[] body,
+                                                                     ITaskListener<Pair<JsonDocument, byte[]>> listener, long timeout, TimeUnit timeUnit)
     {
         Validate.checkNotNull(channel);
         Validate.checkNotNull(header);
+        Validate.checkNotNull(timeUnit);
 
         Packet packet = new Packet(PacketConstants.INTERNAL_CALLABLE_CHANNEL, header, body);
-        checkCachedValidation();
 
         SynchronizedCallback syncEntry = new SynchronizedCallback();
-        syncEntry.task = new ListenableTask<>(new Callable<Pair<JsonDocument, byte[]>>() {
+        syncEntry.task.addListener(listener);
 
+        WAITING_PACKETS.put(packet.getUniqueId(), syncEntry);
+        syncEntry.timeout = TIMEOUT_TIMER.newTimeout(new Runnable() {
             @Override
-            public Pair<JsonDocument, byte[]> call() throws Exception
+            public void run()
             {
-                return syncEntry.response;
+                if (WAITING_PACKETS.remove(packet.getUniqueId(), syncEntry))
+                {
+                    TIMED_OUT_PACKETS.incrementAndGet();
+                    syncEntry.task.fail(new TimeoutException("No response for the callable packet " + packet.getUniqueId() + " after " + timeout + " " + timeUnit));
+                }
             }
+        }, timeout, timeUnit);
 
-        }, listener);
-
-        WAITING_PACKETS.put(packet.getUniqueId(), syncEntry);
         channel.sendPacket(packet);
 
         return syncEntry.task;
     }
 
-    private static void checkCachedValidation()
+    /**
+     * Returns the count of callable packets, which are waiting for their response
+     */
+    public static int getInFlightCount()
     {
-        long systemCurrent = System.currentTimeMillis();
+        return WAITING_PACKETS.size();
+    }
 
-        for (Map.Entry<UUID, SynchronizedCallback> entry : WAITING_PACKETS.entrySet())
-            if (entry.getValue().timeOut < systemCurrent)
-            {
-                WAITING_PACKETS.remove(entry.getKey());
+    /**
+     * Returns the count of callable packets, which got no response in their timeout
+     */
+    public static long getTimedOutCount()
+    {
+        return TIMED_OUT_PACKETS.get();
+    }
 
-                try
-                {
-                    entry.getValue().response = new Pair<>(new JsonDocument(), new byte[0]);
-                    entry.getValue().task.call();
-                } catch (Throwable throwable)
+    /**
+     * Returns the executor, which completes the tasks of the responses. It has a limited count of threads, so a
+     * listener, which blocks for a long time, delays the other responses and should use the async methods instead
+     */
+    public static Executor getCallbackExecutor()
+    {
+        return CALLBACK_EXECUTOR;
+    }
+
+    /**
+     * Returns the histogram of the latencies between sending a callable packet and receiving its response
+     */
+    public static LatencyHistogram getLatencyHistogram()
+    {
+        return LATENCY_HISTOGRAM;
+    }
+
+    private static Executor createCallbackExecutor()
+    {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            CALLBACK_THREADS,
+            CALLBACK_THREADS,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactory() {
+
+                private final AtomicInteger threadId = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable)
                 {
-                    throwable.printStackTrace();
+                    Thread thread = new Thread(runnable, "InternalSyncPacketChannel-Callback-" + this.threadId.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
                 }
             }
+        );
+
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     private static class SynchronizedCallback {
 
-        private volatile Pair<JsonDocument, byte[]> response = new Pair<>(new JsonDocument(), new byte[0]);
+        private final long sendTime = System.nanoTime();
 
-        private final long timeOut = System.currentTimeMillis() + 30000;
+        private final ListenableTask<Pair<JsonDocument, byte[]>> task = new ListenableTask<>();
 
-        private volatile ITask<Pair<JsonDocument, byte[]>> task;
+        private volatile HashedWheelTimer.Timeout timeout;
     }
-}
\ No newline at end of file
+}
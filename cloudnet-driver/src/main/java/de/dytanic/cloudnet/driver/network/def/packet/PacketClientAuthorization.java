@@ -3,10 +3,16 @@ package de.dytanic.cloudnet.driver.network.def.packet;
 import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketHeaderCodec;
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.network.protocol.PacketHeaderCodecs;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 public final class PacketClientAuthorization extends Packet {
 
     public PacketClientAuthorization(PacketAuthorizationType packetAuthorizationType, JsonDocument credentials)
@@ -16,7 +22,16 @@ public final class PacketClientAuthorization extends Packet {
         Validate.checkNotNull(packetAuthorizationType);
         Validate.checkNotNull(credentials);
 
-        this.header.append("authorization", packetAuthorizationType).append("credentials", credentials);
+        Collection<String> headerCodecs = new ArrayList<>();
+
+        for (IPacketHeaderCodec headerCodec : PacketHeaderCodecs.getCodecs())
+            headerCodecs.add(headerCodec.getName());
+
+        this.header
+            .append("authorization", packetAuthorizationType)
+            .append("credentials", credentials)
+            .append("headerCodecs", headerCodecs)
+            .append("wireVersion", PacketWireVersion.CURRENT);
     }
 
     @Getter
@@ -7,6 +7,9 @@ import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
 
 public final class PacketClientServerServiceInfoPublisher extends Packet {
 
+    /**
+     * Creates the packet for the cluster nodes, which don't replicate the services by the sequence
+     */
     public PacketClientServerServiceInfoPublisher(ServiceInfoSnapshot serviceInfoSnapshot, PublisherType publisherType)
     {
         super(PacketConstants.INTERNAL_EVENTBUS_CHANNEL,
@@ -18,6 +21,17 @@ public final class PacketClientServerServiceInfoPublisher extends Packet {
         );
     }
 
+    /**
+     * Creates the packet for the services of a node. The services detect a lost packet by a gap in the sequence
+     *
+     * @param sequence the replication sequence of the node, which is incremented for every packet to the services
+     */
+    public PacketClientServerServiceInfoPublisher(ServiceInfoSnapshot serviceInfoSnapshot, PublisherType publisherType, long sequence)
+    {
+        this(serviceInfoSnapshot, publisherType);
+        this.header.append("sequence", sequence);
+    }
+
     public enum PublisherType {
         UPDATE,
         STARTED,
@@ -0,0 +1,35 @@
+package de.dytanic.cloudnet.driver.network.def.packet;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.service.GroupConfiguration;
+import de.dytanic.cloudnet.driver.service.ServiceTask;
+
+import java.util.Collection;
+
+/**
+ * Publishes the current service tasks or group configurations of the node to the services, which replicate them
+ */
+public final class PacketServerServiceConfigurationPublisher extends Packet {
+
+    /**
+     * @param serviceTasks        the new service tasks or null, if the tasks are not changed
+     * @param groupConfigurations the new group configurations or null, if the groups are not changed
+     * @param sequence            the replication sequence of the node
+     */
+    public PacketServerServiceConfigurationPublisher(Collection<ServiceTask> serviceTasks, Collection<GroupConfiguration> groupConfigurations, long sequence)
+    {
+        super(PacketConstants.INTERNAL_EVENTBUS_CHANNEL, newHeader(serviceTasks, groupConfigurations, sequence), null);
+    }
+
+    private static JsonDocument newHeader(Collection<ServiceTask> serviceTasks, Collection<GroupConfiguration> groupConfigurations, long sequence)
+    {
+        JsonDocument header = new JsonDocument("sequence", sequence);
+
+        if (serviceTasks != null) header.append("serviceTasks", serviceTasks);
+        if (groupConfigurations != null) header.append("groupConfigurations", groupConfigurations);
+
+        return header;
+    }
+}
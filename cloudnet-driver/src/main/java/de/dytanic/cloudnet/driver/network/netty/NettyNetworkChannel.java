@@ -6,11 +6,22 @@ import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.INetworkChannelHandler;
 import de.dytanic.cloudnet.driver.network.protocol.DefaultPacketListenerRegistry;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketHeaderCodec;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListenerRegistry;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionStatistics;
+import de.dytanic.cloudnet.driver.network.protocol.PacketHeaderCodecs;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -27,6 +38,12 @@ final class NettyNetworkChannel implements INetworkChannel {
 
     private static final AtomicLong CHANNEL_ID_COUNTER = new AtomicLong();
 
+    /**
+     * The amount of packets, after that the written packets are flushed, without to wait for the end of the
+     * current event loop task
+     */
+    static final int MAX_WRITES_BEFORE_FLUSH = 64;
+
     private final long channelId = CHANNEL_ID_COUNTER.addAndGet(1);
 
     /*= ------------------------------------------------------------------------------ =*/
@@ -42,6 +59,37 @@ final class NettyNetworkChannel implements INetworkChannel {
     @Setter
     private INetworkChannelHandler handler;
 
+    /**
+     * The body bytes of the packets and the bytes of the encoded frames, that are sent from other threads and not yet
+     * written in the event loop.
+     * Netty doesn't count them into the writability of the channel
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong pendingBodyBytes = new AtomicLong();
+
+    @Getter(AccessLevel.NONE)
+    private final Object writabilityLock = new Object();
+
+    /**
+     * The flush state is only used in the event loop of the channel
+     */
+    @Getter(AccessLevel.NONE)
+    private boolean flushScheduled;
+
+    @Getter(AccessLevel.NONE)
+    private int unflushedWrites;
+
+    @Getter(AccessLevel.NONE)
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run()
+        {
+            flushScheduled = false;
+
+            if (unflushedWrites > 0) flush0();
+        }
+    };
+
     public NettyNetworkChannel(Channel channel, IPacketListenerRegistry packetRegistry, INetworkChannelHandler handler,
                                HostAndPort serverAddress, HostAndPort clientAddress, boolean clientProvidedChannel)
     {
@@ -60,29 +108,248 @@ final class NettyNetworkChannel implements INetworkChannel {
     {
         Validate.checkNotNull(packet);
 
+        this.sendPackets(Collections.singletonList(packet), false, null);
+    }
+
+    @Override
+    public void sendPacket(IPacket packet, Runnable writtenTask)
+    {
+        Validate.checkNotNull(packet);
+        Validate.checkNotNull(writtenTask);
+
+        this.sendPackets(Collections.singletonList(packet), false, writtenTask);
+    }
+
+    @Override
+    public void sendPacket(IPacket... packets)
+    {
+        Validate.checkNotNull(packets);
+
+        this.sendPackets(Arrays.asList(packets), true, null);
+    }
+
+    @Override
+    public void sendPackets(Collection<? extends IPacket> packets)
+    {
+        Validate.checkNotNull(packets);
+
+        this.sendPackets(packets, true, null);
+    }
+
+    /**
+     * Writes the packets in the event loop of the channel
+     *
+     * @param flush true, if the channel should be flushed directly after the packets. Otherwise the flush is
+     *              consolidated with the writes of all other packets, until the current task of the event loop is done
+     * @param writtenTask the task, which runs in the event loop directly after the packets are written, or null
+     */
+    private void sendPackets(Collection<? extends IPacket> packets, boolean flush, Runnable writtenTask)
+    {
+        for (IPacket packet : packets)
+        {
+            Validate.checkNotNull(packet);
+            PacketWireVersion.checkPacketChannel(packet.getChannel());
+        }
+
         if (this.channel.eventLoop().inEventLoop())
-            sendPacket0(packet);
-        else
-            this.channel.eventLoop().execute(new Runnable() {
-                @Override
-                public void run()
+        {
+            this.write(packets, flush);
+
+            if (writtenTask != null) writtenTask.run();
+            return;
+        }
+
+        Collection<IPacket> pendingPackets = new ArrayList<>(packets);
+        long bodyBytes = 0;
+
+        for (IPacket packet : pendingPackets)
+        {
+            //The body buffer has to be available until the packet is encoded in the event loop
+            packet.retain();
+            bodyBytes += getBodyLength(packet);
+        }
+
+        long pendingPacketsBodyBytes = bodyBytes;
+        this.pendingBodyBytes.addAndGet(pendingPacketsBodyBytes);
+
+        this.channel.eventLoop().execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    write(pendingPackets, flush);
+
+                    if (writtenTask != null) writtenTask.run();
+                } finally
                 {
-                    sendPacket0(packet);
+                    for (IPacket packet : pendingPackets) packet.release();
+
+                    removePendingBodyBytes(pendingPacketsBodyBytes);
                 }
-            });
+            }
+        });
+    }
+
+    /**
+     * Sends a packet frame, which is already encoded for the header codec and the wire version of this channel.
+     * The channel takes the ownership of the frame buffer and releases it after the write
+     *
+     * @param frame the encoded frame without the length prefix
+     */
+    void sendEncodedPacket(ByteBuf frame)
+    {
+        Validate.checkNotNull(frame);
+
+        if (this.channel.eventLoop().inEventLoop())
+        {
+            this.write(Collections.singletonList(frame), false);
+            return;
+        }
+
+        long frameBytes = frame.readableBytes();
+        this.pendingBodyBytes.addAndGet(frameBytes);
+
+        this.channel.eventLoop().execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    write(Collections.singletonList(frame), false);
+                } finally
+                {
+                    removePendingBodyBytes(frameBytes);
+                }
+            }
+        });
+    }
+
+    private void removePendingBodyBytes(long bytes)
+    {
+        long pendingBodyBytes = this.pendingBodyBytes.addAndGet(-bytes), lowWaterMark = this.channel.config().getWriteBufferLowWaterMark();
+
+        if (pendingBodyBytes <= lowWaterMark && pendingBodyBytes + bytes > lowWaterMark)
+            this.handleWritabilityChanged();
+    }
+
+    private void write(Collection<?> messages, boolean flush)
+    {
+        for (Object message : messages)
+        {
+            this.channel.write(message, this.channel.voidPromise());
+
+            if (++this.unflushedWrites >= MAX_WRITES_BEFORE_FLUSH) this.flush0();
+        }
+
+        if (flush)
+            this.flush0();
+        else if (!this.flushScheduled && this.unflushedWrites > 0)
+        {
+            //The flush runs after all tasks, which are already queued in the event loop
+            this.flushScheduled = true;
+            this.channel.eventLoop().execute(this.flushTask);
+        }
     }
 
-    private void sendPacket0(IPacket packet)
+    private void flush0()
     {
-        this.channel.writeAndFlush(packet, this.channel.voidPromise());
+        this.unflushedWrites = 0;
+        this.channel.flush();
     }
 
     @Override
-    public void sendPacket(IPacket... packets)
+    public boolean isWritable()
     {
-        Validate.checkNotNull(packets);
+        return this.channel.isWritable() && this.pendingBodyBytes.get() <= this.channel.config().getWriteBufferHighWaterMark();
+    }
+
+    @Override
+    public void waitUntilWritable() throws InterruptedException
+    {
+        //The event loop can't wait for itself
+        if (this.channel.eventLoop().inEventLoop()) return;
+
+        synchronized (this.writabilityLock)
+        {
+            while (this.channel.isActive() && !this.isWritable())
+                this.writabilityLock.wait(1000);
+        }
+    }
+
+    /**
+     * Wakes up all threads, that wait until the channel is writable
+     */
+    void handleWritabilityChanged()
+    {
+        synchronized (this.writabilityLock)
+        {
+            this.writabilityLock.notifyAll();
+        }
+    }
+
+    private static long getBodyLength(IPacket packet)
+    {
+        ByteBuf body = packet.getBodyBuffer();
+        return body != null ? body.readableBytes() : 0;
+    }
+
+    @Override
+    public IPacketHeaderCodec getPacketHeaderCodec()
+    {
+        IPacketHeaderCodec packetHeaderCodec = this.channel.attr(NettyPacketEncoder.PACKET_HEADER_CODEC).get();
+        return packetHeaderCodec != null ? packetHeaderCodec : PacketHeaderCodecs.JSON;
+    }
+
+    @Override
+    public void setPacketHeaderCodec(IPacketHeaderCodec packetHeaderCodec)
+    {
+        Validate.checkNotNull(packetHeaderCodec);
+
+        this.channel.attr(NettyPacketEncoder.PACKET_HEADER_CODEC).set(packetHeaderCodec);
+    }
+
+    @Override
+    public int getPacketWireVersion()
+    {
+        Integer packetWireVersion = this.channel.attr(NettyPacketEncoder.PACKET_WIRE_VERSION).get();
+        return packetWireVersion != null ? packetWireVersion : PacketWireVersion.LEGACY;
+    }
+
+    @Override
+    public void setPacketWireVersion(int packetWireVersion)
+    {
+        if (packetWireVersion < PacketWireVersion.LEGACY || packetWireVersion > PacketWireVersion.CURRENT)
+            throw new IllegalArgumentException("Unsupported packet wire version " + packetWireVersion);
+
+        this.channel.attr(NettyPacketEncoder.PACKET_WIRE_VERSION).set(packetWireVersion);
+    }
 
-        for (IPacket packet : packets) this.sendPacket(packet);
+    @Override
+    public PacketCompressionConfiguration getPacketCompression()
+    {
+        return this.channel.attr(NettyPacketCompressor.PACKET_COMPRESSION).get();
+    }
+
+    @Override
+    public void setPacketCompression(PacketCompressionConfiguration packetCompression)
+    {
+        if (packetCompression != null && this.getPacketWireVersion() < PacketWireVersion.COMPRESSED_FRAMES)
+            throw new IllegalStateException("The packet wire version " + this.getPacketWireVersion() + " doesn't support compressed frames");
+
+        this.channel.attr(NettyPacketCompressor.PACKET_COMPRESSION).set(packetCompression);
+    }
+
+    @Override
+    public PacketCompressionConfiguration getListenerPacketCompression()
+    {
+        return this.channel.attr(NettyPacketCompressor.LISTENER_PACKET_COMPRESSION).get();
+    }
+
+    @Override
+    public PacketCompressionStatistics getPacketCompressionStatistics()
+    {
+        return NettyPacketCompressor.getStatistics(this.channel);
     }
 
     @Override
@@ -2,7 +2,7 @@ package de.dytanic.cloudnet.driver.network.netty;
 
 import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.collection.Iterables;
-import de.dytanic.cloudnet.common.concurrent.DefaultTaskScheduler;
+import de.dytanic.cloudnet.common.concurrent.QueuedTaskScheduler;
 import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
 import de.dytanic.cloudnet.driver.network.HostAndPort;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
@@ -57,7 +57,7 @@ public final class NettyNetworkClient implements INetworkClient {
         this.sslConfiguration = sslConfiguration;
 
         this.taskSchedulerFromConstructor = taskScheduler != null;
-        this.taskScheduler = taskScheduler == null ? new DefaultTaskScheduler(Runtime.getRuntime().availableProcessors()) : taskScheduler;
+        this.taskScheduler = taskScheduler == null ? new QueuedTaskScheduler(Runtime.getRuntime().availableProcessors()) : taskScheduler;
 
         try
         {
@@ -169,8 +169,7 @@ public final class NettyNetworkClient implements INetworkClient {
     {
         Validate.checkNotNull(packet);
 
-        for (INetworkChannel channel : this.channels)
-            channel.sendPacket(packet);
+        NettyPacketBroadcaster.broadcast(this.channels, packet);
     }
 
     @Override
@@ -181,4 +180,13 @@ public final class NettyNetworkClient implements INetworkClient {
         for (INetworkChannel channel : this.channels)
             channel.sendPacket(packets);
     }
+
+    @Override
+    public void sendPackets(Collection<? extends IPacket> packets)
+    {
+        Validate.checkNotNull(packets);
+
+        for (INetworkChannel channel : this.channels)
+            channel.sendPackets(packets);
+    }
 }
\ No newline at end of file
@@ -8,7 +8,6 @@ import lombok.RequiredArgsConstructor;
 
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
-import java.util.concurrent.Callable;
 
 @RequiredArgsConstructor
 final class NettyNetworkClientHandler extends SimpleChannelInboundHandler<Packet> {
@@ -19,9 +18,12 @@ final class NettyNetworkClientHandler extends SimpleChannelInboundHandler<Packet
 
     private NettyNetworkChannel channel;
 
+    private NettyPacketDispatcher packetDispatcher;
+
     @Override
     public void channelActive(ChannelHandlerContext ctx) throws Exception
     {
+        this.packetDispatcher = new NettyPacketDispatcher(this.nettyNetworkClient.taskScheduler);
         this.channel = new NettyNetworkChannel(ctx.channel(), this.nettyNetworkClient.getPacketRegistry(),
             this.nettyNetworkClient.networkChannelHandler.call(), connectedAddress, new HostAndPort(ctx.channel().localAddress()), true);
 
@@ -42,9 +44,19 @@ final class NettyNetworkClientHandler extends SimpleChannelInboundHandler<Packet
             ctx.channel().close();
 
             this.nettyNetworkClient.channels.remove(this.channel);
+            this.channel.handleWritabilityChanged();
         }
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception
+    {
+        if (ctx.channel().isWritable())
+            this.channel.handleWritabilityChanged();
+
+        super.channelWritabilityChanged(ctx);
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception
     {
@@ -61,12 +73,6 @@ final class NettyNetworkClientHandler extends SimpleChannelInboundHandler<Packet
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, Packet msg) throws Exception
     {
-        nettyNetworkClient.taskScheduler.schedule((Callable<Void>) () -> {
-            if (channel.getHandler() != null && !channel.getHandler().handlePacketReceive(channel, msg))
-                return null;
-
-            channel.getPacketRegistry().handlePacket(channel, msg);
-            return null;
-        });
+        this.packetDispatcher.dispatch(this.channel, msg);
     }
 }
\ No newline at end of file
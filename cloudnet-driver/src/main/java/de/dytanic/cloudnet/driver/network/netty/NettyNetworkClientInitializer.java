@@ -21,8 +21,10 @@ final class NettyNetworkClientInitializer extends ChannelInitializer<Channel> {
 
         ch.pipeline()
             .addLast("packet-length-deserializer", new NettyPacketLengthDeserializer())
+            .addLast("packet-decompressor", new NettyPacketDecompressor())
             .addLast("packet-decoder", new NettyPacketDecoder())
             .addLast("packet-length-serializer", new NettyPacketLengthSerializer())
+            .addLast("packet-compressor", new NettyPacketCompressor())
             .addLast("packet-encoder", new NettyPacketEncoder())
             .addLast("network-client-handler", new NettyNetworkClientHandler(nettyNetworkClient, hostAndPort))
         ;
@@ -4,7 +4,7 @@ import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.common.collection.Pair;
-import de.dytanic.cloudnet.common.concurrent.DefaultTaskScheduler;
+import de.dytanic.cloudnet.common.concurrent.QueuedTaskScheduler;
 import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
 import de.dytanic.cloudnet.driver.network.HostAndPort;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
@@ -13,6 +13,7 @@ import de.dytanic.cloudnet.driver.network.INetworkServer;
 import de.dytanic.cloudnet.driver.network.protocol.DefaultPacketListenerRegistry;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListenerRegistry;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
 import de.dytanic.cloudnet.driver.network.ssl.SSLConfiguration;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
@@ -58,7 +59,7 @@ public final class NettyNetworkServer extends NettySSLServer implements INetwork
         super(sslConfiguration);
         this.networkChannelHandler = networkChannelHandler;
         this.taskSchedulerFromConstructor = taskScheduler != null;
-        this.taskScheduler = taskScheduler == null ? new DefaultTaskScheduler(Runtime.getRuntime().availableProcessors()) : taskScheduler;
+        this.taskScheduler = taskScheduler == null ? new QueuedTaskScheduler(Runtime.getRuntime().availableProcessors()) : taskScheduler;
 
         try
         {
@@ -85,6 +86,12 @@ public final class NettyNetworkServer extends NettySSLServer implements INetwork
 
     @Override
     public boolean addListener(HostAndPort hostAndPort)
+    {
+        return this.addListener(hostAndPort, null);
+    }
+
+    @Override
+    public boolean addListener(HostAndPort hostAndPort, PacketCompressionConfiguration packetCompression)
     {
         Validate.checkNotNull(hostAndPort);
         Validate.checkNotNull(hostAndPort.getHost());
@@ -98,7 +105,7 @@ public final class NettyNetworkServer extends NettySSLServer implements INetwork
                     .childOption(ChannelOption.IP_TOS, 24)
                     .childOption(ChannelOption.AUTO_READ, true)
                     .channel(NettyUtils.getServerSocketChannelClass())
-                    .childHandler(new NettyNetworkServerInitializer(this, hostAndPort))
+                    .childHandler(new NettyNetworkServerInitializer(this, hostAndPort, packetCompression))
                     .bind(hostAndPort.getHost(), hostAndPort.getPort())
                     .addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE)
                     .addListener(ChannelFutureListener.CLOSE_ON_FAILURE)
@@ -153,8 +160,7 @@ public final class NettyNetworkServer extends NettySSLServer implements INetwork
     {
         Validate.checkNotNull(packet);
 
-        for (INetworkChannel channel : this.channels)
-            channel.sendPacket(packet);
+        NettyPacketBroadcaster.broadcast(this.channels, packet);
     }
 
     @Override
@@ -165,4 +171,13 @@ public final class NettyNetworkServer extends NettySSLServer implements INetwork
         for (INetworkChannel channel : this.channels)
             channel.sendPacket(packets);
     }
+
+    @Override
+    public void sendPackets(Collection<? extends IPacket> packets)
+    {
+        Validate.checkNotNull(packets);
+
+        for (INetworkChannel channel : this.channels)
+            channel.sendPackets(packets);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package de.dytanic.cloudnet.driver.network.netty;
 
 import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import lombok.RequiredArgsConstructor;
@@ -12,17 +13,23 @@ final class NettyNetworkServerInitializer extends ChannelInitializer<Channel> {
 
     private final HostAndPort hostAndPort;
 
+    private final PacketCompressionConfiguration packetCompression;
+
     @Override
     protected void initChannel(Channel ch) throws Exception
     {
+        ch.attr(NettyPacketCompressor.LISTENER_PACKET_COMPRESSION).set(packetCompression);
+
         if (nettyNetworkServer.sslContext != null)
             ch.pipeline()
                 .addLast(nettyNetworkServer.sslContext.newHandler(ch.alloc()));
 
         ch.pipeline()
             .addLast("packet-length-deserializer", new NettyPacketLengthDeserializer())
+            .addLast("packet-decompressor", new NettyPacketDecompressor())
             .addLast("packet-decoder", new NettyPacketDecoder())
             .addLast("packet-length-serializer", new NettyPacketLengthSerializer())
+            .addLast("packet-compressor", new NettyPacketCompressor())
             .addLast("packet-encoder", new NettyPacketEncoder())
             .addLast("network-server-handler", new NettyNetworkServerHandler(nettyNetworkServer, hostAndPort))
         ;
@@ -0,0 +1,97 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketHeaderCodec;
+import io.netty.buffer.ByteBuf;
+
+import java.util.Map;
+
+/**
+ * Sends one packet to many channels. The packet is encoded only once for each combination of header codec and
+ * wire version of the channels, all channels with the same format write a duplicate of the same frame buffer
+ * instead of encoding the packet again.
+ * <p>
+ * The shared frames are never modified, the duplicates only have their own reader index
+ */
+public final class NettyPacketBroadcaster {
+
+    private NettyPacketBroadcaster()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Sends the packet to all channels. Channels, which are not netty network channels, get the packet with sendPacket()
+     *
+     * @param channels the channels, which should receive the packet
+     * @param packet   the packet, which should send to all channels
+     */
+    public static void broadcast(Iterable<? extends INetworkChannel> channels, IPacket packet)
+    {
+        Validate.checkNotNull(channels);
+        Validate.checkNotNull(packet);
+
+        Map<Integer, ByteBuf> frames = null;
+
+        try
+        {
+            for (INetworkChannel channel : channels)
+            {
+                if (channel == null) continue;
+
+                if (!(channel instanceof NettyNetworkChannel))
+                {
+                    channel.sendPacket(packet);
+                    continue;
+                }
+
+                NettyNetworkChannel nettyNetworkChannel = (NettyNetworkChannel) channel;
+
+                IPacketHeaderCodec headerCodec = nettyNetworkChannel.getPacketHeaderCodec();
+                int wireVersion = nettyNetworkChannel.getPacketWireVersion(), format = (headerCodec.getId() & 0xFF) << 8 | wireVersion;
+
+                if (frames == null) frames = Maps.newHashMap();
+
+                ByteBuf frame = frames.get(format);
+
+                if (frame == null)
+                {
+                    frame = encode(nettyNetworkChannel, packet, headerCodec, wireVersion);
+
+                    if (frame == null) continue;
+
+                    frames.put(format, frame);
+                }
+
+                nettyNetworkChannel.sendEncodedPacket(frame.retainedDuplicate());
+            }
+
+        } finally
+        {
+            if (frames != null)
+                for (ByteBuf frame : frames.values())
+                    frame.release();
+        }
+    }
+
+    private static ByteBuf encode(NettyNetworkChannel channel, IPacket packet, IPacketHeaderCodec headerCodec, int wireVersion)
+    {
+        ByteBuf frame = channel.getChannel().alloc().buffer();
+
+        try
+        {
+            NettyPacketEncoder.encode(packet, frame, headerCodec, wireVersion);
+            return frame;
+
+        } catch (Exception ex)
+        {
+            frame.release();
+            ex.printStackTrace();
+        }
+
+        return null;
+    }
+}
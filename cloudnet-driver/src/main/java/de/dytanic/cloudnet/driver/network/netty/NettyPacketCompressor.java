@@ -0,0 +1,159 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionStatistics;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.util.AttributeKey;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses the encoded packet frames with Deflate, if a compression is set for the channel and the frame is at least
+ * as long as the threshold. Frames, which are not smaller after the compression, are written uncompressed.
+ * <p>
+ * The components of a frame, like the zero-copy body of a large packet, are deflated one after another. Heap
+ * components are read directly from their arrays, direct components in chunks of the input buffer, so a frame is never
+ * copied completely into a new array
+ */
+final class NettyPacketCompressor extends MessageToMessageEncoder<ByteBuf> {
+
+    static final AttributeKey<PacketCompressionConfiguration> PACKET_COMPRESSION = AttributeKey.valueOf("cloudnet_packet_compression");
+
+    static final AttributeKey<PacketCompressionConfiguration> LISTENER_PACKET_COMPRESSION = AttributeKey.valueOf("cloudnet_listener_packet_compression");
+
+    static final AttributeKey<PacketCompressionStatistics> PACKET_COMPRESSION_STATISTICS = AttributeKey.valueOf("cloudnet_packet_compression_statistics");
+
+    private final byte[] buffer = new byte[8192], input = new byte[8192];
+
+    private Deflater deflater;
+
+    private int level;
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
+    {
+        PacketCompressionConfiguration compression = ctx.channel().attr(PACKET_COMPRESSION).get();
+        int length = in.readableBytes();
+
+        if (compression == null || length < compression.getThreshold())
+        {
+            out.add(in.retain());
+            return;
+        }
+
+        long time = System.nanoTime();
+        ByteBuf compressed = this.compress(ctx, in, compression.getLevel());
+        int compressedLength = compressed.readableBytes();
+
+        if (compressedLength >= length)
+        {
+            compressed.release();
+            compressedLength = length;
+            out.add(in.retain());
+        } else
+            out.add(compressed);
+
+        getStatistics(ctx.channel()).recordCompression(length, compressedLength, System.nanoTime() - time);
+    }
+
+    private ByteBuf compress(ChannelHandlerContext ctx, ByteBuf in, int level)
+    {
+        if (this.deflater == null || this.level != level)
+        {
+            if (this.deflater != null) this.deflater.end();
+
+            this.deflater = new Deflater(level);
+            this.level = level;
+        }
+
+        int length = in.readableBytes();
+        ByteBuf compressed = ctx.alloc().buffer(Math.min(length, this.buffer.length));
+
+        try
+        {
+            NettyUtils.writeVarInt(compressed, PacketWireVersion.COMPRESSED_FRAME_CHANNEL);
+            NettyUtils.writeVarInt(compressed, length);
+
+            for (ByteBuffer component : in.nioBuffers())
+                if (component.hasArray())
+                {
+                    this.deflater.setInput(component.array(), component.arrayOffset() + component.position(), component.remaining());
+                    if (!this.deflate(compressed, length)) return compressed;
+                } else
+                    while (component.hasRemaining())
+                    {
+                        int count = Math.min(component.remaining(), this.input.length);
+                        component.get(this.input, 0, count);
+
+                        this.deflater.setInput(this.input, 0, count);
+                        if (!this.deflate(compressed, length)) return compressed;
+                    }
+
+            this.deflater.finish();
+
+            //Stop early, if the compressed frame can't be smaller than the original frame
+            while (!this.deflater.finished() && compressed.readableBytes() < length)
+                compressed.writeBytes(this.buffer, 0, this.deflater.deflate(this.buffer));
+
+            return compressed;
+
+        } catch (RuntimeException ex)
+        {
+            compressed.release();
+            throw ex;
+        } finally
+        {
+            this.deflater.reset();
+        }
+    }
+
+    /**
+     * Deflates the current input completely
+     *
+     * @return false, if the compressed frame is already as long as the original frame
+     */
+    private boolean deflate(ByteBuf compressed, int length)
+    {
+        while (!this.deflater.needsInput())
+        {
+            if (compressed.readableBytes() >= length) return false;
+
+            compressed.writeBytes(this.buffer, 0, this.deflater.deflate(this.buffer));
+        }
+
+        return compressed.readableBytes() < length;
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception
+    {
+        if (this.deflater != null)
+        {
+            this.deflater.end();
+            this.deflater = null;
+        }
+
+        super.handlerRemoved(ctx);
+    }
+
+    static PacketCompressionStatistics getStatistics(Channel channel)
+    {
+        PacketCompressionStatistics statistics = channel.attr(PACKET_COMPRESSION_STATISTICS).get();
+
+        if (statistics == null)
+        {
+            statistics = new PacketCompressionStatistics();
+            PacketCompressionStatistics previous = channel.attr(PACKET_COMPRESSION_STATISTICS).setIfAbsent(statistics);
+
+            if (previous != null) statistics = previous;
+        }
+
+        return statistics;
+    }
+}
@@ -1,11 +1,16 @@
 package de.dytanic.cloudnet.driver.network.netty;
 
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketHeaderCodec;
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.network.protocol.PacketHeaderCodecs;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,15 +23,48 @@ final class NettyPacketDecoder extends ByteToMessageDecoder {
 
         try
         {
-            out.add(new Packet(
-                NettyUtils.readVarInt(byteBuf),
-                UUID.fromString(NettyUtils.readString(byteBuf)),
-                JsonDocument.newDocument(NettyUtils.readString(byteBuf)),
-                NettyUtils.toByteArray(byteBuf, NettyUtils.readVarInt(byteBuf))
-            ));
+            int channel = NettyUtils.readVarInt(byteBuf);
+            UUID uniqueId = this.readUniqueId(byteBuf);
+            JsonDocument header = this.readHeader(byteBuf);
+            int bodyLength = NettyUtils.readVarInt(byteBuf);
+
+            //Small bodies are copied, large bodies are a retained slice of the frame, which is released after the handling
+            out.add(bodyLength < NettyPacketEncoder.ZERO_COPY_BODY_THRESHOLD ?
+                new Packet(channel, uniqueId, header, NettyUtils.toByteArray(byteBuf, bodyLength)) :
+                new Packet(channel, uniqueId, header, byteBuf.readRetainedSlice(bodyLength))
+            );
         } catch (Exception ex)
         {
+            byteBuf.skipBytes(byteBuf.readableBytes());
             ex.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    private UUID readUniqueId(ByteBuf byteBuf) throws IOException
+    {
+        if (byteBuf.getByte(byteBuf.readerIndex()) != PacketWireVersion.VERSIONED_FRAME_MARKER)
+            return UUID.fromString(NettyUtils.readString(byteBuf));
+
+        byteBuf.skipBytes(1);
+        int wireVersion = byteBuf.readUnsignedByte();
+
+        if (wireVersion < PacketWireVersion.BINARY_UNIQUE_ID || wireVersion > PacketWireVersion.CURRENT)
+            throw new IOException("Unsupported packet wire version " + wireVersion);
+
+        return NettyUtils.readUUID(byteBuf);
+    }
+
+    private JsonDocument readHeader(ByteBuf byteBuf) throws IOException
+    {
+        int length = NettyUtils.readVarInt(byteBuf);
+
+        if (length == 0) return new JsonDocument();
+
+        //The first byte of every header is the id of the codec, with that the header was written
+        IPacketHeaderCodec headerCodec = PacketHeaderCodecs.getCodec(byteBuf.getByte(byteBuf.readerIndex()));
+
+        if (headerCodec == null) throw new IOException("Unknown packet header codec " + byteBuf.getByte(byteBuf.readerIndex()));
+
+        return headerCodec.decode(new ByteBufInputStream(byteBuf.readSlice(length)), length);
+    }
+}
@@ -0,0 +1,136 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageDecoder;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Inflates the compressed packet frames. Uncompressed frames are passed to the decoder without copying them,
+ * so the channel can receive compressed and uncompressed frames at every time.
+ * <p>
+ * A frame is inflated, if it starts with the complete varint of the reserved compressed frame channel. The decision
+ * doesn't depend on the negotiated wire version, because this driver supports compressed frames in every version and
+ * the other side can turn on the compression, before the authorization response is handled on this side. A corrupt
+ * compressed frame closes the channel, because the packets of the channel would be incomplete afterwards
+ *
+ * @see NettyPacketCompressor
+ */
+final class NettyPacketDecompressor extends MessageToMessageDecoder<ByteBuf> {
+
+    private final byte[] buffer = new byte[8192];
+
+    private Inflater inflater;
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
+    {
+        if (!isCompressedFrame(in))
+        {
+            out.add(in.retain());
+            return;
+        }
+
+        ByteBuf frame = null;
+
+        try
+        {
+            long time = System.nanoTime();
+
+            if (NettyUtils.readVarInt(in) != PacketWireVersion.COMPRESSED_FRAME_CHANNEL)
+                throw new DataFormatException("Invalid compressed frame channel");
+
+            int length = NettyUtils.readVarInt(in);
+
+            if (length < 0) throw new DataFormatException("Invalid compressed frame length " + length);
+
+            //The capacity grows with the inflated data, the announced length is only the limit
+            frame = ctx.alloc().buffer(Math.min(length, this.buffer.length), length);
+            this.inflate(in, frame);
+
+            if (frame.readableBytes() != length)
+                throw new DataFormatException("The compressed frame has " + frame.readableBytes() + " instead of " + length + " bytes");
+
+            NettyPacketCompressor.getStatistics(ctx.channel()).recordDecompression(System.nanoTime() - time);
+            out.add(frame);
+
+        } catch (Exception ex)
+        {
+            if (frame != null) frame.release();
+
+            in.skipBytes(in.readableBytes());
+            ex.printStackTrace();
+
+            ctx.close();
+        }
+    }
+
+    private static boolean isCompressedFrame(ByteBuf in)
+    {
+        //Reads the varint without to move the reader index, a frame of an other channel stays unchanged
+        int result = 0;
+
+        for (int i = 0; i < 5 && i < in.readableBytes(); i++)
+        {
+            byte read = in.getByte(in.readerIndex() + i);
+            result |= (read & 0b01111111) << (7 * i);
+
+            if ((read & 0b10000000) == 0) return result == PacketWireVersion.COMPRESSED_FRAME_CHANNEL;
+        }
+
+        return false;
+    }
+
+    private void inflate(ByteBuf in, ByteBuf frame) throws DataFormatException
+    {
+        if (this.inflater == null) this.inflater = new Inflater();
+
+        int length = in.readableBytes();
+
+        if (in.hasArray())
+            this.inflater.setInput(in.array(), in.arrayOffset() + in.readerIndex(), length);
+        else
+        {
+            byte[] input = new byte[length];
+            in.getBytes(in.readerIndex(), input);
+            this.inflater.setInput(input);
+        }
+
+        in.skipBytes(length);
+
+        try
+        {
+            while (!this.inflater.finished())
+            {
+                int count = this.inflater.inflate(this.buffer);
+
+                if (count == 0 && (this.inflater.needsInput() || this.inflater.needsDictionary()))
+                    throw new DataFormatException("Truncated compressed frame");
+
+                if (count > frame.maxWritableBytes())
+                    throw new DataFormatException("The compressed frame is longer than announced");
+
+                frame.writeBytes(this.buffer, 0, count);
+            }
+        } finally
+        {
+            this.inflater.reset();
+        }
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception
+    {
+        if (this.inflater != null)
+        {
+            this.inflater.end();
+            this.inflater = null;
+        }
+
+        super.handlerRemoved(ctx);
+    }
+}
@@ -0,0 +1,109 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.common.concurrent.SerialExecutor;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.def.internal.InternalSyncPacketChannel;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.network.rpc.RPCPacketListener;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Dispatches the incoming packets of one channel in the order, in that they are received. The packets are handled one
+ * after another by a serial executor on the task scheduler, because the channel handlers and most listeners call
+ * events, which run module code and can block.
+ * <p>
+ * The responses of the callable and the RPC channel are taken in the event loop, because a serial listener, which
+ * waits for the response of a sync call, would otherwise block the handling of the response, which is queued behind it
+ * or waits for a free thread of the task scheduler. The tasks of the callable responses are completed outside of the
+ * event loop by the InternalSyncPacketChannel. The requests of both channels are handled by the task scheduler without
+ * the serial executor
+ */
+final class NettyPacketDispatcher {
+
+    private final Executor executor;
+
+    private final SerialExecutor serialExecutor;
+
+    NettyPacketDispatcher(Executor executor)
+    {
+        this.executor = executor;
+        this.serialExecutor = new SerialExecutor(executor);
+    }
+
+    /**
+     * Dispatches the packet. Has to be called in the event loop of the channel
+     */
+    void dispatch(NettyNetworkChannel channel, Packet packet)
+    {
+        //The callable responses were only completed by the channel handlers, so a channel without handler doesn't get them
+        if (packet.getChannel() == PacketConstants.INTERNAL_CALLABLE_CHANNEL && channel.getHandler() != null &&
+            InternalSyncPacketChannel.handleIncomingChannel(packet))
+        {
+            packet.release();
+            return;
+        }
+
+        if (packet.getChannel() == PacketConstants.INTERNAL_RPC_CHANNEL && RPCPacketListener.isResponse(packet))
+        {
+            handleRegisteredListeners(channel, packet);
+            return;
+        }
+
+        if (isRequestResponseChannel(packet.getChannel()))
+        {
+            this.executor.execute(new Runnable() {
+                @Override
+                public void run()
+                {
+                    handlePacket(channel, packet);
+                }
+            });
+            return;
+        }
+
+        this.serialExecutor.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                handlePacket(channel, packet);
+            }
+        });
+    }
+
+    private static boolean isRequestResponseChannel(int channel)
+    {
+        return channel == PacketConstants.INTERNAL_CALLABLE_CHANNEL || channel == PacketConstants.INTERNAL_RPC_CHANNEL;
+    }
+
+    private static void handlePacket(NettyNetworkChannel channel, Packet packet)
+    {
+        try
+        {
+            if (channel.getHandler() != null && !channel.getHandler().handlePacketReceive(channel, packet))
+                return;
+
+            channel.getPacketRegistry().handlePacket(channel, packet);
+        } catch (Exception ex)
+        {
+            ex.printStackTrace();
+        } finally
+        {
+            packet.release();
+        }
+    }
+
+    /**
+     * Handles the packet only with the listeners, the channel handler is skipped, because it can block the event loop
+     */
+    private static void handleRegisteredListeners(NettyNetworkChannel channel, Packet packet)
+    {
+        try
+        {
+            channel.getPacketRegistry().handlePacket(channel, packet);
+        } finally
+        {
+            packet.release();
+        }
+    }
+}
@@ -1,42 +1,144 @@
 package de.dytanic.cloudnet.driver.network.netty;
 
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketHeaderCodec;
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.network.protocol.PacketHeaderCodecs;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.util.AttributeKey;
 
+import java.util.List;
 import java.util.UUID;
 
-final class NettyPacketEncoder extends MessageToByteEncoder<IPacket> {
+final class NettyPacketEncoder extends MessageToMessageEncoder<IPacket> {
+
+    static final AttributeKey<IPacketHeaderCodec> PACKET_HEADER_CODEC = AttributeKey.valueOf("cloudnet_packet_header_codec");
+
+    static final AttributeKey<Integer> PACKET_WIRE_VERSION = AttributeKey.valueOf("cloudnet_packet_wire_version");
+
+    /**
+     * Bodies from this size are not copied into the frame, the frame references them as component of a composite buffer
+     */
+    static final int ZERO_COPY_BODY_THRESHOLD = 4096;
+
+    private static final ByteBuf EMPTY_PACKET_BODY = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(Packet.EMPTY_PACKET_BYTE_ARRAY));
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, IPacket packet, ByteBuf byteBuf)
+    protected void encode(ChannelHandlerContext ctx, IPacket packet, List<Object> out) throws Exception
+    {
+        ByteBuf body = getBody(packet), byteBuf = ctx.alloc().buffer();
+
+        try
+        {
+            writeHead(packet, byteBuf, body.readableBytes(), getHeaderCodec(ctx), getWireVersion(ctx));
+        } catch (Exception ex)
+        {
+            byteBuf.release();
+            throw ex;
+        }
+
+        //Writing the body
+        if (body.readableBytes() < ZERO_COPY_BODY_THRESHOLD)
+        {
+            byteBuf.writeBytes(body, body.readerIndex(), body.readableBytes());
+            out.add(byteBuf);
+        } else
+            out.add(ctx.alloc().compositeBuffer(2).addComponents(true, byteBuf, body.retainedSlice()));
+    }
+
+    /**
+     * Writes the complete packet frame into the buffer, the body is copied into the buffer
+     */
+    void encode(ChannelHandlerContext ctx, IPacket packet, ByteBuf byteBuf) throws Exception
+    {
+        encode(packet, byteBuf, getHeaderCodec(ctx), getWireVersion(ctx));
+    }
+
+    static void encode(IPacket packet, ByteBuf byteBuf, IPacketHeaderCodec headerCodec, int wireVersion) throws Exception
+    {
+        ByteBuf body = getBody(packet);
+
+        writeHead(packet, byteBuf, body.readableBytes(), headerCodec, wireVersion);
+        byteBuf.writeBytes(body, body.readerIndex(), body.readableBytes());
+    }
+
+    /**
+     * Writes all parts of the frame before the content of the body
+     */
+    private static void writeHead(IPacket packet, ByteBuf byteBuf, int bodyLength, IPacketHeaderCodec headerCodec, int wireVersion) throws Exception
     {
         //Writing the channelId
+        PacketWireVersion.checkPacketChannel(packet.getChannel());
         NettyUtils.writeVarInt(byteBuf, packet.getChannel());
 
         //Writing the uniqueId
-        NettyUtils.writeString(byteBuf, packet.getUniqueId() != null ? packet.getUniqueId().toString() : UUID.randomUUID().toString());
+        UUID uniqueId = packet.getUniqueId() != null ? packet.getUniqueId() : UUID.randomUUID();
 
-        byte[] data;
+        if (wireVersion >= PacketWireVersion.BINARY_UNIQUE_ID)
+        {
+            byteBuf.writeByte(PacketWireVersion.VERSIONED_FRAME_MARKER).writeByte(wireVersion);
+            NettyUtils.writeUUID(byteBuf, uniqueId);
+        } else
+            NettyUtils.writeString(byteBuf, uniqueId.toString());
 
         //Writing the header
         if (packet.getHeader() != null)
         {
-            data = packet.getHeader().toByteArray();
-            NettyUtils.writeVarInt(byteBuf, data.length);
-            byteBuf.writeBytes(data);
+            if (headerCodec == PacketHeaderCodecs.JSON)
+            {
+                byte[] data = packet.getHeader().toByteArray();
+                NettyUtils.writeVarInt(byteBuf, data.length);
+                byteBuf.writeBytes(data);
+            } else
+                writeHeader(byteBuf, packet, headerCodec);
         } else
         {
             NettyUtils.writeString(byteBuf, "{}");
         }
 
-        //Writing the body
-        data = packet.getBody();
+        //Writing the length of the body
+        NettyUtils.writeVarInt(byteBuf, bodyLength);
+    }
+
+    private static void writeHeader(ByteBuf byteBuf, IPacket packet, IPacketHeaderCodec headerCodec) throws Exception
+    {
+        ByteBuf headerBuffer = byteBuf.alloc().buffer();
 
-        if (data == null || data.length == 0) data = Packet.EMPTY_PACKET_BYTE_ARRAY;
+        try
+        {
+            headerCodec.encode(packet.getHeader(), new ByteBufOutputStream(headerBuffer));
+
+            NettyUtils.writeVarInt(byteBuf, headerBuffer.readableBytes());
+            byteBuf.writeBytes(headerBuffer);
+        } finally
+        {
+            headerBuffer.release();
+        }
+    }
+
+    private static ByteBuf getBody(IPacket packet)
+    {
+        ByteBuf body = packet.getBodyBuffer();
+
+        return body == null || !body.isReadable() ? EMPTY_PACKET_BODY : body;
+    }
+
+    static IPacketHeaderCodec getHeaderCodec(ChannelHandlerContext ctx)
+    {
+        IPacketHeaderCodec headerCodec = ctx != null ? ctx.channel().attr(PACKET_HEADER_CODEC).get() : null;
+
+        return headerCodec != null ? headerCodec : PacketHeaderCodecs.JSON;
+    }
+
+    static int getWireVersion(ChannelHandlerContext ctx)
+    {
+        Integer wireVersion = ctx != null ? ctx.channel().attr(PACKET_WIRE_VERSION).get() : null;
 
-        NettyUtils.writeVarInt(byteBuf, data.length).writeBytes(data);
+        return wireVersion != null ? wireVersion : PacketWireVersion.LEGACY;
     }
-}
\ No newline at end of file
+}
@@ -43,7 +43,7 @@ public final class NettyPacketLengthDeserializer extends ByteToMessageDecoder {
                         return;
                     }
 
-                    out.add(in.readBytes(packetLength));
+                    out.add(in.readRetainedSlice(packetLength));
                 } finally
                 {
                     buffer.release();
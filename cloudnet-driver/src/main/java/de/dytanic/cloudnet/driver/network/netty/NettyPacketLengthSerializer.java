@@ -6,20 +6,22 @@ package de.dytanic.cloudnet.driver.network.netty;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 
-public final class NettyPacketLengthSerializer extends MessageToByteEncoder<ByteBuf> {
+import java.util.List;
+
+public final class NettyPacketLengthSerializer extends MessageToMessageEncoder<ByteBuf> {
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) throws Exception
+    protected void encode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
     {
         int readableBytes = in.readableBytes(), lengthByteSpace = getVarIntSize(readableBytes);
 
         if (lengthByteSpace > 5) throw new IllegalArgumentException();
 
-        out.ensureWritable(lengthByteSpace + readableBytes);
-        NettyUtils.writeVarInt(out, readableBytes);
-        out.writeBytes(in, in.readerIndex(), readableBytes);
+        //The frame is written behind the length prefix without copying it
+        out.add(NettyUtils.writeVarInt(ctx.alloc().buffer(lengthByteSpace), readableBytes));
+        out.add(in.retain());
     }
 
     private int getVarIntSize(int value)
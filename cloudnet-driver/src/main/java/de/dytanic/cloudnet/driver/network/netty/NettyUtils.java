@@ -20,6 +20,7 @@ import io.netty.util.concurrent.DefaultThreadFactory;
 import io.netty.util.concurrent.MultithreadEventExecutorGroup;
 
 import java.nio.charset.StandardCharsets;
+import java.util.UUID;
 import java.util.concurrent.ThreadFactory;
 
 
@@ -156,4 +157,16 @@ public final class NettyUtils {
 
         return new String(buffer, StandardCharsets.UTF_8);
     }
+
+    public static ByteBuf writeUUID(ByteBuf byteBuf, UUID uniqueId)
+    {
+        return byteBuf
+            .writeLong(uniqueId.getMostSignificantBits())
+            .writeLong(uniqueId.getLeastSignificantBits());
+    }
+
+    public static UUID readUUID(ByteBuf byteBuf)
+    {
+        return new UUID(byteBuf.readLong(), byteBuf.readLong());
+    }
 }
\ No newline at end of file
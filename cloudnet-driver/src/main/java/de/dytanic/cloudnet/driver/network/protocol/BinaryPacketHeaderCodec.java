@@ -0,0 +1,251 @@
+package de.dytanic.cloudnet.driver.network.protocol;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A compact tagged binary header codec. It writes the JSON tree of the header directly, without
+ * the serialization to text and the parsing of the text with Gson.
+ * <p>
+ * Every element is written as a tag byte followed by its value. Strings, arrays and objects
+ * have a var int length prefix.
+ */
+public final class BinaryPacketHeaderCodec implements IPacketHeaderCodec {
+
+    public static final byte ID = 1;
+
+    public static final String NAME = "binary";
+
+    private static final byte
+        TAG_NULL = 0,
+        TAG_TRUE = 1,
+        TAG_FALSE = 2,
+        TAG_INT = 3,
+        TAG_LONG = 4,
+        TAG_DOUBLE = 5,
+        TAG_NUMBER = 6,
+        TAG_STRING = 7,
+        TAG_ARRAY = 8,
+        TAG_OBJECT = 9;
+
+    @Override
+    public byte getId()
+    {
+        return ID;
+    }
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public void encode(JsonDocument header, DataOutput output) throws IOException
+    {
+        output.writeByte(ID);
+        this.writeObject(header.toJsonObject(), output);
+    }
+
+    @Override
+    public JsonDocument decode(DataInput input, int length) throws IOException
+    {
+        if (input.readByte() != ID) throw new IOException("Invalid binary packet header codec id");
+
+        if (input.readByte() != TAG_OBJECT) throw new IOException("The binary packet header has to be an object");
+
+        return new JsonDocument(this.readObject(input));
+    }
+
+    /*= ------------------------------------------------------------------------------------ =*/
+
+    private void writeElement(JsonElement element, DataOutput output) throws IOException
+    {
+        if (element == null || element.isJsonNull())
+        {
+            output.writeByte(TAG_NULL);
+            return;
+        }
+
+        if (element.isJsonObject())
+        {
+            this.writeObject(element.getAsJsonObject(), output);
+            return;
+        }
+
+        if (element.isJsonArray())
+        {
+            JsonArray array = element.getAsJsonArray();
+
+            output.writeByte(TAG_ARRAY);
+            writeVarInt(output, array.size());
+
+            for (JsonElement item : array)
+                this.writeElement(item, output);
+
+            return;
+        }
+
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+
+        if (primitive.isBoolean())
+        {
+            output.writeByte(primitive.getAsBoolean() ? TAG_TRUE : TAG_FALSE);
+            return;
+        }
+
+        if (primitive.isNumber())
+        {
+            Number number = primitive.getAsNumber();
+
+            if (number instanceof Integer || number instanceof Short || number instanceof Byte)
+            {
+                output.writeByte(TAG_INT);
+                writeVarInt(output, number.intValue());
+            } else if (number instanceof Long)
+            {
+                output.writeByte(TAG_LONG);
+                output.writeLong(number.longValue());
+            } else if (number instanceof Double || number instanceof Float)
+            {
+                output.writeByte(TAG_DOUBLE);
+                output.writeDouble(number.doubleValue());
+            } else
+            {
+                output.writeByte(TAG_NUMBER);
+                writeString(output, number.toString());
+            }
+
+            return;
+        }
+
+        output.writeByte(TAG_STRING);
+        writeString(output, primitive.getAsString());
+    }
+
+    private void writeObject(JsonObject object, DataOutput output) throws IOException
+    {
+        output.writeByte(TAG_OBJECT);
+        writeVarInt(output, object.size());
+
+        for (Map.Entry<String, JsonElement> entry : object.entrySet())
+        {
+            writeString(output, entry.getKey());
+            this.writeElement(entry.getValue(), output);
+        }
+    }
+
+    private JsonElement readElement(DataInput input) throws IOException
+    {
+        byte tag = input.readByte();
+
+        switch (tag)
+        {
+            case TAG_NULL:
+                return JsonNull.INSTANCE;
+            case TAG_TRUE:
+                return new JsonPrimitive(true);
+            case TAG_FALSE:
+                return new JsonPrimitive(false);
+            case TAG_INT:
+                return new JsonPrimitive(readVarInt(input));
+            case TAG_LONG:
+                return new JsonPrimitive(input.readLong());
+            case TAG_DOUBLE:
+                return new JsonPrimitive(input.readDouble());
+            case TAG_NUMBER:
+                return new JsonPrimitive(new LazilyParsedNumber(readString(input)));
+            case TAG_STRING:
+                return new JsonPrimitive(readString(input));
+            case TAG_ARRAY:
+            {
+                int size = readVarInt(input);
+                JsonArray array = new JsonArray(size);
+
+                for (int i = 0; i < size; i++)
+                    array.add(this.readElement(input));
+
+                return array;
+            }
+            case TAG_OBJECT:
+                return this.readObject(input);
+            default:
+                throw new IOException("Unknown binary packet header tag " + tag);
+        }
+    }
+
+    private JsonObject readObject(DataInput input) throws IOException
+    {
+        int size = readVarInt(input);
+        JsonObject object = new JsonObject();
+
+        for (int i = 0; i < size; i++)
+            object.add(readString(input), this.readElement(input));
+
+        return object;
+    }
+
+    /*= ------------------------------------------------------------------------------------ =*/
+
+    private static void writeVarInt(DataOutput output, int value) throws IOException
+    {
+        do
+        {
+            byte temp = (byte) (value & 0b01111111);
+            value >>>= 7;
+            if (value != 0)
+            {
+                temp |= 0b10000000;
+            }
+            output.writeByte(temp);
+        } while (value != 0);
+    }
+
+    private static int readVarInt(DataInput input) throws IOException
+    {
+        int numRead = 0;
+        int result = 0;
+        byte read;
+        do
+        {
+            read = input.readByte();
+            int value = (read & 0b01111111);
+            result |= (value << (7 * numRead));
+
+            numRead++;
+            if (numRead > 5)
+            {
+                throw new IOException("VarInt is too big");
+            }
+        } while ((read & 0b10000000) != 0);
+
+        return result;
+    }
+
+    private static void writeString(DataOutput output, String value) throws IOException
+    {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+
+        writeVarInt(output, data.length);
+        output.write(data);
+    }
+
+    private static String readString(DataInput input) throws IOException
+    {
+        byte[] data = new byte[readVarInt(input)];
+        input.readFully(data);
+
+        return new String(data, StandardCharsets.UTF_8);
+    }
+}
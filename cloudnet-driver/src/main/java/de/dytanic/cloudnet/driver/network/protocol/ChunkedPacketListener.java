@@ -0,0 +1,372 @@
+package de.dytanic.cloudnet.driver.network.protocol;
+
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.concurrent.HashedWheelTimer;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives the chunked transfers of ChunkedPacketOutputStreams and writes each chunk directly into an
+ * OutputStream of the transfer, so the transfer never has to be completely in the memory.
+ * <p>
+ * The packets of a channel can be handled in another order than they were sent, chunks which arrive
+ * too early are kept until all previous chunks are written. A transfer, whose chunks arrive too far ahead of the
+ * next chunk or whose kept chunks are too large, is aborted, and the rest of its chunks is discarded.
+ *
+ * @see ChunkedPacketOutputStream
+ */
+public abstract class ChunkedPacketListener implements IPacketListener {
+
+    /**
+     * Transfers, from that no chunk was received in this time, are aborted, because the sender was disconnected
+     */
+    public static final long TRANSFER_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * The max distance of a chunk, which arrives too early, to the next expected chunk of its transfer
+     */
+    public static final int MAX_PENDING_CHUNKS = Integer.getInteger("cloudnet.network.chunked.maxPendingChunks", 64);
+
+    /**
+     * The max size of the bodies of the chunks, which are kept for one transfer, until their previous chunks arrive
+     */
+    public static final long MAX_PENDING_BYTES = Long.getLong("cloudnet.network.chunked.maxPendingBytes", 32 * 1024 * 1024);
+
+    /**
+     * Aborts the timed out transfers of all listeners, also if no other transfer is started anymore
+     */
+    private static final HashedWheelTimer EXPIRY_TIMER = new HashedWheelTimer("ChunkedPacketListener-Expiry");
+
+    private final Map<UUID, ChunkedTransfer> transfers = Maps.newConcurrentHashMap();
+
+    @Override
+    public final void handle(INetworkChannel channel, IPacket packet) throws Exception
+    {
+        if (!packet.getHeader().contains("transferId") || !packet.getHeader().contains("chunkIndex")) return;
+
+        UUID transferId = packet.getHeader().get("transferId", UUID.class);
+
+        ChunkedTransfer transfer = this.transfers.get(transferId);
+
+        if (transfer == null)
+        {
+            ChunkedTransfer newTransfer = new ChunkedTransfer(transferId, channel), previousTransfer = this.transfers.putIfAbsent(transferId, newTransfer);
+
+            if (previousTransfer == null)
+                synchronized (newTransfer)
+                {
+                    newTransfer.scheduleExpiry(this.getTransferTimeoutMillis());
+                }
+
+            transfer = previousTransfer != null ? previousTransfer : newTransfer;
+        }
+
+        synchronized (transfer)
+        {
+            transfer.lastChunkTime = System.currentTimeMillis();
+            transfer.handleChunk(packet.getHeader().getInt("chunkIndex"), packet);
+        }
+    }
+
+    /**
+     * Creates the stream, in that the data of a new transfer should be written. The stream is closed by the listener
+     *
+     * @param channel the channel, from that the transfer is received
+     * @param header  the header, which the sender has set for the transfer
+     * @return the target stream of the transfer data or null, if this listener should ignore the transfer
+     * @throws IOException if the stream can't be created. The transfer will be aborted
+     */
+    protected abstract OutputStream createOutputStream(INetworkChannel channel, JsonDocument header) throws IOException;
+
+    /**
+     * Handles a completely received transfer. The outputStream is already closed
+     *
+     * @param channel      the channel, from that the transfer was received
+     * @param header       the header, which the sender has set for the transfer
+     * @param outputStream the stream, which was created for the transfer in createOutputStream
+     * @throws IOException if the received data can't be handled
+     */
+    protected void handleComplete(INetworkChannel channel, JsonDocument header, OutputStream outputStream) throws IOException
+    {
+    }
+
+    /**
+     * Handles a transfer, which was aborted by the sender, timed out or failed on the receiver site. The outputStream is already closed
+     *
+     * @param channel      the channel, from that the transfer was received
+     * @param header       the header, which the sender has set for the transfer
+     * @param outputStream the stream, which was created for the transfer in createOutputStream
+     */
+    protected void handleAbort(INetworkChannel channel, JsonDocument header, OutputStream outputStream)
+    {
+    }
+
+    /**
+     * Returns the time, after that a transfer without a new chunk is aborted
+     */
+    protected long getTransferTimeoutMillis()
+    {
+        return TRANSFER_TIMEOUT_MILLIS;
+    }
+
+    /**
+     * Returns the max distance of a kept chunk to the next expected chunk of its transfer
+     */
+    protected int getMaxPendingChunks()
+    {
+        return MAX_PENDING_CHUNKS;
+    }
+
+    /**
+     * Returns the max size of the bodies of the kept chunks of one transfer
+     */
+    protected long getMaxPendingBytes()
+    {
+        return MAX_PENDING_BYTES;
+    }
+
+    private final class ChunkedTransfer {
+
+        private final UUID transferId;
+
+        private final INetworkChannel channel;
+
+        /**
+         * The chunks, which were received before their previous chunks
+         */
+        private final Map<Integer, IPacket> pendingChunks = Maps.newHashMap();
+
+        private long pendingBytes;
+
+        private long lastChunkTime = System.currentTimeMillis();
+
+        private HashedWheelTimer.Timeout expiryTimeout;
+
+        private int nextChunkIndex;
+
+        private JsonDocument header;
+
+        private OutputStream outputStream;
+
+        private boolean failed;
+
+        private ChunkedTransfer(UUID transferId, INetworkChannel channel)
+        {
+            this.transferId = transferId;
+            this.channel = channel;
+        }
+
+        /**
+         * Checks the transfer after the delay. The check is scheduled again for the rest of the timeout, if a chunk
+         * was received meanwhile, so the timer holds only one timeout per transfer
+         */
+        private void scheduleExpiry(long delayMillis)
+        {
+            this.expiryTimeout = EXPIRY_TIMER.newTimeout(new Runnable() {
+                @Override
+                public void run()
+                {
+                    synchronized (ChunkedTransfer.this)
+                    {
+                        if (transfers.get(transferId) != ChunkedTransfer.this) return;
+
+                        long remainingMillis = lastChunkTime + getTransferTimeoutMillis() - System.currentTimeMillis();
+
+                        if (remainingMillis > 0)
+                        {
+                            scheduleExpiry(remainingMillis);
+                            return;
+                        }
+
+                        transfers.remove(transferId, ChunkedTransfer.this);
+                        abort();
+                    }
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Removes the completed or aborted transfer from the listener
+         */
+        private void remove()
+        {
+            transfers.remove(this.transferId, this);
+
+            if (this.expiryTimeout != null) this.expiryTimeout.cancel();
+        }
+
+        private void handleChunk(int chunkIndex, IPacket packet)
+        {
+            //The rest of a failed transfer is discarded, the transfer is only kept to ignore its chunks until the end
+            if (this.failed)
+            {
+                if (packet.getHeader().getBoolean("last") || packet.getHeader().contains("aborted")) this.remove();
+                return;
+            }
+
+            if (chunkIndex < this.nextChunkIndex) return;
+
+            if (chunkIndex > this.nextChunkIndex)
+            {
+                long pendingBytes = this.pendingBytes + getBodyLength(packet);
+
+                if (chunkIndex - this.nextChunkIndex > getMaxPendingChunks() || pendingBytes > getMaxPendingBytes())
+                {
+                    //The transfer stays registered as failed, so its following chunks aren't kept again
+                    this.abort();
+                    return;
+                }
+
+                //The body has to be available, after the packet handling is completed
+                if (!this.pendingChunks.containsKey(chunkIndex))
+                {
+                    this.pendingChunks.put(chunkIndex, packet.retain());
+                    this.pendingBytes = pendingBytes;
+                }
+
+                return;
+            }
+
+            if (!this.writeChunk(packet)) return;
+            this.nextChunkIndex++;
+
+            IPacket pendingChunk;
+            while ((pendingChunk = this.pendingChunks.remove(this.nextChunkIndex)) != null)
+            {
+                this.pendingBytes -= getBodyLength(pendingChunk);
+
+                try
+                {
+                    if (!this.writeChunk(pendingChunk)) return;
+                } finally
+                {
+                    pendingChunk.release();
+                }
+
+                this.nextChunkIndex++;
+            }
+        }
+
+        /**
+         * Writes the chunk into the stream and completes the transfer, if the chunk is the last one
+         *
+         * @return true, if the transfer expects more chunks
+         */
+        private boolean writeChunk(IPacket packet)
+        {
+            JsonDocument chunkHeader = packet.getHeader();
+
+            try
+            {
+                if (this.nextChunkIndex == 0)
+                {
+                    this.header = chunkHeader.contains("header") ? chunkHeader.getDocument("header") : new JsonDocument();
+                    this.outputStream = createOutputStream(this.channel, this.header);
+                }
+
+                if (chunkHeader.contains("aborted") && chunkHeader.getBoolean("aborted"))
+                {
+                    this.remove();
+                    this.abort();
+                    return false;
+                }
+
+                ByteBuf body = packet.getBodyBuffer();
+
+                if (!this.failed && this.outputStream != null && body != null && body.isReadable())
+                    body.getBytes(body.readerIndex(), this.outputStream, body.readableBytes());
+
+                if (chunkHeader.getBoolean("last"))
+                {
+                    this.remove();
+                    this.complete();
+                    return false;
+                }
+
+            } catch (Exception ex)
+            {
+                ex.printStackTrace();
+                this.fail();
+
+                if (chunkHeader.getBoolean("last") || chunkHeader.contains("aborted"))
+                {
+                    this.remove();
+                    this.releasePendingChunks();
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void complete() throws IOException
+        {
+            if (this.failed || this.outputStream == null)
+            {
+                this.releasePendingChunks();
+                return;
+            }
+
+            this.outputStream.close();
+            handleComplete(this.channel, this.header, this.outputStream);
+        }
+
+        /**
+         * Discards the data of the rest of the transfer, after the receiving side has failed
+         */
+        private void fail()
+        {
+            if (this.failed) return;
+
+            this.failed = true;
+            this.releasePendingChunks();
+            this.closeAndAbort();
+        }
+
+        private void abort()
+        {
+            this.releasePendingChunks();
+
+            if (!this.failed) this.closeAndAbort();
+
+            this.failed = true;
+        }
+
+        private void closeAndAbort()
+        {
+            if (this.outputStream == null) return;
+
+            try
+            {
+                this.outputStream.close();
+            } catch (IOException ex)
+            {
+                ex.printStackTrace();
+            }
+
+            handleAbort(this.channel, this.header, this.outputStream);
+        }
+
+        private void releasePendingChunks()
+        {
+            for (IPacket packet : this.pendingChunks.values())
+                packet.release();
+
+            this.pendingChunks.clear();
+            this.pendingBytes = 0;
+        }
+
+        private long getBodyLength(IPacket packet)
+        {
+            ByteBuf body = packet.getBodyBuffer();
+            return body != null ? body.readableBytes() : 0;
+        }
+    }
+}
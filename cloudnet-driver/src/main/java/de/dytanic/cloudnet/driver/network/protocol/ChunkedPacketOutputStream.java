@@ -0,0 +1,239 @@
+package de.dytanic.cloudnet.driver.network.protocol;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import io.netty.buffer.Unpooled;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.UUID;
+
+/**
+ * Sends all written data as a sequence of chunk packets to a channel, so the data never has to be
+ * completely in the memory of the sender or the receiver. After each chunk, the stream waits until the
+ * channel is writable again, so a slow receiver slows down the writer of the stream.
+ * <p>
+ * The stream has to be closed, to send the last chunk. If the data can't be written completely, the
+ * transfer should be cancelled with abort(). The receiver handles the chunks with a ChunkedPacketListener
+ *
+ * @see ChunkedPacketListener
+ */
+@Getter
+public class ChunkedPacketOutputStream extends OutputStream {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final INetworkChannel channel;
+
+    private final int packetChannel;
+
+    private final JsonDocument header;
+
+    private final UUID transferId = UUID.randomUUID();
+
+    @Getter(AccessLevel.NONE)
+    private final byte[] buffer;
+
+    @Getter(AccessLevel.NONE)
+    private int position;
+
+    private int chunkIndex;
+
+    private boolean closed;
+
+    public ChunkedPacketOutputStream(INetworkChannel channel, int packetChannel, JsonDocument header)
+    {
+        this(channel, packetChannel, header, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedPacketOutputStream(INetworkChannel channel, int packetChannel, JsonDocument header, int chunkSize)
+    {
+        Validate.checkNotNull(channel);
+        Validate.checkNotNull(header);
+
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize has to be positive");
+
+        this.channel = channel;
+        this.packetChannel = packetChannel;
+        this.header = header;
+        this.buffer = new byte[chunkSize];
+    }
+
+    /**
+     * Sends the complete data of the inputStream as a chunked transfer. The inputStream will not closed
+     *
+     * @param channel       the channel, which should receive the data
+     * @param packetChannel the packet channel id, on that the ChunkedPacketListener of the receiver is registered
+     * @param header        the header of the transfer, which the receiver gets with the first chunk
+     * @param inputStream   the source of the data
+     * @throws IOException if the inputStream can't read or the transfer is interrupted. The transfer is aborted in this case
+     */
+    public static void transfer(INetworkChannel channel, int packetChannel, JsonDocument header, InputStream inputStream) throws IOException
+    {
+        Validate.checkNotNull(inputStream);
+
+        ChunkedPacketOutputStream outputStream = new ChunkedPacketOutputStream(channel, packetChannel, header);
+
+        try
+        {
+            byte[] buffer = new byte[DEFAULT_CHUNK_SIZE];
+            int len;
+
+            while ((len = inputStream.read(buffer)) != -1)
+                outputStream.write(buffer, 0, len);
+
+        } catch (IOException ex)
+        {
+            outputStream.abort();
+            throw ex;
+        }
+
+        outputStream.close();
+    }
+
+    /**
+     * Sends the complete data of the byteChannel as a chunked transfer. The byteChannel will not closed
+     *
+     * @param channel       the channel, which should receive the data
+     * @param packetChannel the packet channel id, on that the ChunkedPacketListener of the receiver is registered
+     * @param header        the header of the transfer, which the receiver gets with the first chunk
+     * @param byteChannel   the source of the data
+     * @throws IOException if the byteChannel can't read or the transfer is interrupted. The transfer is aborted in this case
+     */
+    public static void transfer(INetworkChannel channel, int packetChannel, JsonDocument header, ReadableByteChannel byteChannel) throws IOException
+    {
+        Validate.checkNotNull(byteChannel);
+
+        ChunkedPacketOutputStream outputStream = new ChunkedPacketOutputStream(channel, packetChannel, header);
+
+        try
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_CHUNK_SIZE);
+
+            while (byteChannel.read(buffer) != -1)
+            {
+                buffer.flip();
+                outputStream.write(buffer.array(), 0, buffer.limit());
+                buffer.clear();
+            }
+
+        } catch (IOException ex)
+        {
+            outputStream.abort();
+            throw ex;
+        }
+
+        outputStream.close();
+    }
+
+    @Override
+    public void write(int b) throws IOException
+    {
+        this.checkOpen();
+
+        if (this.position == this.buffer.length) this.sendChunk(false);
+
+        this.buffer[this.position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException
+    {
+        Validate.checkNotNull(b);
+        this.checkOpen();
+
+        if (off < 0 || len < 0 || off + len > b.length) throw new IndexOutOfBoundsException();
+
+        while (len > 0)
+        {
+            if (this.position == this.buffer.length) this.sendChunk(false);
+
+            int count = Math.min(len, this.buffer.length - this.position);
+            System.arraycopy(b, off, this.buffer, this.position, count);
+
+            this.position += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Sends the rest of the data as last chunk and completes the transfer
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (this.closed) return;
+
+        this.sendChunk(true);
+        this.closed = true;
+    }
+
+    /**
+     * Cancels the transfer. The receiver discards the data of the transfer
+     */
+    public void abort()
+    {
+        if (this.closed) return;
+
+        this.closed = true;
+        this.position = 0;
+
+        this.sendPacket(this.createChunk(false, true));
+    }
+
+    private void sendChunk(boolean last) throws IOException
+    {
+        this.sendPacket(this.createChunk(last, false));
+        this.position = 0;
+
+        if (!last)
+            try
+            {
+                this.channel.waitUntilWritable();
+            } catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                this.abort();
+
+                throw new InterruptedIOException("Chunked transfer " + this.transferId + " was interrupted");
+            }
+    }
+
+    private void sendPacket(IPacket packet)
+    {
+        try
+        {
+            this.channel.sendPacket(packet);
+        } finally
+        {
+            packet.release();
+        }
+    }
+
+    private IPacket createChunk(boolean last, boolean aborted)
+    {
+        JsonDocument chunkHeader = new JsonDocument()
+            .append("transferId", this.transferId)
+            .append("chunkIndex", this.chunkIndex)
+            .append("last", last);
+
+        if (aborted) chunkHeader.append("aborted", true);
+
+        if (this.chunkIndex++ == 0) chunkHeader.append("header", this.header);
+
+        return new Packet(this.packetChannel, UUID.randomUUID(), chunkHeader, Unpooled.copiedBuffer(this.buffer, 0, aborted ? 0 : this.position));
+    }
+
+    private void checkOpen() throws IOException
+    {
+        if (this.closed) throw new IOException("Chunked transfer " + this.transferId + " is already closed");
+    }
+}
@@ -5,43 +5,69 @@ import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 import java.util.*;
 
 /**
  * Default IPacketListenerRegistry implementation
+ * <p>
+ * The listeners are published after every change as immutable snapshot, an array of listener arrays indexed by the
+ * channel id. The snapshot of a child registry contains the listeners of its parents too and is only rebuilt, if the
+ * registry or one of its parents was changed, so the handling of a packet needs no map lookup and no boxing
  */
-@RequiredArgsConstructor
 public final class DefaultPacketListenerRegistry implements IPacketListenerRegistry {
 
+    /**
+     * Channel ids from 0 until this bound are looked up in the array of the snapshot, all other ones in a map
+     */
+    private static final int MAX_INDEXED_CHANNEL = 1024;
+
+    private static final IPacketListener[] EMPTY_LISTENERS = new IPacketListener[0];
+
+    private static final ListenerSnapshot EMPTY_SNAPSHOT = new ListenerSnapshot(new IPacketListener[0][], Collections.emptyMap(), null, null);
+
     private final Map<Integer, List<IPacketListener>> listeners = Maps.newConcurrentHashMap();
 
     @Getter
     private final IPacketListenerRegistry parent;
 
+    /**
+     * The snapshot of the listeners of this registry only
+     */
+    private volatile ListenerSnapshot ownSnapshot = EMPTY_SNAPSHOT;
+
+    /**
+     * The last snapshot with the listeners of the parents, is rebuilt if the own or the parent snapshot has changed
+     */
+    private volatile ListenerSnapshot snapshot = EMPTY_SNAPSHOT;
+
     public DefaultPacketListenerRegistry()
     {
-        this.parent = null;
+        this(null);
+    }
+
+    public DefaultPacketListenerRegistry(IPacketListenerRegistry parent)
+    {
+        this.parent = parent;
     }
 
     @Override
-    public void addListener(int channel, IPacketListener... listeners)
+    public synchronized void addListener(int channel, IPacketListener... listeners)
     {
         Validate.checkNotNull(listeners);
 
+        for (IPacketListener listener : listeners)
+            Validate.checkNotNull(listener);
+
         if (!this.listeners.containsKey(channel))
             this.listeners.put(channel, Iterables.newCopyOnWriteArrayList());
 
-        for (IPacketListener listener : listeners)
-        {
-            Validate.checkNotNull(listener);
-            this.listeners.get(channel).add(listener);
-        }
+        this.listeners.get(channel).addAll(Arrays.asList(listeners));
+        this.publish();
     }
 
     @Override
-    public void removeListener(int channel, IPacketListener... listeners)
+    public synchronized void removeListener(int channel, IPacketListener... listeners)
     {
         Validate.checkNotNull(listeners);
 
@@ -51,26 +77,33 @@ public final class DefaultPacketListenerRegistry implements IPacketListenerRegis
 
             if (this.listeners.get(channel).isEmpty())
                 this.listeners.remove(channel);
+
+            this.publish();
         }
     }
 
     @Override
-    public void removeListeners(int channel)
+    public synchronized void removeListeners(int channel)
     {
         if (this.listeners.containsKey(channel))
         {
             this.listeners.get(channel).clear();
             this.listeners.remove(channel);
+
+            this.publish();
         }
     }
 
     @Override
-    public void removeListeners(ClassLoader classLoader)
+    public synchronized void removeListeners(ClassLoader classLoader)
     {
         for (Map.Entry<Integer, List<IPacketListener>> listenerCollectionEntry : this.listeners.entrySet())
             for (IPacketListener listener : listenerCollectionEntry.getValue())
                 if (listener.getClass().getClassLoader().equals(classLoader))
                     listenerCollectionEntry.getValue().remove(listener);
+
+        this.listeners.values().removeIf(List::isEmpty);
+        this.publish();
     }
 
     @Override
@@ -85,9 +118,10 @@ public final class DefaultPacketListenerRegistry implements IPacketListenerRegis
     }
 
     @Override
-    public void removeListeners()
+    public synchronized void removeListeners()
     {
         this.listeners.clear();
+        this.publish();
     }
 
     @Override
@@ -112,16 +146,132 @@ public final class DefaultPacketListenerRegistry implements IPacketListenerRegis
     {
         Validate.checkNotNull(packet);
 
-        if (this.parent != null) this.parent.handlePacket(channel, packet);
-
-        if (this.listeners.containsKey(packet.getChannel()))
-            for (IPacketListener listener : this.listeners.get(packet.getChannel()))
-                try
-                {
-                    listener.handle(channel, packet);
-                } catch (Exception ex)
-                {
-                    ex.printStackTrace();
-                }
+        //The listeners of other parent implementations are not contained in the snapshot
+        if (this.parent != null && !(this.parent instanceof DefaultPacketListenerRegistry))
+            this.parent.handlePacket(channel, packet);
+
+        for (IPacketListener listener : this.getSnapshot().getListeners(packet.getChannel()))
+            try
+            {
+                listener.handle(channel, packet);
+            } catch (Exception ex)
+            {
+                ex.printStackTrace();
+            }
+    }
+
+    /**
+     * Returns the snapshot with the listeners of this registry and all parents, which are DefaultPacketListenerRegistries
+     */
+    private ListenerSnapshot getSnapshot()
+    {
+        if (!(this.parent instanceof DefaultPacketListenerRegistry)) return this.ownSnapshot;
+
+        ListenerSnapshot parentSnapshot = ((DefaultPacketListenerRegistry) this.parent).getSnapshot(), ownSnapshot = this.ownSnapshot;
+
+        //A registry without own listeners, like the registry of a network channel, uses the snapshot of its parent
+        if (ownSnapshot == EMPTY_SNAPSHOT) return parentSnapshot;
+        if (parentSnapshot == EMPTY_SNAPSHOT) return ownSnapshot;
+
+        ListenerSnapshot snapshot = this.snapshot;
+
+        if (snapshot.parentSnapshot != parentSnapshot || snapshot.ownSnapshot != ownSnapshot)
+            this.snapshot = snapshot = ListenerSnapshot.merge(parentSnapshot, ownSnapshot);
+
+        return snapshot;
+    }
+
+    private void publish()
+    {
+        if (this.listeners.isEmpty())
+        {
+            this.ownSnapshot = EMPTY_SNAPSHOT;
+            return;
+        }
+
+        int length = 0;
+
+        for (int channel : this.listeners.keySet())
+            if (channel >= 0 && channel < MAX_INDEXED_CHANNEL)
+                length = Math.max(length, channel + 1);
+
+        IPacketListener[][] indexedListeners = new IPacketListener[length][];
+        Map<Integer, IPacketListener[]> otherListeners = Maps.newHashMap();
+
+        for (Map.Entry<Integer, List<IPacketListener>> entry : this.listeners.entrySet())
+        {
+            IPacketListener[] listeners = entry.getValue().toArray(EMPTY_LISTENERS);
+
+            if (entry.getKey() >= 0 && entry.getKey() < MAX_INDEXED_CHANNEL)
+                indexedListeners[entry.getKey()] = listeners;
+            else
+                otherListeners.put(entry.getKey(), listeners);
+        }
+
+        this.ownSnapshot = new ListenerSnapshot(indexedListeners, otherListeners, null, null);
+    }
+
+    /*= ------------------------------------------------------------- =*/
+
+    private static final class ListenerSnapshot {
+
+        private final IPacketListener[][] indexedListeners;
+
+        private final Map<Integer, IPacketListener[]> otherListeners;
+
+        /**
+         * The snapshots, from which a merged snapshot was created
+         */
+        private final ListenerSnapshot parentSnapshot, ownSnapshot;
+
+        private ListenerSnapshot(IPacketListener[][] indexedListeners, Map<Integer, IPacketListener[]> otherListeners,
+                                 ListenerSnapshot parentSnapshot, ListenerSnapshot ownSnapshot)
+        {
+            this.indexedListeners = indexedListeners;
+            this.otherListeners = otherListeners;
+            this.parentSnapshot = parentSnapshot;
+            this.ownSnapshot = ownSnapshot;
+        }
+
+        private IPacketListener[] getListeners(int channel)
+        {
+            IPacketListener[] listeners;
+
+            if (channel >= 0 && channel < MAX_INDEXED_CHANNEL)
+                listeners = channel < this.indexedListeners.length ? this.indexedListeners[channel] : null;
+            else
+                listeners = this.otherListeners.isEmpty() ? null : this.otherListeners.get(channel);
+
+            return listeners != null ? listeners : EMPTY_LISTENERS;
+        }
+
+        /**
+         * Creates a snapshot with the listeners of the parent in front of the own listeners of every channel
+         */
+        private static ListenerSnapshot merge(ListenerSnapshot parentSnapshot, ListenerSnapshot ownSnapshot)
+        {
+            IPacketListener[][] indexedListeners = new IPacketListener[Math.max(parentSnapshot.indexedListeners.length, ownSnapshot.indexedListeners.length)][];
+
+            for (int channel = 0; channel < indexedListeners.length; channel++)
+                indexedListeners[channel] = concat(parentSnapshot.getListeners(channel), ownSnapshot.getListeners(channel));
+
+            Map<Integer, IPacketListener[]> otherListeners = Maps.newHashMap(parentSnapshot.otherListeners);
+
+            for (Map.Entry<Integer, IPacketListener[]> entry : ownSnapshot.otherListeners.entrySet())
+                otherListeners.put(entry.getKey(), concat(parentSnapshot.getListeners(entry.getKey()), entry.getValue()));
+
+            return new ListenerSnapshot(indexedListeners, otherListeners, parentSnapshot, ownSnapshot);
+        }
+
+        private static IPacketListener[] concat(IPacketListener[] first, IPacketListener[] second)
+        {
+            if (first.length == 0) return second;
+            if (second.length == 0) return first;
+
+            IPacketListener[] listeners = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, listeners, first.length, second.length);
+
+            return listeners;
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package de.dytanic.cloudnet.driver.network.protocol;
 
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.INetworkClient;
+import io.netty.buffer.ByteBuf;
 
 import java.util.UUID;
 
@@ -54,7 +55,38 @@ public interface IPacket {
      * <p>
      * The max length of the body can only be (Integer.MAX_VALUE - 1)
      *
+     * If the body is backed by a buffer, the byte array will created on the first invocation. A received packet is
+     * released after all listeners has handled it, so a listener, which reads the body later, for example in an
+     * async handler or a task listener, has to call this method during the handling or retain the packet before
+     *
      * @return the body as byte array in bytes
+     * @throws IllegalStateException if the body buffer was released, before the body was read the first time
      */
     byte[] getBody();
+
+    /**
+     * Returns the packet body as buffer without copying the data. For received packets, it is a slice of the
+     * received frame, which is released after all listeners has handled the packet.
+     * <p>
+     * The buffer should not be modified and released. If the body is needed after the handling of the packet,
+     * the packet has to be retained and released after the usage
+     *
+     * @return the body as buffer or null if the packet has no body
+     */
+    ByteBuf getBodyBuffer();
+
+    /**
+     * Increases the reference count of the body buffer, if the packet has one
+     *
+     * @return the same packet instance
+     */
+    IPacket retain();
+
+    /**
+     * Decreases the reference count of the body buffer, if the packet has one. The memory of the buffer will
+     * free, if the reference count is 0
+     *
+     * @return true if the body buffer was completely released
+     */
+    boolean release();
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package de.dytanic.cloudnet.driver.network.protocol;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A packet header codec defines the wire format of the IPacket header. Each network channel
+ * can use an own codec, which is negotiated between the client and the server in the authorization.
+ * <p>
+ * The first byte, that the codec writes, has to be the codec id. The receiver identifies the codec
+ * of every incoming header with this byte, so all codecs can be read at every time.
+ *
+ * @see PacketHeaderCodecs
+ */
+public interface IPacketHeaderCodec {
+
+    /**
+     * Returns the unique id of the codec, which is the first byte of every encoded header
+     */
+    byte getId();
+
+    /**
+     * Returns the unique name of the codec, which is used for the negotiation of the codec
+     */
+    String getName();
+
+    /**
+     * Writes the header with the codec id as first byte into the output
+     *
+     * @param header the header, which should be encoded
+     * @param output the output, in that the header should write
+     * @throws IOException if the output can't write the data
+     */
+    void encode(JsonDocument header, DataOutput output) throws IOException;
+
+    /**
+     * Reads a header, which was written by the encode method of this codec. The codec id is the first byte of the input
+     *
+     * @param input  the input, from that the header should read
+     * @param length the complete length of the encoded header in bytes
+     * @return the decoded header as a new JsonDocument instance
+     * @throws IOException if the input can't read the data or the data are invalid
+     */
+    JsonDocument decode(DataInput input, int length) throws IOException;
+}
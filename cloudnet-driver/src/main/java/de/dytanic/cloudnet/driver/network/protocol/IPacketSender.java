@@ -1,5 +1,7 @@
 package de.dytanic.cloudnet.driver.network.protocol;
 
+import java.util.Collection;
+
 /**
  * All implementations of this interface, can send a packet into the network
  * Its not specific that the sender is a client or a server.
@@ -27,4 +29,16 @@ public interface IPacketSender {
      */
     void sendPacket(IPacket... packets);
 
+    /**
+     * Transport packet instances into the network to the receiver. Implementations can write all packets
+     * together and flush them only once, which is cheaper than a flush per packet
+     *
+     * @param packets the packets, which should transport into the network
+     */
+    default void sendPackets(Collection<? extends IPacket> packets)
+    {
+        for (IPacket packet : packets)
+            this.sendPacket(packet);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package de.dytanic.cloudnet.driver.network.protocol;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The default header codec, which writes the header as UTF-8 JSON text. It is the format, that all
+ * clients and servers understand, so it is used until an other codec is negotiated.
+ * <p>
+ * A JSON object begins always with the '{' char, which is the id of this codec
+ */
+public final class JsonPacketHeaderCodec implements IPacketHeaderCodec {
+
+    public static final byte ID = '{';
+
+    public static final String NAME = "json";
+
+    @Override
+    public byte getId()
+    {
+        return ID;
+    }
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public void encode(JsonDocument header, DataOutput output) throws IOException
+    {
+        output.write(header.toByteArray());
+    }
+
+    @Override
+    public JsonDocument decode(DataInput input, int length) throws IOException
+    {
+        byte[] data = new byte[length];
+        input.readFully(data);
+
+        return JsonDocument.newDocument(data);
+    }
+}
@@ -1,7 +1,10 @@
 package de.dytanic.cloudnet.driver.network.protocol;
 
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
-import lombok.AllArgsConstructor;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.util.IllegalReferenceCountException;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
@@ -20,7 +23,6 @@ import java.util.UUID;
  */
 @Getter
 @NoArgsConstructor
-@AllArgsConstructor
 public class Packet implements IPacket {
 
     /**
@@ -34,7 +36,28 @@ public class Packet implements IPacket {
 
     protected JsonDocument header;
 
-    protected byte[] body;
+    protected volatile byte[] body;
+
+    /**
+     * The reference counted buffer of the body, if the packet was received from the network
+     */
+    protected ByteBuf bodyBuffer;
+
+    public Packet(int channel, UUID uniqueId, JsonDocument header, byte[] body)
+    {
+        this.channel = channel;
+        this.uniqueId = uniqueId;
+        this.header = header;
+        this.body = body;
+    }
+
+    public Packet(int channel, UUID uniqueId, JsonDocument header, ByteBuf bodyBuffer)
+    {
+        this.channel = channel;
+        this.uniqueId = uniqueId;
+        this.header = header;
+        this.bodyBuffer = bodyBuffer;
+    }
 
     public Packet(int channel, JsonDocument header)
     {
@@ -49,6 +72,50 @@ public class Packet implements IPacket {
         this.uniqueId = UUID.randomUUID();
     }
 
+    /**
+     * Copies the body buffer on the first call. A received packet is released after its handling, so the body has to
+     * be read in the listener or the packet has to be retained, until the body is read
+     *
+     * @throws IllegalStateException if the body buffer was already released, before the body was read
+     */
+    @Override
+    public byte[] getBody()
+    {
+        if (this.body == null && this.bodyBuffer != null)
+            try
+            {
+                this.body = ByteBufUtil.getBytes(this.bodyBuffer);
+            } catch (IllegalReferenceCountException exception)
+            {
+                throw new IllegalStateException("The body of the packet " + this.uniqueId + " on channel " + this.channel +
+                    " was released after its handling, read it in the listener or retain() the packet", exception);
+            }
+
+        return this.body;
+    }
+
+    @Override
+    public ByteBuf getBodyBuffer()
+    {
+        if (this.bodyBuffer != null) return this.bodyBuffer;
+
+        return this.body != null ? Unpooled.wrappedBuffer(this.body) : null;
+    }
+
+    @Override
+    public Packet retain()
+    {
+        if (this.bodyBuffer != null) this.bodyBuffer.retain();
+
+        return this;
+    }
+
+    @Override
+    public boolean release()
+    {
+        return this.bodyBuffer != null && this.bodyBuffer.release();
+    }
+
     @Override
     public void finalize()
     {
@@ -0,0 +1,51 @@
+package de.dytanic.cloudnet.driver.network.protocol;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.zip.Deflater;
+
+/**
+ * Configures the compression of the packet frames of a channel. Only frames, which are at least threshold bytes long,
+ * are compressed with Deflate, because the compression of small frames costs more CPU time than it saves bandwidth.
+ * <p>
+ * The compression is negotiated in the authorization and can only used with the wire version COMPRESSED_FRAMES or higher
+ *
+ * @see PacketWireVersion#COMPRESSED_FRAMES
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class PacketCompressionConfiguration {
+
+    /**
+     * The default minimum length of a frame, which should compressed
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    /**
+     * The default Deflate level. The fastest level compresses the JSON headers and documents already well
+     */
+    public static final int DEFAULT_LEVEL = Deflater.BEST_SPEED;
+
+    private final int threshold;
+
+    private final int level;
+
+    public PacketCompressionConfiguration()
+    {
+        this(DEFAULT_THRESHOLD, DEFAULT_LEVEL);
+    }
+
+    public PacketCompressionConfiguration(int threshold, int level)
+    {
+        if (threshold < 0) throw new IllegalArgumentException("The threshold can't be negative");
+
+        if ((level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) && level != Deflater.DEFAULT_COMPRESSION)
+            throw new IllegalArgumentException("Invalid Deflate level " + level);
+
+        this.threshold = threshold;
+        this.level = level;
+    }
+}
@@ -0,0 +1,66 @@
+package de.dytanic.cloudnet.driver.network.protocol;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the compressed and decompressed packet frames of one channel and the CPU time, which the compression took.
+ * <p>
+ * The counters are only written by the event loop of the channel, but they can read from every thread
+ */
+@Getter
+@ToString
+public final class PacketCompressionStatistics {
+
+    private volatile long compressedFrames, uncompressedBytes, compressedBytes, compressionNanos;
+
+    private volatile long decompressedFrames, decompressionNanos;
+
+    /**
+     * Records a compressed frame
+     *
+     * @param uncompressedBytes the length of the frame before the compression
+     * @param compressedBytes   the length of the written frame. It is the uncompressed length, if the compression doesn't save bytes
+     * @param nanos             the time in nanoseconds, which the compression took
+     */
+    public void recordCompression(int uncompressedBytes, int compressedBytes, long nanos)
+    {
+        this.compressedFrames++;
+        this.uncompressedBytes += uncompressedBytes;
+        this.compressedBytes += compressedBytes;
+        this.compressionNanos += nanos;
+    }
+
+    /**
+     * Records a decompressed frame
+     *
+     * @param nanos the time in nanoseconds, which the decompression took
+     */
+    public void recordDecompression(long nanos)
+    {
+        this.decompressedFrames++;
+        this.decompressionNanos += nanos;
+    }
+
+    /**
+     * Returns the ratio between the compressed and the uncompressed length of all compressed frames, 0.25 means that
+     * the frames are four times smaller. Is 1 if no frame was compressed yet
+     */
+    public double getCompressionRatio()
+    {
+        long uncompressedBytes = this.uncompressedBytes;
+        return uncompressedBytes == 0 ? 1D : (double) this.compressedBytes / uncompressedBytes;
+    }
+
+    public long getCompressionTimeMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(this.compressionNanos);
+    }
+
+    public long getDecompressionTimeMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(this.decompressionNanos);
+    }
+}
@@ -0,0 +1,83 @@
+package de.dytanic.cloudnet.driver.network.protocol;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Contains all known packet header codecs and the negotiation of the codec, which a channel should use
+ *
+ * @see IPacketHeaderCodec
+ */
+public final class PacketHeaderCodecs {
+
+    private PacketHeaderCodecs()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    public static final IPacketHeaderCodec
+        JSON = new JsonPacketHeaderCodec(),
+        BINARY = new BinaryPacketHeaderCodec();
+
+    /**
+     * All supported codecs, ordered by the preference of the negotiation
+     */
+    private static final Collection<IPacketHeaderCodec> CODECS = Collections.unmodifiableList(Arrays.asList(BINARY, JSON));
+
+    /**
+     * Returns all supported codecs, ordered by the preference of the negotiation
+     */
+    public static Collection<IPacketHeaderCodec> getCodecs()
+    {
+        return CODECS;
+    }
+
+    /**
+     * Returns the codec of the specific id or null if the codec is unknown
+     *
+     * @param id the id of the codec, which is the first byte of an encoded header
+     */
+    public static IPacketHeaderCodec getCodec(byte id)
+    {
+        for (IPacketHeaderCodec codec : CODECS)
+            if (codec.getId() == id)
+                return codec;
+
+        return null;
+    }
+
+    /**
+     * Returns the codec of the specific name or null if the codec is unknown
+     *
+     * @param name the name of the codec
+     */
+    public static IPacketHeaderCodec getCodec(String name)
+    {
+        if (name == null) return null;
+
+        for (IPacketHeaderCodec codec : CODECS)
+            if (codec.getName().equalsIgnoreCase(name))
+                return codec;
+
+        return null;
+    }
+
+    /**
+     * Selects the preferred codec, that both sides of the channel support. If the other side
+     * doesn't offer any codec, like older clients, the JSON codec will used.
+     *
+     * @param offeredCodecNames the codec names, which the other side of the channel supports. It can be null
+     * @return the codec, which the channel should use
+     */
+    public static IPacketHeaderCodec negotiate(Collection<String> offeredCodecNames)
+    {
+        if (offeredCodecNames != null)
+            for (IPacketHeaderCodec codec : CODECS)
+                for (String name : offeredCodecNames)
+                    if (codec.getName().equalsIgnoreCase(name))
+                        return codec;
+
+        return JSON;
+    }
+}
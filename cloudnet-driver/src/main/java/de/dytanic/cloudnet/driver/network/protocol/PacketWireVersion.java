@@ -0,0 +1,92 @@
+package de.dytanic.cloudnet.driver.network.protocol;
+
+/**
+ * Contains the versions of the packet frame format. The version for the outgoing packets of a channel is
+ * negotiated in the authorization. Older clients and servers don't send a version, so they use the legacy format.
+ * <p>
+ * All frames of a newer version begin after the channel id with the VERSIONED_FRAME_MARKER byte and the version,
+ * which the legacy format can't contain, so all versions can be read at every time
+ */
+public final class PacketWireVersion {
+
+    private PacketWireVersion()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * The uniqueId is written as 36 chars long UTF-8 string
+     */
+    public static final int LEGACY = 0;
+
+    /**
+     * The uniqueId is written as two longs with the most and least significant bits
+     */
+    public static final int BINARY_UNIQUE_ID = 1;
+
+    /**
+     * The frame format is the same as in BINARY_UNIQUE_ID, but the other side can receive chunked transfers
+     *
+     * @see ChunkedPacketOutputStream
+     */
+    public static final int CHUNKED_TRANSFER = 2;
+
+    /**
+     * The frame format is the same as in CHUNKED_TRANSFER, but the other side can receive compressed frames
+     *
+     * @see PacketCompressionConfiguration
+     */
+    public static final int COMPRESSED_FRAMES = 3;
+
+    /**
+     * The frame format is the same as in COMPRESSED_FRAMES, but the other side handles remote procedure calls in the
+     * RPC channel
+     *
+     * @see de.dytanic.cloudnet.driver.network.rpc.RPCClient
+     */
+    public static final int RPC = 4;
+
+    /**
+     * The frame format is the same as in RPC, but the other node receives the data of the h2 databases in multiple
+     * packets, instead of one packet with all documents
+     */
+    public static final int CHUNKED_H2_DATABASE_DATA = 5;
+
+    /**
+     * The newest version, which this driver supports
+     */
+    public static final int CURRENT = CHUNKED_H2_DATABASE_DATA;
+
+    /**
+     * The marker of a versioned frame. In the legacy format, this byte is the length of the uniqueId string,
+     * which can't be 0
+     */
+    public static final byte VERSIONED_FRAME_MARKER = 0;
+
+    /**
+     * The channel id of a compressed frame. Behind it follows the length of the uncompressed frame and the Deflate data.
+     * The channel is reserved, packets of it are rejected on sending, so compressed and uncompressed frames can be
+     * distinguished
+     */
+    public static final int COMPRESSED_FRAME_CHANNEL = Integer.MIN_VALUE;
+
+    /**
+     * Throws an IllegalArgumentException, if the channel id is reserved for the frames of the protocol
+     */
+    public static void checkPacketChannel(int channel)
+    {
+        if (channel == COMPRESSED_FRAME_CHANNEL)
+            throw new IllegalArgumentException("The channel " + channel + " is reserved for the compressed frames");
+    }
+
+    /**
+     * Selects the highest version, that both sides of the channel support
+     *
+     * @param offeredVersion the highest version of the other side, or 0 if the other side doesn't send one
+     * @return the version, which the channel should use
+     */
+    public static int negotiate(int offeredVersion)
+    {
+        return offeredVersion <= LEGACY ? LEGACY : Math.min(offeredVersion, CURRENT);
+    }
+}
@@ -0,0 +1,29 @@
+package de.dytanic.cloudnet.driver.network.rpc;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A codec writes and reads the values of one type as binary data for the arguments and the results of remote
+ * procedure calls
+ *
+ * @param <T> the type of the values, which the codec writes and reads
+ * @see RPCCodecs
+ */
+public interface IRPCCodec<T> {
+
+    /**
+     * Writes the value into the buffer
+     *
+     * @param buffer the buffer, in that the value should write
+     * @param value  the value, which can be null, if the codec isn't for a primitive type
+     */
+    void write(ByteBuf buffer, T value);
+
+    /**
+     * Reads a value, which was written by the write method of the codec
+     *
+     * @param buffer the buffer, from that the value should read
+     * @return the value, which was written
+     */
+    T read(ByteBuf buffer);
+}
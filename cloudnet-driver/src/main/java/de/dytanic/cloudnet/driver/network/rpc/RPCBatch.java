@@ -0,0 +1,61 @@
+package de.dytanic.cloudnet.driver.network.rpc;
+
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+
+/**
+ * A number of calls, which are sent together in one packet, when the batch is flushed. The responses of the calls,
+ * which are completed directly by the other side, are received in one packet too, so the calls cost only one
+ * round-trip.
+ * <p>
+ * Calls after the flush are sent directly in an own packet
+ *
+ * @see RPCClient#newBatch(INetworkChannel)
+ */
+public final class RPCBatch {
+
+    private final RPCClient client;
+
+    private final RPCMessageBatch messages;
+
+    RPCBatch(RPCClient client, RPCMessageBatch messages)
+    {
+        this.client = client;
+        this.messages = messages;
+    }
+
+    /**
+     * Creates a stub for a service, which adds all calls to this batch. Only the asynchronous methods of the stub can be
+     * called, because the result of a call is not available until the batch is flushed
+     *
+     * @param serviceClass the interface of the service
+     * @return the stub, which implements the interface
+     */
+    public <T> T createStub(Class<T> serviceClass)
+    {
+        return this.client.createStub(serviceClass, null, this.messages);
+    }
+
+    /**
+     * Adds a call of a service method to this batch
+     *
+     * @see RPCClient#invoke(INetworkChannel, RPCServiceDescriptor, RPCServiceDescriptor.RPCMethod, Object[])
+     */
+    public ITask<Object> invoke(RPCServiceDescriptor descriptor, RPCServiceDescriptor.RPCMethod method, Object[] args)
+    {
+        return this.client.invoke(this.messages.getChannel(), descriptor, method, args, this.messages);
+    }
+
+    /**
+     * Sends all calls of this batch in one packet
+     */
+    public void flush()
+    {
+        this.messages.flush();
+    }
+
+    public INetworkChannel getChannel()
+    {
+        return this.messages.getChannel();
+    }
+}
@@ -0,0 +1,318 @@
+package de.dytanic.cloudnet.driver.network.rpc;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.concurrent.HashedWheelTimer;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.netty.NettyUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Calls the methods of services, which are provided by an RPCServiceRegistry on the other side of a network channel.
+ * The stubs of the services are proxies of the service interfaces, which send every call as request and complete
+ * it with the response, that is correlated by a sequential call id.
+ * <p>
+ * Calls without a response in the timeout fail with an RPCException. Concurrent calls are sent together in one
+ * packet, if the automatic batching is enabled, and an RPCBatch sends a number of calls explicitly in one packet
+ *
+ * @see RPCServiceRegistry
+ * @see RPCServiceDescriptor
+ * @see RPCBatch
+ */
+public final class RPCClient {
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30000;
+
+    private final AtomicInteger callIds = new AtomicInteger();
+
+    private final Map<Integer, PendingCall> pendingCalls = Maps.newConcurrentHashMap();
+
+    private final Map<INetworkChannel, RPCMessageBatch> outgoingBatches = Maps.newConcurrentHashMap();
+
+    private final HashedWheelTimer timeoutTimer;
+
+    private final Executor executor;
+
+    @Getter
+    @Setter
+    private volatile long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+
+    /**
+     * If enabled, the requests, which are called concurrently until the executor flushes them, are sent together in
+     * one packet per channel. It's enabled by default, if the client has an executor
+     */
+    @Getter
+    @Setter
+    private volatile boolean autoBatching;
+
+    public RPCClient()
+    {
+        this(null);
+    }
+
+    /**
+     * @param executor the executor, in which the timed out calls are completed and the automatic batches are flushed
+     *                 or null to complete them in the thread of the timer and to send every request directly
+     */
+    public RPCClient(Executor executor)
+    {
+        this.executor = executor;
+        this.autoBatching = executor != null;
+        this.timeoutTimer = new HashedWheelTimer("RPCClient-Timeouts", executor);
+    }
+
+    /**
+     * Creates a stub for a service, which sends all calls of the interface methods to the other side of the channel.
+     * Methods with an ITask as result return the task directly, all other methods block until the result is received
+     * and throw an RPCException, if the call failed
+     *
+     * @param serviceClass    the interface of the service
+     * @param channelSupplier the supplier of the channel, to that the calls are sent. It's called on every call
+     * @return the stub, which implements the interface
+     */
+    public <T> T createStub(Class<T> serviceClass, Supplier<INetworkChannel> channelSupplier)
+    {
+        Validate.checkNotNull(channelSupplier);
+
+        return this.createStub(serviceClass, channelSupplier, null);
+    }
+
+    /**
+     * Creates a new batch, which sends all calls, until it's flushed, in one packet to the channel
+     *
+     * @param channel the channel, to that the batch should sent
+     * @return the new batch
+     */
+    public RPCBatch newBatch(INetworkChannel channel)
+    {
+        Validate.checkNotNull(channel);
+
+        return new RPCBatch(this, new RPCMessageBatch(channel));
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T createStub(Class<T> serviceClass, Supplier<INetworkChannel> channelSupplier, RPCMessageBatch batch)
+    {
+        RPCServiceDescriptor descriptor = RPCServiceDescriptor.of(serviceClass);
+
+        return (T) Proxy.newProxyInstance(serviceClass.getClassLoader(), new Class<?>[]{serviceClass}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+            {
+                if (method.getDeclaringClass() == Object.class)
+                    switch (method.getName())
+                    {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            return (batch != null ? "RPCBatchStub(" : "RPCStub(") + serviceClass.getName() + ")";
+                    }
+
+                RPCServiceDescriptor.RPCMethod rpcMethod = descriptor.getMethod(method);
+
+                if (rpcMethod == null) throw new RPCException("The method " + method + " is not a method of the service " + serviceClass.getName());
+
+                if (batch != null)
+                {
+                    if (!rpcMethod.isAsync()) throw new RPCException("Only asynchronous methods can be called in a batch, but " + method + " is synchronous");
+
+                    return RPCClient.this.invoke(batch.getChannel(), descriptor, rpcMethod, args, batch);
+                }
+
+                INetworkChannel channel = channelSupplier.get();
+
+                if (channel == null) throw new RPCException("No channel is available for the service " + serviceClass.getName());
+
+                ITask<Object> task = RPCClient.this.invoke(channel, descriptor, rpcMethod, args);
+
+                if (rpcMethod.isAsync()) return task;
+
+                try
+                {
+                    return task.get();
+                } catch (ExecutionException exception)
+                {
+                    throw exception.getCause() instanceof RPCException ? exception.getCause() : new RPCException("The call of " + method + " failed", exception.getCause());
+                }
+            }
+        });
+    }
+
+    /**
+     * Sends a call of a service method and returns the task, which is completed with the result
+     *
+     * @param channel    the channel, to that the request should sent
+     * @param descriptor the descriptor of the service
+     * @param method     the method, which should be called
+     * @param args       the arguments of the call or null, if the method has no parameters
+     * @return the task, which is completed with the result or fails with an RPCException
+     */
+    public ITask<Object> invoke(INetworkChannel channel, RPCServiceDescriptor descriptor, RPCServiceDescriptor.RPCMethod method, Object[] args)
+    {
+        return this.invoke(channel, descriptor, method, args, null);
+    }
+
+    ITask<Object> invoke(INetworkChannel channel, RPCServiceDescriptor descriptor, RPCServiceDescriptor.RPCMethod method, Object[] args, RPCMessageBatch batch)
+    {
+        Validate.checkNotNull(channel);
+        Validate.checkNotNull(descriptor);
+        Validate.checkNotNull(method);
+
+        int callId = this.callIds.incrementAndGet();
+        ByteBuf message = Unpooled.buffer();
+
+        message.writeByte(RPCPacketListener.MESSAGE_REQUEST);
+        NettyUtils.writeVarInt(message, callId);
+        message.writeInt(descriptor.getServiceId());
+        NettyUtils.writeVarInt(message, method.getId());
+
+        IRPCCodec<Object>[] parameterCodecs = method.getParameterCodecs();
+
+        for (int i = 0; i < parameterCodecs.length; i++)
+            parameterCodecs[i].write(message, args[i]);
+
+        PendingCall pendingCall = new PendingCall(method);
+
+        this.pendingCalls.put(callId, pendingCall);
+        pendingCall.timeout = this.timeoutTimer.newTimeout(new Runnable() {
+            @Override
+            public void run()
+            {
+                if (pendingCalls.remove(callId, pendingCall))
+                    pendingCall.complete(null, new RPCException("No response for the call of " + method.getMethod() + " after " + timeoutMillis + "ms"));
+            }
+        }, this.timeoutMillis, TimeUnit.MILLISECONDS);
+
+        if (batch != null)
+            RPCMessageBatch.send(channel, batch, message);
+        else if (this.autoBatching && this.executor != null)
+            this.sendBatched(channel, message);
+        else
+            channel.sendPacket(RPCPacketListener.newPacket(message));
+
+        return pendingCall.task;
+    }
+
+    private void sendBatched(INetworkChannel channel, ByteBuf message)
+    {
+        while (true)
+        {
+            RPCMessageBatch batch = this.outgoingBatches.get(channel);
+
+            if (batch == null)
+            {
+                batch = new RPCMessageBatch(channel);
+                RPCMessageBatch previousBatch = this.outgoingBatches.putIfAbsent(channel, batch);
+
+                if (previousBatch == null)
+                    this.scheduleFlush(batch);
+                else
+                    batch = previousBatch;
+            }
+
+            if (batch.offer(message)) return;
+
+            //The batch was flushed after it was taken from the map
+            this.outgoingBatches.remove(channel, batch);
+        }
+    }
+
+    private void scheduleFlush(RPCMessageBatch batch)
+    {
+        Runnable flush = new Runnable() {
+            @Override
+            public void run()
+            {
+                outgoingBatches.remove(batch.getChannel(), batch);
+                batch.flush();
+            }
+        };
+
+        try
+        {
+            this.executor.execute(flush);
+        } catch (RejectedExecutionException exception)
+        {
+            flush.run();
+        }
+    }
+
+    /**
+     * Returns the count of the calls, which are waiting for their response
+     */
+    public int getPendingCallCount()
+    {
+        return this.pendingCalls.size();
+    }
+
+    void handleResponse(byte messageType, int callId, ByteBuf buffer)
+    {
+        PendingCall pendingCall = this.pendingCalls.remove(callId);
+
+        if (pendingCall == null) return;
+
+        //The timeout is null, if the response was faster as the registration of the timeout
+        if (pendingCall.timeout != null) pendingCall.timeout.cancel();
+
+        if (messageType == RPCPacketListener.MESSAGE_FAILURE)
+        {
+            pendingCall.complete(null, new RPCException("The call of " + pendingCall.method.getMethod() + " failed: " + NettyUtils.readString(buffer)));
+            return;
+        }
+
+        Object result;
+
+        try
+        {
+            result = pendingCall.method.getResultCodec().read(buffer);
+        } catch (Throwable throwable)
+        {
+            pendingCall.complete(null, new RPCException("Unable to read the result of " + pendingCall.method.getMethod(), throwable));
+            return;
+        }
+
+        pendingCall.complete(result, null);
+    }
+
+    /*= ------------------------------------------------------------- =*/
+
+    private static final class PendingCall {
+
+        private final RPCServiceDescriptor.RPCMethod method;
+
+        private final ListenableTask<Object> task = new ListenableTask<>();
+
+        private volatile HashedWheelTimer.Timeout timeout;
+
+        private PendingCall(RPCServiceDescriptor.RPCMethod method)
+        {
+            this.method = method;
+        }
+
+        private void complete(Object result, RPCException failure)
+        {
+            if (failure != null)
+                this.task.fail(failure);
+            else
+                this.task.complete(result);
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package de.dytanic.cloudnet.driver.network.rpc;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.netty.NettyUtils;
+import io.netty.buffer.ByteBuf;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Contains the codecs for the arguments and results of remote procedure calls. Primitives, strings, uniqueIds, enums,
+ * byte arrays, arrays and collections of these types are written binary. All other types are written with Gson as
+ * JSON string, like in the headers of the packets, as long as no own codec is registered for the type.
+ * <p>
+ * The codecs of reference types write before the value a boolean, if the value is not null
+ */
+public final class RPCCodecs {
+
+    private RPCCodecs()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final Map<Type, IRPCCodec<?>> CODECS = Maps.newConcurrentHashMap();
+
+    public static final IRPCCodec<Boolean> BOOLEAN = new IRPCCodec<Boolean>() {
+        @Override
+        public void write(ByteBuf buffer, Boolean value)
+        {
+            buffer.writeBoolean(value);
+        }
+
+        @Override
+        public Boolean read(ByteBuf buffer)
+        {
+            return buffer.readBoolean();
+        }
+    };
+
+    public static final IRPCCodec<Byte> BYTE = new IRPCCodec<Byte>() {
+        @Override
+        public void write(ByteBuf buffer, Byte value)
+        {
+            buffer.writeByte(value);
+        }
+
+        @Override
+        public Byte read(ByteBuf buffer)
+        {
+            return buffer.readByte();
+        }
+    };
+
+    public static final IRPCCodec<Short> SHORT = new IRPCCodec<Short>() {
+        @Override
+        public void write(ByteBuf buffer, Short value)
+        {
+            buffer.writeShort(value);
+        }
+
+        @Override
+        public Short read(ByteBuf buffer)
+        {
+            return buffer.readShort();
+        }
+    };
+
+    public static final IRPCCodec<Character> CHAR = new IRPCCodec<Character>() {
+        @Override
+        public void write(ByteBuf buffer, Character value)
+        {
+            buffer.writeChar(value);
+        }
+
+        @Override
+        public Character read(ByteBuf buffer)
+        {
+            return buffer.readChar();
+        }
+    };
+
+    public static final IRPCCodec<Integer> INT = new IRPCCodec<Integer>() {
+        @Override
+        public void write(ByteBuf buffer, Integer value)
+        {
+            NettyUtils.writeVarInt(buffer, value);
+        }
+
+        @Override
+        public Integer read(ByteBuf buffer)
+        {
+            return NettyUtils.readVarInt(buffer);
+        }
+    };
+
+    public static final IRPCCodec<Long> LONG = new IRPCCodec<Long>() {
+        @Override
+        public void write(ByteBuf buffer, Long value)
+        {
+            buffer.writeLong(value);
+        }
+
+        @Override
+        public Long read(ByteBuf buffer)
+        {
+            return buffer.readLong();
+        }
+    };
+
+    public static final IRPCCodec<Float> FLOAT = new IRPCCodec<Float>() {
+        @Override
+        public void write(ByteBuf buffer, Float value)
+        {
+            buffer.writeFloat(value);
+        }
+
+        @Override
+        public Float read(ByteBuf buffer)
+        {
+            return buffer.readFloat();
+        }
+    };
+
+    public static final IRPCCodec<Double> DOUBLE = new IRPCCodec<Double>() {
+        @Override
+        public void write(ByteBuf buffer, Double value)
+        {
+            buffer.writeDouble(value);
+        }
+
+        @Override
+        public Double read(ByteBuf buffer)
+        {
+            return buffer.readDouble();
+        }
+    };
+
+    public static final IRPCCodec<String> STRING = nullable(new IRPCCodec<String>() {
+        @Override
+        public void write(ByteBuf buffer, String value)
+        {
+            NettyUtils.writeString(buffer, value);
+        }
+
+        @Override
+        public String read(ByteBuf buffer)
+        {
+            return NettyUtils.readString(buffer);
+        }
+    });
+
+    public static final IRPCCodec<UUID> UNIQUE_ID = nullable(new IRPCCodec<UUID>() {
+        @Override
+        public void write(ByteBuf buffer, UUID value)
+        {
+            NettyUtils.writeUUID(buffer, value);
+        }
+
+        @Override
+        public UUID read(ByteBuf buffer)
+        {
+            return NettyUtils.readUUID(buffer);
+        }
+    });
+
+    public static final IRPCCodec<byte[]> BYTE_ARRAY = nullable(new IRPCCodec<byte[]>() {
+        @Override
+        public void write(ByteBuf buffer, byte[] value)
+        {
+            NettyUtils.writeVarInt(buffer, value.length);
+            buffer.writeBytes(value);
+        }
+
+        @Override
+        public byte[] read(ByteBuf buffer)
+        {
+            return NettyUtils.toByteArray(buffer, NettyUtils.readVarInt(buffer));
+        }
+    });
+
+    /**
+     * The codec for methods without a result, it writes and reads nothing
+     */
+    public static final IRPCCodec<Void> VOID = new IRPCCodec<Void>() {
+        @Override
+        public void write(ByteBuf buffer, Void value)
+        {
+        }
+
+        @Override
+        public Void read(ByteBuf buffer)
+        {
+            return null;
+        }
+    };
+
+    static
+    {
+        CODECS.put(boolean.class, BOOLEAN);
+        CODECS.put(byte.class, BYTE);
+        CODECS.put(short.class, SHORT);
+        CODECS.put(char.class, CHAR);
+        CODECS.put(int.class, INT);
+        CODECS.put(long.class, LONG);
+        CODECS.put(float.class, FLOAT);
+        CODECS.put(double.class, DOUBLE);
+
+        CODECS.put(Boolean.class, nullable(BOOLEAN));
+        CODECS.put(Byte.class, nullable(BYTE));
+        CODECS.put(Short.class, nullable(SHORT));
+        CODECS.put(Character.class, nullable(CHAR));
+        CODECS.put(Integer.class, nullable(INT));
+        CODECS.put(Long.class, nullable(LONG));
+        CODECS.put(Float.class, nullable(FLOAT));
+        CODECS.put(Double.class, nullable(DOUBLE));
+
+        CODECS.put(String.class, STRING);
+        CODECS.put(UUID.class, UNIQUE_ID);
+        CODECS.put(byte[].class, BYTE_ARRAY);
+        CODECS.put(void.class, VOID);
+        CODECS.put(Void.class, VOID);
+    }
+
+    /**
+     * Registers an own codec for a type, which replaces the default codec of the type. The codec has to be registered
+     * on both sides of the network, before the first call with the type is made
+     *
+     * @param type  the type of the values
+     * @param codec the codec for the values of the type, it has to write null values too
+     */
+    public static <T> void registerCodec(Class<T> type, IRPCCodec<T> codec)
+    {
+        Validate.checkNotNull(type);
+        Validate.checkNotNull(codec);
+
+        CODECS.put(type, codec);
+    }
+
+    /**
+     * Returns the codec for a type. The codecs of generic collections and arrays are created of the codecs of their
+     * element types and cached
+     *
+     * @param type the type, that can be a class or a parameterized type
+     * @return the codec for the type, which is never null
+     */
+    @SuppressWarnings("unchecked")
+    public static IRPCCodec<Object> getCodec(Type type)
+    {
+        Validate.checkNotNull(type);
+
+        IRPCCodec<?> codec = CODECS.get(type);
+
+        if (codec == null)
+        {
+            //No computeIfAbsent, because the codecs of the element types are created recursive
+            codec = createCodec(type);
+
+            IRPCCodec<?> previousCodec = CODECS.putIfAbsent(type, codec);
+            if (previousCodec != null) codec = previousCodec;
+        }
+
+        return (IRPCCodec<Object>) codec;
+    }
+
+    /**
+     * Wraps a codec, so that it writes null values too
+     */
+    public static <T> IRPCCodec<T> nullable(IRPCCodec<T> codec)
+    {
+        Validate.checkNotNull(codec);
+
+        return new IRPCCodec<T>() {
+            @Override
+            public void write(ByteBuf buffer, T value)
+            {
+                buffer.writeBoolean(value != null);
+
+                if (value != null) codec.write(buffer, value);
+            }
+
+            @Override
+            public T read(ByteBuf buffer)
+            {
+                return buffer.readBoolean() ? codec.read(buffer) : null;
+            }
+        };
+    }
+
+    /*= ------------------------------------------------------------- =*/
+
+    @SuppressWarnings("unchecked")
+    private static IRPCCodec<?> createCodec(Type type)
+    {
+        if (type instanceof Class && ((Class<?>) type).isEnum())
+            return nullable(new EnumCodec((Class<? extends Enum>) type));
+
+        if (type instanceof Class && ((Class<?>) type).isArray())
+        {
+            Class<?> componentType = ((Class<?>) type).getComponentType();
+            return nullable(new ArrayCodec(componentType, getCodec(componentType)));
+        }
+
+        if (type instanceof GenericArrayType)
+        {
+            Type componentType = ((GenericArrayType) type).getGenericComponentType();
+
+            if (componentType instanceof ParameterizedType && ((ParameterizedType) componentType).getRawType() instanceof Class)
+                return nullable(new ArrayCodec((Class<?>) ((ParameterizedType) componentType).getRawType(), getCodec(componentType)));
+        }
+
+        if (type instanceof ParameterizedType)
+        {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Type rawType = parameterizedType.getRawType(), elementType = parameterizedType.getActualTypeArguments()[0];
+
+            if (isCollectionType(rawType) && (elementType instanceof Class || elementType instanceof ParameterizedType))
+                return nullable(new CollectionCodec((Class<?>) rawType, getCodec(elementType)));
+        }
+
+        return new JsonCodec(type);
+    }
+
+    private static boolean isCollectionType(Type rawType)
+    {
+        return rawType == Collection.class || rawType == List.class || rawType == Set.class || rawType == Queue.class;
+    }
+
+    private static final class EnumCodec implements IRPCCodec<Enum> {
+
+        private final Class<? extends Enum> enumClass;
+
+        private EnumCodec(Class<? extends Enum> enumClass)
+        {
+            this.enumClass = enumClass;
+        }
+
+        @Override
+        public void write(ByteBuf buffer, Enum value)
+        {
+            NettyUtils.writeString(buffer, value.name());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Enum read(ByteBuf buffer)
+        {
+            return Enum.valueOf(this.enumClass, NettyUtils.readString(buffer));
+        }
+    }
+
+    private static final class ArrayCodec implements IRPCCodec<Object> {
+
+        private final Class<?> componentType;
+
+        private final IRPCCodec<Object> componentCodec;
+
+        private ArrayCodec(Class<?> componentType, IRPCCodec<Object> componentCodec)
+        {
+            this.componentType = componentType;
+            this.componentCodec = componentCodec;
+        }
+
+        @Override
+        public void write(ByteBuf buffer, Object value)
+        {
+            int length = Array.getLength(value);
+            NettyUtils.writeVarInt(buffer, length);
+
+            for (int i = 0; i < length; i++)
+                this.componentCodec.write(buffer, Array.get(value, i));
+        }
+
+        @Override
+        public Object read(ByteBuf buffer)
+        {
+            int length = NettyUtils.readVarInt(buffer);
+            Object array = Array.newInstance(this.componentType, length);
+
+            for (int i = 0; i < length; i++)
+                Array.set(array, i, this.componentCodec.read(buffer));
+
+            return array;
+        }
+    }
+
+    private static final class CollectionCodec implements IRPCCodec<Collection<Object>> {
+
+        private final Class<?> collectionType;
+
+        private final IRPCCodec<Object> elementCodec;
+
+        private CollectionCodec(Class<?> collectionType, IRPCCodec<Object> elementCodec)
+        {
+            this.collectionType = collectionType;
+            this.elementCodec = elementCodec;
+        }
+
+        @Override
+        public void write(ByteBuf buffer, Collection<Object> value)
+        {
+            NettyUtils.writeVarInt(buffer, value.size());
+
+            for (Object element : value)
+                this.elementCodec.write(buffer, element);
+        }
+
+        @Override
+        public Collection<Object> read(ByteBuf buffer)
+        {
+            int size = NettyUtils.readVarInt(buffer);
+            Collection<Object> collection;
+
+            if (this.collectionType == Set.class)
+                collection = new HashSet<>();
+            else if (this.collectionType == Queue.class)
+                collection = new ConcurrentLinkedQueue<>();
+            else
+                collection = Iterables.newArrayList(size);
+
+            for (int i = 0; i < size; i++)
+                collection.add(this.elementCodec.read(buffer));
+
+            return collection;
+        }
+    }
+
+    /**
+     * The codec for all types without an own codec, it writes the values with Gson as JSON string
+     */
+    private static final class JsonCodec implements IRPCCodec<Object> {
+
+        private final Type type;
+
+        private JsonCodec(Type type)
+        {
+            this.type = type;
+        }
+
+        @Override
+        public void write(ByteBuf buffer, Object value)
+        {
+            NettyUtils.writeString(buffer, JsonDocument.GSON.toJson(value, this.type));
+        }
+
+        @Override
+        public Object read(ByteBuf buffer)
+        {
+            return JsonDocument.GSON.fromJson(NettyUtils.readString(buffer), this.type);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package de.dytanic.cloudnet.driver.network.rpc;
+
+/**
+ * Is thrown, if a remote procedure call failed on the other side, got no result in the timeout or can't be sent
+ */
+public final class RPCException extends RuntimeException {
+
+    public RPCException(String message)
+    {
+        super(message);
+    }
+
+    public RPCException(String message, Throwable cause)
+    {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,87 @@
+package de.dytanic.cloudnet.driver.network.rpc;
+
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.netty.NettyUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects messages of the RPC channel, which are sent together in one packet, when the batch is flushed. A message,
+ * which is offered after the flush, is not accepted anymore and has to be sent in an own packet
+ */
+final class RPCMessageBatch {
+
+    private final INetworkChannel channel;
+
+    private List<ByteBuf> messages = new ArrayList<>();
+
+    RPCMessageBatch(INetworkChannel channel)
+    {
+        this.channel = channel;
+    }
+
+    /**
+     * Sends a message in the batch, if the batch is not null and not flushed, otherwise directly in an own packet
+     */
+    static void send(INetworkChannel channel, RPCMessageBatch batch, ByteBuf message)
+    {
+        if (batch == null || !batch.offer(message))
+            channel.sendPacket(RPCPacketListener.newPacket(message));
+    }
+
+    /**
+     * Adds a message to the batch
+     *
+     * @return true, if the message was added or false, if the batch was already flushed
+     */
+    synchronized boolean offer(ByteBuf message)
+    {
+        if (this.messages == null) return false;
+
+        this.messages.add(message);
+        return true;
+    }
+
+    /**
+     * Sends all messages of the batch in one packet. A single message is sent without the batch envelope
+     */
+    void flush()
+    {
+        List<ByteBuf> messages;
+
+        synchronized (this)
+        {
+            messages = this.messages;
+            this.messages = null;
+        }
+
+        if (messages == null || messages.isEmpty()) return;
+
+        if (messages.size() == 1)
+        {
+            this.channel.sendPacket(RPCPacketListener.newPacket(messages.get(0)));
+            return;
+        }
+
+        ByteBuf body = Unpooled.buffer();
+
+        body.writeByte(RPCPacketListener.MESSAGE_BATCH);
+        NettyUtils.writeVarInt(body, messages.size());
+
+        for (ByteBuf message : messages)
+        {
+            NettyUtils.writeVarInt(body, message.readableBytes());
+            body.writeBytes(message, message.readerIndex(), message.readableBytes());
+        }
+
+        this.channel.sendPacket(RPCPacketListener.newPacket(body));
+    }
+
+    INetworkChannel getChannel()
+    {
+        return this.channel;
+    }
+}
@@ -0,0 +1,141 @@
+package de.dytanic.cloudnet.driver.network.rpc;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.netty.NettyUtils;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.UUID;
+
+/**
+ * Handles the packets of the RPC channel. The body of every packet begins with the message type and the id of the call,
+ * which correlates the response with the request, the packet uniqueId and the header are not used.
+ * <p>
+ * A request contains the service id, the method id and the arguments. A response contains the result and a failure
+ * the message of the exception, which was thrown by the call.
+ * <p>
+ * A batch contains several messages in one packet. The responses of the requests in a batch, which are completed
+ * while the batch is handled, are sent back as one batch too
+ *
+ * @see PacketConstants#INTERNAL_RPC_CHANNEL
+ */
+public final class RPCPacketListener implements IPacketListener {
+
+    static final byte
+        MESSAGE_REQUEST = 0,
+        MESSAGE_RESPONSE = 1,
+        MESSAGE_FAILURE = 2,
+        MESSAGE_BATCH = 3;
+
+    /**
+     * The uniqueId of all packets in the RPC channel, so no random uniqueId has to be created per packet
+     */
+    static final UUID UNIQUE_ID = new UUID(0, 0);
+
+    private final RPCServiceRegistry serviceRegistry;
+
+    private final RPCClient client;
+
+    /**
+     * @param serviceRegistry the registry, which handles the requests or null if this side doesn't provide services
+     * @param client          the client, which receives the responses or null if this side doesn't call services
+     */
+    public RPCPacketListener(RPCServiceRegistry serviceRegistry, RPCClient client)
+    {
+        this.serviceRegistry = serviceRegistry;
+        this.client = client;
+    }
+
+    @Override
+    public void handle(INetworkChannel channel, IPacket packet) throws Exception
+    {
+        ByteBuf buffer = packet.getBodyBuffer();
+
+        if (buffer == null || !buffer.isReadable()) return;
+
+        //The reader index of the body is not changed for other listeners
+        buffer = buffer.duplicate();
+
+        if (buffer.getByte(buffer.readerIndex()) != MESSAGE_BATCH)
+        {
+            this.handleMessage(channel, null, buffer);
+            return;
+        }
+
+        buffer.skipBytes(1);
+
+        RPCMessageBatch responses = new RPCMessageBatch(channel);
+        int count = NettyUtils.readVarInt(buffer);
+
+        for (int i = 0; i < count; i++)
+            this.handleMessage(channel, responses, buffer.readSlice(NettyUtils.readVarInt(buffer)));
+
+        responses.flush();
+    }
+
+    /**
+     * Returns whether the packet contains responses. The messages of a batch have all the same kind, so only the first
+     * message is checked. The responses are completed directly in the I/O thread, because the waiting call can block
+     * the thread, which would otherwise handle them
+     */
+    public static boolean isResponse(IPacket packet)
+    {
+        ByteBuf buffer = packet.getBodyBuffer();
+
+        if (buffer == null || !buffer.isReadable()) return false;
+
+        buffer = buffer.duplicate();
+        byte messageType = buffer.readByte();
+
+        if (messageType == MESSAGE_BATCH)
+        {
+            if (NettyUtils.readVarInt(buffer) == 0) return false;
+
+            NettyUtils.readVarInt(buffer);
+            messageType = buffer.readByte();
+        }
+
+        return messageType == MESSAGE_RESPONSE || messageType == MESSAGE_FAILURE;
+    }
+
+    private void handleMessage(INetworkChannel channel, RPCMessageBatch responses, ByteBuf buffer)
+    {
+        byte messageType = buffer.readByte();
+        int callId = NettyUtils.readVarInt(buffer);
+
+        switch (messageType)
+        {
+            case MESSAGE_REQUEST:
+                if (this.serviceRegistry != null)
+                    this.serviceRegistry.handleRequest(channel, responses, callId, buffer);
+                else
+                    RPCMessageBatch.send(channel, responses, newFailure(callId, "No services are provided on this side"));
+                break;
+            case MESSAGE_RESPONSE:
+            case MESSAGE_FAILURE:
+                if (this.client != null) this.client.handleResponse(messageType, callId, buffer);
+                break;
+        }
+    }
+
+    static Packet newPacket(ByteBuf body)
+    {
+        return new Packet(PacketConstants.INTERNAL_RPC_CHANNEL, UNIQUE_ID, new JsonDocument(), body);
+    }
+
+    static ByteBuf newFailure(int callId, String message)
+    {
+        ByteBuf message0 = Unpooled.buffer();
+
+        message0.writeByte(MESSAGE_FAILURE);
+        NettyUtils.writeVarInt(message0, callId);
+        NettyUtils.writeString(message0, message != null ? message : "");
+
+        return message0;
+    }
+}
@@ -0,0 +1,172 @@
+package de.dytanic.cloudnet.driver.network.rpc;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Describes an interface, which methods can be called remote. The methods are numbered by the order of their
+ * signatures, so the method ids are the same on both sides of the network, as long as both use the same interface.
+ * <p>
+ * The service id is created from the name of the interface and the signatures of all methods. An other version of
+ * the interface has an other service id, so a call is rejected as unknown service, instead of calling a wrong method.
+ * <p>
+ * Methods with an ITask as result type are called asynchronous, the other methods block until the result is received
+ */
+@Getter
+public final class RPCServiceDescriptor {
+
+    private static final Map<Class<?>, RPCServiceDescriptor> DESCRIPTORS = Maps.newConcurrentHashMap();
+
+    private final Class<?> serviceClass;
+
+    private final int serviceId;
+
+    private final RPCMethod[] methods;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<Method, RPCMethod> methodsByMethod = Maps.newHashMap();
+
+    private RPCServiceDescriptor(Class<?> serviceClass)
+    {
+        this.serviceClass = serviceClass;
+
+        Method[] methods = serviceClass.getMethods();
+        String[] signatures = new String[methods.length];
+
+        for (int i = 0; i < methods.length; i++)
+            signatures[i] = getSignature(methods[i]);
+
+        Integer[] order = new Integer[methods.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second)
+            {
+                return signatures[first].compareTo(signatures[second]);
+            }
+        });
+
+        StringBuilder fingerprint = new StringBuilder(serviceClass.getName());
+        this.methods = new RPCMethod[methods.length];
+
+        for (int id = 0; id < order.length; id++)
+        {
+            Method method = methods[order[id]];
+
+            this.methods[id] = new RPCMethod(id, method);
+            this.methodsByMethod.put(method, this.methods[id]);
+
+            fingerprint.append('#').append(signatures[order[id]]);
+        }
+
+        this.serviceId = fingerprint.toString().hashCode();
+    }
+
+    /**
+     * Returns the descriptor of a service interface, which is created once per interface
+     *
+     * @param serviceClass the interface of the service
+     * @return the descriptor of the interface
+     * @throws IllegalArgumentException if the class is not an interface
+     */
+    public static RPCServiceDescriptor of(Class<?> serviceClass)
+    {
+        Validate.checkNotNull(serviceClass);
+
+        RPCServiceDescriptor descriptor = DESCRIPTORS.get(serviceClass);
+
+        if (descriptor == null)
+        {
+            if (!serviceClass.isInterface())
+                throw new IllegalArgumentException("The service " + serviceClass.getName() + " has to be an interface");
+
+            descriptor = new RPCServiceDescriptor(serviceClass);
+
+            RPCServiceDescriptor previousDescriptor = DESCRIPTORS.putIfAbsent(serviceClass, descriptor);
+            if (previousDescriptor != null) descriptor = previousDescriptor;
+        }
+
+        return descriptor;
+    }
+
+    /**
+     * Returns the method with the id or null, if the service has no method with this id
+     */
+    public RPCMethod getMethod(int id)
+    {
+        return id >= 0 && id < this.methods.length ? this.methods[id] : null;
+    }
+
+    /**
+     * Returns the method of the service for a method of the interface or null, if the method isn't a method of the service
+     */
+    public RPCMethod getMethod(Method method)
+    {
+        return this.methodsByMethod.get(method);
+    }
+
+    private static String getSignature(Method method)
+    {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+
+        for (Type type : method.getGenericParameterTypes())
+            signature.append(type.getTypeName()).append(',');
+
+        return signature.append(')').append(method.getGenericReturnType().getTypeName()).toString();
+    }
+
+    /*= ------------------------------------------------------------- =*/
+
+    /**
+     * A method of a service with the codecs of its arguments and its result
+     */
+    @Getter
+    public static final class RPCMethod {
+
+        private final int id;
+
+        private final Method method;
+
+        private final IRPCCodec<Object>[] parameterCodecs;
+
+        private final IRPCCodec<Object> resultCodec;
+
+        /**
+         * If the method returns an ITask, which is completed with the result
+         */
+        private final boolean async;
+
+        @SuppressWarnings("unchecked")
+        private RPCMethod(int id, Method method)
+        {
+            this.id = id;
+            this.method = method;
+
+            Type[] parameterTypes = method.getGenericParameterTypes();
+            this.parameterCodecs = new IRPCCodec[parameterTypes.length];
+
+            for (int i = 0; i < parameterTypes.length; i++)
+                this.parameterCodecs[i] = RPCCodecs.getCodec(parameterTypes[i]);
+
+            this.async = ITask.class.isAssignableFrom(method.getReturnType());
+
+            Type resultType = method.getGenericReturnType();
+
+            if (this.async)
+                resultType = resultType instanceof ParameterizedType ? ((ParameterizedType) resultType).getActualTypeArguments()[0] : Object.class;
+
+            this.resultCodec = RPCCodecs.getCodec(resultType);
+        }
+    }
+}
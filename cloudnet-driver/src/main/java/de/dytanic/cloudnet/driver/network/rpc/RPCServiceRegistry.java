@@ -0,0 +1,185 @@
+package de.dytanic.cloudnet.driver.network.rpc;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ITaskListener;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.netty.NettyUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Contains the implementations of the services, which can be called by an RPCClient on the other side of a network
+ * channel. A request is dispatched by the integer ids of the service and the method to the implementation and the
+ * arguments are read with the codecs of the method, without any lookup by names.
+ * <p>
+ * The result of an asynchronous method is sent, when its task is completed
+ *
+ * @see RPCClient
+ */
+public final class RPCServiceRegistry {
+
+    private final Map<Integer, RegisteredService> services = Maps.newConcurrentHashMap();
+
+    /**
+     * Registers the implementation of a service
+     *
+     * @param serviceClass   the interface of the service
+     * @param implementation the implementation, which handles all calls of the service
+     * @throws IllegalArgumentException if an other service with the same service id is already registered
+     */
+    public <T> void registerService(Class<T> serviceClass, T implementation)
+    {
+        Validate.checkNotNull(implementation);
+
+        RPCServiceDescriptor descriptor = RPCServiceDescriptor.of(serviceClass);
+        RegisteredService registeredService = this.services.get(descriptor.getServiceId());
+
+        if (registeredService != null && registeredService.descriptor != descriptor)
+            throw new IllegalArgumentException("The service " + serviceClass.getName() + " has the same id as " + registeredService.descriptor.getServiceClass().getName());
+
+        this.services.put(descriptor.getServiceId(), new RegisteredService(descriptor, implementation));
+    }
+
+    public void unregisterService(Class<?> serviceClass)
+    {
+        RPCServiceDescriptor descriptor = RPCServiceDescriptor.of(serviceClass);
+        RegisteredService registeredService = this.services.get(descriptor.getServiceId());
+
+        if (registeredService != null && registeredService.descriptor == descriptor)
+            this.services.remove(descriptor.getServiceId());
+    }
+
+    public boolean isServiceRegistered(Class<?> serviceClass)
+    {
+        RegisteredService registeredService = this.services.get(RPCServiceDescriptor.of(serviceClass).getServiceId());
+
+        return registeredService != null && registeredService.descriptor.getServiceClass() == serviceClass;
+    }
+
+    void handleRequest(INetworkChannel channel, RPCMessageBatch responses, int callId, ByteBuf buffer)
+    {
+        int serviceId = buffer.readInt(), methodId = NettyUtils.readVarInt(buffer);
+
+        RegisteredService registeredService = this.services.get(serviceId);
+
+        if (registeredService == null)
+        {
+            RPCMessageBatch.send(channel, responses, RPCPacketListener.newFailure(callId, "Unknown service " + serviceId));
+            return;
+        }
+
+        RPCServiceDescriptor.RPCMethod method = registeredService.descriptor.getMethod(methodId);
+
+        if (method == null)
+        {
+            RPCMessageBatch.send(channel, responses, RPCPacketListener.newFailure(callId, "Unknown method " + methodId + " of the service " + registeredService.descriptor.getServiceClass().getName()));
+            return;
+        }
+
+        Object result;
+
+        try
+        {
+            IRPCCodec<Object>[] parameterCodecs = method.getParameterCodecs();
+            Object[] args = new Object[parameterCodecs.length];
+
+            for (int i = 0; i < args.length; i++)
+                args[i] = parameterCodecs[i].read(buffer);
+
+            result = method.getMethod().invoke(registeredService.implementation, args);
+        } catch (InvocationTargetException exception)
+        {
+            RPCMessageBatch.send(channel, responses, RPCPacketListener.newFailure(callId, String.valueOf(exception.getCause())));
+            return;
+        } catch (Throwable throwable)
+        {
+            RPCMessageBatch.send(channel, responses, RPCPacketListener.newFailure(callId, String.valueOf(throwable)));
+            return;
+        }
+
+        if (method.isAsync() && result != null)
+            this.sendResultOnCompletion(channel, responses, callId, method, (ITask<?>) result);
+        else
+            this.sendResult(channel, responses, callId, method, result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void sendResultOnCompletion(INetworkChannel channel, RPCMessageBatch responses, int callId, RPCServiceDescriptor.RPCMethod method, ITask<?> task)
+    {
+        AtomicBoolean sent = new AtomicBoolean();
+
+        ((ITask<Object>) task).addListener(new ITaskListener<Object>() {
+            @Override
+            public void onComplete(ITask<Object> task, Object result)
+            {
+                if (sent.compareAndSet(false, true)) sendResult(channel, responses, callId, method, result);
+            }
+
+            @Override
+            public void onCancelled(ITask<Object> task)
+            {
+                if (sent.compareAndSet(false, true)) RPCMessageBatch.send(channel, responses, RPCPacketListener.newFailure(callId, "The call was cancelled"));
+            }
+
+            @Override
+            public void onFailure(ITask<Object> task, Throwable th)
+            {
+                if (sent.compareAndSet(false, true)) RPCMessageBatch.send(channel, responses, RPCPacketListener.newFailure(callId, String.valueOf(th)));
+            }
+        });
+
+        //A service can return a DefaultScheduledTask, which doesn't call a listener added after its completion.
+        //The flag ensures, that the result is sent only once
+        if (task.isDone() && sent.compareAndSet(false, true))
+            try
+            {
+                this.sendResult(channel, responses, callId, method, task.get());
+            } catch (ExecutionException exception)
+            {
+                RPCMessageBatch.send(channel, responses, RPCPacketListener.newFailure(callId, String.valueOf(exception.getCause())));
+            } catch (Throwable throwable)
+            {
+                RPCMessageBatch.send(channel, responses, RPCPacketListener.newFailure(callId, String.valueOf(throwable)));
+            }
+    }
+
+    private void sendResult(INetworkChannel channel, RPCMessageBatch responses, int callId, RPCServiceDescriptor.RPCMethod method, Object result)
+    {
+        ByteBuf message = Unpooled.buffer();
+
+        try
+        {
+            message.writeByte(RPCPacketListener.MESSAGE_RESPONSE);
+            NettyUtils.writeVarInt(message, callId);
+            method.getResultCodec().write(message, result);
+        } catch (Throwable throwable)
+        {
+            RPCMessageBatch.send(channel, responses, RPCPacketListener.newFailure(callId, "Unable to write the result: " + throwable));
+            return;
+        }
+
+        RPCMessageBatch.send(channel, responses, message);
+    }
+
+    /*= ------------------------------------------------------------- =*/
+
+    private static final class RegisteredService {
+
+        private final RPCServiceDescriptor descriptor;
+
+        private final Object implementation;
+
+        private RegisteredService(RPCServiceDescriptor descriptor, Object implementation)
+        {
+            this.descriptor = descriptor;
+            this.implementation = implementation;
+        }
+    }
+}
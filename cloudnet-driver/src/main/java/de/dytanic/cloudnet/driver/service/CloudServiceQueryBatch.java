@@ -0,0 +1,377 @@
+package de.dytanic.cloudnet.driver.service;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ITaskListener;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A number of queries for the services, tasks and groups, which are executed together. On a wrapper all queries of
+ * the batch are sent in one packet to the node, so N queries cost only one network round-trip.
+ * <p>
+ * The results are in the order of the queries:
+ * <pre>
+ * List&lt;Object&gt; results = CloudNetDriver.getInstance().batch()
+ *     .getCloudService(uniqueId)
+ *     .getServiceTask("Lobby")
+ *     .execute().get(5, TimeUnit.SECONDS);
+ * </pre>
+ *
+ * @see de.dytanic.cloudnet.driver.CloudNetDriver#batch()
+ */
+public class CloudServiceQueryBatch {
+
+    private final List<Function<ICloudServiceInfoProvider, ITask<?>>> queries = new ArrayList<>();
+
+    private final ICloudServiceInfoProvider provider;
+
+    private final Runnable flush;
+
+    private boolean executed;
+
+    /**
+     * @param provider the provider, on that the queries are executed
+     * @param flush    the action, which sends the queries after all were called on the provider or null
+     */
+    public CloudServiceQueryBatch(ICloudServiceInfoProvider provider, Runnable flush)
+    {
+        Validate.checkNotNull(provider);
+
+        this.provider = provider;
+        this.flush = flush;
+    }
+
+    public CloudServiceQueryBatch getServicesAsUniqueId()
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getServicesAsUniqueIdAsync();
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getCloudServiceByName(String name)
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getCloudServiceByNameAsync(name);
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getCloudServices()
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getCloudServicesAsync();
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getStartedCloudServices()
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getStartedCloudServiceInfoSnapshotsAsync();
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getCloudService(String taskName)
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getCloudServicesAsync(taskName);
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getCloudServiceByGroup(String group)
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getCloudServicesByGroupAsync(group);
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getCloudServices(ServiceEnvironmentType environment)
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getCloudServicesAsync(environment);
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getCloudService(UUID uniqueId)
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getCloudServicesAsync(uniqueId);
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getServicesCount()
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getServicesCountAsync();
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getServicesCountByGroup(String group)
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getServicesCountByGroupAsync(group);
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getServicesCountByTask(String taskName)
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getServicesCountByTaskAsync(taskName);
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getPermanentServiceTasks()
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getPermanentServiceTasksAsync();
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getServiceTask(String name)
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getServiceTaskAsync(name);
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch isServiceTaskPresent(String name)
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.isServiceTaskPresentAsync(name);
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getGroupConfigurations()
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getGroupConfigurationsAsync();
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch getGroupConfiguration(String name)
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.getGroupConfigurationAsync(name);
+            }
+        });
+    }
+
+    public CloudServiceQueryBatch isGroupConfigurationPresent(String name)
+    {
+        return this.query(new Function<ICloudServiceInfoProvider, ITask<?>>() {
+            @Override
+            public ITask<?> apply(ICloudServiceInfoProvider provider)
+            {
+                return provider.isGroupConfigurationPresentAsync(name);
+            }
+        });
+    }
+
+    /**
+     * Adds a custom query to the batch
+     *
+     * @param query the function, which calls one asynchronous method of the provider
+     */
+    public CloudServiceQueryBatch query(Function<ICloudServiceInfoProvider, ITask<?>> query)
+    {
+        Validate.checkNotNull(query);
+
+        this.queries.add(query);
+        return this;
+    }
+
+    /**
+     * Returns the count of the queries in the batch
+     */
+    public int size()
+    {
+        return this.queries.size();
+    }
+
+    /**
+     * Executes all queries of the batch. The batch can only executed once
+     *
+     * @return the task, which is completed with the results in the order of the queries, if all queries are
+     * completed or fails with the failure of the first failed query
+     */
+    public ITask<List<Object>> execute()
+    {
+        if (this.executed) throw new IllegalStateException("The batch was already executed");
+
+        this.executed = true;
+
+        ITask<?>[] tasks = new ITask<?>[this.queries.size()];
+
+        for (int i = 0; i < tasks.length; i++)
+            tasks[i] = this.queries.get(i).apply(this.provider);
+
+        if (this.flush != null) this.flush.run();
+
+        return join(tasks);
+    }
+
+    private static ITask<List<Object>> join(ITask<?>[] tasks)
+    {
+        Object[] results = new Object[tasks.length];
+        Throwable[] failure = new Throwable[1];
+
+        ListenableTask<List<Object>> joinedTask = new ListenableTask<>(new Callable<List<Object>>() {
+            @Override
+            public List<Object> call() throws Exception
+            {
+                if (failure[0] instanceof Exception) throw (Exception) failure[0];
+                if (failure[0] != null) throw new ExecutionException(failure[0]);
+
+                return Collections.unmodifiableList(Arrays.asList(results));
+            }
+        });
+
+        if (tasks.length == 0)
+        {
+            joinedTask.call();
+            return joinedTask;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(tasks.length);
+
+        for (int i = 0; i < tasks.length; i++)
+        {
+            int index = i;
+            ITask<Object> task = cast(tasks[i]);
+            boolean[] handled = new boolean[1];
+
+            ITaskListener<Object> listener = new ITaskListener<Object>() {
+                @Override
+                public void onComplete(ITask<Object> task, Object result)
+                {
+                    this.complete(result, null);
+                }
+
+                @Override
+                public void onCancelled(ITask<Object> task)
+                {
+                    this.complete(null, new IllegalStateException("The query " + index + " was cancelled"));
+                }
+
+                @Override
+                public void onFailure(ITask<Object> task, Throwable th)
+                {
+                    this.complete(null, th);
+                }
+
+                private void complete(Object result, Throwable throwable)
+                {
+                    synchronized (handled)
+                    {
+                        if (handled[0]) return;
+                        handled[0] = true;
+                    }
+
+                    if (throwable != null)
+                        synchronized (failure)
+                        {
+                            if (failure[0] == null) failure[0] = throwable;
+                        }
+                    else
+                        results[index] = result;
+
+                    if (remaining.decrementAndGet() == 0) joinedTask.call();
+                }
+            };
+
+            task.addListener(listener);
+
+            //Only some tasks call a listener, which was added after the completion, so the listener handles it only once
+            if (task.isDone())
+                try
+                {
+                    listener.onComplete(task, task.get());
+                } catch (ExecutionException exception)
+                {
+                    listener.onFailure(task, exception.getCause());
+                } catch (Throwable throwable)
+                {
+                    listener.onFailure(task, throwable);
+                }
+        }
+
+        return joinedTask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ITask<Object> cast(ITask<?> task)
+    {
+        return (ITask<Object>) task;
+    }
+}
@@ -0,0 +1,53 @@
+package de.dytanic.cloudnet.driver.service;
+
+import de.dytanic.cloudnet.common.concurrent.ITask;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * The queries of the driver API for the services, tasks and groups of the cloud, which a node provides as RPC
+ * service for the wrappers. The methods have the same signatures as the methods of the CloudNetDriver class.
+ * <p>
+ * Only these read-only queries use the RPC channel. All other calls of the driver, like the creation and the control
+ * of services, the template and the permission changes, are still sent as sync API packets
+ *
+ * @see de.dytanic.cloudnet.driver.CloudNetDriver
+ * @see de.dytanic.cloudnet.driver.network.rpc.RPCServiceRegistry
+ */
+public interface ICloudServiceInfoProvider {
+
+    ITask<Collection<UUID>> getServicesAsUniqueIdAsync();
+
+    ITask<ServiceInfoSnapshot> getCloudServiceByNameAsync(String name);
+
+    ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync();
+
+    ITask<Collection<ServiceInfoSnapshot>> getStartedCloudServiceInfoSnapshotsAsync();
+
+    ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync(String taskName);
+
+    ITask<Collection<ServiceInfoSnapshot>> getCloudServicesByGroupAsync(String group);
+
+    ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync(ServiceEnvironmentType environment);
+
+    ITask<ServiceInfoSnapshot> getCloudServicesAsync(UUID uniqueId);
+
+    ITask<Integer> getServicesCountAsync();
+
+    ITask<Integer> getServicesCountByGroupAsync(String group);
+
+    ITask<Integer> getServicesCountByTaskAsync(String taskName);
+
+    ITask<Collection<ServiceTask>> getPermanentServiceTasksAsync();
+
+    ITask<ServiceTask> getServiceTaskAsync(String name);
+
+    ITask<Boolean> isServiceTaskPresentAsync(String name);
+
+    ITask<Collection<GroupConfiguration>> getGroupConfigurationsAsync();
+
+    ITask<GroupConfiguration> getGroupConfigurationAsync(String name);
+
+    ITask<Boolean> isGroupConfigurationPresentAsync(String name);
+}
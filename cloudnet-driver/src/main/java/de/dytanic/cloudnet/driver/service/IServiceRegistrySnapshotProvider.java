@@ -0,0 +1,14 @@
+package de.dytanic.cloudnet.driver.service;
+
+import de.dytanic.cloudnet.common.concurrent.ITask;
+
+/**
+ * Provides the complete state of the services, tasks and groups of a node as RPC service, with that the wrappers
+ * bootstrap their replicated copy of it
+ *
+ * @see ServiceRegistrySnapshot
+ */
+public interface IServiceRegistrySnapshotProvider {
+
+    ITask<ServiceRegistrySnapshot> getServiceRegistrySnapshotAsync();
+}
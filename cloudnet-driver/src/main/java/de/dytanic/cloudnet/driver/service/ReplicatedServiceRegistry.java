@@ -0,0 +1,548 @@
+package de.dytanic.cloudnet.driver.service;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.concurrent.HashedWheelTimer;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ITaskListener;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.CloudNetDriver;
+import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
+
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A local copy of the services, tasks and groups of the node, so the queries of the wrapper are answered without a
+ * network round-trip.
+ * <p>
+ * The copy is loaded from a snapshot of the node and is updated by the publisher packets, which contain the
+ * replication sequence of the node. A lost or reordered packet is detected by a gap in the sequence and the copy is
+ * loaded again. The updates, which are received while a snapshot is loaded, are applied after the snapshot, if they
+ * are newer. While the copy is not synchronized, it's not available and the queries have to be sent to the node.
+ * <p>
+ * A failed load is tried again after a delay, which is doubled after every failed try up to the max retry delay
+ * <p>
+ * The queries return copies of the replicated services, tasks and groups, like the deserialized responses of the node,
+ * so a change of a returned object doesn't change the copy
+ */
+public final class ReplicatedServiceRegistry {
+
+    public static final long DEFAULT_MIN_RETRY_DELAY_MILLIS = 1000, DEFAULT_MAX_RETRY_DELAY_MILLIS = 60000;
+
+    private static final HashedWheelTimer RETRY_TIMER = new HashedWheelTimer("ReplicatedServiceRegistry-Retry");
+
+    private final Supplier<ITask<ServiceRegistrySnapshot>> snapshotLoader;
+
+    private final Map<UUID, ServiceInfoSnapshot> serviceInfoSnapshots = Maps.newConcurrentHashMap();
+
+    private volatile List<ServiceTask> serviceTasks = Collections.emptyList();
+
+    private volatile List<GroupConfiguration> groupConfigurations = Collections.emptyList();
+
+    private final List<BufferedUpdate> bufferedUpdates = Iterables.newArrayList();
+
+    private final AtomicLong resyncCount = new AtomicLong();
+
+    private final long minRetryDelayMillis, maxRetryDelayMillis;
+
+    private volatile boolean available;
+
+    //guarded by this
+    private long sequence;
+
+    //guarded by this
+    private boolean loading;
+
+    //guarded by this
+    private long retryDelayMillis;
+
+    //guarded by this
+    private HashedWheelTimer.Timeout retryTimeout;
+
+    public ReplicatedServiceRegistry(Supplier<ITask<ServiceRegistrySnapshot>> snapshotLoader)
+    {
+        this(snapshotLoader, DEFAULT_MIN_RETRY_DELAY_MILLIS, DEFAULT_MAX_RETRY_DELAY_MILLIS);
+    }
+
+    /**
+     * @param snapshotLoader      the function, which requests a new snapshot from the node. It returns null, if the
+     *                            node is not reachable
+     * @param minRetryDelayMillis the delay, after that a failed load is tried again the first time
+     * @param maxRetryDelayMillis the max delay between two tries
+     */
+    public ReplicatedServiceRegistry(Supplier<ITask<ServiceRegistrySnapshot>> snapshotLoader, long minRetryDelayMillis, long maxRetryDelayMillis)
+    {
+        Validate.checkNotNull(snapshotLoader);
+
+        if (minRetryDelayMillis <= 0 || maxRetryDelayMillis < minRetryDelayMillis)
+            throw new IllegalArgumentException("Invalid retry delays " + minRetryDelayMillis + "ms and " + maxRetryDelayMillis + "ms");
+
+        this.snapshotLoader = snapshotLoader;
+        this.minRetryDelayMillis = minRetryDelayMillis;
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+        this.retryDelayMillis = minRetryDelayMillis;
+    }
+
+    /**
+     * Loads a new snapshot from the node. The copy is not available until the snapshot is applied
+     */
+    public void resync()
+    {
+        synchronized (this)
+        {
+            if (this.loading) return;
+
+            this.loading = true;
+            this.available = false;
+        }
+
+        this.resyncCount.incrementAndGet();
+
+        ITask<ServiceRegistrySnapshot> task;
+
+        try
+        {
+            task = this.snapshotLoader.get();
+        } catch (Throwable throwable)
+        {
+            this.failLoading(throwable);
+            return;
+        }
+
+        if (task == null)
+        {
+            this.failLoading(null);
+            return;
+        }
+
+        AtomicBoolean handled = new AtomicBoolean();
+
+        ITaskListener<ServiceRegistrySnapshot> listener = new ITaskListener<ServiceRegistrySnapshot>() {
+            @Override
+            public void onComplete(ITask<ServiceRegistrySnapshot> task, ServiceRegistrySnapshot snapshot)
+            {
+                if (!handled.compareAndSet(false, true)) return;
+
+                if (snapshot != null)
+                    applySnapshot(snapshot);
+                else
+                    failLoading(null);
+            }
+
+            @Override
+            public void onCancelled(ITask<ServiceRegistrySnapshot> task)
+            {
+                if (handled.compareAndSet(false, true)) failLoading(null);
+            }
+
+            @Override
+            public void onFailure(ITask<ServiceRegistrySnapshot> task, Throwable th)
+            {
+                if (handled.compareAndSet(false, true)) failLoading(th);
+            }
+        };
+
+        task.addListener(listener);
+
+        //Not every task of the loader calls a listener, which is added after the completion, like the ListenableTask
+        if (task.isDone())
+            try
+            {
+                listener.onComplete(task, task.get());
+            } catch (ExecutionException exception)
+            {
+                listener.onFailure(task, exception.getCause());
+            } catch (Throwable throwable)
+            {
+                listener.onFailure(task, throwable);
+            }
+    }
+
+    /**
+     * Replaces the copy with the snapshot and applies all received updates, which are newer than the snapshot
+     */
+    public synchronized void applySnapshot(ServiceRegistrySnapshot snapshot)
+    {
+        Validate.checkNotNull(snapshot);
+
+        this.serviceInfoSnapshots.clear();
+
+        if (snapshot.getServiceInfoSnapshots() != null)
+            for (ServiceInfoSnapshot serviceInfoSnapshot : snapshot.getServiceInfoSnapshots())
+                this.serviceInfoSnapshots.put(serviceInfoSnapshot.getServiceId().getUniqueId(), serviceInfoSnapshot);
+
+        this.setServiceTasks(snapshot.getServiceTasks());
+        this.setGroupConfigurations(snapshot.getGroupConfigurations());
+
+        this.sequence = snapshot.getSequence();
+        this.loading = false;
+        this.available = true;
+
+        this.retryDelayMillis = this.minRetryDelayMillis;
+
+        if (this.retryTimeout != null)
+        {
+            this.retryTimeout.cancel();
+            this.retryTimeout = null;
+        }
+
+        List<BufferedUpdate> updates = Iterables.newArrayList(this.bufferedUpdates);
+        this.bufferedUpdates.clear();
+
+        updates.sort(new Comparator<BufferedUpdate>() {
+            @Override
+            public int compare(BufferedUpdate first, BufferedUpdate second)
+            {
+                return Long.compare(first.sequence, second.sequence);
+            }
+        });
+
+        for (BufferedUpdate update : updates)
+            this.handleUpdate(update.sequence, update.update);
+    }
+
+    /**
+     * Handles a publisher packet of a service
+     *
+     * @param sequence the replication sequence of the packet or 0, if the packet has no sequence
+     */
+    public void handleServiceInfoSnapshot(long sequence, ServiceInfoSnapshot serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType type)
+    {
+        Validate.checkNotNull(serviceInfoSnapshot);
+        Validate.checkNotNull(type);
+
+        this.handleUpdate(sequence, new Runnable() {
+            @Override
+            public void run()
+            {
+                if (type == PacketClientServerServiceInfoPublisher.PublisherType.UNREGISTER)
+                    serviceInfoSnapshots.remove(serviceInfoSnapshot.getServiceId().getUniqueId());
+                else
+                    serviceInfoSnapshots.put(serviceInfoSnapshot.getServiceId().getUniqueId(), serviceInfoSnapshot);
+            }
+        });
+    }
+
+    /**
+     * Handles a publisher packet of the tasks and groups
+     *
+     * @param sequence            the replication sequence of the packet
+     * @param serviceTasks        the new tasks or null, if the tasks are not changed
+     * @param groupConfigurations the new groups or null, if the groups are not changed
+     */
+    public void handleServiceConfigurations(long sequence, Collection<ServiceTask> serviceTasks, Collection<GroupConfiguration> groupConfigurations)
+    {
+        this.handleUpdate(sequence, new Runnable() {
+            @Override
+            public void run()
+            {
+                if (serviceTasks != null) setServiceTasks(serviceTasks);
+                if (groupConfigurations != null) setGroupConfigurations(groupConfigurations);
+            }
+        });
+    }
+
+    private synchronized void handleUpdate(long sequence, Runnable update)
+    {
+        if (this.loading)
+        {
+            this.bufferedUpdates.add(new BufferedUpdate(sequence, update));
+            return;
+        }
+
+        //Without a snapshot the copy is never complete, so the updates are dropped
+        if (!this.available) return;
+
+        //A packet without a sequence can't be ordered, it's applied as it is
+        if (sequence <= 0)
+        {
+            update.run();
+            return;
+        }
+
+        if (sequence <= this.sequence) return;
+
+        if (sequence != this.sequence + 1)
+        {
+            this.bufferedUpdates.add(new BufferedUpdate(sequence, update));
+            this.resync();
+            return;
+        }
+
+        update.run();
+        this.sequence = sequence;
+    }
+
+    private void failLoading(Throwable cause)
+    {
+        long delay;
+
+        synchronized (this)
+        {
+            this.loading = false;
+            this.bufferedUpdates.clear();
+
+            delay = this.retryDelayMillis;
+            this.retryDelayMillis = Math.min(delay * 2, this.maxRetryDelayMillis);
+
+            if (this.retryTimeout != null) this.retryTimeout.cancel();
+
+            this.retryTimeout = RETRY_TIMER.newTimeout(new Runnable() {
+                @Override
+                public void run()
+                {
+                    resync();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        if (CloudNetDriver.getInstance() != null && CloudNetDriver.getInstance().getLogger() != null)
+            CloudNetDriver.getInstance().getLogger().warning(
+                "The snapshot of the services, tasks and groups couldn't be loaded" +
+                    (cause != null ? " (" + cause.getClass().getSimpleName() + ": " + cause.getMessage() + ")" : "") +
+                    ", the next try is in " + delay + "ms"
+            );
+    }
+
+    private void setServiceTasks(Collection<ServiceTask> serviceTasks)
+    {
+        this.serviceTasks = serviceTasks != null ?
+            Collections.unmodifiableList(Iterables.newArrayList(serviceTasks)) :
+            Collections.emptyList();
+    }
+
+    private void setGroupConfigurations(Collection<GroupConfiguration> groupConfigurations)
+    {
+        this.groupConfigurations = groupConfigurations != null ?
+            Collections.unmodifiableList(Iterables.newArrayList(groupConfigurations)) :
+            Collections.emptyList();
+    }
+
+    /**
+     * Returns true, if the copy is synchronized with the node and can answer the queries
+     */
+    public boolean isAvailable()
+    {
+        return this.available;
+    }
+
+    public synchronized long getSequence()
+    {
+        return this.sequence;
+    }
+
+    /**
+     * Returns how often a new snapshot was requested from the node
+     */
+    public long getResyncCount()
+    {
+        return this.resyncCount.get();
+    }
+
+    /*= ----------------------------------------------------------- =*/
+
+    public Collection<UUID> getServicesAsUniqueId()
+    {
+        return Collections.unmodifiableCollection(Iterables.newArrayList(this.serviceInfoSnapshots.keySet()));
+    }
+
+    public ServiceInfoSnapshot getCloudServiceByName(String name)
+    {
+        Validate.checkNotNull(name);
+
+        return copy(Iterables.first(this.serviceInfoSnapshots.values(), new Predicate<ServiceInfoSnapshot>() {
+            @Override
+            public boolean test(ServiceInfoSnapshot serviceInfoSnapshot)
+            {
+                return serviceInfoSnapshot.getServiceId().getName().equalsIgnoreCase(name);
+            }
+        }), ServiceInfoSnapshot.TYPE);
+    }
+
+    public Collection<ServiceInfoSnapshot> getCloudServices()
+    {
+        return copyAll(this.serviceInfoSnapshots.values(), ServiceInfoSnapshot.TYPE);
+    }
+
+    public Collection<ServiceInfoSnapshot> getStartedCloudServices()
+    {
+        return copyAll(Iterables.filter(this.serviceInfoSnapshots.values(), new Predicate<ServiceInfoSnapshot>() {
+            @Override
+            public boolean test(ServiceInfoSnapshot serviceInfoSnapshot)
+            {
+                return serviceInfoSnapshot.getLifeCycle() == ServiceLifeCycle.RUNNING;
+            }
+        }), ServiceInfoSnapshot.TYPE);
+    }
+
+    public Collection<ServiceInfoSnapshot> getCloudServices(String taskName)
+    {
+        Validate.checkNotNull(taskName);
+
+        return copyAll(Iterables.filter(this.serviceInfoSnapshots.values(), new Predicate<ServiceInfoSnapshot>() {
+            @Override
+            public boolean test(ServiceInfoSnapshot serviceInfoSnapshot)
+            {
+                return serviceInfoSnapshot.getServiceId().getTaskName().equalsIgnoreCase(taskName);
+            }
+        }), ServiceInfoSnapshot.TYPE);
+    }
+
+    public Collection<ServiceInfoSnapshot> getCloudServicesByGroup(String group)
+    {
+        Validate.checkNotNull(group);
+
+        return copyAll(Iterables.filter(this.serviceInfoSnapshots.values(), new Predicate<ServiceInfoSnapshot>() {
+            @Override
+            public boolean test(ServiceInfoSnapshot serviceInfoSnapshot)
+            {
+                return Iterables.contains(group, serviceInfoSnapshot.getConfiguration().getGroups());
+            }
+        }), ServiceInfoSnapshot.TYPE);
+    }
+
+    public Collection<ServiceInfoSnapshot> getCloudServices(ServiceEnvironmentType environment)
+    {
+        Validate.checkNotNull(environment);
+
+        return copyAll(Iterables.filter(this.serviceInfoSnapshots.values(), new Predicate<ServiceInfoSnapshot>() {
+            @Override
+            public boolean test(ServiceInfoSnapshot serviceInfoSnapshot)
+            {
+                return serviceInfoSnapshot.getServiceId().getEnvironment() == environment;
+            }
+        }), ServiceInfoSnapshot.TYPE);
+    }
+
+    public ServiceInfoSnapshot getCloudService(UUID uniqueId)
+    {
+        Validate.checkNotNull(uniqueId);
+
+        return copy(this.serviceInfoSnapshots.get(uniqueId), ServiceInfoSnapshot.TYPE);
+    }
+
+    public int getServicesCount()
+    {
+        return this.serviceInfoSnapshots.size();
+    }
+
+    public int getServicesCountByGroup(String group)
+    {
+        Validate.checkNotNull(group);
+
+        int amount = 0;
+
+        for (ServiceInfoSnapshot serviceInfoSnapshot : this.serviceInfoSnapshots.values())
+            if (Iterables.contains(group, serviceInfoSnapshot.getConfiguration().getGroups()))
+                amount++;
+
+        return amount;
+    }
+
+    public int getServicesCountByTask(String taskName)
+    {
+        Validate.checkNotNull(taskName);
+
+        int amount = 0;
+
+        for (ServiceInfoSnapshot serviceInfoSnapshot : this.serviceInfoSnapshots.values())
+            if (serviceInfoSnapshot.getServiceId().getTaskName().equals(taskName))
+                amount++;
+
+        return amount;
+    }
+
+    public Collection<ServiceTask> getPermanentServiceTasks()
+    {
+        return copyAll(this.serviceTasks, ServiceTask.class);
+    }
+
+    public ServiceTask getServiceTask(String name)
+    {
+        return copy(this.findServiceTask(name), ServiceTask.class);
+    }
+
+    public boolean isServiceTaskPresent(String name)
+    {
+        return this.findServiceTask(name) != null;
+    }
+
+    public Collection<GroupConfiguration> getGroupConfigurations()
+    {
+        return copyAll(this.groupConfigurations, GroupConfiguration.class);
+    }
+
+    public GroupConfiguration getGroupConfiguration(String name)
+    {
+        return copy(this.findGroupConfiguration(name), GroupConfiguration.class);
+    }
+
+    public boolean isGroupConfigurationPresent(String name)
+    {
+        return this.findGroupConfiguration(name) != null;
+    }
+
+    /*= ----------------------------------------------------------- =*/
+
+    private ServiceTask findServiceTask(String name)
+    {
+        Validate.checkNotNull(name);
+
+        return Iterables.first(this.serviceTasks, new Predicate<ServiceTask>() {
+            @Override
+            public boolean test(ServiceTask serviceTask)
+            {
+                return serviceTask.getName().equalsIgnoreCase(name);
+            }
+        });
+    }
+
+    private GroupConfiguration findGroupConfiguration(String name)
+    {
+        Validate.checkNotNull(name);
+
+        return Iterables.first(this.groupConfigurations, new Predicate<GroupConfiguration>() {
+            @Override
+            public boolean test(GroupConfiguration groupConfiguration)
+            {
+                return groupConfiguration.getName().equalsIgnoreCase(name);
+            }
+        });
+    }
+
+    private static <T> T copy(T value, Type type)
+    {
+        return value != null ? JsonDocument.GSON.fromJson(JsonDocument.GSON.toJsonTree(value), type) : null;
+    }
+
+    private static <T> List<T> copyAll(Collection<T> values, Type type)
+    {
+        List<T> copies = Iterables.newArrayList();
+
+        for (T value : values)
+            copies.add(copy(value, type));
+
+        return copies;
+    }
+
+    private static final class BufferedUpdate {
+
+        private final long sequence;
+
+        private final Runnable update;
+
+        private BufferedUpdate(long sequence, Runnable update)
+        {
+            this.sequence = sequence;
+            this.update = update;
+        }
+    }
+}
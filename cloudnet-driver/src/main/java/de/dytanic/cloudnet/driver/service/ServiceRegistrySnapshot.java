@@ -0,0 +1,25 @@
+package de.dytanic.cloudnet.driver.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * The complete state of the services, tasks and groups of a node at one replication sequence. The publisher packets,
+ * which the node sends after the snapshot, have a greater sequence
+ *
+ * @see IServiceRegistrySnapshotProvider
+ */
+@Getter
+@AllArgsConstructor
+public class ServiceRegistrySnapshot {
+
+    protected long sequence;
+
+    protected Collection<ServiceInfoSnapshot> serviceInfoSnapshots;
+
+    protected Collection<ServiceTask> serviceTasks;
+
+    protected Collection<GroupConfiguration> groupConfigurations;
+}
@@ -1,8 +1,20 @@
 package de.dytanic.cloudnet.driver.event;
 
+import de.dytanic.cloudnet.common.concurrent.ITask;
 import org.junit.Assert;
+import org.junit.Ignore;
 import org.junit.Test;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public final class DefaultEventManagerTest {
@@ -112,4 +124,441 @@ public final class DefaultEventManagerTest {
             testEvent.value = "value_789";
         }
     }
-}
\ No newline at end of file
+
+    /*= ----------------------------------------------------------------------------------- =*/
+
+    private static class BaseEvent extends Event {
+
+        final List<String> calls = new ArrayList<>();
+    }
+
+    private static final class SubEvent extends BaseEvent {
+    }
+
+    @Test
+    public void testEventHierarchyAndOrder()
+    {
+        IEventManager eventManager = new DefaultEventManager();
+
+        eventManager.registerListener(new HierarchyListener("first"));
+        eventManager.registerListener(new HierarchyListener("second"));
+
+        SubEvent subEvent = eventManager.callEvent(new SubEvent());
+
+        //Sorted by the priority, listeners with the same priority in the order of the registration
+        Assert.assertEquals(Arrays.asList("first:high", "second:high", "first:base", "second:base", "first:sub", "second:sub"), subEvent.calls);
+
+        BaseEvent baseEvent = eventManager.callEvent(new BaseEvent());
+        Assert.assertEquals(Arrays.asList("first:high", "second:high", "first:base", "second:base"), baseEvent.calls);
+
+        //A new registration replaces the cached listeners of the event class
+        eventManager.registerListener(new HierarchyListener("third"));
+        Assert.assertEquals(9, eventManager.callEvent(new SubEvent()).calls.size());
+
+        eventManager.unregisterListener(HierarchyListener.class);
+        Assert.assertTrue(eventManager.callEvent(new SubEvent()).calls.isEmpty());
+    }
+
+    public static final class HierarchyListener {
+
+        private final String name;
+
+        private HierarchyListener(String name)
+        {
+            this.name = name;
+        }
+
+        @EventListener
+        public void handleBase(BaseEvent event)
+        {
+            event.calls.add(this.name + ":base");
+        }
+
+        @EventListener(priority = EventPriority.LOW)
+        public void handleSub(SubEvent event)
+        {
+            event.calls.add(this.name + ":sub");
+        }
+
+        @EventListener(priority = EventPriority.HIGH)
+        public void handleHigh(BaseEvent event)
+        {
+            event.calls.add(this.name + ":high");
+        }
+    }
+
+    /*= ----------------------------------------------------------------------------------- =*/
+
+    private static final int ASYNC_EVENTS = 10000;
+
+    private static final class OrderEvent extends Event {
+
+        private final int id;
+
+        private boolean handled;
+
+        private OrderEvent(int id)
+        {
+            this.id = id;
+        }
+    }
+
+    public static final class AsyncListener {
+
+        private final List<Integer> ids = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile String thread;
+
+        @EventListener(async = true)
+        public void handleAsync(OrderEvent event)
+        {
+            //The async listener is called after all sync listeners
+            Assert.assertTrue(event.handled);
+
+            this.thread = Thread.currentThread().getName();
+            this.ids.add(event.id);
+        }
+
+        @EventListener(priority = EventPriority.LOWEST)
+        public void handleSync(OrderEvent event)
+        {
+            event.handled = true;
+        }
+    }
+
+    @Test
+    public void testAsyncListeners() throws Exception
+    {
+        DefaultEventManager eventManager = new DefaultEventManager();
+        AsyncListener listener = new AsyncListener();
+        eventManager.registerListener(listener);
+
+        OrderEvent event = eventManager.callEventAsync(new OrderEvent(-1)).get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(event.handled);
+        Assert.assertEquals(Collections.singletonList(-1), listener.ids);
+        Assert.assertTrue(listener.thread.startsWith("EventManager-Async-"));
+
+        //The async listener handles the events one after another in the order of the calls
+        this.assertAsyncOrder(eventManager, listener, false);
+        this.assertAsyncOrder(eventManager, listener, true);
+
+        for (IRegisteredEventListener registeredListener : eventManager.getRegisteredListeners())
+        {
+            Assert.assertEquals(ASYNC_EVENTS * 2 + 1, registeredListener.getInvocationCount());
+            Assert.assertTrue(registeredListener.getMaxExecutionTime() > 0);
+            Assert.assertTrue(registeredListener.getTotalExecutionTime() >= registeredListener.getMaxExecutionTime());
+        }
+
+        eventManager.unregisterAll();
+    }
+
+    private void assertAsyncOrder(IEventManager eventManager, AsyncListener listener, boolean callAsync) throws Exception
+    {
+        listener.ids.clear();
+
+        ITask<OrderEvent> task = null;
+        for (int i = 0; i < ASYNC_EVENTS; i++)
+            if (callAsync)
+                task = eventManager.callEventAsync(new OrderEvent(i));
+            else
+                eventManager.callEvent(new OrderEvent(i));
+
+        if (task != null)
+            task.get(5, TimeUnit.SECONDS);
+        else
+        {
+            //Every event of callEvent is handled by the async listener, after it was handled by the sync listeners
+            long deadline = System.currentTimeMillis() + 5000;
+            while (listener.ids.size() < ASYNC_EVENTS && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        }
+
+        List<Integer> ids = new ArrayList<>(listener.ids);
+        Assert.assertEquals(ASYNC_EVENTS, ids.size());
+
+        for (int i = 0; i < ids.size(); i++)
+            Assert.assertEquals(i, ids.get(i).intValue());
+    }
+
+    /*= ----------------------------------------------------------------------------------- =*/
+
+    public static final class SlowListener {
+
+        @EventListener
+        public void handleSlow(CountEvent event) throws InterruptedException
+        {
+            if (event.count++ == 0) Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void testInstrumentation()
+    {
+        DefaultEventManager eventManager = new DefaultEventManager();
+        eventManager.setInstrumentation(true);
+        eventManager.setSlowListenerThreshold(10, TimeUnit.MILLISECONDS);
+        eventManager.registerListener(new SlowListener());
+
+        CountEvent event = new CountEvent();
+        for (int i = 0; i < 100; i++) eventManager.callEvent(event);
+
+        IRegisteredEventListener listener = eventManager.getRegisteredListeners().iterator().next();
+        Assert.assertEquals(100, listener.getInvocationCount());
+        Assert.assertTrue(listener.getMaxExecutionTime() >= TimeUnit.MILLISECONDS.toNanos(20));
+        Assert.assertEquals(100, listener.getLatencyHistogram().getCount());
+
+        //Without the instrumentation nothing is recorded
+        eventManager.resetStatistics();
+        eventManager.setInstrumentation(false);
+        eventManager.callEvent(event);
+
+        Assert.assertEquals(0, listener.getInvocationCount());
+        Assert.assertEquals(101, event.count);
+    }
+
+    /*= ----------------------------------------------------------------------------------- =*/
+
+    private static final int STRESS_THREADS = 4, STRESS_LISTENERS = 200;
+
+    private static final class StressEvent extends Event {
+
+        private EventPriority lastPriority;
+
+        private int calls;
+
+        private void handle(EventPriority priority)
+        {
+            //The listeners of one call are always sorted, also while other threads change the registrations
+            if (this.lastPriority != null) Assert.assertTrue(this.lastPriority.compareTo(priority) <= 0);
+
+            this.lastPriority = priority;
+            this.calls++;
+        }
+    }
+
+    public static final class StressListener {
+
+        @EventListener(priority = EventPriority.HIGH)
+        public void handleHigh(StressEvent event)
+        {
+            event.handle(EventPriority.HIGH);
+        }
+
+        @EventListener(priority = EventPriority.LOW)
+        public void handleLow(StressEvent event)
+        {
+            event.handle(EventPriority.LOW);
+        }
+    }
+
+    @Test
+    public void testConcurrentRegistration() throws Exception
+    {
+        DefaultEventManager eventManager = new DefaultEventManager();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch writers = new CountDownLatch(STRESS_THREADS);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < STRESS_THREADS; i++)
+        {
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        while (running.get()) eventManager.callEvent(new StressEvent());
+                    } catch (Throwable throwable)
+                    {
+                        errors.add(throwable);
+                    }
+                }
+            }));
+
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        for (int j = 0; j < STRESS_LISTENERS; j++)
+                        {
+                            //Every writer keeps one listener and removes an other one, which it registered before
+                            StressListener transientListener = new StressListener();
+
+                            eventManager.registerListener(new StressListener());
+                            eventManager.registerListener(transientListener);
+                            eventManager.unregisterListener(transientListener);
+                        }
+                    } catch (Throwable throwable)
+                    {
+                        errors.add(throwable);
+                    } finally
+                    {
+                        writers.countDown();
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread : threads) thread.start();
+
+        Assert.assertTrue(writers.await(30, TimeUnit.SECONDS));
+        running.set(false);
+
+        for (Thread thread : threads) thread.join();
+
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+
+        //No registration is lost and no removed listener is called anymore
+        Assert.assertEquals(STRESS_THREADS * STRESS_LISTENERS * 2, eventManager.getRegisteredListeners().size());
+        Assert.assertEquals(STRESS_THREADS * STRESS_LISTENERS * 2, eventManager.callEvent(new StressEvent()).calls);
+
+        eventManager.unregisterListener(StressListener.class);
+        Assert.assertEquals(0, eventManager.callEvent(new StressEvent()).calls);
+    }
+
+    /*= ----------------------------------------------------------------------------------- =*/
+
+    private static final class CountEvent extends Event {
+
+        private int count;
+    }
+
+    private static final class OtherEvent extends Event {
+    }
+
+    public static final class CountListener {
+
+        @EventListener
+        public void handleCount(CountEvent event)
+        {
+            event.count++;
+        }
+
+        @EventListener(priority = EventPriority.LOW)
+        public void handleOther(OtherEvent event)
+        {
+        }
+    }
+
+    @Test
+    public void testDispatchByEventClass()
+    {
+        IEventManager eventManager = new DefaultEventManager();
+
+        for (int i = 0; i < 10; i++)
+            eventManager.registerListener(new CountListener());
+
+        CountEvent event = new CountEvent();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            eventManager.callEvent(event);
+            eventManager.callEvent(new OtherEvent());
+        }
+
+        Assert.assertEquals(10000, event.count);
+    }
+
+    /**
+     * Compares the dispatch of the manager with the previous dispatch, which sorted the listeners on every call and
+     * invoked every listener with reflection. It only prints the timings, so it is ignored in the normal test runs
+     */
+    @Test
+    @Ignore("Throughput benchmark, run it manually")
+    public void testThroughput() throws Exception
+    {
+        final int eventCount = 1000000;
+
+        IEventManager eventManager = new DefaultEventManager();
+        List<IRegisteredEventListener> legacyListeners = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++)
+        {
+            CountListener listener = new CountListener();
+            eventManager.registerListener(listener);
+
+            for (Method method : CountListener.class.getDeclaredMethods())
+                if (method.isAnnotationPresent(EventListener.class))
+                    legacyListeners.add(new LegacyRegisteredEventListener(method.getAnnotation(EventListener.class), listener, method));
+        }
+
+        for (int round = 0; round < 3; round++)
+        {
+            CountEvent event = new CountEvent();
+            long time = System.nanoTime();
+
+            for (int i = 0; i < eventCount; i++)
+                eventManager.callEvent(event);
+
+            long managerTime = System.nanoTime() - time;
+
+            CountEvent legacyEvent = new CountEvent();
+            time = System.nanoTime();
+
+            for (int i = 0; i < eventCount; i++)
+            {
+                List<IRegisteredEventListener> listeners = new ArrayList<>(legacyListeners);
+                Collections.sort(listeners);
+
+                for (IRegisteredEventListener listener : listeners) listener.fireEvent(legacyEvent);
+            }
+
+            long legacyTime = System.nanoTime() - time;
+
+            System.out.println("Called " + eventCount + " events on 20 listeners: DefaultEventManager " + TimeUnit.NANOSECONDS.toMillis(managerTime) +
+                "ms, sorted reflective dispatch " + TimeUnit.NANOSECONDS.toMillis(legacyTime) + "ms");
+        }
+    }
+
+    /**
+     * A listener with the reflective invocation of IRegisteredEventListener, as used before the precompiled dispatch
+     */
+    private static final class LegacyRegisteredEventListener implements IRegisteredEventListener {
+
+        private final EventListener eventListener;
+
+        private final Object instance;
+
+        private final Method handlerMethod;
+
+        private LegacyRegisteredEventListener(EventListener eventListener, Object instance, Method handlerMethod)
+        {
+            this.eventListener = eventListener;
+            this.instance = instance;
+            this.handlerMethod = handlerMethod;
+        }
+
+        @Override
+        public EventListener getEventListener()
+        {
+            return this.eventListener;
+        }
+
+        @Override
+        public EventPriority getPriority()
+        {
+            return this.eventListener.priority();
+        }
+
+        @Override
+        public Object getInstance()
+        {
+            return this.instance;
+        }
+
+        @Override
+        public Method getHandlerMethod()
+        {
+            return this.handlerMethod;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<? extends Event> getEventClass()
+        {
+            return (Class<? extends Event>) this.handlerMethod.getParameterTypes()[0];
+        }
+    }
+}
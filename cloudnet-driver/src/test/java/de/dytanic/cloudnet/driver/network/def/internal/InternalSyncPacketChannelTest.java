@@ -0,0 +1,185 @@
+package de.dytanic.cloudnet.driver.network.def.internal;
+
+import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ITaskListener;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class InternalSyncPacketChannelTest {
+
+    @Test
+    public void testResponse() throws Exception
+    {
+        Queue<IPacket> sentPackets = new ConcurrentLinkedQueue<>();
+        long latencies = InternalSyncPacketChannel.getLatencyHistogram().getCount();
+
+        ITask<Pair<JsonDocument, byte[]>> task = InternalSyncPacketChannel.sendCallablePacket(
+            this.createChannel(sentPackets), new JsonDocument("test", "request"), null);
+
+        Assert.assertEquals(1, sentPackets.size());
+        Assert.assertEquals(1, InternalSyncPacketChannel.getInFlightCount());
+
+        IPacket request = sentPackets.poll();
+        Assert.assertTrue(InternalSyncPacketChannel.handleIncomingChannel(new Packet(request.getChannel(), request.getUniqueId(),
+            new JsonDocument("test", "response"), new byte[]{1, 2})));
+        Assert.assertFalse(InternalSyncPacketChannel.handleIncomingChannel(new Packet(request.getChannel(), request.getUniqueId(),
+            new JsonDocument("test", "response"), new byte[0])));
+
+        Pair<JsonDocument, byte[]> response = task.get(1, TimeUnit.SECONDS);
+
+        Assert.assertEquals("response", response.getFirst().getString("test"));
+        Assert.assertArrayEquals(new byte[]{1, 2}, response.getSecond());
+        Assert.assertEquals(0, InternalSyncPacketChannel.getInFlightCount());
+        Assert.assertEquals(latencies + 1, InternalSyncPacketChannel.getLatencyHistogram().getCount());
+    }
+
+    @Test
+    public void testSyncCallInTaskListener() throws Exception
+    {
+        Queue<IPacket> sentPackets = new ConcurrentLinkedQueue<>();
+        INetworkChannel channel = this.createChannel(sentPackets);
+
+        AtomicReference<String> nestedResponse = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        //The listener waits for an other response, which is handled by the same thread as the first response
+        InternalSyncPacketChannel.sendCallablePacket(channel, new JsonDocument("test", "request"), null, new ITaskListener<Pair<JsonDocument, byte[]>>() {
+            @Override
+            public void onComplete(ITask<Pair<JsonDocument, byte[]>> task, Pair<JsonDocument, byte[]> response)
+            {
+                try
+                {
+                    nestedResponse.set(InternalSyncPacketChannel.sendCallablePacket(channel, new JsonDocument("test", "nested"), null)
+                        .get(5, TimeUnit.SECONDS).getFirst().getString("test"));
+                } catch (Exception exception)
+                {
+                    exception.printStackTrace();
+                }
+
+                latch.countDown();
+            }
+        });
+
+        IPacket request = sentPackets.poll();
+        Assert.assertTrue(InternalSyncPacketChannel.handleIncomingChannel(new Packet(request.getChannel(), request.getUniqueId(),
+            new JsonDocument("test", "response"), new byte[0])));
+
+        IPacket nestedRequest = null;
+
+        for (int i = 0; i < 500 && nestedRequest == null; i++)
+        {
+            nestedRequest = sentPackets.poll();
+            if (nestedRequest == null) Thread.sleep(10);
+        }
+
+        Assert.assertNotNull(nestedRequest);
+        Assert.assertTrue(InternalSyncPacketChannel.handleIncomingChannel(new Packet(nestedRequest.getChannel(), nestedRequest.getUniqueId(),
+            new JsonDocument("test", "nested response"), new byte[0])));
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("nested response", nestedResponse.get());
+    }
+
+    @Test
+    public void testBoundedCallbackExecutor() throws Exception
+    {
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2), tasks = maxThreads * 4;
+
+        AtomicInteger running = new AtomicInteger(), maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1), done = new CountDownLatch(tasks);
+
+        //The blocking completions wait in the queue, instead of starting a new thread for each of them
+        for (int i = 0; i < tasks; i++)
+            InternalSyncPacketChannel.getCallbackExecutor().execute(new Runnable() {
+                @Override
+                public void run()
+                {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+                    try
+                    {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException exception)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+
+        Thread.sleep(100);
+        release.countDown();
+
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(maxRunning.get() <= maxThreads);
+    }
+
+    @Test
+    public void testTimeout() throws Exception
+    {
+        Queue<IPacket> sentPackets = new ConcurrentLinkedQueue<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long timedOut = InternalSyncPacketChannel.getTimedOutCount();
+
+        ITask<Pair<JsonDocument, byte[]>> task = InternalSyncPacketChannel.sendCallablePacket(this.createChannel(sentPackets),
+            new JsonDocument("test", "request"), null, new ITaskListener<Pair<JsonDocument, byte[]>>() {
+                @Override
+                public void onFailure(ITask<Pair<JsonDocument, byte[]>> task, Throwable th)
+                {
+                    failure.set(th);
+                }
+            }, 50, TimeUnit.MILLISECONDS);
+
+        try
+        {
+            task.get(5, TimeUnit.SECONDS);
+            Assert.fail("The task should complete exceptionally");
+        } catch (ExecutionException exception)
+        {
+            Assert.assertTrue(exception.getCause() instanceof TimeoutException);
+        }
+
+        Assert.assertTrue(task.isDone());
+        Assert.assertTrue(failure.get() instanceof TimeoutException);
+        Assert.assertEquals(timedOut + 1, InternalSyncPacketChannel.getTimedOutCount());
+        Assert.assertEquals(0, InternalSyncPacketChannel.getInFlightCount());
+
+        //A late response is ignored
+        IPacket request = sentPackets.poll();
+        Assert.assertFalse(InternalSyncPacketChannel.handleIncomingChannel(new Packet(request.getChannel(), request.getUniqueId(),
+            new JsonDocument(), new byte[0])));
+    }
+
+    private INetworkChannel createChannel(Queue<IPacket> sentPackets)
+    {
+        return (INetworkChannel) Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class<?>[]{INetworkChannel.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+                if (method.getName().equals("sendPacket") && args != null && args.length == 1 && args[0] instanceof IPacket)
+                    sentPackets.add((IPacket) args[0]);
+
+                return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.INetworkClient;
+import de.dytanic.cloudnet.driver.network.INetworkServer;
+import de.dytanic.cloudnet.driver.network.protocol.ChunkedPacketListener;
+import de.dytanic.cloudnet.driver.network.protocol.ChunkedPacketOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class NettyChunkedPacketTransferTest {
+
+    private final CountDownLatch completeLatch = new CountDownLatch(1), abortLatch = new CountDownLatch(1), timeoutLatch = new CountDownLatch(1);
+
+    private volatile byte[] receivedData;
+
+    private volatile String receivedName;
+
+    @Test
+    public void testChunkedTransfer() throws Exception
+    {
+        INetworkServer networkServer = new NettyNetworkServer(() -> null);
+        INetworkClient networkClient = new NettyNetworkClient(() -> null);
+
+        networkServer.getPacketRegistry().addListener(8, new ChunkedPacketListenerImpl());
+
+        HostAndPort address = new HostAndPort("127.0.0.1", 43207);
+
+        Assert.assertTrue(networkServer.addListener(address));
+        Assert.assertTrue(networkClient.connect(address));
+
+        //The channel is initialized in the event loop after the connect
+        for (int i = 0; i < 200 && networkClient.getChannels().isEmpty(); i++)
+            Thread.sleep(5);
+
+        INetworkChannel channel = networkClient.getChannels().iterator().next();
+
+        byte[] data = new byte[4 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(data);
+
+        ChunkedPacketOutputStream.transfer(channel, 8, new JsonDocument("name", "test"), new ByteArrayInputStream(data));
+
+        Assert.assertTrue(this.completeLatch.await(20, TimeUnit.SECONDS));
+        Assert.assertEquals("test", this.receivedName);
+        Assert.assertArrayEquals(data, this.receivedData);
+
+        ChunkedPacketOutputStream outputStream = new ChunkedPacketOutputStream(channel, 8, new JsonDocument("name", "aborted"), 1024);
+        outputStream.write(data, 0, 8192);
+        outputStream.abort();
+
+        Assert.assertTrue(this.abortLatch.await(20, TimeUnit.SECONDS));
+
+        //A transfer, which is never completed, is aborted by the timer of the listener
+        outputStream = new ChunkedPacketOutputStream(channel, 8, new JsonDocument("name", "stalled"), 1024);
+        outputStream.write(data, 0, 2048);
+
+        Assert.assertTrue(this.timeoutLatch.await(20, TimeUnit.SECONDS));
+
+        networkClient.close();
+        networkServer.close();
+    }
+
+    private final class ChunkedPacketListenerImpl extends ChunkedPacketListener {
+
+        @Override
+        protected OutputStream createOutputStream(INetworkChannel channel, JsonDocument header)
+        {
+            return new ByteArrayOutputStream();
+        }
+
+        @Override
+        protected void handleComplete(INetworkChannel channel, JsonDocument header, OutputStream outputStream)
+        {
+            receivedName = header.getString("name");
+            receivedData = ((ByteArrayOutputStream) outputStream).toByteArray();
+
+            completeLatch.countDown();
+        }
+
+        @Override
+        protected void handleAbort(INetworkChannel channel, JsonDocument header, OutputStream outputStream)
+        {
+            if (header.getString("name").equals("aborted")) abortLatch.countDown();
+            if (header.getString("name").equals("stalled")) timeoutLatch.countDown();
+        }
+
+        @Override
+        protected long getTransferTimeoutMillis()
+        {
+            return 2000;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.network.INetworkClient;
+import de.dytanic.cloudnet.driver.network.INetworkServer;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Counts the flushes of a channel, the packets, which are sent in the same event loop task or as batch, have to
+ * share their flushes
+ */
+public class NettyNetworkChannelFlushTest {
+
+    private static final int PACKET_COUNT = 100;
+
+    private final AtomicReference<CountDownLatch> latch = new AtomicReference<>();
+
+    private final AtomicInteger flushes = new AtomicInteger();
+
+    @Test
+    public void testFlushCoalescing() throws Exception
+    {
+        INetworkServer networkServer = new NettyNetworkServer(() -> null);
+        INetworkClient networkClient = new NettyNetworkClient(() -> null);
+
+        networkServer.getPacketRegistry().addListener(9, (channel, packet) -> this.latch.get().countDown());
+
+        HostAndPort address = new HostAndPort("127.0.0.1", 43208);
+
+        Assert.assertTrue(networkServer.addListener(address));
+        Assert.assertTrue(networkClient.connect(address));
+
+        //The channel is initialized in the event loop after the connect
+        for (int i = 0; i < 200 && networkClient.getChannels().isEmpty(); i++)
+            Thread.sleep(5);
+
+        NettyNetworkChannel channel = (NettyNetworkChannel) networkClient.getChannels().iterator().next();
+
+        channel.getChannel().pipeline().addFirst(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void flush(ChannelHandlerContext ctx) throws Exception
+            {
+                flushes.incrementAndGet();
+                super.flush(ctx);
+            }
+        });
+
+        List<IPacket> packets = Iterables.newArrayList();
+        for (int i = 0; i < PACKET_COUNT; i++)
+            packets.add(new Packet(9, new JsonDocument("index", i), Packet.EMPTY_PACKET_BYTE_ARRAY));
+
+        //The single packets, which are sent in one task of the event loop, are flushed after the max count of
+        //unflushed writes and once after the task
+        this.latch.set(new CountDownLatch(PACKET_COUNT));
+        channel.getChannel().eventLoop().execute(() ->
+        {
+            for (IPacket packet : packets)
+                channel.sendPacket(packet);
+        });
+
+        Assert.assertTrue(this.latch.get().await(30, TimeUnit.SECONDS));
+        Assert.assertEquals(PACKET_COUNT / NettyNetworkChannel.MAX_WRITES_BEFORE_FLUSH + 1, this.flushes.getAndSet(0));
+
+        //A batch from an other thread is written in one task of the event loop with the same flushes
+        this.latch.set(new CountDownLatch(PACKET_COUNT));
+        channel.sendPackets(packets);
+
+        Assert.assertTrue(this.latch.get().await(30, TimeUnit.SECONDS));
+        Assert.assertEquals(PACKET_COUNT / NettyNetworkChannel.MAX_WRITES_BEFORE_FLUSH + 1, this.flushes.getAndSet(0));
+
+        networkClient.close();
+        networkServer.close();
+    }
+}
@@ -0,0 +1,69 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.network.protocol.PacketHeaderCodecs;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class NettyPacketBroadcasterTest {
+
+    @Test
+    public void testBroadcast() throws Exception
+    {
+        EmbeddedChannel jsonChannel = new EmbeddedChannel(new NettyPacketEncoder()), jsonChannel2 = new EmbeddedChannel(new NettyPacketEncoder()),
+            binaryChannel = new EmbeddedChannel(new NettyPacketEncoder());
+
+        NettyNetworkChannel[] channels = {
+            new NettyNetworkChannel(jsonChannel, null, null, null, null, false),
+            new NettyNetworkChannel(jsonChannel2, null, null, null, null, false),
+            new NettyNetworkChannel(binaryChannel, null, null, null, null, false)
+        };
+
+        channels[2].setPacketHeaderCodec(PacketHeaderCodecs.BINARY);
+        channels[2].setPacketWireVersion(PacketWireVersion.CURRENT);
+
+        Packet packet = new Packet(4, new JsonDocument("text", "Test"), "Test_Nachricht".getBytes());
+        NettyPacketBroadcaster.broadcast(Arrays.asList(channels), packet);
+
+        ByteBuf jsonFrame = this.readFrame(jsonChannel), jsonFrame2 = this.readFrame(jsonChannel2), binaryFrame = this.readFrame(binaryChannel);
+
+        //Channels with the same format share the frame, which was encoded once
+        Assert.assertSame(jsonFrame.unwrap(), jsonFrame2.unwrap());
+        Assert.assertNotSame(jsonFrame.unwrap(), binaryFrame.unwrap());
+
+        for (ByteBuf frame : new ByteBuf[]{jsonFrame, jsonFrame2, binaryFrame})
+        {
+            List<Object> packets = new ArrayList<>();
+            new NettyPacketDecoder().decode(null, frame, packets);
+
+            Packet result = (Packet) packets.get(0);
+            Assert.assertEquals(packet.getUniqueId(), result.getUniqueId());
+            Assert.assertEquals("Test", result.getHeader().getString("text"));
+            Assert.assertEquals("Test_Nachricht", new String(result.getBody(), StandardCharsets.UTF_8));
+
+            frame.release();
+        }
+
+        Assert.assertEquals(0, jsonFrame.unwrap().refCnt());
+        Assert.assertEquals(0, binaryFrame.unwrap().refCnt());
+
+        jsonChannel.finish();
+        jsonChannel2.finish();
+        binaryChannel.finish();
+    }
+
+    private ByteBuf readFrame(EmbeddedChannel channel)
+    {
+        channel.runPendingTasks();
+        return channel.readOutbound();
+    }
+}
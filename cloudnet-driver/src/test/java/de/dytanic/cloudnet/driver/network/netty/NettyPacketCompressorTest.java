@@ -0,0 +1,232 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionStatistics;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.EncoderException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+public class NettyPacketCompressorTest {
+
+    @Test
+    public void testCompression() throws Exception
+    {
+        EmbeddedChannel sender = new EmbeddedChannel(new NettyPacketCompressor(), new NettyPacketEncoder()),
+            receiver = new EmbeddedChannel(new NettyPacketDecompressor(), new NettyPacketDecoder());
+
+        NettyNetworkChannel channel = new NettyNetworkChannel(sender, null, null, null, null, false);
+        channel.setPacketWireVersion(PacketWireVersion.CURRENT);
+        channel.setPacketCompression(new PacketCompressionConfiguration(1024, PacketCompressionConfiguration.DEFAULT_LEVEL));
+
+        new NettyNetworkChannel(receiver, null, null, null, null, false).setPacketWireVersion(PacketWireVersion.CURRENT);
+
+        byte[] compressibleBody = new byte[64 * 1024], randomBody = new byte[8192];
+        Arrays.fill(compressibleBody, (byte) 'a');
+        new Random(42).nextBytes(randomBody);
+
+        //Compressible large frame, small frame below the threshold and a random frame, which can't be compressed
+        Packet[] packets = {
+            new Packet(4, new JsonDocument("text", "compressible"), compressibleBody),
+            new Packet(4, new JsonDocument("text", "small"), "Test_Nachricht".getBytes(StandardCharsets.UTF_8)),
+            new Packet(4, new JsonDocument("text", "random"), randomBody)
+        };
+
+        int[] frameLengths = new int[packets.length];
+
+        for (int i = 0; i < packets.length; i++)
+        {
+            Assert.assertTrue(sender.writeOutbound(packets[i]));
+
+            ByteBuf frame = sender.readOutbound();
+            frameLengths[i] = frame.readableBytes();
+
+            Assert.assertTrue(receiver.writeInbound(frame));
+            Packet result = receiver.readInbound();
+
+            Assert.assertEquals(packets[i].getUniqueId(), result.getUniqueId());
+            Assert.assertEquals(packets[i].getHeader().getString("text"), result.getHeader().getString("text"));
+            Assert.assertArrayEquals(packets[i].getBody(), result.getBody());
+
+            result.release();
+        }
+
+        Assert.assertTrue(frameLengths[0] < compressibleBody.length / 10);
+        Assert.assertTrue(frameLengths[2] > randomBody.length);
+
+        PacketCompressionStatistics statistics = channel.getPacketCompressionStatistics();
+
+        Assert.assertEquals(2, statistics.getCompressedFrames());
+        Assert.assertTrue(statistics.getCompressionRatio() < 0.5);
+        Assert.assertTrue(statistics.getCompressionNanos() > 0);
+
+        Assert.assertEquals(1, new NettyNetworkChannel(receiver, null, null, null, null, false).getPacketCompressionStatistics().getDecompressedFrames());
+
+        Assert.assertFalse(sender.finish());
+        Assert.assertFalse(receiver.finish());
+    }
+
+    @Test
+    public void testUncompressedFrames() throws Exception
+    {
+        //The varint of the channel 128 starts with the same byte as the one of the compressed frame channel
+        for (int wireVersion : new int[]{PacketWireVersion.LEGACY, PacketWireVersion.CURRENT})
+        {
+            EmbeddedChannel sender = new EmbeddedChannel(new NettyPacketCompressor(), new NettyPacketEncoder()),
+                receiver = new EmbeddedChannel(new NettyPacketDecompressor(), new NettyPacketDecoder());
+
+            new NettyNetworkChannel(sender, null, null, null, null, false).setPacketWireVersion(wireVersion);
+            new NettyNetworkChannel(receiver, null, null, null, null, false).setPacketWireVersion(wireVersion);
+
+            Packet packet = new Packet(128, new JsonDocument("text", "uncompressed"), "Test_Nachricht".getBytes(StandardCharsets.UTF_8));
+
+            Assert.assertTrue(sender.writeOutbound(packet));
+            Assert.assertTrue(receiver.writeInbound((ByteBuf) sender.readOutbound()));
+
+            Packet result = receiver.readInbound();
+
+            Assert.assertEquals(128, result.getChannel());
+            Assert.assertEquals("uncompressed", result.getHeader().getString("text"));
+            Assert.assertArrayEquals(packet.getBody(), result.getBody());
+
+            result.release();
+
+            Assert.assertFalse(sender.finish());
+            Assert.assertFalse(receiver.finish());
+        }
+    }
+
+    @Test
+    public void testDirectBody() throws Exception
+    {
+        EmbeddedChannel sender = new EmbeddedChannel(new NettyPacketCompressor(), new NettyPacketEncoder()),
+            receiver = new EmbeddedChannel(new NettyPacketDecompressor(), new NettyPacketDecoder());
+
+        NettyNetworkChannel channel = new NettyNetworkChannel(sender, null, null, null, null, false);
+        channel.setPacketWireVersion(PacketWireVersion.CURRENT);
+        channel.setPacketCompression(new PacketCompressionConfiguration(1024, PacketCompressionConfiguration.DEFAULT_LEVEL));
+
+        new NettyNetworkChannel(receiver, null, null, null, null, false).setPacketWireVersion(PacketWireVersion.CURRENT);
+
+        //The direct body is larger than the input buffer of the compressor
+        byte[] body = new byte[64 * 1024];
+        Arrays.fill(body, (byte) 'b');
+
+        Packet packet = new Packet(4, UUID.randomUUID(), new JsonDocument("text", "direct"), Unpooled.directBuffer(body.length).writeBytes(body));
+
+        Assert.assertTrue(sender.writeOutbound(packet));
+
+        ByteBuf frame = sender.readOutbound();
+        Assert.assertTrue(frame.readableBytes() < body.length / 10);
+
+        Assert.assertTrue(receiver.writeInbound(frame));
+        Packet result = receiver.readInbound();
+
+        Assert.assertEquals(packet.getUniqueId(), result.getUniqueId());
+        Assert.assertEquals("direct", result.getHeader().getString("text"));
+        Assert.assertArrayEquals(body, result.getBody());
+
+        result.release();
+
+        Assert.assertFalse(sender.finish());
+        Assert.assertFalse(receiver.finish());
+    }
+
+    @Test
+    public void testReservedChannel() throws Exception
+    {
+        EmbeddedChannel sender = new EmbeddedChannel(new NettyPacketCompressor(), new NettyPacketEncoder());
+        NettyNetworkChannel channel = new NettyNetworkChannel(sender, null, null, null, null, false);
+        channel.setPacketWireVersion(PacketWireVersion.CURRENT);
+
+        try
+        {
+            channel.sendPacket(new Packet(PacketWireVersion.COMPRESSED_FRAME_CHANNEL, new JsonDocument(), new byte[0]));
+            Assert.fail();
+        } catch (IllegalArgumentException ignored)
+        {
+        }
+
+        try
+        {
+            sender.writeOutbound(new Packet(PacketWireVersion.COMPRESSED_FRAME_CHANNEL, new JsonDocument(), new byte[0]));
+            Assert.fail();
+        } catch (EncoderException ex)
+        {
+            Assert.assertTrue(ex.getCause() instanceof IllegalArgumentException);
+        }
+
+        Assert.assertFalse(sender.finish());
+    }
+
+    @Test
+    public void testCompressionBeforeNegotiation() throws Exception
+    {
+        EmbeddedChannel sender = new EmbeddedChannel(new NettyPacketCompressor(), new NettyPacketEncoder()),
+            receiver = new EmbeddedChannel(new NettyPacketDecompressor(), new NettyPacketDecoder());
+
+        NettyNetworkChannel channel = new NettyNetworkChannel(sender, null, null, null, null, false);
+
+        byte[] body = new byte[16 * 1024];
+        Arrays.fill(body, (byte) 'c');
+
+        Packet response = new Packet(4, new JsonDocument("text", "response"), body), setup = new Packet(4, new JsonDocument("text", "setup"), body);
+
+        //The settings are changed behind the response, which is written with the previous settings
+        channel.sendPacket(response, new Runnable() {
+            @Override
+            public void run()
+            {
+                channel.setPacketWireVersion(PacketWireVersion.CURRENT);
+                channel.setPacketCompression(new PacketCompressionConfiguration(1024, PacketCompressionConfiguration.DEFAULT_LEVEL));
+            }
+        });
+        channel.sendPacket(setup);
+        sender.flushOutbound();
+
+        ByteBuf responseFrame = sender.readOutbound(), setupFrame = sender.readOutbound();
+
+        Assert.assertTrue(responseFrame.readableBytes() > body.length);
+        Assert.assertTrue(setupFrame.readableBytes() < body.length / 10);
+
+        //The receiver hasn't handled the response yet and still uses the legacy wire version
+        Assert.assertTrue(receiver.writeInbound(responseFrame, setupFrame));
+
+        for (String text : new String[]{"response", "setup"})
+        {
+            Packet result = receiver.readInbound();
+
+            Assert.assertEquals(text, result.getHeader().getString("text"));
+            Assert.assertArrayEquals(body, result.getBody());
+
+            result.release();
+        }
+
+        Assert.assertFalse(sender.finish());
+        Assert.assertFalse(receiver.finish());
+    }
+
+    @Test
+    public void testCorruptCompressedFrame() throws Exception
+    {
+        EmbeddedChannel receiver = new EmbeddedChannel(new NettyPacketDecompressor(), new NettyPacketDecoder());
+
+        ByteBuf frame = Unpooled.buffer();
+        NettyUtils.writeVarInt(frame, PacketWireVersion.COMPRESSED_FRAME_CHANNEL);
+        NettyUtils.writeVarInt(frame, 100);
+        frame.writeBytes(new byte[]{1, 2, 3, 4, 5});
+
+        Assert.assertFalse(receiver.writeInbound(frame));
+        Assert.assertFalse(receiver.isOpen());
+    }
+}
@@ -0,0 +1,153 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.INetworkChannelHandler;
+import de.dytanic.cloudnet.driver.network.INetworkClient;
+import de.dytanic.cloudnet.driver.network.INetworkServer;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.def.internal.InternalSyncPacketChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sends packets alternately to a blocking and a fast listener, all packets have to be handled in the order,
+ * in that they are sent. A serial listener has to receive the response of a sync call, which it makes on its own channel
+ */
+public class NettyPacketDispatcherTest {
+
+    private static final int PACKET_COUNT = 2000;
+
+    private final List<Integer> handledPackets = Iterables.newCopyOnWriteArrayList();
+
+    private final CountDownLatch latch = new CountDownLatch(PACKET_COUNT);
+
+    @Test
+    public void testOrderedDispatch() throws Exception
+    {
+        INetworkServer networkServer = new NettyNetworkServer(() -> null);
+        INetworkClient networkClient = new NettyNetworkClient(() -> null);
+
+        networkServer.getPacketRegistry().addListener(20, new IPacketListener() {
+            @Override
+            public void handle(INetworkChannel channel, IPacket packet) throws Exception
+            {
+                //A slow listener, which would be overtaken without the ordered dispatch
+                if (packet.getHeader().getInt("index") % 100 == 0) Thread.sleep(1);
+
+                addHandledPacket(packet);
+            }
+        });
+
+        networkServer.getPacketRegistry().addListener(21, new IPacketListener() {
+            @Override
+            public void handle(INetworkChannel channel, IPacket packet)
+            {
+                addHandledPacket(packet);
+            }
+        });
+
+        HostAndPort address = new HostAndPort("127.0.0.1", 43209);
+
+        Assert.assertTrue(networkServer.addListener(address));
+        Assert.assertTrue(networkClient.connect(address));
+
+        //The channel is initialized in the event loop after the connect
+        for (int i = 0; i < 200 && networkClient.getChannels().isEmpty(); i++)
+            Thread.sleep(5);
+
+        INetworkChannel channel = networkClient.getChannels().iterator().next();
+
+        for (int i = 0; i < PACKET_COUNT; i++)
+            channel.sendPacket(new Packet(i % 3 == 0 ? 20 : 21, new JsonDocument("index", i), Packet.EMPTY_PACKET_BYTE_ARRAY));
+
+        Assert.assertTrue(this.latch.await(20, TimeUnit.SECONDS));
+
+        for (int i = 0; i < PACKET_COUNT; i++)
+            Assert.assertEquals(i, this.handledPackets.get(i).intValue());
+
+        networkClient.close();
+        networkServer.close();
+    }
+
+    @Test
+    public void testSyncCallInSerialListener() throws Exception
+    {
+        AtomicReference<String> response = new AtomicReference<>();
+        CountDownLatch responseLatch = new CountDownLatch(1);
+
+        INetworkServer networkServer = new NettyNetworkServer(() -> new INetworkChannelHandler() {
+            @Override
+            public void handleChannelInitialize(INetworkChannel channel)
+            {
+            }
+
+            @Override
+            public boolean handlePacketReceive(INetworkChannel channel, Packet packet)
+            {
+                return !InternalSyncPacketChannel.handleIncomingChannel(packet);
+            }
+
+            @Override
+            public void handleChannelClose(INetworkChannel channel)
+            {
+            }
+        });
+        INetworkClient networkClient = new NettyNetworkClient(() -> null);
+
+        //The serial listener blocks, until the response of its sync call is received on the same channel
+        networkServer.getPacketRegistry().addListener(20, new IPacketListener() {
+            @Override
+            public void handle(INetworkChannel channel, IPacket packet) throws Exception
+            {
+                Pair<JsonDocument, byte[]> result = InternalSyncPacketChannel.sendCallablePacket(channel, new JsonDocument("request", "ping"), null)
+                    .get(5, TimeUnit.SECONDS);
+
+                response.set(result.getFirst().getString("response"));
+                responseLatch.countDown();
+            }
+        });
+
+        networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_CALLABLE_CHANNEL, new IPacketListener() {
+            @Override
+            public void handle(INetworkChannel channel, IPacket packet)
+            {
+                channel.sendPacket(new Packet(PacketConstants.INTERNAL_CALLABLE_CHANNEL, packet.getUniqueId(), new JsonDocument("response", "pong"), (byte[]) null));
+            }
+        });
+
+        HostAndPort address = new HostAndPort("127.0.0.1", 43210);
+
+        Assert.assertTrue(networkServer.addListener(address));
+        Assert.assertTrue(networkClient.connect(address));
+
+        //The channel is initialized in the event loop after the connect
+        for (int i = 0; i < 200 && networkClient.getChannels().isEmpty(); i++)
+            Thread.sleep(5);
+
+        networkClient.getChannels().iterator().next().sendPacket(new Packet(20, new JsonDocument(), Packet.EMPTY_PACKET_BYTE_ARRAY));
+
+        Assert.assertTrue(responseLatch.await(4, TimeUnit.SECONDS));
+        Assert.assertEquals("pong", response.get());
+
+        networkClient.close();
+        networkServer.close();
+    }
+
+    private void addHandledPacket(IPacket packet)
+    {
+        this.handledPackets.add(packet.getHeader().getInt("index"));
+        this.latch.countDown();
+    }
+}
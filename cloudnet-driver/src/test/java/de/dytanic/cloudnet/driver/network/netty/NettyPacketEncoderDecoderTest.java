@@ -2,13 +2,17 @@ package de.dytanic.cloudnet.driver.network.netty;
 
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.network.protocol.PacketHeaderCodecs;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class NettyPacketEncoderDecoderTest {
@@ -43,4 +47,108 @@ public class NettyPacketEncoderDecoderTest {
 
         Assert.assertEquals("Test_Nachricht", new String(((Packet) packets.get(1)).getBody(), StandardCharsets.UTF_8));
     }
+
+    @Test
+    public void testBinaryHeaderCodec() throws Exception
+    {
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyPacketEncoder());
+        channel.attr(NettyPacketEncoder.PACKET_HEADER_CODEC).set(PacketHeaderCodecs.BINARY);
+
+        Packet packet = new Packet(4, new JsonDocument().append("val", true).append("text", "Test"), "Test_Nachricht".getBytes());
+        Assert.assertTrue(channel.writeOutbound(packet));
+
+        ByteBuf byteBuf = channel.readOutbound();
+
+        List<Object> packets = new ArrayList<>();
+        new NettyPacketDecoder().decode(null, byteBuf, packets);
+        byteBuf.release();
+
+        Assert.assertEquals(1, packets.size());
+
+        Packet result = (Packet) packets.get(0);
+        Assert.assertEquals(packet.getUniqueId(), result.getUniqueId());
+        Assert.assertTrue(result.getHeader().getBoolean("val"));
+        Assert.assertEquals("Test", result.getHeader().getString("text"));
+        Assert.assertEquals("Test_Nachricht", new String(result.getBody(), StandardCharsets.UTF_8));
+
+        channel.finish();
+    }
+
+    @Test
+    public void testPacketWireVersions() throws Exception
+    {
+        Packet packet = new Packet(4, new JsonDocument(), Packet.EMPTY_PACKET_BYTE_ARRAY);
+
+        EmbeddedChannel legacyChannel = new EmbeddedChannel(new NettyPacketEncoder());
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyPacketEncoder());
+        channel.attr(NettyPacketEncoder.PACKET_WIRE_VERSION).set(PacketWireVersion.CURRENT);
+
+        Assert.assertTrue(legacyChannel.writeOutbound(packet));
+        Assert.assertTrue(channel.writeOutbound(packet));
+
+        ByteBuf legacyByteBuf = legacyChannel.readOutbound(), byteBuf = channel.readOutbound();
+
+        //36 chars and the length of the string against the marker, the version and two longs
+        Assert.assertEquals(legacyByteBuf.readableBytes() - 37 + 18, byteBuf.readableBytes());
+
+        List<Object> packets = new ArrayList<>();
+        NettyPacketDecoder nettyPacketDecoder = new NettyPacketDecoder();
+        nettyPacketDecoder.decode(null, legacyByteBuf, packets);
+        nettyPacketDecoder.decode(null, byteBuf, packets);
+
+        legacyByteBuf.release();
+        byteBuf.release();
+
+        Assert.assertEquals(2, packets.size());
+        Assert.assertEquals(packet.getUniqueId(), ((Packet) packets.get(0)).getUniqueId());
+        Assert.assertEquals(packet.getUniqueId(), ((Packet) packets.get(1)).getUniqueId());
+        Assert.assertEquals(4, ((Packet) packets.get(1)).getChannel());
+
+        legacyChannel.finish();
+        channel.finish();
+    }
+
+    @Test
+    public void testLargePacketBody() throws Exception
+    {
+        byte[] body = new byte[NettyPacketEncoder.ZERO_COPY_BODY_THRESHOLD * 4];
+        Arrays.fill(body, (byte) 7);
+
+        EmbeddedChannel channel = new EmbeddedChannel(
+            new NettyPacketLengthDeserializer(),
+            new NettyPacketDecoder(),
+            new NettyPacketLengthSerializer(),
+            new NettyPacketEncoder()
+        );
+
+        Assert.assertTrue(channel.writeOutbound(new Packet(5, new JsonDocument("val", true), body)));
+
+        ByteBuf byteBuf;
+        while ((byteBuf = channel.readOutbound()) != null)
+            channel.writeInbound(byteBuf);
+
+        Packet packet = channel.readInbound();
+
+        Assert.assertNotNull(packet);
+        Assert.assertTrue(packet.getHeader().getBoolean("val"));
+        Assert.assertEquals(body.length, packet.getBodyBuffer().readableBytes());
+        Assert.assertArrayEquals(body, packet.getBody());
+
+        Assert.assertTrue(packet.release());
+        Assert.assertArrayEquals(body, packet.getBody());
+
+        //A body, which wasn't read before the release, can't be read anymore
+        Packet releasedPacket = new Packet(5, packet.getUniqueId(), new JsonDocument(), Unpooled.wrappedBuffer(body));
+        Assert.assertTrue(releasedPacket.release());
+
+        try
+        {
+            releasedPacket.getBody();
+            Assert.fail("The body of a released packet should not be readable");
+        } catch (IllegalStateException ignored)
+        {
+        }
+
+        channel.finish();
+    }
 }
\ No newline at end of file
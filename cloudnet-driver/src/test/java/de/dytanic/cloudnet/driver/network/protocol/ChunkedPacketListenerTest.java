@@ -0,0 +1,109 @@
+package de.dytanic.cloudnet.driver.network.protocol;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.UUID;
+
+public final class ChunkedPacketListenerTest {
+
+    private int completed;
+
+    @Test
+    public void testReorderWindow() throws Exception
+    {
+        ChunkedPacketListener listener = new ChunkedPacketListenerImpl();
+        UUID transferId = UUID.randomUUID();
+
+        ByteBuf pending = Unpooled.buffer().writeBytes(new byte[16]);
+        this.handle(listener, transferId, 2, false, pending);
+        Assert.assertEquals(1, pending.refCnt());
+
+        //The chunk is too far ahead of the next chunk, so the transfer is aborted and the kept chunk is released
+        ByteBuf tooEarly = Unpooled.buffer().writeBytes(new byte[16]);
+        this.handle(listener, transferId, 5, false, tooEarly);
+
+        Assert.assertEquals(0, pending.refCnt());
+        Assert.assertEquals(0, tooEarly.refCnt());
+
+        //The following chunks of the aborted transfer are discarded
+        ByteBuf later = Unpooled.buffer().writeBytes(new byte[16]);
+        this.handle(listener, transferId, 0, false, later);
+        this.handle(listener, transferId, 1, true, Unpooled.buffer());
+
+        Assert.assertEquals(0, later.refCnt());
+        Assert.assertEquals(0, this.completed);
+    }
+
+    @Test
+    public void testPendingBytesLimit() throws Exception
+    {
+        ChunkedPacketListener listener = new ChunkedPacketListenerImpl();
+        UUID transferId = UUID.randomUUID();
+
+        ByteBuf pending = Unpooled.buffer().writeBytes(new byte[64]);
+        this.handle(listener, transferId, 1, false, pending);
+        this.handle(listener, transferId, 2, false, Unpooled.buffer().writeBytes(new byte[65]));
+
+        Assert.assertEquals(0, pending.refCnt());
+
+        //A transfer within the limits is completed in order
+        transferId = UUID.randomUUID();
+
+        this.handle(listener, transferId, 2, true, Unpooled.buffer().writeBytes(new byte[64]));
+        this.handle(listener, transferId, 1, false, Unpooled.buffer().writeBytes(new byte[64]));
+        this.handle(listener, transferId, 0, false, Unpooled.buffer().writeBytes(new byte[64]));
+
+        Assert.assertEquals(1, this.completed);
+    }
+
+    private void handle(ChunkedPacketListener listener, UUID transferId, int chunkIndex, boolean last, ByteBuf body) throws Exception
+    {
+        JsonDocument header = new JsonDocument("transferId", transferId).append("chunkIndex", chunkIndex).append("last", last);
+        if (chunkIndex == 0) header.append("header", new JsonDocument());
+
+        Packet packet = new Packet(1, UUID.randomUUID(), header, body);
+
+        //The dispatcher releases the packet after its listeners
+        try
+        {
+            listener.handle(null, packet);
+        } finally
+        {
+            packet.release();
+        }
+    }
+
+    private final class ChunkedPacketListenerImpl extends ChunkedPacketListener {
+
+        @Override
+        protected OutputStream createOutputStream(INetworkChannel channel, JsonDocument header)
+        {
+            return new ByteArrayOutputStream();
+        }
+
+        @Override
+        protected void handleComplete(INetworkChannel channel, JsonDocument header, OutputStream outputStream)
+        {
+            completed++;
+        }
+
+        @Override
+        protected int getMaxPendingChunks()
+        {
+            return 2;
+        }
+
+        @Override
+        protected long getMaxPendingBytes()
+        {
+            return 128;
+        }
+    }
+}
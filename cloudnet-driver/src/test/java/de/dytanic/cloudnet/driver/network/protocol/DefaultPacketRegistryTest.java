@@ -3,8 +3,11 @@ package de.dytanic.cloudnet.driver.network.protocol;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import org.junit.Assert;
+import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+
 public class DefaultPacketRegistryTest {
 
     private String testValue = null;
@@ -38,6 +41,95 @@ public class DefaultPacketRegistryTest {
         Assert.assertEquals(0, registry.getListeners().size());
     }
 
+    @Test
+    public void testChildRegistry()
+    {
+        IPacketListenerRegistry parent = new DefaultPacketListenerRegistry(), registry = new DefaultPacketListenerRegistry(parent);
+        StringBuilder order = new StringBuilder();
+
+        parent.addListener(4, (channel, packet) -> order.append("parent,"));
+        registry.addListener(4, (channel, packet) -> order.append("child,"));
+        registry.addListener(4000, (channel, packet) -> order.append("child4000,"));
+
+        registry.handlePacket(null, new Packet(4, new JsonDocument(), Packet.EMPTY_PACKET_BYTE_ARRAY));
+        registry.handlePacket(null, new Packet(4000, new JsonDocument(), Packet.EMPTY_PACKET_BYTE_ARRAY));
+
+        Assert.assertEquals("parent,child,child4000,", order.toString());
+
+        //Changes of the parent are visible in the snapshot of the child
+        parent.removeListeners(4);
+        parent.addListener(4000, (channel, packet) -> order.append("parent4000,"));
+        order.setLength(0);
+
+        registry.handlePacket(null, new Packet(4, new JsonDocument(), Packet.EMPTY_PACKET_BYTE_ARRAY));
+        registry.handlePacket(null, new Packet(4000, new JsonDocument(), Packet.EMPTY_PACKET_BYTE_ARRAY));
+
+        Assert.assertEquals("child,parent4000,child4000,", order.toString());
+    }
+
+    /**
+     * Dispatches packets through the registry of a channel, which has only a parent with listeners, like the
+     * registries of the netty network channels
+     */
+    @Test
+    public void testParentDispatch()
+    {
+        int[] counter = {0};
+
+        IPacketListenerRegistry parent = new DefaultPacketListenerRegistry();
+        IPacketListenerRegistry registry = new DefaultPacketListenerRegistry(parent);
+
+        for (int channel = 1; channel <= 8; channel++)
+            parent.addListener(channel, (networkChannel, packet) -> counter[0]++);
+
+        for (int i = 0; i < 800; i++)
+            registry.handlePacket(null, new Packet((i & 7) + 1, new JsonDocument(), Packet.EMPTY_PACKET_BYTE_ARRAY));
+
+        Assert.assertEquals(800, counter[0]);
+
+        //A listener, which is added to the parent later, is seen by the registry of the channel
+        parent.addListener(9, (networkChannel, packet) -> counter[0] += 100);
+        registry.handlePacket(null, new Packet(9, new JsonDocument(), Packet.EMPTY_PACKET_BYTE_ARRAY));
+
+        Assert.assertEquals(900, counter[0]);
+    }
+
+    /**
+     * Measures the dispatch throughput through the registry of a channel with a parent, like in testParentDispatch. It
+     * only prints the timings, so it is ignored in the normal test runs
+     */
+    @Test
+    @Ignore("Throughput benchmark, run it manually")
+    public void testDispatchThroughput()
+    {
+        final int packetCount = 5000000;
+
+        int[] counter = {0};
+
+        IPacketListenerRegistry parent = new DefaultPacketListenerRegistry();
+        for (int channel = 1; channel <= 8; channel++)
+            parent.addListener(channel, (networkChannel, packet) -> counter[0]++);
+
+        Packet[] packets = new Packet[8];
+        for (int i = 0; i < packets.length; i++)
+            packets[i] = new Packet(i + 1, new JsonDocument(), Packet.EMPTY_PACKET_BYTE_ARRAY);
+
+        for (int round = 0; round < 3; round++)
+        {
+            IPacketListenerRegistry registry = new DefaultPacketListenerRegistry(parent);
+
+            long time = System.nanoTime();
+
+            for (int i = 0; i < packetCount; i++)
+                registry.handlePacket(null, packets[i & 7]);
+
+            time = System.nanoTime() - time;
+
+            System.out.println("Dispatched " + packetCount + " packets in " + TimeUnit.NANOSECONDS.toMillis(time) + "ms (" +
+                (packetCount * 1000000000L / Math.max(time, 1)) + " packets/s)");
+        }
+    }
+
     private final class PacketListenerImpl implements IPacketListener {
 
         @Override
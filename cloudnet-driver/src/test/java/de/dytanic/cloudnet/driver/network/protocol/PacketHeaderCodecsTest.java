@@ -0,0 +1,63 @@
+package de.dytanic.cloudnet.driver.network.protocol;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+public class PacketHeaderCodecsTest {
+
+    @Test
+    public void testCodecs() throws Exception
+    {
+        UUID uniqueId = UUID.randomUUID();
+
+        JsonDocument header = new JsonDocument()
+            .append("string", "Hello World äöü")
+            .append("int", 65)
+            .append("negative", -4)
+            .append("long", Long.MAX_VALUE)
+            .append("double", 2.5D)
+            .append("boolean", true)
+            .append("uniqueId", uniqueId)
+            .append("list", Arrays.asList("a", "b", "c"))
+            .append("document", new JsonDocument("value", false).append("null", (String) null));
+
+        for (IPacketHeaderCodec headerCodec : PacketHeaderCodecs.getCodecs())
+        {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            headerCodec.encode(header, new DataOutputStream(byteArrayOutputStream));
+
+            byte[] data = byteArrayOutputStream.toByteArray();
+            Assert.assertEquals(headerCodec, PacketHeaderCodecs.getCodec(data[0]));
+
+            JsonDocument document = headerCodec.decode(new DataInputStream(new ByteArrayInputStream(data)), data.length);
+
+            Assert.assertEquals("Hello World äöü", document.getString("string"));
+            Assert.assertEquals(65, document.getInt("int"));
+            Assert.assertEquals(-4, document.getInt("negative"));
+            Assert.assertEquals(Long.MAX_VALUE, document.getLong("long"));
+            Assert.assertEquals(2.5D, document.getDouble("double"), 0);
+            Assert.assertTrue(document.getBoolean("boolean"));
+            Assert.assertEquals(uniqueId, document.get("uniqueId", UUID.class));
+            Assert.assertEquals(3, document.get("list", String[].class).length);
+            Assert.assertFalse(document.getDocument("document").getBoolean("value"));
+            Assert.assertEquals(header.toJson(), document.toJson());
+        }
+    }
+
+    @Test
+    public void testNegotiation()
+    {
+        Assert.assertEquals(PacketHeaderCodecs.JSON, PacketHeaderCodecs.negotiate(null));
+        Assert.assertEquals(PacketHeaderCodecs.JSON, PacketHeaderCodecs.negotiate(Collections.singletonList("unknown")));
+        Assert.assertEquals(PacketHeaderCodecs.BINARY, PacketHeaderCodecs.negotiate(Arrays.asList("json", "binary")));
+    }
+}
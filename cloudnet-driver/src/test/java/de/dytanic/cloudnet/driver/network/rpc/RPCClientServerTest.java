@@ -0,0 +1,537 @@
+package de.dytanic.cloudnet.driver.network.rpc;
+
+import com.google.gson.reflect.TypeToken;
+import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.def.internal.InternalSyncPacketChannel;
+import de.dytanic.cloudnet.driver.network.netty.NettyUtils;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.network.protocol.PacketHeaderCodecs;
+import de.dytanic.cloudnet.driver.service.ProcessConfiguration;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceTask;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class RPCClientServerTest {
+
+    private static final Type SERVICE_TASK_TYPE = new TypeToken<ServiceTask>() {
+    }.getType();
+
+    private final ServiceTask serviceTask = new ServiceTask(
+        new ArrayList<>(),
+        new ArrayList<>(Collections.singletonList(new ServiceTemplate("Lobby", "default", "local"))),
+        new ArrayList<>(),
+        "Lobby",
+        "jvm",
+        false,
+        true,
+        new ArrayList<>(Collections.singletonList("Node-1")),
+        new ArrayList<>(Collections.singletonList("Lobby")),
+        new ProcessConfiguration(ServiceEnvironmentType.MINECRAFT_SERVER, 372, new ArrayList<>()),
+        44955,
+        2
+    );
+
+    private final AtomicInteger sentPackets = new AtomicInteger();
+
+    @Test
+    public void testCalls() throws Exception
+    {
+        ITestService service = this.createLoopback(new RPCClient()).getFirst();
+
+        Assert.assertEquals(5, service.add(2, 3));
+        Assert.assertEquals("Hello", service.echo("Hello"));
+        Assert.assertNull(service.echo(null));
+        Assert.assertEquals(TimeUnit.SECONDS, service.unit(TimeUnit.SECONDS));
+
+        List<UUID> uniqueIds = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
+        Assert.assertEquals(uniqueIds, new ArrayList<>(service.uniqueIds(uniqueIds)));
+
+        Assert.assertEquals(3, service.getServicesCountByGroupAsync("Lobby").get(1, TimeUnit.SECONDS).intValue());
+        Assert.assertEquals(0, service.getServicesCountByGroupAsync("Proxy").get(1, TimeUnit.SECONDS).intValue());
+
+        ServiceTask serviceTask = service.getServiceTaskAsync("Lobby").get(1, TimeUnit.SECONDS);
+        Assert.assertEquals(this.serviceTask, serviceTask);
+        Assert.assertNull(service.getServiceTaskAsync("Proxy").get(1, TimeUnit.SECONDS));
+
+        Assert.assertNotEquals(0, service.hashCode());
+        Assert.assertNotNull(service.toString());
+    }
+
+    @Test
+    public void testFailure() throws Exception
+    {
+        ITestService service = this.createLoopback(new RPCClient()).getFirst();
+
+        try
+        {
+            service.fail("test failure");
+            Assert.fail("The call should throw an RPCException");
+        } catch (RPCException exception)
+        {
+            Assert.assertTrue(exception.getMessage().contains("test failure"));
+        }
+
+        Assert.assertEquals(5, service.add(2, 3));
+    }
+
+    @Test
+    public void testUnknownService() throws Exception
+    {
+        RPCClient client = new RPCClient();
+        IUnknownService service = client.createStub(IUnknownService.class, this.createChannelPair(
+            new RPCPacketListener(new RPCServiceRegistry(), null), new RPCPacketListener(null, client)));
+
+        try
+        {
+            service.test();
+            Assert.fail("The call should throw an RPCException");
+        } catch (RPCException exception)
+        {
+            Assert.assertTrue(exception.getMessage().contains("Unknown service"));
+        }
+
+        Assert.assertEquals(0, client.getPendingCallCount());
+    }
+
+    @Test
+    public void testTimeout() throws Exception
+    {
+        RPCClient client = new RPCClient();
+        client.setTimeoutMillis(50);
+
+        ITestService service = this.createLoopback(client).getFirst();
+        ITask<Integer> task = service.neverAsync();
+
+        Assert.assertEquals(1, client.getPendingCallCount());
+
+        try
+        {
+            task.get(5, TimeUnit.SECONDS);
+            Assert.fail("The task should complete exceptionally");
+        } catch (ExecutionException exception)
+        {
+            Assert.assertTrue(exception.getCause() instanceof RPCException);
+        }
+
+        Assert.assertEquals(0, client.getPendingCallCount());
+    }
+
+    @Test
+    public void testBatch() throws Exception
+    {
+        RPCClient client = new RPCClient();
+        RPCBatch batch = client.newBatch(this.createLoopback(client).getSecond().get());
+        ITestService service = batch.createStub(ITestService.class);
+
+        ITask<Integer> count = service.getServicesCountByGroupAsync("Lobby");
+        ITask<ServiceTask> serviceTask = service.getServiceTaskAsync("Lobby");
+        ITask<ServiceTask> missingServiceTask = service.getServiceTaskAsync("Proxy");
+
+        try
+        {
+            service.add(1, 2);
+            Assert.fail("A synchronous method can't be called in a batch");
+        } catch (RPCException ignored)
+        {
+        }
+
+        Assert.assertEquals(0, this.sentPackets.get());
+        Assert.assertEquals(3, client.getPendingCallCount());
+
+        batch.flush();
+
+        //One packet with the requests and one with the responses
+        Assert.assertEquals(2, this.sentPackets.get());
+        Assert.assertEquals(0, client.getPendingCallCount());
+        Assert.assertEquals(3, count.get(1, TimeUnit.SECONDS).intValue());
+        Assert.assertEquals(this.serviceTask, serviceTask.get(1, TimeUnit.SECONDS));
+        Assert.assertNull(missingServiceTask.get(1, TimeUnit.SECONDS));
+
+        //Calls after the flush are sent directly
+        Assert.assertEquals(0, service.getServicesCountByGroupAsync("Proxy").get(1, TimeUnit.SECONDS).intValue());
+        Assert.assertEquals(4, this.sentPackets.get());
+    }
+
+    @Test
+    public void testAutoBatching() throws Exception
+    {
+        Queue<Runnable> flushes = new ConcurrentLinkedQueue<>();
+        RPCClient client = new RPCClient(new Executor() {
+            @Override
+            public void execute(Runnable command)
+            {
+                flushes.add(command);
+            }
+        });
+
+        Assert.assertTrue(client.isAutoBatching());
+
+        ITestService service = this.createLoopback(client).getFirst();
+        List<ITask<Integer>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++)
+            tasks.add(service.getServicesCountByGroupAsync(i % 2 == 0 ? "Lobby" : "Proxy"));
+
+        Assert.assertEquals(0, this.sentPackets.get());
+        Assert.assertEquals(1, flushes.size());
+
+        flushes.poll().run();
+
+        Assert.assertEquals(2, this.sentPackets.get());
+
+        for (int i = 0; i < tasks.size(); i++)
+            Assert.assertEquals(i % 2 == 0 ? 3 : 0, tasks.get(i).get(1, TimeUnit.SECONDS).intValue());
+
+        client.setAutoBatching(false);
+
+        Assert.assertEquals(5, service.add(2, 3));
+        Assert.assertTrue(flushes.isEmpty());
+    }
+
+    /**
+     * The RPC calls return the same results as the sync API of the callable channel, which they replace
+     */
+    @Test
+    public void testSyncAPICompatibility() throws Exception
+    {
+        Pair<ITestService, ChannelSupplier> loopback = this.createLoopback(new RPCClient());
+        ITestService service = loopback.getFirst();
+        INetworkChannel legacyChannel = loopback.getSecond().get();
+
+        int legacyCount = InternalSyncPacketChannel.sendCallablePacket(legacyChannel, newLegacyHeader("get_services_count_by_group").append("group", "Lobby"), null)
+            .get(1, TimeUnit.SECONDS).getFirst().getInt("servicesCount");
+
+        Assert.assertEquals(legacyCount, service.getServicesCountByGroupAsync("Lobby").get(1, TimeUnit.SECONDS).intValue());
+
+        ServiceTask legacyTask = InternalSyncPacketChannel.sendCallablePacket(legacyChannel, newLegacyHeader("get_service_task").append("name", "Lobby"), null)
+            .get(1, TimeUnit.SECONDS).getFirst().get("serviceTask", SERVICE_TASK_TYPE);
+        ServiceTask rpcTask = service.getServiceTaskAsync("Lobby").get(1, TimeUnit.SECONDS);
+
+        Assert.assertEquals(legacyTask.getName(), rpcTask.getName());
+        Assert.assertEquals(legacyTask.getTemplates().size(), rpcTask.getTemplates().size());
+    }
+
+    /**
+     * Compares the loopback calls of the sync API with the RPC calls, including the encoding and the decoding of the
+     * frames. It only prints the timings, so it is ignored in the normal test runs
+     */
+    @Test
+    @Ignore("Throughput benchmark, run it manually")
+    public void testThroughput() throws Exception
+    {
+        final int callCount = 100000;
+
+        Pair<ITestService, ChannelSupplier> loopback = this.createLoopback(new RPCClient());
+        ITestService service = loopback.getFirst();
+        INetworkChannel legacyChannel = loopback.getSecond().get();
+
+        for (int round = 0; round < 3; round++)
+        {
+            long time = System.nanoTime();
+
+            for (int i = 0; i < callCount; i++)
+                InternalSyncPacketChannel.sendCallablePacket(legacyChannel, newLegacyHeader("get_services_count_by_group").append("group", "Lobby"), null)
+                    .get().getFirst().getInt("servicesCount");
+
+            long legacyCountTime = System.nanoTime() - time;
+            time = System.nanoTime();
+
+            for (int i = 0; i < callCount; i++)
+                service.getServicesCountByGroupAsync("Lobby").get().intValue();
+
+            long rpcCountTime = System.nanoTime() - time;
+            time = System.nanoTime();
+
+            for (int i = 0; i < callCount; i++)
+                InternalSyncPacketChannel.sendCallablePacket(legacyChannel, newLegacyHeader("get_service_task").append("name", "Lobby"), null)
+                    .get().getFirst().get("serviceTask", SERVICE_TASK_TYPE);
+
+            long legacyTaskTime = System.nanoTime() - time;
+            time = System.nanoTime();
+
+            for (int i = 0; i < callCount; i++)
+                service.getServiceTaskAsync("Lobby").get();
+
+            long rpcTaskTime = System.nanoTime() - time;
+
+            System.out.println("get_services_count_by_group: sync API " + (legacyCountTime / callCount) + "ns/call, RPC " + (rpcCountTime / callCount) + "ns/call");
+            System.out.println("get_service_task: sync API " + (legacyTaskTime / callCount) + "ns/call, RPC " + (rpcTaskTime / callCount) + "ns/call");
+        }
+    }
+
+    /*= ------------------------------------------------------------- =*/
+
+    private Pair<ITestService, ChannelSupplier> createLoopback(RPCClient client)
+    {
+        TestService implementation = new TestService();
+        RPCServiceRegistry serviceRegistry = new RPCServiceRegistry();
+        serviceRegistry.registerService(ITestService.class, implementation);
+
+        ChannelSupplier supplier = this.createChannelPair(new CompositeListener(new RPCPacketListener(serviceRegistry, null), implementation),
+            new CompositeListener(new RPCPacketListener(null, client), null));
+
+        return new Pair<>(client.createStub(ITestService.class, supplier), supplier);
+    }
+
+    /**
+     * Creates the client side channel of a loopback connection. All packets are encoded and decoded like on the network
+     * and handled synchronously by the listener of the other side
+     */
+    private ChannelSupplier createChannelPair(IPacketListener serverListener, IPacketListener clientListener)
+    {
+        INetworkChannel[] channels = new INetworkChannel[2];
+
+        channels[0] = this.createChannel(serverListener, channels, 1);
+        channels[1] = this.createChannel(clientListener, channels, 0);
+
+        return new ChannelSupplier(channels[0]);
+    }
+
+    private INetworkChannel createChannel(IPacketListener peerListener, INetworkChannel[] channels, int peerIndex)
+    {
+        return (INetworkChannel) Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class<?>[]{INetworkChannel.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+            {
+                if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+                if (method.getName().equals("equals")) return proxy == args[0];
+
+                if (method.getName().equals("sendPacket") && args != null && args.length == 1 && args[0] instanceof IPacket)
+                {
+                    sentPackets.incrementAndGet();
+                    peerListener.handle(channels[peerIndex], decode(encode((IPacket) args[0])));
+                }
+
+                return null;
+            }
+        });
+    }
+
+    private static JsonDocument newLegacyHeader(String id)
+    {
+        return new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, id).append(PacketConstants.SYNC_PACKET_CHANNEL_PROPERTY, "cloudnet_driver_sync_api");
+    }
+
+    private static byte[] encode(IPacket packet) throws Exception
+    {
+        ByteBuf buffer = Unpooled.buffer(), header = Unpooled.buffer();
+
+        NettyUtils.writeVarInt(buffer, packet.getChannel());
+        buffer.writeLong(packet.getUniqueId().getMostSignificantBits()).writeLong(packet.getUniqueId().getLeastSignificantBits());
+
+        PacketHeaderCodecs.BINARY.encode(packet.getHeader(), new ByteBufOutputStream(header));
+        NettyUtils.writeVarInt(buffer, header.readableBytes());
+        buffer.writeBytes(header);
+
+        ByteBuf body = packet.getBodyBuffer();
+        if (body != null) buffer.writeBytes(body, body.readerIndex(), body.readableBytes());
+
+        return ByteBufUtil.getBytes(buffer);
+    }
+
+    private static IPacket decode(byte[] bytes) throws Exception
+    {
+        ByteBuf buffer = Unpooled.wrappedBuffer(bytes);
+
+        int channel = NettyUtils.readVarInt(buffer);
+        UUID uniqueId = new UUID(buffer.readLong(), buffer.readLong());
+        int headerLength = NettyUtils.readVarInt(buffer);
+        JsonDocument header = PacketHeaderCodecs.BINARY.decode(new ByteBufInputStream(buffer.readSlice(headerLength)), headerLength);
+
+        return new Packet(channel, uniqueId, header, buffer.readSlice(buffer.readableBytes()));
+    }
+
+    private static <T> ITask<T> completedTask(T value)
+    {
+        ListenableTask<T> task = new ListenableTask<>(new Callable<T>() {
+            @Override
+            public T call() throws Exception
+            {
+                return value;
+            }
+        });
+
+        task.call();
+        return task;
+    }
+
+    /*= ------------------------------------------------------------- =*/
+
+    public interface ITestService {
+
+        int add(int a, int b);
+
+        String echo(String value);
+
+        TimeUnit unit(TimeUnit unit);
+
+        Collection<UUID> uniqueIds(List<UUID> uniqueIds);
+
+        ITask<Integer> getServicesCountByGroupAsync(String group);
+
+        ITask<ServiceTask> getServiceTaskAsync(String name);
+
+        void fail(String message);
+
+        ITask<Integer> neverAsync();
+    }
+
+    public interface IUnknownService {
+
+        void test();
+    }
+
+    private static final class ChannelSupplier implements Supplier<INetworkChannel> {
+
+        private final INetworkChannel channel;
+
+        private ChannelSupplier(INetworkChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        @Override
+        public INetworkChannel get()
+        {
+            return this.channel;
+        }
+    }
+
+    /**
+     * Handles the RPC channel with the RPC listener and the callable channel like the sync API of the node and the
+     * InternalSyncPacketChannel on the side of the wrapper
+     */
+    private static final class CompositeListener implements IPacketListener {
+
+        private final IPacketListener rpcListener;
+
+        private final TestService syncAPI;
+
+        private CompositeListener(IPacketListener rpcListener, TestService syncAPI)
+        {
+            this.rpcListener = rpcListener;
+            this.syncAPI = syncAPI;
+        }
+
+        @Override
+        public void handle(INetworkChannel channel, IPacket packet) throws Exception
+        {
+            if (packet.getChannel() == PacketConstants.INTERNAL_RPC_CHANNEL)
+                this.rpcListener.handle(channel, packet);
+            else if (this.syncAPI != null)
+                this.syncAPI.handle(channel, packet);
+            else
+                InternalSyncPacketChannel.handleIncomingChannel((Packet) packet);
+        }
+    }
+
+    private final class TestService implements ITestService, IPacketListener {
+
+        @Override
+        public int add(int a, int b)
+        {
+            return a + b;
+        }
+
+        @Override
+        public String echo(String value)
+        {
+            return value;
+        }
+
+        @Override
+        public TimeUnit unit(TimeUnit unit)
+        {
+            return unit;
+        }
+
+        @Override
+        public Collection<UUID> uniqueIds(List<UUID> uniqueIds)
+        {
+            return uniqueIds;
+        }
+
+        @Override
+        public ITask<Integer> getServicesCountByGroupAsync(String group)
+        {
+            return completedTask(group.equals("Lobby") ? 3 : 0);
+        }
+
+        @Override
+        public ITask<ServiceTask> getServiceTaskAsync(String name)
+        {
+            return completedTask(name.equals(serviceTask.getName()) ? serviceTask : null);
+        }
+
+        @Override
+        public void fail(String message)
+        {
+            throw new IllegalStateException(message);
+        }
+
+        @Override
+        public ITask<Integer> neverAsync()
+        {
+            return new ListenableTask<>(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception
+                {
+                    return 0;
+                }
+            });
+        }
+
+        //Handles the requests like the PacketClientSyncAPIPacketListener of the node
+        @Override
+        public void handle(INetworkChannel channel, IPacket packet) throws Exception
+        {
+            if (packet.getHeader().contains(PacketConstants.SYNC_PACKET_ID_PROPERTY) && packet.getHeader().contains(PacketConstants.SYNC_PACKET_CHANNEL_PROPERTY) &&
+                packet.getHeader().getString(PacketConstants.SYNC_PACKET_CHANNEL_PROPERTY).equals("cloudnet_driver_sync_api"))
+                switch (packet.getHeader().getString(PacketConstants.SYNC_PACKET_ID_PROPERTY))
+                {
+                    case "get_services_count_by_group":
+                        channel.sendPacket(new Packet(PacketConstants.INTERNAL_CALLABLE_CHANNEL, packet.getUniqueId(), new JsonDocument("servicesCount",
+                            this.getServicesCountByGroupAsync(packet.getHeader().getString("group")).get()), (byte[]) null));
+                        break;
+                    case "get_service_task":
+                        channel.sendPacket(new Packet(PacketConstants.INTERNAL_CALLABLE_CHANNEL, packet.getUniqueId(), new JsonDocument("serviceTask",
+                            this.getServiceTaskAsync(packet.getHeader().getString("name")).get()), (byte[]) null));
+                        break;
+                }
+        }
+    }
+}
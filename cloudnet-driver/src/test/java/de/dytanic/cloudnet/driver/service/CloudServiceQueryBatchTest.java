@@ -0,0 +1,117 @@
+package de.dytanic.cloudnet.driver.service;
+
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class CloudServiceQueryBatchTest {
+
+    @Test
+    public void testExecute() throws Exception
+    {
+        List<ListenableTask<Object>> pendingTasks = new ArrayList<>();
+        boolean[] flushed = {false};
+
+        CloudServiceQueryBatch batch = new CloudServiceQueryBatch(this.createProvider(pendingTasks), new Runnable() {
+            @Override
+            public void run()
+            {
+                flushed[0] = true;
+            }
+        })
+            .getServicesCountByGroup("Lobby")
+            .isServiceTaskPresent("Lobby")
+            .getServiceTask("Lobby");
+
+        Assert.assertEquals(3, batch.size());
+        Assert.assertTrue(pendingTasks.isEmpty());
+
+        ITask<List<Object>> task = batch.execute();
+
+        Assert.assertTrue(flushed[0]);
+        Assert.assertEquals(3, pendingTasks.size());
+
+        //The first query is completed before the others
+        pendingTasks.get(0).call();
+        Assert.assertFalse(task.isDone());
+
+        pendingTasks.get(2).call();
+        pendingTasks.get(1).call();
+
+        Assert.assertEquals(Arrays.asList("getServicesCountByGroupAsync", "isServiceTaskPresentAsync", "getServiceTaskAsync"),
+            task.get(1, TimeUnit.SECONDS));
+
+        try
+        {
+            batch.execute();
+            Assert.fail("A batch can only executed once");
+        } catch (IllegalStateException ignored)
+        {
+        }
+    }
+
+    @Test
+    public void testFailure() throws Exception
+    {
+        List<ListenableTask<Object>> pendingTasks = new ArrayList<>();
+        ITask<List<Object>> task = new CloudServiceQueryBatch(this.createProvider(pendingTasks), null)
+            .getCloudServices()
+            .getGroupConfiguration("fail")
+            .execute();
+
+        for (ListenableTask<Object> pendingTask : pendingTasks)
+            pendingTask.call();
+
+        try
+        {
+            task.get(1, TimeUnit.SECONDS);
+            Assert.fail("The batch should fail with the failure of the query");
+        } catch (ExecutionException exception)
+        {
+            Assert.assertTrue(exception.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testEmpty() throws Exception
+    {
+        Assert.assertTrue(new CloudServiceQueryBatch(this.createProvider(new ArrayList<>()), null).execute().get(1, TimeUnit.SECONDS).isEmpty());
+    }
+
+    /**
+     * Creates a provider, which returns tasks with the name of the called method as result. The tasks are completed,
+     * when they are called. A call with the argument "fail" fails
+     */
+    private ICloudServiceInfoProvider createProvider(List<ListenableTask<Object>> pendingTasks)
+    {
+        return (ICloudServiceInfoProvider) Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class<?>[]{ICloudServiceInfoProvider.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+                ListenableTask<Object> task = new ListenableTask<>(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception
+                    {
+                        if (args != null && args.length == 1 && "fail".equals(args[0])) throw new IllegalArgumentException();
+
+                        return method.getName();
+                    }
+                });
+
+                pendingTasks.add(task);
+                return task;
+            }
+        });
+    }
+}
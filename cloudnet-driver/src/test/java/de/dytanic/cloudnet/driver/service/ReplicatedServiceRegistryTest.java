@@ -0,0 +1,140 @@
+package de.dytanic.cloudnet.driver.service;
+
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
+import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class ReplicatedServiceRegistryTest {
+
+    @Test
+    public void testSequencedUpdates() throws Exception
+    {
+        BlockingQueue<ListenableTask<ServiceRegistrySnapshot>> loads = new LinkedBlockingQueue<>();
+        ReplicatedServiceRegistry registry = new ReplicatedServiceRegistry(this.createLoader(loads));
+
+        ServiceInfoSnapshot lobby = createServiceInfoSnapshot("Lobby"), proxy = createServiceInfoSnapshot("Proxy");
+
+        registry.resync();
+        Assert.assertFalse(registry.isAvailable());
+
+        //The updates, which are received while the snapshot is loaded, are applied after it, if they are newer
+        registry.handleServiceInfoSnapshot(5, lobby, PacketClientServerServiceInfoPublisher.PublisherType.UPDATE);
+        registry.handleServiceInfoSnapshot(6, proxy, PacketClientServerServiceInfoPublisher.PublisherType.CONNECTED);
+
+        loads.take().complete(new ServiceRegistrySnapshot(5, Collections.singletonList(lobby), null, null));
+
+        Assert.assertTrue(registry.isAvailable());
+        Assert.assertEquals(6, registry.getSequence());
+        Assert.assertEquals(2, registry.getServicesCount());
+        Assert.assertNotNull(registry.getCloudServiceByName("Proxy-1"));
+
+        //An old update is ignored
+        registry.handleServiceInfoSnapshot(6, proxy, PacketClientServerServiceInfoPublisher.PublisherType.UNREGISTER);
+        Assert.assertEquals(2, registry.getServicesCount());
+
+        registry.handleServiceInfoSnapshot(7, proxy, PacketClientServerServiceInfoPublisher.PublisherType.DISCONNECTED);
+        Assert.assertEquals(7, registry.getSequence());
+
+        //A gap in the sequence loads a new snapshot
+        registry.handleServiceInfoSnapshot(9, proxy, PacketClientServerServiceInfoPublisher.PublisherType.UNREGISTER);
+
+        Assert.assertFalse(registry.isAvailable());
+        Assert.assertEquals(2, registry.getResyncCount());
+
+        loads.take().complete(new ServiceRegistrySnapshot(8, Arrays.asList(lobby, proxy), null, null));
+
+        Assert.assertTrue(registry.isAvailable());
+        Assert.assertEquals(9, registry.getSequence());
+        Assert.assertEquals(1, registry.getServicesCount());
+        Assert.assertNull(registry.getCloudService(proxy.getServiceId().getUniqueId()));
+    }
+
+    @Test
+    public void testRetryAfterFailedLoad() throws Exception
+    {
+        BlockingQueue<ListenableTask<ServiceRegistrySnapshot>> loads = new LinkedBlockingQueue<>();
+        ReplicatedServiceRegistry registry = new ReplicatedServiceRegistry(this.createLoader(loads), 10, 40);
+
+        registry.resync();
+        loads.take().fail(new IllegalStateException("The node is not reachable"));
+
+        Assert.assertFalse(registry.isAvailable());
+
+        //The load is tried again after the retry delay
+        ListenableTask<ServiceRegistrySnapshot> retry = loads.poll(5, TimeUnit.SECONDS);
+
+        Assert.assertNotNull(retry);
+        Assert.assertEquals(2, registry.getResyncCount());
+
+        retry.complete(new ServiceRegistrySnapshot(1, Collections.singletonList(createServiceInfoSnapshot("Lobby")), null, null));
+
+        //The retry runs in the thread of the timer, which can add its listener after the completion
+        for (int i = 0; i < 100 && !registry.isAvailable(); i++)
+            Thread.sleep(10);
+
+        Assert.assertTrue(registry.isAvailable());
+        Assert.assertEquals(1, registry.getServicesCount());
+
+        //No further load is started after the successful one
+        Assert.assertNull(loads.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testCopiedQueries() throws Exception
+    {
+        BlockingQueue<ListenableTask<ServiceRegistrySnapshot>> loads = new LinkedBlockingQueue<>();
+        ReplicatedServiceRegistry registry = new ReplicatedServiceRegistry(this.createLoader(loads));
+
+        ServiceInfoSnapshot lobby = createServiceInfoSnapshot("Lobby");
+
+        ServiceTask serviceTask = new ServiceTask();
+        serviceTask.setName("Lobby");
+
+        registry.resync();
+        loads.take().complete(new ServiceRegistrySnapshot(1, Collections.singletonList(lobby), Collections.singletonList(serviceTask), null));
+
+        //A change of a returned object doesn't change the replicated one
+        registry.getServiceTask("Lobby").setMaintenance(true);
+        registry.getPermanentServiceTasks().clear();
+        registry.getCloudService(lobby.getServiceId().getUniqueId()).getProperties().append("online", true);
+        registry.getCloudServices().iterator().next().setLifeCycle(ServiceLifeCycle.STOPPED);
+
+        Assert.assertFalse(registry.getServiceTask("Lobby").isMaintenance());
+        Assert.assertEquals(1, registry.getPermanentServiceTasks().size());
+        Assert.assertFalse(registry.getCloudService(lobby.getServiceId().getUniqueId()).getProperties().contains("online"));
+        Assert.assertEquals(1, registry.getStartedCloudServices().size());
+    }
+
+    private Supplier<ITask<ServiceRegistrySnapshot>> createLoader(BlockingQueue<ListenableTask<ServiceRegistrySnapshot>> loads)
+    {
+        return new Supplier<ITask<ServiceRegistrySnapshot>>() {
+            @Override
+            public ITask<ServiceRegistrySnapshot> get()
+            {
+                ListenableTask<ServiceRegistrySnapshot> task = new ListenableTask<>();
+                loads.add(task);
+
+                return task;
+            }
+        };
+    }
+
+    private static ServiceInfoSnapshot createServiceInfoSnapshot(String taskName)
+    {
+        ServiceInfoSnapshot serviceInfoSnapshot = new ServiceInfoSnapshot();
+        serviceInfoSnapshot.serviceId = new ServiceId(UUID.randomUUID(), "Node-1", taskName, 1, ServiceEnvironmentType.MINECRAFT_SERVER);
+        serviceInfoSnapshot.lifeCycle = ServiceLifeCycle.RUNNING;
+
+        return serviceInfoSnapshot;
+    }
+}
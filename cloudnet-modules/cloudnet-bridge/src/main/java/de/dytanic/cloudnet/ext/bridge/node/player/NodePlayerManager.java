@@ -17,9 +17,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.Callable;
-import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Getter
 public final class NodePlayerManager implements IPlayerManager {
@@ -35,6 +36,9 @@ public final class NodePlayerManager implements IPlayerManager {
     {
         this.databaseName = databaseName;
 
+        //The offline players are queried by their name, without the index every query reads all players
+        this.getDatabase().createIndex("name");
+
         /*= --------------------------------- =*/
 
         instance = this;
@@ -117,17 +121,25 @@ public final class NodePlayerManager implements IPlayerManager {
     @Override
     public List<? extends ICloudOfflinePlayer> getRegisteredPlayers()
     {
-        List<? extends ICloudOfflinePlayer> cloudOfflinePlayers = Iterables.newArrayList();
+        try (Stream<ICloudOfflinePlayer> stream = streamRegisteredPlayers())
+        {
+            return stream.collect(Collectors.toList());
+        }
+    }
 
-        getDatabase().iterate(new BiConsumer<String, JsonDocument>() {
+    /**
+     * Returns a stream of all registered players, which reads the players with a cursor of the database, so only the
+     * players, which are kept by the consumer of the stream, are held in the memory. The stream must be closed
+     */
+    public Stream<ICloudOfflinePlayer> streamRegisteredPlayers()
+    {
+        return getDatabase().stream().map(new Function<Map.Entry<String, JsonDocument>, ICloudOfflinePlayer>() {
             @Override
-            public void accept(String s, JsonDocument jsonDocument)
+            public ICloudOfflinePlayer apply(Map.Entry<String, JsonDocument> entry)
             {
-                cloudOfflinePlayers.add(jsonDocument.toInstanceOf(CloudOfflinePlayer.TYPE));
+                return entry.getValue().toInstanceOf(CloudOfflinePlayer.TYPE);
             }
         });
-
-        return cloudOfflinePlayers;
     }
 
     /*= ---------------------------------------------------------------------------------- =*/
@@ -21,7 +21,7 @@ import java.util.function.Predicate;
 
 public final class CloudflareStartAndStopListener {
 
-    @EventListener
+    @EventListener(async = true)
     public void handle(CloudServicePostStartEvent event)
     {
         this.handle0(event.getCloudService(), new BiConsumer<CloudflareConfigurationEntry, CloudflareGroupConfiguration>() {
@@ -60,7 +60,7 @@ public final class CloudflareStartAndStopListener {
         });
     }
 
-    @EventListener
+    @EventListener(async = true)
     public void handle(CloudServicePostStopEvent event)
     {
         this.handle0(event.getCloudService(), new BiConsumer<CloudflareConfigurationEntry, CloudflareGroupConfiguration>() {
@@ -7,18 +7,30 @@ import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
 import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.database.DatabaseIndexes;
+import de.dytanic.cloudnet.database.DefaultDatabaseBatch;
 import de.dytanic.cloudnet.database.IDatabase;
+import de.dytanic.cloudnet.database.IDatabaseBatch;
+import de.dytanic.cloudnet.database.LazyDocumentEntry;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
+import lombok.AccessLevel;
 import lombok.Getter;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Getter
 public final class MySQLDatabase implements IDatabase {
@@ -27,7 +39,14 @@ public final class MySQLDatabase implements IDatabase {
 
     private final MySQLDatabaseProvider databaseProvider;
 
-    private final String name;
+    private final String name, indexTable;
+
+    //The indexed fields, the indexes are maintained on every change of the database
+    private final Collection<String> indexes = Iterables.newCopyOnWriteArrayList();
+
+    //The indexes, which are built at the moment and aren't used by the queries yet
+    @Getter(AccessLevel.NONE)
+    private final Collection<String> buildingIndexes = Iterables.newCopyOnWriteArrayList();
 
     public MySQLDatabase(MySQLDatabaseProvider databaseProvider, String name)
     {
@@ -36,8 +55,12 @@ public final class MySQLDatabase implements IDatabase {
 
         this.databaseProvider = databaseProvider;
         this.name = name;
+        this.indexTable = DatabaseIndexes.getIndexTable(name);
 
         databaseProvider.executeUpdate("CREATE TABLE IF NOT EXISTS " + name + "(" + TABLE_COLUMN_KEY + " VARCHAR(1024), " + TABLE_COLUMN_VALUE + " TEXT);");
+
+        this.createKeyIndex();
+        this.loadIndexes();
     }
 
     @Override
@@ -55,11 +78,14 @@ public final class MySQLDatabase implements IDatabase {
         if (databaseProvider.getDatabaseHandler() != null)
             databaseProvider.getDatabaseHandler().handleInsert(this, key, document);
 
-        return !contains(key) ?
-            databaseProvider.executeUpdate(
-                "INSERT INTO " + name + "(" + TABLE_COLUMN_KEY + "," + TABLE_COLUMN_VALUE + ") VALUES (?, ?);",
-                key, document.toString()
-            ) != -1 : update(key, document);
+        if (contains(key)) return update(key, document);
+
+        if (!this.indexes.isEmpty()) return this.writeWithIndexEntries(key, document);
+
+        return databaseProvider.executeUpdate(
+            "INSERT INTO " + name + "(" + TABLE_COLUMN_KEY + "," + TABLE_COLUMN_VALUE + ") VALUES (?, ?);",
+            key, document.toString()
+        ) != -1;
     }
 
     @Override
@@ -71,7 +97,11 @@ public final class MySQLDatabase implements IDatabase {
         if (databaseProvider.getDatabaseHandler() != null)
             databaseProvider.getDatabaseHandler().handleUpdate(this, key, document);
 
-        return !contains(key) ? insert(key, document) : databaseProvider.executeUpdate(
+        if (!contains(key)) return insert(key, document);
+
+        if (!this.indexes.isEmpty()) return this.writeWithIndexEntries(key, document);
+
+        return databaseProvider.executeUpdate(
             "UPDATE " + name + " SET " + TABLE_COLUMN_VALUE + "=? WHERE " + TABLE_COLUMN_KEY + "=?",
             document.toString(), key
         ) != -1;
@@ -104,6 +134,8 @@ public final class MySQLDatabase implements IDatabase {
         if (databaseProvider.getDatabaseHandler() != null)
             databaseProvider.getDatabaseHandler().handleDelete(this, key);
 
+        if (!this.indexes.isEmpty()) return this.writeWithIndexEntries(key, null);
+
         return databaseProvider.executeUpdate(
             "DELETE FROM " + name + " WHERE " + TABLE_COLUMN_KEY + "=?",
             key
@@ -134,6 +166,21 @@ public final class MySQLDatabase implements IDatabase {
         Validate.checkNotNull(fieldName);
         Validate.checkNotNull(fieldValue);
 
+        String indexValue = this.getIndexValue(fieldName, fieldValue);
+
+        if (indexValue != null)
+            return databaseProvider.executeQuery(
+                "SELECT " + TABLE_COLUMN_VALUE + " FROM " + name + " WHERE " + this.getIndexCondition(),
+                new IThrowableCallback<ResultSet, List<JsonDocument>>() {
+                    @Override
+                    public List<JsonDocument> call(ResultSet resultSet) throws Throwable
+                    {
+                        return readDocuments(resultSet, Collections.singletonMap(fieldName, indexValue));
+                    }
+                },
+                fieldName, indexValue
+            );
+
         return databaseProvider.executeQuery(
             "SELECT " + TABLE_COLUMN_VALUE + " FROM " + name + " WHERE " + TABLE_COLUMN_VALUE + " LIKE ?",
             new IThrowableCallback<ResultSet, List<JsonDocument>>() {
@@ -160,6 +207,7 @@ public final class MySQLDatabase implements IDatabase {
         StringBuilder stringBuilder = new StringBuilder("SELECT ").append(TABLE_COLUMN_VALUE).append(" FROM ").append(name);
 
         Collection<String> collection = Iterables.newArrayList();
+        Map<String, String> indexFilters = Maps.newHashMap();
 
         if (filters.size() > 0)
         {
@@ -172,8 +220,19 @@ public final class MySQLDatabase implements IDatabase {
             {
                 item = iterator.next();
 
-                stringBuilder.append(TABLE_COLUMN_VALUE).append(" LIKE ?");
-                collection.add("%\"" + item + "\":" + filters.get(item).toString() + "%");
+                String indexValue = this.getIndexValue(item, filters.get(item));
+
+                if (indexValue != null)
+                {
+                    stringBuilder.append(this.getIndexCondition());
+                    collection.add(item);
+                    collection.add(indexValue);
+                    indexFilters.put(item, indexValue);
+                } else
+                {
+                    stringBuilder.append(TABLE_COLUMN_VALUE).append(" LIKE ?");
+                    collection.add("%\"" + item + "\":" + filters.get(item).toString() + "%");
+                }
 
                 if (iterator.hasNext()) stringBuilder.append(" and ");
             }
@@ -185,12 +244,7 @@ public final class MySQLDatabase implements IDatabase {
                 @Override
                 public List<JsonDocument> call(ResultSet resultSet) throws Throwable
                 {
-                    List<JsonDocument> jsonDocuments = Iterables.newArrayList();
-
-                    while (resultSet.next())
-                        jsonDocuments.add(JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE)));
-
-                    return jsonDocuments;
+                    return readDocuments(resultSet, indexFilters);
                 }
             },
             collection.toArray()
@@ -217,6 +271,58 @@ public final class MySQLDatabase implements IDatabase {
         );
     }
 
+    @Override
+    public Collection<String> keys(int offset, int limit)
+    {
+        if (offset < 0 || limit < 0) throw new IllegalArgumentException("The offset and the limit must not be negative");
+
+        return databaseProvider.executeQuery(
+            "SELECT " + TABLE_COLUMN_KEY + " FROM " + name + " ORDER BY " + TABLE_COLUMN_KEY + " LIMIT " + limit + " OFFSET " + offset,
+            new IThrowableCallback<ResultSet, Collection<String>>() {
+                @Override
+                public Collection<String> call(ResultSet resultSet) throws Throwable
+                {
+                    Collection<String> keys = Iterables.newArrayList();
+
+                    while (resultSet.next())
+                        keys.add(resultSet.getString(TABLE_COLUMN_KEY));
+
+                    return keys;
+                }
+            }
+        );
+    }
+
+    @Override
+    public Stream<Map.Entry<String, JsonDocument>> stream()
+    {
+        return databaseProvider.executeStream(
+            "SELECT * FROM " + name,
+            new IThrowableCallback<ResultSet, Map.Entry<String, JsonDocument>>() {
+                @Override
+                public Map.Entry<String, JsonDocument> call(ResultSet resultSet) throws Throwable
+                {
+                    return new LazyDocumentEntry(resultSet.getString(TABLE_COLUMN_KEY), resultSet.getString(TABLE_COLUMN_VALUE));
+                }
+            }
+        );
+    }
+
+    @Override
+    public Stream<String> keyStream()
+    {
+        return databaseProvider.executeStream(
+            "SELECT " + TABLE_COLUMN_KEY + " FROM " + name,
+            new IThrowableCallback<ResultSet, String>() {
+                @Override
+                public String call(ResultSet resultSet) throws Throwable
+                {
+                    return resultSet.getString(TABLE_COLUMN_KEY);
+                }
+            }
+        );
+    }
+
     @Override
     public Collection<JsonDocument> documents()
     {
@@ -262,26 +368,17 @@ public final class MySQLDatabase implements IDatabase {
     {
         Validate.checkNotNull(predicate);
 
-        return databaseProvider.executeQuery(
-            "SELECT * FROM " + name,
-            new IThrowableCallback<ResultSet, Map<String, JsonDocument>>() {
-                @Override
-                public Map<String, JsonDocument> call(ResultSet resultSet) throws Throwable
-                {
-                    Map<String, JsonDocument> map = Maps.newHashMap();
-
-                    while (resultSet.next())
-                    {
-                        String key = resultSet.getString(TABLE_COLUMN_KEY);
-                        JsonDocument document = JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE));
-
-                        if (predicate.test(key, document)) map.put(key, document);
-                    }
+        Map<String, JsonDocument> map = Maps.newHashMap();
 
-                    return map;
-                }
+        iterate(new BiConsumer<String, JsonDocument>() {
+            @Override
+            public void accept(String key, JsonDocument document)
+            {
+                if (predicate.test(key, document)) map.put(key, document);
             }
-        );
+        });
+
+        return map;
     }
 
     @Override
@@ -289,23 +386,16 @@ public final class MySQLDatabase implements IDatabase {
     {
         Validate.checkNotNull(consumer);
 
-        databaseProvider.executeQuery(
-            "SELECT * FROM " + name,
-            new IThrowableCallback<ResultSet, Void>() {
+        try (Stream<Map.Entry<String, JsonDocument>> stream = this.stream())
+        {
+            stream.forEach(new Consumer<Map.Entry<String, JsonDocument>>() {
                 @Override
-                public Void call(ResultSet resultSet) throws Throwable
+                public void accept(Map.Entry<String, JsonDocument> entry)
                 {
-                    while (resultSet.next())
-                    {
-                        String key = resultSet.getString(TABLE_COLUMN_KEY);
-                        JsonDocument document = JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE));
-                        consumer.accept(key, document);
-                    }
-
-                    return null;
+                    consumer.accept(entry.getKey(), entry.getValue());
                 }
-            }
-        );
+            });
+        }
     }
 
     @Override
@@ -315,6 +405,81 @@ public final class MySQLDatabase implements IDatabase {
             databaseProvider.getDatabaseHandler().handleClear(this);
 
         databaseProvider.executeUpdate("TRUNCATE TABLE " + name);
+
+        if (!this.indexes.isEmpty()) databaseProvider.executeUpdate("TRUNCATE TABLE " + this.indexTable);
+    }
+
+    @Override
+    public boolean createIndex(String fieldName)
+    {
+        Validate.checkNotNull(fieldName);
+
+        if (!DatabaseIndexes.isValidFieldName(fieldName))
+            throw new IllegalArgumentException("Invalid field name " + fieldName + " for an index");
+
+        synchronized (this.indexes)
+        {
+            if (this.indexes.contains(fieldName)) return false;
+
+            this.createIndexTable();
+
+            databaseProvider.executeUpdate(
+                "INSERT INTO " + DatabaseIndexes.INDEX_DECLARATION_TABLE + "(" + DatabaseIndexes.COLUMN_DATABASE + "," + DatabaseIndexes.COLUMN_FIELD + ") VALUES (?, ?);",
+                name, fieldName
+            );
+            databaseProvider.executeUpdate("DELETE FROM " + this.indexTable + " WHERE " + DatabaseIndexes.COLUMN_FIELD + "=?", fieldName);
+
+            //The changes from now on are indexed, the existing documents are indexed afterwards
+            this.buildingIndexes.add(fieldName);
+            this.indexes.add(fieldName);
+        }
+
+        try
+        {
+            databaseProvider.executeQuery(
+                "SELECT * FROM " + name,
+                new IThrowableCallback<ResultSet, Void>() {
+                    @Override
+                    public Void call(ResultSet resultSet) throws Throwable
+                    {
+                        while (resultSet.next())
+                            addIndexEntry(fieldName, resultSet.getString(TABLE_COLUMN_KEY), JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE)));
+
+                        return null;
+                    }
+                }
+            );
+        } finally
+        {
+            this.buildingIndexes.remove(fieldName);
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean dropIndex(String fieldName)
+    {
+        Validate.checkNotNull(fieldName);
+
+        synchronized (this.indexes)
+        {
+            if (!this.indexes.remove(fieldName)) return false;
+
+            databaseProvider.executeUpdate(
+                "DELETE FROM " + DatabaseIndexes.INDEX_DECLARATION_TABLE + " WHERE " + DatabaseIndexes.COLUMN_DATABASE + "=? AND " + DatabaseIndexes.COLUMN_FIELD + "=?",
+                name, fieldName
+            );
+            databaseProvider.executeUpdate("DELETE FROM " + this.indexTable + " WHERE " + DatabaseIndexes.COLUMN_FIELD + "=?", fieldName);
+        }
+
+        return true;
+    }
+
+    @Override
+    public Collection<String> getIndexes()
+    {
+        return Collections.unmodifiableCollection(this.indexes);
     }
 
     /*= ----------------------------------------------------------------- =*/
@@ -452,6 +617,43 @@ public final class MySQLDatabase implements IDatabase {
         });
     }
 
+    @Override
+    public boolean batch(Consumer<IDatabaseBatch> consumer)
+    {
+        Validate.checkNotNull(consumer);
+
+        DefaultDatabaseBatch batch = new DefaultDatabaseBatch();
+        consumer.accept(batch);
+
+        if (batch.size() == 0) return true;
+
+        if (databaseProvider.getDatabaseHandler() != null)
+            batch.handle(this, databaseProvider.getDatabaseHandler());
+
+        Boolean success = databaseProvider.executeTransaction(new IThrowableCallback<Connection, Boolean>() {
+            @Override
+            public Boolean call(Connection connection) throws Throwable
+            {
+                executeBatch(connection, batch);
+                return true;
+            }
+        });
+
+        return success != null && success;
+    }
+
+    @Override
+    public ITask<Boolean> batchAsync(Consumer<IDatabaseBatch> consumer)
+    {
+        return schedule(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception
+            {
+                return batch(consumer);
+            }
+        });
+    }
+
     @Override
     public ITask<Void> clearAsync()
     {
@@ -465,6 +667,192 @@ public final class MySQLDatabase implements IDatabase {
         });
     }
 
+    private void loadIndexes()
+    {
+        Collection<String> indexes = databaseProvider.executeQuery(
+            "SELECT " + DatabaseIndexes.COLUMN_FIELD + " FROM " + DatabaseIndexes.INDEX_DECLARATION_TABLE + " WHERE " + DatabaseIndexes.COLUMN_DATABASE + "=?",
+            new IThrowableCallback<ResultSet, Collection<String>>() {
+                @Override
+                public Collection<String> call(ResultSet resultSet) throws Throwable
+                {
+                    Collection<String> indexes = Iterables.newArrayList();
+
+                    while (resultSet.next())
+                        indexes.add(resultSet.getString(DatabaseIndexes.COLUMN_FIELD));
+
+                    return indexes;
+                }
+            },
+            name
+        );
+
+        if (indexes == null || indexes.isEmpty()) return;
+
+        this.createIndexTable();
+        this.indexes.addAll(indexes);
+    }
+
+    private void createIndexTable()
+    {
+        //MySQL can't index the complete key column, the first 255 characters are unique enough for the keys of CloudNet
+        databaseProvider.executeUpdate("CREATE TABLE IF NOT EXISTS " + this.indexTable + "(" + DatabaseIndexes.COLUMN_FIELD + " VARCHAR(" + DatabaseIndexes.MAX_FIELD_LENGTH + "), " +
+            DatabaseIndexes.COLUMN_VALUE + " VARCHAR(" + DatabaseIndexes.MAX_VALUE_LENGTH + "), " + TABLE_COLUMN_KEY + " VARCHAR(1024), " +
+            "INDEX " + this.indexTable + "_VALUE (" + DatabaseIndexes.COLUMN_FIELD + ", " + DatabaseIndexes.COLUMN_VALUE + "), " +
+            "INDEX " + this.indexTable + "_KEY (" + TABLE_COLUMN_KEY + "(255)));");
+    }
+
+    private void createKeyIndex()
+    {
+        //All operations and the indexed queries select the documents by their keys
+        Boolean keyIndexExists = databaseProvider.executeQuery(
+            "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA=DATABASE() AND TABLE_NAME=? AND INDEX_NAME=?",
+            new IThrowableCallback<ResultSet, Boolean>() {
+                @Override
+                public Boolean call(ResultSet resultSet) throws Throwable
+                {
+                    return resultSet.next();
+                }
+            },
+            name, name + "__KEY"
+        );
+
+        if (keyIndexExists != null && !keyIndexExists)
+            databaseProvider.executeUpdate("CREATE INDEX " + name + "__KEY ON " + name + "(" + TABLE_COLUMN_KEY + "(255));");
+    }
+
+    private String getIndexCondition()
+    {
+        return TABLE_COLUMN_KEY + " IN (SELECT " + TABLE_COLUMN_KEY + " FROM " + this.indexTable + " WHERE " + DatabaseIndexes.COLUMN_FIELD + "=? AND " + DatabaseIndexes.COLUMN_VALUE + "=?)";
+    }
+
+    /**
+     * Returns the value of the query in the form of the index, or null, if the field has no usable index
+     */
+    private String getIndexValue(String fieldName, Object fieldValue)
+    {
+        return this.indexes.contains(fieldName) && !this.buildingIndexes.contains(fieldName) ? DatabaseIndexes.toIndexValue(fieldValue) : null;
+    }
+
+    /**
+     * Writes the document or deletes it, if the document is null, together with its index entries in one transaction
+     */
+    private boolean writeWithIndexEntries(String key, JsonDocument document)
+    {
+        DefaultDatabaseBatch batch = new DefaultDatabaseBatch();
+
+        if (document != null)
+            batch.update(key, document);
+        else
+            batch.delete(key);
+
+        Boolean success = databaseProvider.executeTransaction(new IThrowableCallback<Connection, Boolean>() {
+            @Override
+            public Boolean call(Connection connection) throws Throwable
+            {
+                executeBatch(connection, batch);
+                return true;
+            }
+        });
+
+        return success != null && success;
+    }
+
+    private void addIndexEntry(String fieldName, String key, JsonDocument document)
+    {
+        String value = DatabaseIndexes.getIndexValue(document, fieldName);
+
+        if (value != null)
+            databaseProvider.executeUpdate(
+                "INSERT INTO " + this.indexTable + "(" + DatabaseIndexes.COLUMN_FIELD + "," + DatabaseIndexes.COLUMN_VALUE + "," + TABLE_COLUMN_KEY + ") VALUES (?, ?, ?);",
+                fieldName, value, key
+            );
+    }
+
+    private void executeBatch(Connection connection, DefaultDatabaseBatch batch) throws SQLException
+    {
+        Collection<String> indexes = Iterables.newArrayList(this.indexes);
+
+        //TRUNCATE would commit the transaction implicitly
+        if (batch.isClearing())
+            try (Statement statement = connection.createStatement())
+            {
+                statement.executeUpdate("DELETE FROM " + name);
+                if (!indexes.isEmpty()) statement.executeUpdate("DELETE FROM " + this.indexTable);
+            }
+
+        try (
+            PreparedStatement deleteStatement = connection.prepareStatement("DELETE FROM " + name + " WHERE " + TABLE_COLUMN_KEY + "=?");
+            PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO " + name + "(" + TABLE_COLUMN_KEY + "," + TABLE_COLUMN_VALUE + ") VALUES (?, ?);"))
+        {
+            for (Map.Entry<String, JsonDocument> entry : batch.getChanges().entrySet())
+            {
+                //An insert or an update replaces the existing document, so every written key is deleted first
+                if (!batch.isClearing())
+                {
+                    deleteStatement.setString(1, entry.getKey());
+                    deleteStatement.addBatch();
+                }
+
+                if (entry.getValue() != null)
+                {
+                    insertStatement.setString(1, entry.getKey());
+                    insertStatement.setString(2, entry.getValue().toString());
+                    insertStatement.addBatch();
+                }
+            }
+
+            deleteStatement.executeBatch();
+            insertStatement.executeBatch();
+        }
+
+        if (indexes.isEmpty()) return;
+
+        try (
+            PreparedStatement deleteStatement = connection.prepareStatement("DELETE FROM " + this.indexTable + " WHERE " + TABLE_COLUMN_KEY + "=?");
+            PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO " + this.indexTable + "(" + DatabaseIndexes.COLUMN_FIELD + "," +
+                DatabaseIndexes.COLUMN_VALUE + "," + TABLE_COLUMN_KEY + ") VALUES (?, ?, ?);"))
+        {
+            for (Map.Entry<String, JsonDocument> entry : batch.getChanges().entrySet())
+            {
+                if (!batch.isClearing())
+                {
+                    deleteStatement.setString(1, entry.getKey());
+                    deleteStatement.addBatch();
+                }
+
+                if (entry.getValue() != null)
+                    for (String fieldName : indexes)
+                    {
+                        String value = DatabaseIndexes.getIndexValue(entry.getValue(), fieldName);
+
+                        if (value == null) continue;
+
+                        insertStatement.setString(1, fieldName);
+                        insertStatement.setString(2, value);
+                        insertStatement.setString(3, entry.getKey());
+                        insertStatement.addBatch();
+                    }
+            }
+
+            deleteStatement.executeBatch();
+            insertStatement.executeBatch();
+        }
+    }
+
+    private List<JsonDocument> readDocuments(ResultSet resultSet, Map<String, String> indexFilters) throws Exception
+    {
+        List<JsonDocument> jsonDocuments = Iterables.newArrayList();
+
+        while (resultSet.next())
+        {
+            JsonDocument document = JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE));
+
+            if (DatabaseIndexes.matches(document, indexFilters)) jsonDocuments.add(document);
+        }
+
+        return jsonDocuments;
+    }
+
     private <T> ITask<T> schedule(Callable<T> callable)
     {
         return getTaskScheduler().schedule(callable);
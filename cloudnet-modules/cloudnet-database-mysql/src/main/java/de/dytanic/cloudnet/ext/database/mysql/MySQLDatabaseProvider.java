@@ -8,7 +8,9 @@ import de.dytanic.cloudnet.common.collection.Pair;
 import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.database.AbstractDatabaseProvider;
+import de.dytanic.cloudnet.database.DatabaseIndexes;
 import de.dytanic.cloudnet.database.IDatabase;
+import de.dytanic.cloudnet.database.ResultSetIterator;
 import de.dytanic.cloudnet.ext.database.mysql.util.MySQLConnectionEndpoint;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +23,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.stream.Stream;
 
 @Getter
 @RequiredArgsConstructor
@@ -45,7 +48,8 @@ public final class MySQLDatabaseProvider extends AbstractDatabaseProvider {
         MySQLConnectionEndpoint endpoint = addresses.get(new Random().nextInt(addresses.size()));
 
         hikariDataSource.setJdbcUrl("jdbc:mysql://" + endpoint.getAddress().getHost() + ":" + endpoint.getAddress().getPort() + "/" + endpoint.getDatabase() +
-            (endpoint.isUseSsl() ? "?useSSL=true&trustServerCertificate=true" : "")
+            //The batches of the databases are sent as multi row statements, the streams read the rows with server side cursors
+            "?rewriteBatchedStatements=true&useCursorFetch=true" + (endpoint.isUseSsl() ? "&useSSL=true&trustServerCertificate=true" : "")
         );
 
         //base configuration
@@ -58,6 +62,9 @@ public final class MySQLDatabaseProvider extends AbstractDatabaseProvider {
         hikariDataSource.setValidationTimeout(config.getInt("validationTimeout"));
 
         hikariDataSource.validate();
+
+        this.executeUpdate("CREATE TABLE IF NOT EXISTS " + DatabaseIndexes.INDEX_DECLARATION_TABLE + "(" +
+            DatabaseIndexes.COLUMN_DATABASE + " VARCHAR(1024), " + DatabaseIndexes.COLUMN_FIELD + " VARCHAR(" + DatabaseIndexes.MAX_FIELD_LENGTH + "));");
         return true;
     }
 
@@ -94,6 +101,9 @@ public final class MySQLDatabaseProvider extends AbstractDatabaseProvider {
 
         cachedDatabaseInstances.remove(name);
 
+        this.executeUpdate("DROP TABLE IF EXISTS " + DatabaseIndexes.getIndexTable(name));
+        this.executeUpdate("DELETE FROM " + DatabaseIndexes.INDEX_DECLARATION_TABLE + " WHERE " + DatabaseIndexes.COLUMN_DATABASE + "=?", name);
+
         if (containsDatabase(name))
             try (Connection connection = getConnection();
                  PreparedStatement preparedStatement = connection.prepareStatement("DROP TABLE " + name))
@@ -117,7 +127,13 @@ public final class MySQLDatabaseProvider extends AbstractDatabaseProvider {
                 public Collection<String> call(ResultSet resultSet) throws Throwable
                 {
                     Collection<String> collection = Iterables.newArrayList();
-                    while (resultSet.next()) collection.add(resultSet.getString("table_name"));
+                    while (resultSet.next())
+                    {
+                        String table = resultSet.getString("table_name");
+
+                        //The auxiliary tables of the indexes aren't databases
+                        if (!DatabaseIndexes.isIndexTable(table)) collection.add(table);
+                    }
 
                     return collection;
                 }
@@ -188,6 +204,82 @@ public final class MySQLDatabaseProvider extends AbstractDatabaseProvider {
         return null;
     }
 
+    /**
+     * Executes the callback in a transaction on a connection of the pool. The transaction is rolled back, if the
+     * callback fails
+     *
+     * @return the result of the callback or null, if the transaction failed
+     */
+    public <T> T executeTransaction(IThrowableCallback<Connection, T> callback)
+    {
+        Validate.checkNotNull(callback);
+
+        try (Connection connection = getConnection())
+        {
+            connection.setAutoCommit(false);
+
+            try
+            {
+                T result = callback.call(connection);
+                connection.commit();
+
+                return result;
+            } catch (Throwable throwable)
+            {
+                connection.rollback();
+                throw throwable;
+            } finally
+            {
+                connection.setAutoCommit(true);
+            }
+
+        } catch (Throwable e)
+        {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    /**
+     * Executes the query with a server side cursor on a connection of the pool, so the rows are fetched in pages of the
+     * fetch size, while the stream is consumed, instead of loading the complete result into the memory
+     *
+     * @return a stream of the mapped rows, which must be closed, or an empty stream, if the query failed
+     */
+    public <T> Stream<T> executeStream(String query, IThrowableCallback<ResultSet, T> mapper, Object... objects)
+    {
+        Validate.checkNotNull(query);
+        Validate.checkNotNull(mapper);
+        Validate.checkNotNull(objects);
+
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+
+        try
+        {
+            connection = getConnection();
+
+            preparedStatement = connection.prepareStatement(query);
+            preparedStatement.setFetchSize(this.fetchSize);
+
+            int i = 1;
+            for (Object object : objects)
+                preparedStatement.setString(i++, object.toString());
+
+            return new ResultSetIterator<>(preparedStatement.executeQuery(), mapper, connection, preparedStatement).stream();
+
+        } catch (Throwable e)
+        {
+            e.printStackTrace();
+
+            ResultSetIterator.closeQuietly(preparedStatement);
+            ResultSetIterator.closeQuietly(connection);
+        }
+
+        return Stream.empty();
+    }
+
     /*= ------------------------------------------------------------ =*/
 
     private void removedOutdatedEntries()
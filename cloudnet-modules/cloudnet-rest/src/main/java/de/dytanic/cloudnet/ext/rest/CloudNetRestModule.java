@@ -21,6 +21,7 @@ public final class CloudNetRestModule extends NodeCloudNetModule {
             .registerHandler("/api/v1/status", IHttpHandler.PRIORITY_NORMAL, new V1HttpHandlerStatus("cloudnet.http.v1.status"))
             .registerHandler("/api/v1/command", IHttpHandler.PRIORITY_NORMAL, new V1HttpHandlerCommand("cloudnet.http.v1.command"))
             .registerHandler("/api/v1/modules", IHttpHandler.PRIORITY_NORMAL, new V1HttpHandlerModules("cloudnet.http.v1.modules"))
+            .registerHandler("/api/v1/events", IHttpHandler.PRIORITY_NORMAL, new V1HttpHandlerEvents("cloudnet.http.v1.events"))
             .registerHandler("/api/v1/cluster", IHttpHandler.PRIORITY_NORMAL, new V1HttpHandlerCluster("cloudnet.http.v1.cluster"))
             .registerHandler("/api/v1/cluster/{node}", IHttpHandler.PRIORITY_NORMAL, new V1HttpHandlerCluster("cloudnet.http.v1.cluster"))
             .registerHandler("/api/v1/services", IHttpHandler.PRIORITY_NORMAL, new V1HttpHandlerServices("cloudnet.http.v1.services"))
@@ -0,0 +1,107 @@
+package de.dytanic.cloudnet.ext.rest.http;
+
+import de.dytanic.cloudnet.common.LatencyHistogram;
+import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.event.DefaultEventManager;
+import de.dytanic.cloudnet.driver.event.IEventManager;
+import de.dytanic.cloudnet.driver.event.IRegisteredEventListener;
+import de.dytanic.cloudnet.driver.network.http.HttpResponseCode;
+import de.dytanic.cloudnet.driver.network.http.IHttpContext;
+import de.dytanic.cloudnet.http.V1HttpHandler;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public final class V1HttpHandlerEvents extends V1HttpHandler {
+
+    public V1HttpHandlerEvents(String permission)
+    {
+        super(permission);
+    }
+
+    @Override
+    public void handleOptions(String path, IHttpContext context) throws Exception
+    {
+        this.sendOptions(context, "OPTIONS, GET, DELETE");
+    }
+
+    @Override
+    public void handleGet(String path, IHttpContext context) throws Exception
+    {
+        IEventManager eventManager = getCloudNet().getEventManager();
+
+        List<IRegisteredEventListener> listeners = Iterables.newArrayList(eventManager.getRegisteredListeners());
+        listeners.sort(new Comparator<IRegisteredEventListener>() {
+            @Override
+            public int compare(IRegisteredEventListener listener, IRegisteredEventListener other)
+            {
+                return Long.compare(other.getTotalExecutionTime(), listener.getTotalExecutionTime());
+            }
+        });
+
+        List<JsonDocument> documents = Iterables.newArrayList();
+
+        for (IRegisteredEventListener listener : listeners)
+        {
+            JsonDocument document = new JsonDocument()
+                .append("listener", listener.getInstance().getClass().getName())
+                .append("method", listener.getHandlerMethod().getName())
+                .append("event", listener.getEventClass().getName())
+                .append("channel", listener.getEventListener() != null ? listener.getEventListener().channel() : "*")
+                .append("priority", listener.getPriority().name())
+                .append("async", listener.isAsync());
+
+            LatencyHistogram latencyHistogram = listener.getLatencyHistogram();
+
+            if (latencyHistogram != null)
+                document
+                    .append("invocations", latencyHistogram.getCount())
+                    .append("totalNanos", latencyHistogram.getTotalNanos())
+                    .append("meanMillis", latencyHistogram.getMeanMillis())
+                    .append("p50Nanos", latencyHistogram.getPercentileNanos(50))
+                    .append("p99Nanos", latencyHistogram.getPercentileNanos(99))
+                    .append("maxNanos", latencyHistogram.getMaxNanos())
+                    .append("buckets", latencyHistogram.getBuckets());
+
+            documents.add(document);
+        }
+
+        JsonDocument response = new JsonDocument("listeners", documents);
+
+        if (eventManager instanceof DefaultEventManager)
+            response
+                .append("instrumentation", ((DefaultEventManager) eventManager).isInstrumentation())
+                .append("slowListenerThresholdMillis", ((DefaultEventManager) eventManager).getSlowListenerThreshold(TimeUnit.MILLISECONDS));
+
+        context
+            .response()
+            .header("Content-Type", "application/json")
+            .statusCode(HttpResponseCode.HTTP_OK)
+            .body(response.toByteArray())
+            .context()
+            .closeAfter(true)
+            .cancelNext()
+        ;
+    }
+
+    @Override
+    public void handleDelete(String path, IHttpContext context) throws Exception
+    {
+        IEventManager eventManager = getCloudNet().getEventManager();
+
+        if (eventManager instanceof DefaultEventManager)
+            ((DefaultEventManager) eventManager).resetStatistics();
+
+        context
+            .response()
+            .header("Content-Type", "application/json")
+            .statusCode(HttpResponseCode.HTTP_OK)
+            .body(new JsonDocument("success", eventManager instanceof DefaultEventManager).toByteArray())
+            .context()
+            .closeAfter(true)
+            .cancelNext()
+        ;
+    }
+}
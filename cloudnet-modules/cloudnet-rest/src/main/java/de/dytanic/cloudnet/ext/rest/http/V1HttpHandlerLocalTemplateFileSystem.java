@@ -115,7 +115,7 @@ public final class V1HttpHandlerLocalTemplateFileSystem extends V1HttpHandler {
                 }
             }
 
-            getCloudNet().deployTemplateInCluster(serviceTemplate, LocalTemplateStorageUtil.getLocalTemplateStorage().toZipByteArray(serviceTemplate));
+            getCloudNet().deployTemplateInCluster(serviceTemplate, LocalTemplateStorageUtil.getLocalTemplateStorage().getTemplateDirectory(serviceTemplate).toPath());
 
             context
                 .response()
@@ -152,7 +152,7 @@ public final class V1HttpHandlerLocalTemplateFileSystem extends V1HttpHandler {
             }
 
             FileUtils.delete(file);
-            getCloudNet().deployTemplateInCluster(serviceTemplate, LocalTemplateStorageUtil.getLocalTemplateStorage().toZipByteArray(serviceTemplate));
+            getCloudNet().deployTemplateInCluster(serviceTemplate, LocalTemplateStorageUtil.getLocalTemplateStorage().getTemplateDirectory(serviceTemplate).toPath());
 
             context
                 .response()
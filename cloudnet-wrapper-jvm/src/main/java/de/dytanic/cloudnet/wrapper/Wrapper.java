@@ -20,6 +20,9 @@ import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerChannelMessage;
 import de.dytanic.cloudnet.driver.network.netty.NettyNetworkClient;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
+import de.dytanic.cloudnet.driver.network.rpc.RPCBatch;
+import de.dytanic.cloudnet.driver.network.rpc.RPCPacketListener;
 import de.dytanic.cloudnet.driver.network.ssl.SSLConfiguration;
 import de.dytanic.cloudnet.driver.permission.IPermissionGroup;
 import de.dytanic.cloudnet.driver.permission.IPermissionUser;
@@ -52,6 +55,7 @@ import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
@@ -100,6 +104,39 @@ public final class Wrapper extends CloudNetDriver {
 
     private final Queue<ITask<?>> processQueue = Iterables.newConcurrentLinkedQueue();
 
+    /**
+     * The stub of the RPC service of the node for the queries of the services, tasks and groups. It's only used, if
+     * the node supports the RPC channel, otherwise the queries are sent as sync API packets
+     */
+    private final ICloudServiceInfoProvider cloudServiceInfoProvider = this.rpcClient.createStub(ICloudServiceInfoProvider.class, new Supplier<INetworkChannel>() {
+        @Override
+        public INetworkChannel get()
+        {
+            return getNodeChannel();
+        }
+    });
+
+    private final IServiceRegistrySnapshotProvider serviceRegistrySnapshotProvider = this.rpcClient.createStub(IServiceRegistrySnapshotProvider.class, new Supplier<INetworkChannel>() {
+        @Override
+        public INetworkChannel get()
+        {
+            return getNodeChannel();
+        }
+    });
+
+    /**
+     * The local copy of the services, tasks and groups of the node, which answers the queries without a round-trip,
+     * while it's synchronized with the node
+     */
+    @Getter
+    private final ReplicatedServiceRegistry replicatedServiceRegistry = new ReplicatedServiceRegistry(new Supplier<ITask<ServiceRegistrySnapshot>>() {
+        @Override
+        public ITask<ServiceRegistrySnapshot> get()
+        {
+            return isRPCAvailable() ? serviceRegistrySnapshotProvider.getServiceRegistrySnapshotAsync() : null;
+        }
+    });
+
     /*= ----------------------------------------------------------- =*/
 
     /**
@@ -144,9 +181,11 @@ public final class Wrapper extends CloudNetDriver {
 
         //- Packet client registry
         this.networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_EVENTBUS_CHANNEL, new PacketServerServiceInfoPublisherListener());
+        this.networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_EVENTBUS_CHANNEL, new PacketServerServiceConfigurationPublisherListener());
         this.networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_EVENTBUS_CHANNEL, new PacketServerUpdatePermissionsListener());
         this.networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_EVENTBUS_CHANNEL, new PacketServerChannelMessageListener());
         this.networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new PacketServerClusterNodeInfoUpdateListener());
+        this.networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_RPC_CHANNEL, new RPCPacketListener(this.rpcServiceRegistry, this.rpcClient));
         //-
 
         this.moduleProvider.setModuleProviderHandler(new WrapperModuleProviderHandler());
@@ -188,6 +227,9 @@ public final class Wrapper extends CloudNetDriver {
         if (!listener.isResult()) throw new IllegalStateException("authorization response is: denied");
 
         Runtime.getRuntime().addShutdownHook(new Thread(this::stop));
+
+        if (this.isRPCAvailable()) this.replicatedServiceRegistry.resync();
+
         this.start0();
     }
 
@@ -1831,6 +1873,9 @@ public final class Wrapper extends CloudNetDriver {
     @Override
     public ITask<Collection<UUID>> getServicesAsUniqueIdAsync()
     {
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getServicesAsUniqueId());
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getServicesAsUniqueIdAsync();
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_services_as_uuid"), null,
             new Function<Pair<JsonDocument, byte[]>, Collection<UUID>>() {
@@ -1854,6 +1899,9 @@ public final class Wrapper extends CloudNetDriver {
     {
         Validate.checkNotNull(name);
 
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getCloudServiceByName(name));
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getCloudServiceByNameAsync(name);
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudService_by_name").append("name", name), null,
             new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
@@ -1874,6 +1922,9 @@ public final class Wrapper extends CloudNetDriver {
     @Override
     public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync()
     {
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getCloudServices());
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getCloudServicesAsync();
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudServiceInfos"), null,
             new Function<Pair<JsonDocument, byte[]>, Collection<ServiceInfoSnapshot>>() {
@@ -1895,6 +1946,9 @@ public final class Wrapper extends CloudNetDriver {
     @Override
     public ITask<Collection<ServiceInfoSnapshot>> getStartedCloudServiceInfoSnapshotsAsync()
     {
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getStartedCloudServices());
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getStartedCloudServiceInfoSnapshotsAsync();
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudServiceInfos_started"), null,
             new Function<Pair<JsonDocument, byte[]>, Collection<ServiceInfoSnapshot>>() {
@@ -1918,6 +1972,9 @@ public final class Wrapper extends CloudNetDriver {
     {
         Validate.checkNotNull(taskName);
 
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getCloudServices(taskName));
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getCloudServicesAsync(taskName);
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudServiceInfos_by_taskName").append("taskName", taskName), null,
             new Function<Pair<JsonDocument, byte[]>, Collection<ServiceInfoSnapshot>>() {
@@ -1941,6 +1998,9 @@ public final class Wrapper extends CloudNetDriver {
     {
         Validate.checkNotNull(group);
 
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getCloudServicesByGroup(group));
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getCloudServicesByGroupAsync(group);
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudServiceInfos_by_group").append("group", group), null,
             new Function<Pair<JsonDocument, byte[]>, Collection<ServiceInfoSnapshot>>() {
@@ -1962,6 +2022,9 @@ public final class Wrapper extends CloudNetDriver {
     @Override
     public ITask<Integer> getServicesCountAsync()
     {
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getServicesCount());
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getServicesCountAsync();
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_services_count"), null,
             new Function<Pair<JsonDocument, byte[]>, Integer>() {
@@ -1984,6 +2047,9 @@ public final class Wrapper extends CloudNetDriver {
     {
         Validate.checkNotNull(group);
 
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getServicesCountByGroup(group));
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getServicesCountByGroupAsync(group);
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_services_count_by_group").append("group", group), null,
             new Function<Pair<JsonDocument, byte[]>, Integer>() {
@@ -2006,6 +2072,9 @@ public final class Wrapper extends CloudNetDriver {
     {
         Validate.checkNotNull(taskName);
 
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getServicesCountByTask(taskName));
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getServicesCountByTaskAsync(taskName);
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_services_count_by_task").append("taskName", taskName), null,
             new Function<Pair<JsonDocument, byte[]>, Integer>() {
@@ -2028,6 +2097,9 @@ public final class Wrapper extends CloudNetDriver {
     {
         Validate.checkNotNull(uniqueId);
 
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getCloudService(uniqueId));
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getCloudServicesAsync(uniqueId);
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudServiceInfos_by_uniqueId").append("uniqueId", uniqueId), null,
             new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
@@ -2049,6 +2121,9 @@ public final class Wrapper extends CloudNetDriver {
     @Override
     public ITask<Collection<ServiceTask>> getPermanentServiceTasksAsync()
     {
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getPermanentServiceTasks());
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getPermanentServiceTasksAsync();
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_permanent_serviceTasks"), null,
             new Function<Pair<JsonDocument, byte[]>, Collection<ServiceTask>>() {
@@ -2072,6 +2147,9 @@ public final class Wrapper extends CloudNetDriver {
     {
         Validate.checkNotNull(name);
 
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getServiceTask(name));
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getServiceTaskAsync(name);
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_service_task").append("name", name), null,
             new Function<Pair<JsonDocument, byte[]>, ServiceTask>() {
@@ -2095,6 +2173,9 @@ public final class Wrapper extends CloudNetDriver {
     {
         Validate.checkNotNull(name);
 
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.isServiceTaskPresent(name));
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.isServiceTaskPresentAsync(name);
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "is_service_task_present").append("name", name), null,
             new Function<Pair<JsonDocument, byte[]>, Boolean>() {
@@ -2116,6 +2197,9 @@ public final class Wrapper extends CloudNetDriver {
     @Override
     public ITask<Collection<GroupConfiguration>> getGroupConfigurationsAsync()
     {
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getGroupConfigurations());
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getGroupConfigurationsAsync();
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_groupConfigurations"), null,
             new Function<Pair<JsonDocument, byte[]>, Collection<GroupConfiguration>>() {
@@ -2139,6 +2223,9 @@ public final class Wrapper extends CloudNetDriver {
     {
         Validate.checkNotNull(name);
 
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getGroupConfiguration(name));
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getGroupConfigurationAsync(name);
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_group_configuration").append("name", name), null,
             new Function<Pair<JsonDocument, byte[]>, GroupConfiguration>() {
@@ -2162,6 +2249,9 @@ public final class Wrapper extends CloudNetDriver {
     {
         Validate.checkNotNull(name);
 
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.isGroupConfigurationPresent(name));
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.isGroupConfigurationPresentAsync(name);
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "is_group_configuration_present").append("name", name), null,
             new Function<Pair<JsonDocument, byte[]>, Boolean>() {
@@ -2294,6 +2384,9 @@ public final class Wrapper extends CloudNetDriver {
     {
         Validate.checkNotNull(environment);
 
+        if (this.replicatedServiceRegistry.isAvailable()) return ListenableTask.completedTask(this.replicatedServiceRegistry.getCloudServices(environment));
+        if (this.isRPCAvailable()) return this.cloudServiceInfoProvider.getCloudServicesAsync(environment);
+
         return sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
             new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloud_services_with_environment").append("serviceEnvironment", environment), null,
             new Function<Pair<JsonDocument, byte[]>, Collection<ServiceInfoSnapshot>>() {
@@ -2699,6 +2792,30 @@ public final class Wrapper extends CloudNetDriver {
             channel.getPacketRegistry().removeListeners(classLoader);
     }
 
+    /**
+     * Application wrapper implementation of this method. All queries of the batch are sent in one packet to the node,
+     * if the node supports the RPC channel, otherwise they are sent as concurrent sync API packets
+     *
+     * @see CloudNetDriver
+     */
+    @Override
+    public CloudServiceQueryBatch batch()
+    {
+        INetworkChannel channel = this.getNodeChannel();
+
+        if (channel == null || channel.getPacketWireVersion() < PacketWireVersion.RPC) return super.batch();
+
+        RPCBatch batch = this.rpcClient.newBatch(channel);
+
+        return new CloudServiceQueryBatch(batch.createStub(ICloudServiceInfoProvider.class), new Runnable() {
+            @Override
+            public void run()
+            {
+                batch.flush();
+            }
+        });
+    }
+
     /*= -------------------------------------------------------------------------------------------- =*/
     //private methods
     /*= -------------------------------------------------------------------------------------------- =*/
@@ -2711,6 +2828,23 @@ public final class Wrapper extends CloudNetDriver {
         }
     };
 
+    private INetworkChannel getNodeChannel()
+    {
+        Iterator<INetworkChannel> channels = this.networkClient.getChannels().iterator();
+
+        return channels.hasNext() ? channels.next() : null;
+    }
+
+    /**
+     * Returns true, if the node handles the RPC channel, which is negotiated with the packet wire version
+     */
+    private boolean isRPCAvailable()
+    {
+        INetworkChannel channel = this.getNodeChannel();
+
+        return channel != null && channel.getPacketWireVersion() >= PacketWireVersion.RPC;
+    }
+
     private synchronized void start0() throws Exception
     {
         long value = System.currentTimeMillis();
@@ -2,7 +2,11 @@ package de.dytanic.cloudnet.wrapper.network.listener;
 
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketHeaderCodec;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
+import de.dytanic.cloudnet.driver.network.protocol.PacketHeaderCodecs;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -26,6 +30,17 @@ public final class PacketServerAuthorizationResponseListener implements IPacketL
         {
             result = packet.getHeader().getBoolean("access");
 
+            IPacketHeaderCodec headerCodec = PacketHeaderCodecs.getCodec(packet.getHeader().getString("headerCodec"));
+
+            if (result && headerCodec != null)
+                channel.setPacketHeaderCodec(headerCodec);
+
+            if (result && packet.getHeader().contains("wireVersion"))
+                channel.setPacketWireVersion(PacketWireVersion.negotiate(packet.getHeader().getInt("wireVersion")));
+
+            if (result && packet.getHeader().contains("packetCompression"))
+                channel.setPacketCompression(packet.getHeader().get("packetCompression", PacketCompressionConfiguration.class));
+
             try
             {
                 lock.lock();
@@ -0,0 +1,33 @@
+package de.dytanic.cloudnet.wrapper.network.listener;
+
+import com.google.gson.reflect.TypeToken;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.driver.service.GroupConfiguration;
+import de.dytanic.cloudnet.driver.service.ServiceTask;
+import de.dytanic.cloudnet.wrapper.Wrapper;
+
+import java.util.List;
+
+public final class PacketServerServiceConfigurationPublisherListener implements IPacketListener {
+
+    @Override
+    public void handle(INetworkChannel channel, IPacket packet) throws Exception
+    {
+        if (packet.getHeader().contains("sequence") && (packet.getHeader().contains("serviceTasks") || packet.getHeader().contains("groupConfigurations")))
+        {
+            List<ServiceTask> serviceTasks = packet.getHeader().contains("serviceTasks") ?
+                packet.getHeader().get("serviceTasks", new TypeToken<List<ServiceTask>>() {
+                }.getType()) :
+                null;
+
+            List<GroupConfiguration> groupConfigurations = packet.getHeader().contains("groupConfigurations") ?
+                packet.getHeader().get("groupConfigurations", new TypeToken<List<GroupConfiguration>>() {
+                }.getType()) :
+                null;
+
+            Wrapper.getInstance().getReplicatedServiceRegistry().handleServiceConfigurations(packet.getHeader().getLong("sequence"), serviceTasks, groupConfigurations);
+        }
+    }
+}
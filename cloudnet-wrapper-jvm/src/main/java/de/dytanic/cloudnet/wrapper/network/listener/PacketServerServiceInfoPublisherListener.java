@@ -8,6 +8,7 @@ import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceIn
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.wrapper.Wrapper;
 
 public final class PacketServerServiceInfoPublisherListener implements IPacketListener {
 
@@ -19,6 +20,13 @@ public final class PacketServerServiceInfoPublisherListener implements IPacketLi
             ServiceInfoSnapshot serviceInfoSnapshot = packet.getHeader().get("serviceInfoSnapshot", ServiceInfoSnapshot.TYPE);
             PacketClientServerServiceInfoPublisher.PublisherType publisherType = packet.getHeader().get("type", PacketClientServerServiceInfoPublisher.PublisherType.class);
 
+            //The replicated registry is updated before the event, so the listeners see the new state in the queries
+            Wrapper.getInstance().getReplicatedServiceRegistry().handleServiceInfoSnapshot(
+                packet.getHeader().contains("sequence") ? packet.getHeader().getLong("sequence") : 0L,
+                serviceInfoSnapshot,
+                publisherType
+            );
+
             switch (publisherType)
             {
                 case UPDATE:
@@ -14,7 +14,7 @@ import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.common.collection.Pair;
-import de.dytanic.cloudnet.common.concurrent.DefaultTaskScheduler;
+import de.dytanic.cloudnet.common.concurrent.QueuedTaskScheduler;
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
 import de.dytanic.cloudnet.common.concurrent.ListenableTask;
@@ -33,7 +33,7 @@ import de.dytanic.cloudnet.console.IConsole;
 import de.dytanic.cloudnet.console.JLine2Console;
 import de.dytanic.cloudnet.database.AbstractDatabaseProvider;
 import de.dytanic.cloudnet.database.DefaultDatabaseHandler;
-import de.dytanic.cloudnet.database.IDatabase;
+import de.dytanic.cloudnet.database.cache.CachedDatabaseProvider;
 import de.dytanic.cloudnet.database.h2.H2DatabaseProvider;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.DriverEnvironment;
@@ -49,11 +49,15 @@ import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeExtensionSna
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot;
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerChannelMessage;
+import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
+import de.dytanic.cloudnet.driver.network.def.packet.PacketServerServiceConfigurationPublisher;
 import de.dytanic.cloudnet.driver.network.http.IHttpServer;
 import de.dytanic.cloudnet.driver.network.netty.NettyHttpServer;
 import de.dytanic.cloudnet.driver.network.netty.NettyNetworkClient;
 import de.dytanic.cloudnet.driver.network.netty.NettyNetworkServer;
+import de.dytanic.cloudnet.driver.network.netty.NettyPacketBroadcaster;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
 import de.dytanic.cloudnet.driver.permission.*;
 import de.dytanic.cloudnet.driver.service.*;
 import de.dytanic.cloudnet.event.CloudNetNodePostInitializationEvent;
@@ -72,6 +76,8 @@ import de.dytanic.cloudnet.permission.DefaultDatabasePermissionManagement;
 import de.dytanic.cloudnet.permission.DefaultPermissionManagementHandler;
 import de.dytanic.cloudnet.permission.command.DefaultPermissionUserCommandSender;
 import de.dytanic.cloudnet.permission.command.IPermissionUserCommandSender;
+import de.dytanic.cloudnet.service.DefaultCloudServiceInfoProvider;
+import de.dytanic.cloudnet.service.DefaultServiceRegistrySnapshotProvider;
 import de.dytanic.cloudnet.service.DefaultCloudServiceManager;
 import de.dytanic.cloudnet.service.ICloudService;
 import de.dytanic.cloudnet.service.ICloudServiceManager;
@@ -85,14 +91,18 @@ import java.io.InputStream;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public final class CloudNet extends CloudNetDriver {
 
@@ -100,6 +110,9 @@ public final class CloudNet extends CloudNetDriver {
 
     public static final int TPS = 10;
 
+    //The max count of documents in one packet of the synchronization of the h2 databases
+    private static final int H2_DATABASE_DATA_CHUNK_SIZE = 1000;
+
     private static CloudNet instance;
 
     /*= --------------------------------------------------------------------------------------------------- =*/
@@ -123,7 +136,7 @@ public final class CloudNet extends CloudNetDriver {
     private final IClusterNodeServerProvider clusterNodeServerProvider = new DefaultClusterNodeServerProvider();
 
     @Getter
-    private final ITaskScheduler networkTaskScheduler = new DefaultTaskScheduler();
+    private final ITaskScheduler networkTaskScheduler = new QueuedTaskScheduler();
 
     /*= ----------------------------------------------------------- =*/
 
@@ -166,6 +179,12 @@ public final class CloudNet extends CloudNetDriver {
 
     private final Queue<ITask<?>> processQueue = Iterables.newConcurrentLinkedQueue();
 
+    /**
+     * The sequence of the replication packets for the services of this node. It's also the lock, under that a packet
+     * gets its sequence and is sent, so every service receives the packets in the order of the sequence
+     */
+    private final AtomicLong replicationSequence = new AtomicLong();
+
     CloudNet(List<String> commandLineArguments, ILogger logger, IConsole console)
     {
         super(logger);
@@ -246,9 +265,24 @@ public final class CloudNet extends CloudNetDriver {
             this.databaseProvider.init();
         }
 
+        //Only the embedded h2 database is used by this node alone, the other providers may be written by other nodes,
+        //which don't invalidate the cache of this node
+        if (this.databaseProvider instanceof H2DatabaseProvider && this.configurationRegistry.getInt("database_cache_size", 1024) > 0)
+            this.databaseProvider = new CachedDatabaseProvider(
+                this.databaseProvider,
+                this.configurationRegistry.getInt("database_cache_size", 1024),
+                this.configurationRegistry.getInt("database_cache_write_behind_millis", 0),
+                this.taskScheduler,
+                this.eventManager
+            );
+
         this.permissionManagement = this.servicesRegistry.getService(IPermissionManagement.class, this.configurationRegistry.getString("permission_service", "json_database"));
         this.permissionManagement.setPermissionManagementHandler(new DefaultPermissionManagementHandler());
 
+        //The permission users are queried by their name
+        if (this.permissionManagement instanceof DefaultDatabasePermissionManagement)
+            ((DefaultDatabasePermissionManagement) this.permissionManagement).getDatabase().createIndex("name");
+
         this.startModules();
         this.eventManager.callEvent(new PermissionServiceSetEvent(this.permissionManagement));
 
@@ -278,7 +312,7 @@ public final class CloudNet extends CloudNetDriver {
             this.logger.info(LanguageManager.getMessage("cloudnet-network-server-bind").replace("%address%",
                 hostAndPort.getHost() + ":" + hostAndPort.getPort()));
 
-            this.networkServer.addListener(hostAndPort);
+            this.networkServer.addListener(hostAndPort, this.config.getListenerPacketCompression().get(hostAndPort.getPort()));
         }
 
         for (HostAndPort hostAndPort : this.config.getHttpListeners())
@@ -1222,6 +1256,13 @@ public final class CloudNet extends CloudNetDriver {
     @Override
     public ITask<String[]> sendCommandLineAsync(String nodeUniqueId, String commandLine)
     {
+        Validate.checkNotNull(nodeUniqueId);
+        Validate.checkNotNull(commandLine);
+
+        IClusterNodeServer clusterNodeServer = this.getConnectedNodeServer(nodeUniqueId);
+
+        if (clusterNodeServer != null) return clusterNodeServer.sendCommandLineAsync(commandLine);
+
         return scheduleTask(new Callable<String[]>() {
             @Override
             public String[] call() throws Exception
@@ -1234,6 +1275,15 @@ public final class CloudNet extends CloudNetDriver {
     @Override
     public ITask<ServiceInfoSnapshot> createCloudServiceAsync(ServiceTask serviceTask)
     {
+        Validate.checkNotNull(serviceTask);
+
+        NetworkClusterNodeInfoSnapshot networkClusterNodeInfoSnapshot = this.searchLogicNode(serviceTask);
+        IClusterNodeServer clusterNodeServer = networkClusterNodeInfoSnapshot != null ?
+            this.getConnectedNodeServer(networkClusterNodeInfoSnapshot.getNode().getUniqueId()) :
+            null;
+
+        if (clusterNodeServer != null) return clusterNodeServer.createCloudServiceAsync(serviceTask);
+
         return scheduleTask(new Callable<ServiceInfoSnapshot>() {
             @Override
             public ServiceInfoSnapshot call() throws Exception
@@ -1246,6 +1296,14 @@ public final class CloudNet extends CloudNetDriver {
     @Override
     public ITask<ServiceInfoSnapshot> createCloudServiceAsync(ServiceConfiguration serviceConfiguration)
     {
+        Validate.checkNotNull(serviceConfiguration);
+
+        IClusterNodeServer clusterNodeServer = serviceConfiguration.getServiceId() != null ?
+            this.getConnectedNodeServer(serviceConfiguration.getServiceId().getNodeUniqueId()) :
+            null;
+
+        if (clusterNodeServer != null) return clusterNodeServer.createCloudServiceAsync(serviceConfiguration);
+
         return scheduleTask(new Callable<ServiceInfoSnapshot>() {
             @Override
             public ServiceInfoSnapshot call() throws Exception
@@ -1291,6 +1349,11 @@ public final class CloudNet extends CloudNetDriver {
         Validate.checkNotNull(groups);
         Validate.checkNotNull(processConfiguration);
 
+        IClusterNodeServer clusterNodeServer = this.getConnectedNodeServer(nodeUniqueId);
+
+        if (clusterNodeServer != null)
+            return clusterNodeServer.createCloudServiceAsync(nodeUniqueId, amount, name, runtime, autoDeleteOnStop, staticService, includes, templates, deployments, groups, processConfiguration, port);
+
         return scheduleTask(new Callable<Collection<ServiceInfoSnapshot>>() {
             @Override
             public Collection<ServiceInfoSnapshot> call() throws Exception
@@ -1306,6 +1369,10 @@ public final class CloudNet extends CloudNetDriver {
         Validate.checkNotNull(uniqueId);
         Validate.checkNotNull(commandLine);
 
+        IClusterNodeServer clusterNodeServer = this.getRemoteNodeServer(uniqueId);
+
+        if (clusterNodeServer != null) return clusterNodeServer.sendCommandLineToCloudServiceAsync(uniqueId, commandLine);
+
         return scheduleTask(new Callable<ServiceInfoSnapshot>() {
             @Override
             public ServiceInfoSnapshot call() throws Exception
@@ -1321,6 +1388,10 @@ public final class CloudNet extends CloudNetDriver {
         Validate.checkNotNull(uniqueId);
         Validate.checkNotNull(serviceTemplate);
 
+        IClusterNodeServer clusterNodeServer = this.getRemoteNodeServer(uniqueId);
+
+        if (clusterNodeServer != null) return clusterNodeServer.addServiceTemplateToCloudServiceAsync(uniqueId, serviceTemplate);
+
         return scheduleTask(new Callable<ServiceInfoSnapshot>() {
             @Override
             public ServiceInfoSnapshot call() throws Exception
@@ -1336,6 +1407,10 @@ public final class CloudNet extends CloudNetDriver {
         Validate.checkNotNull(uniqueId);
         Validate.checkNotNull(serviceRemoteInclusion);
 
+        IClusterNodeServer clusterNodeServer = this.getRemoteNodeServer(uniqueId);
+
+        if (clusterNodeServer != null) return clusterNodeServer.addServiceRemoteInclusionToCloudServiceAsync(uniqueId, serviceRemoteInclusion);
+
         return scheduleTask(new Callable<ServiceInfoSnapshot>() {
             @Override
             public ServiceInfoSnapshot call() throws Exception
@@ -1351,6 +1426,10 @@ public final class CloudNet extends CloudNetDriver {
         Validate.checkNotNull(uniqueId);
         Validate.checkNotNull(serviceDeployment);
 
+        IClusterNodeServer clusterNodeServer = this.getRemoteNodeServer(uniqueId);
+
+        if (clusterNodeServer != null) return clusterNodeServer.addServiceDeploymentToCloudServiceAsync(uniqueId, serviceDeployment);
+
         return scheduleTask(new Callable<ServiceInfoSnapshot>() {
             @Override
             public ServiceInfoSnapshot call() throws Exception
@@ -1365,6 +1444,10 @@ public final class CloudNet extends CloudNetDriver {
     {
         Validate.checkNotNull(uniqueId);
 
+        IClusterNodeServer clusterNodeServer = this.getRemoteNodeServer(uniqueId);
+
+        if (clusterNodeServer != null) return clusterNodeServer.getCachedLogMessagesFromServiceAsync(uniqueId);
+
         return scheduleTask(new Callable<Queue<String>>() {
             @Override
             public Queue<String> call() throws Exception
@@ -1934,14 +2017,24 @@ public final class CloudNet extends CloudNetDriver {
         this.getClusterNodeServerProvider().deployTemplateInCluster(serviceTemplate, resource);
     }
 
+    public void deployTemplateInCluster(ServiceTemplate serviceTemplate, Path directory)
+    {
+        Validate.checkNotNull(serviceTemplate);
+        Validate.checkNotNull(directory);
+
+        this.getClusterNodeServerProvider().deployTemplateInCluster(serviceTemplate, directory);
+    }
+
     public void updateServiceTasksInCluster()
     {
         this.getClusterNodeServerProvider().sendPacket(new PacketServerSetServiceTaskList(this.getCloudServiceManager().getServiceTasks()));
+        this.publishServiceTasksToCloudServices();
     }
 
     public void updateGroupConfigurationsInCluster()
     {
         this.getClusterNodeServerProvider().sendPacket(new PacketServerSetGroupConfigurationList(this.getCloudServiceManager().getGroupConfigurations()));
+        this.publishGroupConfigurationsToCloudServices();
     }
 
     public ITask<Void> sendAllAsync(IPacket packet)
@@ -1960,12 +2053,101 @@ public final class CloudNet extends CloudNetDriver {
     {
         Validate.checkNotNull(packet);
 
+        Collection<INetworkChannel> channels = Iterables.newArrayList();
+
         for (IClusterNodeServer clusterNodeServer : getClusterNodeServerProvider().getNodeServers())
-            clusterNodeServer.saveSendPacket(packet);
+            if (clusterNodeServer.getChannel() != null)
+                channels.add(clusterNodeServer.getChannel());
+
+        for (ICloudService cloudService : getCloudServiceManager().getCloudServices().values())
+            if (cloudService.getNetworkChannel() != null)
+                channels.add(cloudService.getNetworkChannel());
+
+        NettyPacketBroadcaster.broadcast(channels, packet);
+    }
+
+    /**
+     * Sends the packet to all connected cloud services of this node. The packet is only encoded once for all services
+     */
+    public void sendAllCloudServices(IPacket packet)
+    {
+        Validate.checkNotNull(packet);
+
+        Collection<INetworkChannel> channels = Iterables.newArrayList();
 
         for (ICloudService cloudService : getCloudServiceManager().getCloudServices().values())
             if (cloudService.getNetworkChannel() != null)
-                cloudService.getNetworkChannel().sendPacket(packet);
+                channels.add(cloudService.getNetworkChannel());
+
+        NettyPacketBroadcaster.broadcast(channels, packet);
+    }
+
+    /**
+     * Publishes the change of a service to all cluster nodes and to the cloud services of this node
+     */
+    public void publishServiceInfoSnapshot(ServiceInfoSnapshot serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType publisherType)
+    {
+        Validate.checkNotNull(serviceInfoSnapshot);
+        Validate.checkNotNull(publisherType);
+
+        this.getClusterNodeServerProvider().sendPacket(new PacketClientServerServiceInfoPublisher(serviceInfoSnapshot, publisherType));
+        this.publishServiceInfoSnapshotToCloudServices(serviceInfoSnapshot, publisherType);
+    }
+
+    /**
+     * Publishes the change of a service with the next replication sequence to the cloud services of this node, which
+     * replicate the services, tasks and groups
+     */
+    public void publishServiceInfoSnapshotToCloudServices(ServiceInfoSnapshot serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType publisherType)
+    {
+        Validate.checkNotNull(serviceInfoSnapshot);
+        Validate.checkNotNull(publisherType);
+
+        synchronized (this.replicationSequence)
+        {
+            this.sendAllCloudServices(new PacketClientServerServiceInfoPublisher(serviceInfoSnapshot, publisherType, this.replicationSequence.incrementAndGet()));
+        }
+    }
+
+    /**
+     * Publishes the current service tasks with the next replication sequence to the cloud services of this node
+     */
+    public void publishServiceTasksToCloudServices()
+    {
+        synchronized (this.replicationSequence)
+        {
+            this.sendAllCloudServices(new PacketServerServiceConfigurationPublisher(
+                Iterables.newArrayList(this.cloudServiceManager.getServiceTasks()), null, this.replicationSequence.incrementAndGet()));
+        }
+    }
+
+    /**
+     * Publishes the current group configurations with the next replication sequence to the cloud services of this node
+     */
+    public void publishGroupConfigurationsToCloudServices()
+    {
+        synchronized (this.replicationSequence)
+        {
+            this.sendAllCloudServices(new PacketServerServiceConfigurationPublisher(
+                null, Iterables.newArrayList(this.cloudServiceManager.getGroupConfigurations()), this.replicationSequence.incrementAndGet()));
+        }
+    }
+
+    /**
+     * Creates the snapshot of all services, tasks and groups with the current replication sequence, from that the
+     * cloud services bootstrap their replicated state
+     */
+    public ServiceRegistrySnapshot createServiceRegistrySnapshot()
+    {
+        synchronized (this.replicationSequence)
+        {
+            return new ServiceRegistrySnapshot(
+                this.replicationSequence.get(),
+                Iterables.newArrayList(this.cloudServiceManager.getGlobalServiceInfoSnapshots().values()),
+                Iterables.newArrayList(this.cloudServiceManager.getServiceTasks()),
+                Iterables.newArrayList(this.cloudServiceManager.getGroupConfigurations())
+            );
+        }
     }
 
     public ITask<Void> sendAllAsync(IPacket... packets)
@@ -2133,49 +2315,90 @@ public final class CloudNet extends CloudNetDriver {
             ));
     }
 
+    /**
+     * Sends the data of the h2 databases to the node of the channel. Nodes with an older wire version receive all
+     * documents in one packet
+     */
     public void publishH2DatabaseDataToCluster(INetworkChannel channel)
     {
         if (channel != null)
-            if (databaseProvider instanceof H2DatabaseProvider)
-            {
-                Map<String, Map<String, JsonDocument>> map = allocateDatabaseData();
+            if (getH2DatabaseProvider() != null)
+                publishH2DatabaseData(new Consumer<IPacket>() {
+                    @Override
+                    public void accept(IPacket packet)
+                    {
+                        channel.sendPacket(packet);
+                    }
+                }, channel.getPacketWireVersion() >= PacketWireVersion.CHUNKED_H2_DATABASE_DATA);
+    }
 
-                channel.sendPacket(new PacketServerSetH2DatabaseData(map));
+    public void publishH2DatabaseDataToCluster()
+    {
+        if (getH2DatabaseProvider() != null)
+            for (IClusterNodeServer nodeServer : clusterNodeServerProvider.getNodeServers())
+                publishH2DatabaseDataToCluster(nodeServer.getChannel());
+    }
 
-                for (Map.Entry<String, Map<String, JsonDocument>> entry : map.entrySet())
-                    entry.getValue().clear();
+    /**
+     * Returns the h2 database provider of this node, also if it's wrapped by the cache of the databases, or null, if
+     * the node uses an other database provider
+     */
+    public H2DatabaseProvider getH2DatabaseProvider()
+    {
+        AbstractDatabaseProvider databaseProvider = this.databaseProvider instanceof CachedDatabaseProvider ?
+            ((CachedDatabaseProvider) this.databaseProvider).getDatabaseProvider() : this.databaseProvider;
 
-                map.clear();
-            }
+        return databaseProvider instanceof H2DatabaseProvider ? (H2DatabaseProvider) databaseProvider : null;
     }
 
-    public void publishH2DatabaseDataToCluster()
+    /**
+     * Sends the data of all databases in packets with max H2_DATABASE_DATA_CHUNK_SIZE documents. The documents are read
+     * with the cursors of the databases, so only the documents of one packet are held in the memory
+     *
+     * @param chunked false, if all documents should be sent in one legacy packet
+     */
+    private void publishH2DatabaseData(Consumer<IPacket> sender, boolean chunked)
     {
-        if (databaseProvider instanceof H2DatabaseProvider)
+        Collection<String> databaseNames = databaseProvider.getDatabaseNames();
+
+        Map<String, Map<String, JsonDocument>> documents = Maps.newHashMap();
+        Collection<String> clearedDatabases = Iterables.newArrayList();
+        boolean first = true;
+        int size = 0;
+
+        for (String name : databaseNames)
         {
-            Map<String, Map<String, JsonDocument>> map = allocateDatabaseData();
+            documents.put(name, Maps.newHashMap());
+            clearedDatabases.add(name);
 
-            clusterNodeServerProvider.sendPacket(new PacketServerSetH2DatabaseData(map));
+            try (Stream<Map.Entry<String, JsonDocument>> stream = databaseProvider.getDatabase(name).stream())
+            {
+                Iterator<Map.Entry<String, JsonDocument>> iterator = stream.iterator();
 
-            for (Map.Entry<String, Map<String, JsonDocument>> entry : map.entrySet())
-                entry.getValue().clear();
+                while (iterator.hasNext())
+                {
+                    Map.Entry<String, JsonDocument> entry = iterator.next();
 
-            map.clear();
-        }
-    }
+                    if (!documents.containsKey(name)) documents.put(name, Maps.newHashMap());
+                    documents.get(name).put(entry.getKey(), entry.getValue());
 
-    private Map<String, Map<String, JsonDocument>> allocateDatabaseData()
-    {
-        Map<String, Map<String, JsonDocument>> map = Maps.newHashMap();
+                    if (++size >= H2_DATABASE_DATA_CHUNK_SIZE && chunked)
+                    {
+                        sender.accept(new PacketServerSetH2DatabaseData(documents, clearedDatabases, first ? databaseNames : null));
 
-        for (String name : databaseProvider.getDatabaseNames())
-        {
-            if (!map.containsKey(name)) map.put(name, Maps.newHashMap());
-            IDatabase database = databaseProvider.getDatabase(name);
-            map.get(name).putAll(database.entries());
+                        documents = Maps.newHashMap();
+                        clearedDatabases = Iterables.newArrayList();
+                        first = false;
+                        size = 0;
+                    }
+                }
+            }
         }
 
-        return map;
+        if (!chunked)
+            sender.accept(new PacketServerSetH2DatabaseData(documents));
+        else if (first || !documents.isEmpty())
+            sender.accept(new PacketServerSetH2DatabaseData(documents, clearedDatabases, first ? databaseNames : null));
     }
 
     /*= -------------------------------------------------------------------------------------------- =*/
@@ -2205,8 +2428,11 @@ public final class CloudNet extends CloudNetDriver {
         this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CALLABLE_CHANNEL, new PacketClientCallablePacketReceiveListener());
         this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CALLABLE_CHANNEL, new PacketClientSyncAPIPacketListener());
         this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CALLABLE_CHANNEL, new PacketClusterSyncAPIPacketListener());
+        this.rpcServiceRegistry.registerService(ICloudServiceInfoProvider.class, new DefaultCloudServiceInfoProvider(this));
+        this.rpcServiceRegistry.registerService(IServiceRegistrySnapshotProvider.class, new DefaultServiceRegistrySnapshotProvider(this));
         //-
         this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_PACKET_CLUSTER_MESSAGE_CHANNEL, new PacketServerClusterChannelMessageListener());
+        this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CHUNKED_PACKET_CHANNEL, new PacketServerDeployLocalTemplateChunkListener());
         //-
         //- Packet server registry
         this.getNetworkServer().getPacketRegistry().addListener(PacketConstants.INTERNAL_AUTHORIZATION_CHANNEL, new PacketClientAuthorizationListener());
@@ -2586,11 +2812,37 @@ public final class CloudNet extends CloudNetDriver {
             new CommandModules(),
             new CommandLocalTemplate(),
             new CommandMe(),
+            new CommandEvents(),
             new CommandScreen(),
             new CommandPermissions()
         );
     }
 
+    /**
+     * Returns the connected server of the node, if it's not this node. The remote calls are sent with the
+     * asynchronous methods of the node server, so no thread of the scheduler waits for the response
+     */
+    private IClusterNodeServer getConnectedNodeServer(String nodeUniqueId)
+    {
+        if (nodeUniqueId == null || this.getConfig().getIdentity().getUniqueId().equals(nodeUniqueId)) return null;
+
+        IClusterNodeServer clusterNodeServer = this.clusterNodeServerProvider.getNodeServer(nodeUniqueId);
+
+        return clusterNodeServer != null && clusterNodeServer.isConnected() && clusterNodeServer.getChannel() != null ? clusterNodeServer : null;
+    }
+
+    /**
+     * Returns the connected server of the node, on that the service runs, or null, if the service is a local service
+     */
+    private IClusterNodeServer getRemoteNodeServer(UUID uniqueId)
+    {
+        if (this.cloudServiceManager.getCloudService(uniqueId) != null) return null;
+
+        ServiceInfoSnapshot serviceInfoSnapshot = this.cloudServiceManager.getServiceInfoSnapshot(uniqueId);
+
+        return serviceInfoSnapshot != null ? this.getConnectedNodeServer(serviceInfoSnapshot.getServiceId().getNodeUniqueId()) : null;
+    }
+
     private <T> ITask<T> scheduleTask(Callable<T> callable)
     {
         ITask<T> task = new ListenableTask<>(callable);
@@ -2642,6 +2894,9 @@ public final class CloudNet extends CloudNetDriver {
     {
         this.configurationRegistry.getString("permission_service", "json_database");
         this.configurationRegistry.getString("database_provider", "h2");
+        this.configurationRegistry.getInt("database_cache_size", 1024);
+        this.configurationRegistry.getInt("database_cache_write_behind_millis", 0);
+        this.configurationRegistry.getInt("database_h2_pool_size", 1);
 
         this.configurationRegistry.save();
     }
@@ -2665,7 +2920,8 @@ public final class CloudNet extends CloudNetDriver {
             }));
 
         this.servicesRegistry.registerService(AbstractDatabaseProvider.class, "h2",
-            new H2DatabaseProvider(System.getProperty("cloudnet.database.h2.path", "local/database/h2"), taskScheduler));
+            new H2DatabaseProvider(System.getProperty("cloudnet.database.h2.path", "local/database/h2"),
+                this.configurationRegistry.getInt("database_h2_pool_size", 1)));
     }
 
     private void runConsole()
@@ -4,6 +4,8 @@ import com.google.gson.reflect.TypeToken;
 import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
@@ -11,15 +13,22 @@ import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNode;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot;
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerChannelMessage;
+import de.dytanic.cloudnet.driver.network.protocol.ChunkedPacketOutputStream;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
 import de.dytanic.cloudnet.driver.service.*;
 import de.dytanic.cloudnet.network.packet.PacketServerClusterChannelMessage;
 import de.dytanic.cloudnet.network.packet.PacketServerDeployLocalTemplate;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
@@ -93,33 +102,38 @@ public final class DefaultClusterNodeServer implements IClusterNodeServer {
     @Override
     public String[] sendCommandLine(String commandLine)
     {
-        Validate.checkNotNull(commandLine);
-
-        if (this.channel != null && this.isConnected())
+        try
         {
-            try
-            {
-                return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(channel,
-                    new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "send_commandLine")
-                        .append("commandLine", commandLine)
-                    , new byte[0],
-                    new Function<Pair<JsonDocument, byte[]>, String[]>() {
-                        @Override
-                        public String[] apply(Pair<JsonDocument, byte[]> documentPair)
-                        {
-                            return documentPair.getFirst().get("responseMessages", new TypeToken<String[]>() {
-                            }.getType());
-                        }
-                    }).get(5, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException e)
-            {
-                e.printStackTrace();
-            }
+            return this.sendCommandLineAsync(commandLine).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e)
+        {
+            e.printStackTrace();
         }
 
         return null;
     }
 
+    @Override
+    public ITask<String[]> sendCommandLineAsync(String commandLine)
+    {
+        Validate.checkNotNull(commandLine);
+
+        if (this.channel == null || !this.isConnected()) return ListenableTask.completedTask(null);
+
+        return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(channel,
+            new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "send_commandLine")
+                .append("commandLine", commandLine)
+            , new byte[0],
+            new Function<Pair<JsonDocument, byte[]>, String[]>() {
+                @Override
+                public String[] apply(Pair<JsonDocument, byte[]> documentPair)
+                {
+                    return documentPair.getFirst().get("responseMessages", new TypeToken<String[]>() {
+                    }.getType());
+                }
+            });
+    }
+
     @Override
     public void deployTemplateInCluster(ServiceTemplate serviceTemplate, byte[] zipResource)
     {
@@ -127,61 +141,103 @@ public final class DefaultClusterNodeServer implements IClusterNodeServer {
     }
 
     @Override
-    public ServiceInfoSnapshot createCloudService(ServiceTask serviceTask)
+    public void deployTemplateInCluster(ServiceTemplate serviceTemplate, Path directory)
     {
-        Validate.checkNotNull(serviceTask);
+        Validate.checkNotNull(serviceTemplate);
+        Validate.checkNotNull(directory);
 
-        if (this.channel != null && this.isConnected())
+        this.provider.deployTemplateInCluster(serviceTemplate, directory, Collections.<IClusterNodeServer>singletonList(this));
+    }
+
+    @Override
+    public void deployTemplateArchiveInCluster(ServiceTemplate serviceTemplate, Path zipFile) throws IOException
+    {
+        Validate.checkNotNull(serviceTemplate);
+        Validate.checkNotNull(zipFile);
+
+        INetworkChannel channel = this.channel;
+
+        if (channel == null) return;
+
+        if (channel.getPacketWireVersion() < PacketWireVersion.CHUNKED_TRANSFER)
         {
-            try
-            {
-                return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
-                    new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "create_CloudService_by_serviceTask").append("serviceTask", serviceTask), new byte[0],
-                    new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
-                        @Override
-                        public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
-                        {
-                            return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
-                            }.getType());
-                        }
-                    }).get(5, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException e)
-            {
-                e.printStackTrace();
-            }
+            this.deployTemplateInCluster(serviceTemplate, Files.readAllBytes(zipFile));
+            return;
+        }
+
+        try (InputStream inputStream = Files.newInputStream(zipFile))
+        {
+            ChunkedPacketOutputStream.transfer(channel, PacketConstants.INTERNAL_CHUNKED_PACKET_CHANNEL,
+                new JsonDocument("command", "deploy_template").append("serviceTemplate", serviceTemplate), inputStream);
+        }
+    }
+
+    @Override
+    public ServiceInfoSnapshot createCloudService(ServiceTask serviceTask)
+    {
+        try
+        {
+            return this.createCloudServiceAsync(serviceTask).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e)
+        {
+            e.printStackTrace();
         }
 
         return null;
     }
 
     @Override
-    public ServiceInfoSnapshot createCloudService(ServiceConfiguration serviceConfiguration)
+    public ITask<ServiceInfoSnapshot> createCloudServiceAsync(ServiceTask serviceTask)
     {
-        Validate.checkNotNull(serviceConfiguration);
+        Validate.checkNotNull(serviceTask);
 
-        if (this.channel != null && this.isConnected())
+        if (this.channel == null || !this.isConnected()) return ListenableTask.completedTask(null);
+
+        return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
+            new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "create_CloudService_by_serviceTask").append("serviceTask", serviceTask), new byte[0],
+            new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
+                @Override
+                public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
+                {
+                    return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
+                    }.getType());
+                }
+            });
+    }
+
+    @Override
+    public ServiceInfoSnapshot createCloudService(ServiceConfiguration serviceConfiguration)
+    {
+        try
         {
-            try
-            {
-                return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
-                    new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "create_CloudService_by_serviceConfiguration").append("serviceConfiguration", serviceConfiguration), new byte[0],
-                    new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
-                        @Override
-                        public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
-                        {
-                            return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
-                            }.getType());
-                        }
-                    }).get(5, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException e)
-            {
-                e.printStackTrace();
-            }
+            return this.createCloudServiceAsync(serviceConfiguration).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e)
+        {
+            e.printStackTrace();
         }
 
         return null;
     }
 
+    @Override
+    public ITask<ServiceInfoSnapshot> createCloudServiceAsync(ServiceConfiguration serviceConfiguration)
+    {
+        Validate.checkNotNull(serviceConfiguration);
+
+        if (this.channel == null || !this.isConnected()) return ListenableTask.completedTask(null);
+
+        return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
+            new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "create_CloudService_by_serviceConfiguration").append("serviceConfiguration", serviceConfiguration), new byte[0],
+            new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
+                @Override
+                public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
+                {
+                    return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
+                    }.getType());
+                }
+            });
+    }
+
     @Override
     public ServiceInfoSnapshot createCloudService(
         String name, String runtime, boolean autoDeleteOnStop, boolean staticService, Collection<ServiceRemoteInclusion> includes, Collection<ServiceTemplate> templates,
@@ -233,6 +289,23 @@ public final class DefaultClusterNodeServer implements IClusterNodeServer {
         String nodeUniqueId, int amount, String name, String runtime, boolean autoDeleteOnStop, boolean staticService,
         Collection<ServiceRemoteInclusion> includes, Collection<ServiceTemplate> templates, Collection<ServiceDeployment> deployments,
         Collection<String> groups, ProcessConfiguration processConfiguration, Integer port)
+    {
+        try
+        {
+            return this.createCloudServiceAsync(nodeUniqueId, amount, name, runtime, autoDeleteOnStop, staticService, includes, templates, deployments, groups, processConfiguration, port).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e)
+        {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    @Override
+    public ITask<Collection<ServiceInfoSnapshot>> createCloudServiceAsync(
+        String nodeUniqueId, int amount, String name, String runtime, boolean autoDeleteOnStop, boolean staticService,
+        Collection<ServiceRemoteInclusion> includes, Collection<ServiceTemplate> templates, Collection<ServiceDeployment> deployments,
+        Collection<String> groups, ProcessConfiguration processConfiguration, Integer port)
     {
         Validate.checkNotNull(nodeUniqueId);
         Validate.checkNotNull(name);
@@ -242,195 +315,214 @@ public final class DefaultClusterNodeServer implements IClusterNodeServer {
         Validate.checkNotNull(groups);
         Validate.checkNotNull(processConfiguration);
 
-        if (this.channel != null && this.isConnected())
+        if (this.channel == null || !this.isConnected()) return ListenableTask.completedTask(null);
+
+        return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
+            new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "create_cloud_service_custom_selected_node_and_amount")
+                .append("nodeUniqueId", nodeUniqueId)
+                .append("amount", amount)
+                .append("name", name)
+                .append("runtime", runtime)
+                .append("autoDeleteOnStop", autoDeleteOnStop)
+                .append("staticService", staticService)
+                .append("includes", includes)
+                .append("templates", templates)
+                .append("deployments", deployments)
+                .append("groups", groups)
+                .append("processConfiguration", processConfiguration)
+                .append("port", port),
+            new byte[0],
+            new Function<Pair<JsonDocument, byte[]>, Collection<ServiceInfoSnapshot>>() {
+                @Override
+                public Collection<ServiceInfoSnapshot> apply(Pair<JsonDocument, byte[]> documentPair)
+                {
+                    return documentPair.getFirst().get("serviceInfoSnapshots", new TypeToken<Collection<ServiceInfoSnapshot>>() {
+                    }.getType());
+                }
+            });
+    }
+
+    @Override
+    public ServiceInfoSnapshot sendCommandLineToCloudService(UUID uniqueId, String commandLine)
+    {
+        try
         {
-            try
-            {
-                return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
-                    new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "create_cloud_service_custom_selected_node_and_amount")
-                        .append("nodeUniqueId", nodeUniqueId)
-                        .append("amount", amount)
-                        .append("name", name)
-                        .append("runtime", runtime)
-                        .append("autoDeleteOnStop", autoDeleteOnStop)
-                        .append("staticService", staticService)
-                        .append("includes", includes)
-                        .append("templates", templates)
-                        .append("deployments", deployments)
-                        .append("groups", groups)
-                        .append("processConfiguration", processConfiguration)
-                        .append("port", port),
-                    new byte[0],
-                    new Function<Pair<JsonDocument, byte[]>, Collection<ServiceInfoSnapshot>>() {
-                        @Override
-                        public Collection<ServiceInfoSnapshot> apply(Pair<JsonDocument, byte[]> documentPair)
-                        {
-                            return documentPair.getFirst().get("serviceInfoSnapshots", new TypeToken<Collection<ServiceInfoSnapshot>>() {
-                            }.getType());
-                        }
-                    }).get(5, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException e)
-            {
-                e.printStackTrace();
-            }
+            return this.sendCommandLineToCloudServiceAsync(uniqueId, commandLine).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e)
+        {
+            e.printStackTrace();
         }
 
         return null;
     }
 
     @Override
-    public ServiceInfoSnapshot sendCommandLineToCloudService(UUID uniqueId, String commandLine)
+    public ITask<ServiceInfoSnapshot> sendCommandLineToCloudServiceAsync(UUID uniqueId, String commandLine)
     {
         Validate.checkNotNull(uniqueId);
         Validate.checkNotNull(commandLine);
 
-        if (this.channel != null && this.isConnected())
+        if (this.channel == null || !this.isConnected()) return ListenableTask.completedTask(null);
+
+        return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
+            new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "send_commandline_to_cloud_service")
+                .append("uniqueId", uniqueId)
+                .append("commandLine", commandLine)
+            , new byte[0],
+            new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
+                @Override
+                public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
+                {
+                    return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
+                    }.getType());
+                }
+            });
+    }
+
+    @Override
+    public ServiceInfoSnapshot addServiceTemplateToCloudService(UUID uniqueId, ServiceTemplate serviceTemplate)
+    {
+        try
         {
-            try
-            {
-                return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
-                    new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "send_commandline_to_cloud_service")
-                        .append("uniqueId", uniqueId)
-                        .append("commandLine", commandLine)
-                    , new byte[0],
-                    new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
-                        @Override
-                        public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
-                        {
-                            return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
-                            }.getType());
-                        }
-                    }).get(5, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException e)
-            {
-                e.printStackTrace();
-            }
+            return this.addServiceTemplateToCloudServiceAsync(uniqueId, serviceTemplate).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e)
+        {
+            e.printStackTrace();
         }
+
         return null;
     }
 
     @Override
-    public ServiceInfoSnapshot addServiceTemplateToCloudService(UUID uniqueId, ServiceTemplate serviceTemplate)
+    public ITask<ServiceInfoSnapshot> addServiceTemplateToCloudServiceAsync(UUID uniqueId, ServiceTemplate serviceTemplate)
     {
         Validate.checkNotNull(uniqueId);
         Validate.checkNotNull(serviceTemplate);
 
-        if (this.channel != null && this.isConnected())
+        if (this.channel == null || !this.isConnected()) return ListenableTask.completedTask(null);
+
+        return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
+            new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "add_service_template_to_cloud_service")
+                .append("uniqueId", uniqueId)
+                .append("serviceTemplate", serviceTemplate)
+            , new byte[0],
+            new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
+                @Override
+                public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
+                {
+                    return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
+                    }.getType());
+                }
+            });
+    }
+
+    @Override
+    public ServiceInfoSnapshot addServiceRemoteInclusionToCloudService(UUID uniqueId, ServiceRemoteInclusion serviceRemoteInclusion)
+    {
+        try
         {
-            try
-            {
-                return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
-                    new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "add_service_template_to_cloud_service")
-                        .append("uniqueId", uniqueId)
-                        .append("serviceTemplate", serviceTemplate)
-                    , new byte[0],
-                    new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
-                        @Override
-                        public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
-                        {
-                            return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
-                            }.getType());
-                        }
-                    }).get(5, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException e)
-            {
-                e.printStackTrace();
-            }
+            return this.addServiceRemoteInclusionToCloudServiceAsync(uniqueId, serviceRemoteInclusion).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e)
+        {
+            e.printStackTrace();
         }
+
         return null;
     }
 
     @Override
-    public ServiceInfoSnapshot addServiceRemoteInclusionToCloudService(UUID uniqueId, ServiceRemoteInclusion serviceRemoteInclusion)
+    public ITask<ServiceInfoSnapshot> addServiceRemoteInclusionToCloudServiceAsync(UUID uniqueId, ServiceRemoteInclusion serviceRemoteInclusion)
     {
         Validate.checkNotNull(uniqueId);
         Validate.checkNotNull(serviceRemoteInclusion);
 
-        if (this.channel != null && this.isConnected())
+        if (this.channel == null || !this.isConnected()) return ListenableTask.completedTask(null);
+
+        return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
+            new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "add_service_remote_inclusion_to_cloud_service")
+                .append("uniqueId", uniqueId)
+                .append("serviceRemoteInclusion", serviceRemoteInclusion)
+            , new byte[0],
+            new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
+                @Override
+                public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
+                {
+                    return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
+                    }.getType());
+                }
+            });
+    }
+
+    @Override
+    public ServiceInfoSnapshot addServiceDeploymentToCloudService(UUID uniqueId, ServiceDeployment serviceDeployment)
+    {
+        try
         {
-            try
-            {
-                return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
-                    new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "add_service_remote_inclusion_to_cloud_service")
-                        .append("uniqueId", uniqueId)
-                        .append("serviceRemoteInclusion", serviceRemoteInclusion)
-                    , new byte[0],
-                    new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
-                        @Override
-                        public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
-                        {
-                            return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
-                            }.getType());
-                        }
-                    }).get(5, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException e)
-            {
-                e.printStackTrace();
-            }
+            return this.addServiceDeploymentToCloudServiceAsync(uniqueId, serviceDeployment).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e)
+        {
+            e.printStackTrace();
         }
+
         return null;
     }
 
     @Override
-    public ServiceInfoSnapshot addServiceDeploymentToCloudService(UUID uniqueId, ServiceDeployment serviceDeployment)
+    public ITask<ServiceInfoSnapshot> addServiceDeploymentToCloudServiceAsync(UUID uniqueId, ServiceDeployment serviceDeployment)
     {
         Validate.checkNotNull(uniqueId);
         Validate.checkNotNull(serviceDeployment);
 
-        if (this.channel != null && this.isConnected())
+        if (this.channel == null || !this.isConnected()) return ListenableTask.completedTask(null);
+
+        return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
+            new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "add_service_deployment_to_cloud_service")
+                .append("uniqueId", uniqueId)
+                .append("serviceDeployment", serviceDeployment)
+            , new byte[0],
+            new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
+                @Override
+                public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
+                {
+                    return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
+                    }.getType());
+                }
+            });
+    }
+
+    @Override
+    public Queue<String> getCachedLogMessagesFromService(UUID uniqueId)
+    {
+        try
         {
-            try
-            {
-                return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
-                    new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "add_service_deployment_to_cloud_service")
-                        .append("uniqueId", uniqueId)
-                        .append("serviceDeployment", serviceDeployment)
-                    , new byte[0],
-                    new Function<Pair<JsonDocument, byte[]>, ServiceInfoSnapshot>() {
-                        @Override
-                        public ServiceInfoSnapshot apply(Pair<JsonDocument, byte[]> documentPair)
-                        {
-                            return documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
-                            }.getType());
-                        }
-                    }).get(5, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException e)
-            {
-                e.printStackTrace();
-            }
+            return this.getCachedLogMessagesFromServiceAsync(uniqueId).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e)
+        {
+            e.printStackTrace();
         }
 
         return null;
     }
 
     @Override
-    public Queue<String> getCachedLogMessagesFromService(UUID uniqueId)
+    public ITask<Queue<String>> getCachedLogMessagesFromServiceAsync(UUID uniqueId)
     {
         Validate.checkNotNull(uniqueId);
 
-        if (this.channel != null && this.isConnected())
-        {
-            try
-            {
-                return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
-                    new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cached_log_messages_from_service")
-                        .append("uniqueId", uniqueId)
-                    , new byte[0],
-                    new Function<Pair<JsonDocument, byte[]>, Queue<String>>() {
-                        @Override
-                        public Queue<String> apply(Pair<JsonDocument, byte[]> documentPair)
-                        {
-                            return documentPair.getFirst().get("cachedLogMessages", new TypeToken<Queue<String>>() {
-                            }.getType());
-                        }
-                    }).get(5, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException e)
-            {
-                e.printStackTrace();
-            }
-        }
-
-        return null;
+        if (this.channel == null || !this.isConnected()) return ListenableTask.completedTask(null);
+
+        return CloudNetDriver.getInstance().sendCallablePacketWithAsDriverSyncAPI(this.channel,
+            new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cached_log_messages_from_service")
+                .append("uniqueId", uniqueId)
+            , new byte[0],
+            new Function<Pair<JsonDocument, byte[]>, Queue<String>>() {
+                @Override
+                public Queue<String> apply(Pair<JsonDocument, byte[]> documentPair)
+                {
+                    return documentPair.getFirst().get("cachedLogMessages", new TypeToken<Queue<String>>() {
+                    }.getType());
+                }
+            });
     }
 
     @Override
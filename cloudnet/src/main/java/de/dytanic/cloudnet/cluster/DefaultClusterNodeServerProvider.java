@@ -3,16 +3,25 @@ package de.dytanic.cloudnet.cluster;
 import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkCluster;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNode;
+import de.dytanic.cloudnet.driver.network.netty.NettyPacketBroadcaster;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
 import de.dytanic.cloudnet.network.packet.PacketServerDeployLocalTemplate;
 import lombok.Getter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 @Getter
@@ -74,8 +83,13 @@ public final class DefaultClusterNodeServerProvider implements IClusterNodeServe
     {
         Validate.checkNotNull(packet);
 
+        Collection<INetworkChannel> channels = Iterables.newArrayList();
+
         for (IClusterNodeServer nodeServer : this.servers.values())
-            nodeServer.saveSendPacket(packet);
+            if (nodeServer.getChannel() != null)
+                channels.add(nodeServer.getChannel());
+
+        NettyPacketBroadcaster.broadcast(channels, packet);
     }
 
     @Override
@@ -93,6 +107,82 @@ public final class DefaultClusterNodeServerProvider implements IClusterNodeServe
         this.sendPacket(new PacketServerDeployLocalTemplate(serviceTemplate, zipResource));
     }
 
+    @Override
+    public void deployTemplateInCluster(ServiceTemplate serviceTemplate, Path directory)
+    {
+        Validate.checkNotNull(serviceTemplate);
+        Validate.checkNotNull(directory);
+
+        Collection<IClusterNodeServer> nodeServers = Iterables.newArrayList();
+
+        for (IClusterNodeServer nodeServer : this.servers.values())
+            if (nodeServer.isConnected())
+                nodeServers.add(nodeServer);
+
+        this.deployTemplateInCluster(serviceTemplate, directory, nodeServers);
+    }
+
+    /**
+     * Zips the directory once into a temporary file in the task scheduler and sends it to every node in an own task,
+     * so a slow node doesn't delay the other ones. The file is deleted, after the archive was sent to all nodes
+     */
+    void deployTemplateInCluster(ServiceTemplate serviceTemplate, Path directory, Collection<IClusterNodeServer> nodeServers)
+    {
+        if (nodeServers.isEmpty()) return;
+
+        ITaskScheduler taskScheduler = CloudNetDriver.getInstance().getTaskScheduler();
+
+        taskScheduler.schedule(new Runnable() {
+            @Override
+            public void run()
+            {
+                Path zipFile;
+
+                try
+                {
+                    zipFile = Files.createTempFile("cloudnet-template-", ".zip");
+
+                    try (OutputStream outputStream = Files.newOutputStream(zipFile))
+                    {
+                        FileUtils.convert(outputStream, directory);
+                    }
+
+                } catch (IOException ex)
+                {
+                    ex.printStackTrace();
+                    return;
+                }
+
+                AtomicInteger remainingTransfers = new AtomicInteger(nodeServers.size());
+
+                for (IClusterNodeServer nodeServer : nodeServers)
+                    taskScheduler.schedule(new Runnable() {
+                        @Override
+                        public void run()
+                        {
+                            try
+                            {
+                                nodeServer.deployTemplateArchiveInCluster(serviceTemplate, zipFile);
+                            } catch (IOException ex)
+                            {
+                                ex.printStackTrace();
+                            } finally
+                            {
+                                if (remainingTransfers.decrementAndGet() == 0)
+                                    try
+                                    {
+                                        Files.deleteIfExists(zipFile);
+                                    } catch (IOException ex)
+                                    {
+                                        ex.printStackTrace();
+                                    }
+                            }
+                        }
+                    });
+            }
+        });
+    }
+
     @Override
     public void close() throws Exception
     {
@@ -1,5 +1,6 @@
 package de.dytanic.cloudnet.cluster;
 
+import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNode;
@@ -7,6 +8,8 @@ import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.service.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Queue;
 import java.util.UUID;
@@ -39,12 +42,41 @@ public interface IClusterNodeServer extends AutoCloseable {
 
     String[] sendCommandLine(String commandLine);
 
+    /**
+     * Sends the command line to the node and returns a task, which is completed with the response from the network
+     * thread. The task is completed with null, if the node is not connected
+     */
+    ITask<String[]> sendCommandLineAsync(String commandLine);
+
     void deployTemplateInCluster(ServiceTemplate serviceTemplate, byte[] zipResource);
 
+    /**
+     * Sends the directory as zip archive to the node, without to hold the archive in the memory. The directory is
+     * zipped and sent asynchronously
+     *
+     * @param serviceTemplate the template, in that the node should extract the archive
+     * @param directory       the directory, which should be deployed
+     */
+    void deployTemplateInCluster(ServiceTemplate serviceTemplate, Path directory);
+
+    /**
+     * Sends an existing zip archive to the node. The archive is sent as chunked transfer, if the node supports it.
+     * The method blocks until the archive is sent
+     *
+     * @param serviceTemplate the template, in that the node should extract the archive
+     * @param zipFile         the zip archive of the template
+     * @throws IOException if the archive can't be read or the transfer is interrupted
+     */
+    void deployTemplateArchiveInCluster(ServiceTemplate serviceTemplate, Path zipFile) throws IOException;
+
     ServiceInfoSnapshot createCloudService(ServiceTask serviceTask);
 
+    ITask<ServiceInfoSnapshot> createCloudServiceAsync(ServiceTask serviceTask);
+
     ServiceInfoSnapshot createCloudService(ServiceConfiguration serviceConfiguration);
 
+    ITask<ServiceInfoSnapshot> createCloudServiceAsync(ServiceConfiguration serviceConfiguration);
+
     ServiceInfoSnapshot createCloudService(String name, String runtime, boolean autoDeleteOnStop, boolean staticService, Collection<ServiceRemoteInclusion> includes,
                                            Collection<ServiceTemplate> templates, Collection<ServiceDeployment> deployments,
                                            Collection<String> groups, ProcessConfiguration processConfiguration, Integer port);
@@ -54,16 +86,31 @@ public interface IClusterNodeServer extends AutoCloseable {
         Collection<ServiceRemoteInclusion> includes, Collection<ServiceTemplate> templates,
         Collection<ServiceDeployment> deployments, Collection<String> groups, ProcessConfiguration processConfiguration, Integer port);
 
+    ITask<Collection<ServiceInfoSnapshot>> createCloudServiceAsync(
+        String nodeUniqueId, int amount, String name, String runtime, boolean autoDeleteOnStop, boolean staticService,
+        Collection<ServiceRemoteInclusion> includes, Collection<ServiceTemplate> templates,
+        Collection<ServiceDeployment> deployments, Collection<String> groups, ProcessConfiguration processConfiguration, Integer port);
+
     ServiceInfoSnapshot sendCommandLineToCloudService(UUID uniqueId, String commandLine);
 
+    ITask<ServiceInfoSnapshot> sendCommandLineToCloudServiceAsync(UUID uniqueId, String commandLine);
+
     ServiceInfoSnapshot addServiceTemplateToCloudService(UUID uniqueId, ServiceTemplate serviceTemplate);
 
+    ITask<ServiceInfoSnapshot> addServiceTemplateToCloudServiceAsync(UUID uniqueId, ServiceTemplate serviceTemplate);
+
     ServiceInfoSnapshot addServiceRemoteInclusionToCloudService(UUID uniqueId, ServiceRemoteInclusion serviceRemoteInclusion);
 
+    ITask<ServiceInfoSnapshot> addServiceRemoteInclusionToCloudServiceAsync(UUID uniqueId, ServiceRemoteInclusion serviceRemoteInclusion);
+
     ServiceInfoSnapshot addServiceDeploymentToCloudService(UUID uniqueId, ServiceDeployment serviceDeployment);
 
+    ITask<ServiceInfoSnapshot> addServiceDeploymentToCloudServiceAsync(UUID uniqueId, ServiceDeployment serviceDeployment);
+
     Queue<String> getCachedLogMessagesFromService(UUID uniqueId);
 
+    ITask<Queue<String>> getCachedLogMessagesFromServiceAsync(UUID uniqueId);
+
     void setCloudServiceLifeCycle(ServiceInfoSnapshot serviceInfoSnapshot, ServiceLifeCycle lifeCycle);
 
     void restartCloudService(ServiceInfoSnapshot serviceInfoSnapshot);
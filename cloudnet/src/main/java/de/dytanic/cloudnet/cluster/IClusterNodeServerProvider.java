@@ -5,6 +5,7 @@ import de.dytanic.cloudnet.driver.network.cluster.NetworkCluster;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketSender;
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
 
+import java.nio.file.Path;
 import java.util.Collection;
 
 /**
@@ -49,4 +50,14 @@ public interface IClusterNodeServerProvider extends AutoCloseable, IPacketSender
      * @param zipResource     the template data as zip archive resource
      */
     void deployTemplateInCluster(ServiceTemplate serviceTemplate, byte[] zipResource);
+
+    /**
+     * Deploys the directory to all online nodes. The directory is zipped once into a temporary file, which is sent
+     * asynchronously as chunked transfer to every node, so the archive is never completely in the memory of this node
+     * or the receiving nodes and the calling thread isn't blocked.
+     *
+     * @param serviceTemplate the specific template prefix and name configuration
+     * @param directory       the directory of the template, which should be deployed
+     */
+    void deployTemplateInCluster(ServiceTemplate serviceTemplate, Path directory);
 }
\ No newline at end of file
@@ -10,12 +10,14 @@ import de.dytanic.cloudnet.common.language.LanguageManager;
 import de.dytanic.cloudnet.common.unsafe.CPUUsageResolver;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkCluster;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNode;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeExtensionSnapshot;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionStatistics;
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
-import de.dytanic.cloudnet.template.ITemplateStorage;
 import de.dytanic.cloudnet.template.LocalTemplateStorage;
+import de.dytanic.cloudnet.template.LocalTemplateStorageUtil;
 
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
@@ -57,13 +59,11 @@ public final class CommandCluster extends CommandDefault implements ITabComplete
             {
                 if (args[1].equalsIgnoreCase("local-templates"))
                 {
-                    ITemplateStorage storage = CloudNetDriver.getInstance().getServicesRegistry().getService(ITemplateStorage.class, LocalTemplateStorage.LOCAL_TEMPLATE_STORAGE);
+                    LocalTemplateStorage storage = LocalTemplateStorageUtil.getLocalTemplateStorage();
 
-                    byte[] bytes;
                     for (ServiceTemplate serviceTemplate : storage.getTemplates())
                     {
-                        bytes = storage.toZipByteArray(serviceTemplate);
-                        if (bytes != null) getCloudNet().deployTemplateInCluster(serviceTemplate, bytes);
+                        getCloudNet().deployTemplateInCluster(serviceTemplate, storage.getTemplateDirectory(serviceTemplate).toPath());
 
                         sender.sendMessage(
                             LanguageManager.getMessage("command-cluster-push-templates-from-local-success")
@@ -153,6 +153,23 @@ public final class CommandCluster extends CommandDefault implements ITabComplete
         for (HostAndPort hostAndPort : node.getNodeInfo().getListeners())
             list.add("- " + hostAndPort.getHost() + ":" + hostAndPort.getPort());
 
+        INetworkChannel channel = node.getChannel();
+
+        if (channel != null && channel.getPacketCompression() != null)
+        {
+            PacketCompressionStatistics statistics = channel.getPacketCompressionStatistics();
+
+            list.addAll(Arrays.asList(
+                " ",
+                "Packet compression: " + channel.getPacketCompression().getThreshold() + " bytes threshold, level " +
+                    channel.getPacketCompression().getLevel(),
+                "Compressed frames: " + statistics.getCompressedFrames() + " ratio " +
+                    CPUUsageResolver.CPU_USAGE_OUTPUT_FORMAT.format(statistics.getCompressionRatio() * 100) + "% CPU time " +
+                    statistics.getCompressionTimeMillis() + "ms",
+                "Decompressed frames: " + statistics.getDecompressedFrames() + " CPU time " + statistics.getDecompressionTimeMillis() + "ms"
+            ));
+        }
+
         if (node.getNodeInfoSnapshot() != null)
         {
             list.add(" ");
@@ -0,0 +1,114 @@
+package de.dytanic.cloudnet.command.commands;
+
+import de.dytanic.cloudnet.command.ICommandSender;
+import de.dytanic.cloudnet.common.LatencyHistogram;
+import de.dytanic.cloudnet.common.Properties;
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.driver.event.DefaultEventManager;
+import de.dytanic.cloudnet.driver.event.IEventManager;
+import de.dytanic.cloudnet.driver.event.IRegisteredEventListener;
+
+import java.text.DecimalFormat;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public final class CommandEvents extends CommandDefault {
+
+    private static final int DEFAULT_LIST_COUNT = 10;
+
+    private static final DecimalFormat MILLIS_FORMAT = new DecimalFormat("##.###");
+
+    public CommandEvents()
+    {
+        super("events", "event");
+    }
+
+    @Override
+    public void execute(ICommandSender sender, String command, String[] args, String commandLine, Properties properties)
+    {
+        IEventManager eventManager = getCloudNet().getEventManager();
+
+        if (args.length == 0)
+        {
+            sender.sendMessage(
+                "Listeners: " + eventManager.getRegisteredListeners().size(),
+                eventManager instanceof DefaultEventManager ?
+                    "Instrumentation: " + ((DefaultEventManager) eventManager).isInstrumentation() +
+                        " | Slow listener threshold: " + ((DefaultEventManager) eventManager).getSlowListenerThreshold(TimeUnit.MILLISECONDS) + "ms" :
+                    "Instrumentation: false",
+                " ",
+                "events list | <count>",
+                "events reset",
+                "events instrumentation <true : false>",
+                "events threshold <milliseconds>"
+            );
+            return;
+        }
+
+        if (args[0].equalsIgnoreCase("list"))
+        {
+            int count = args.length > 1 && Validate.testStringParseToInt(args[1]) ? Integer.parseInt(args[1]) : DEFAULT_LIST_COUNT;
+
+            List<IRegisteredEventListener> listeners = Iterables.newArrayList(eventManager.getRegisteredListeners());
+            listeners.sort(new Comparator<IRegisteredEventListener>() {
+                @Override
+                public int compare(IRegisteredEventListener listener, IRegisteredEventListener other)
+                {
+                    return Long.compare(other.getTotalExecutionTime(), listener.getTotalExecutionTime());
+                }
+            });
+
+            for (IRegisteredEventListener listener : listeners.subList(0, Math.min(count, listeners.size())))
+                sender.sendMessage(this.formatListener(listener));
+
+            return;
+        }
+
+        if (!(eventManager instanceof DefaultEventManager))
+        {
+            sender.sendMessage("The event manager " + eventManager.getClass().getName() + " doesn't support the instrumentation");
+            return;
+        }
+
+        DefaultEventManager defaultEventManager = (DefaultEventManager) eventManager;
+
+        if (args[0].equalsIgnoreCase("reset"))
+        {
+            defaultEventManager.resetStatistics();
+            sender.sendMessage("The recorded execution times of all listeners were reset");
+            return;
+        }
+
+        if (args.length > 1 && args[0].equalsIgnoreCase("instrumentation"))
+        {
+            defaultEventManager.setInstrumentation(Boolean.parseBoolean(args[1]));
+            sender.sendMessage("Instrumentation: " + defaultEventManager.isInstrumentation());
+            return;
+        }
+
+        if (args.length > 1 && args[0].equalsIgnoreCase("threshold") && Validate.testStringParseToInt(args[1]))
+        {
+            defaultEventManager.setSlowListenerThreshold(Integer.parseInt(args[1]), TimeUnit.MILLISECONDS);
+            sender.sendMessage("Slow listener threshold: " + defaultEventManager.getSlowListenerThreshold(TimeUnit.MILLISECONDS) + "ms");
+        }
+    }
+
+    private String formatListener(IRegisteredEventListener listener)
+    {
+        String name = listener.getInstance().getClass().getName() + "#" + listener.getHandlerMethod().getName() +
+            "(" + listener.getEventClass().getSimpleName() + ") " + listener.getPriority() + (listener.isAsync() ? " async" : "");
+
+        LatencyHistogram latencyHistogram = listener.getLatencyHistogram();
+
+        if (latencyHistogram == null) return "- " + name;
+
+        return "- " + name +
+            " | Calls: " + latencyHistogram.getCount() +
+            " | Total: " + TimeUnit.NANOSECONDS.toMillis(latencyHistogram.getTotalNanos()) + "ms" +
+            " | Mean: " + MILLIS_FORMAT.format(latencyHistogram.getMeanMillis()) + "ms" +
+            " | P99: " + MILLIS_FORMAT.format(latencyHistogram.getPercentileNanos(99) / 1000000D) + "ms" +
+            " | Max: " + MILLIS_FORMAT.format(latencyHistogram.getMaxNanos() / 1000000D) + "ms";
+    }
+}
@@ -102,7 +102,7 @@ public final class CommandLocalTemplate extends CommandDefault {
                 {
                 }
 
-                getCloudNet().deployTemplateInCluster(serviceTemplate, storage.toZipByteArray(serviceTemplate));
+                getCloudNet().deployTemplateInCluster(serviceTemplate, LocalTemplateStorageUtil.getLocalTemplateStorage().getTemplateDirectory(serviceTemplate).toPath());
             }
         }
 
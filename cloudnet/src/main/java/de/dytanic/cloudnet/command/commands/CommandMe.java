@@ -4,6 +4,7 @@ import de.dytanic.cloudnet.command.ICommandSender;
 import de.dytanic.cloudnet.common.Properties;
 import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.unsafe.CPUUsageResolver;
+import de.dytanic.cloudnet.database.cache.CachedDatabaseProvider;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
@@ -44,6 +45,15 @@ public final class CommandMe extends CommandDefault {
             "Total loaded classes: " + ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount(),
             " "
         ));
+
+        if (getCloudNet().getDatabaseProvider() instanceof CachedDatabaseProvider)
+        {
+            CachedDatabaseProvider databaseProvider = (CachedDatabaseProvider) getCloudNet().getDatabaseProvider();
+
+            messages.add("Database cache: (Hits/Misses) " + databaseProvider.getHits() + "/" + databaseProvider.getMisses() +
+                " Evictions: " + databaseProvider.getEvictions() + " Coalesced writes: " + databaseProvider.getCoalescedWrites());
+        }
+
         messages.add(" ");
         sender.sendMessage(messages.toArray(new String[0]));
     }
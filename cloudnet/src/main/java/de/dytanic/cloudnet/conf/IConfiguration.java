@@ -3,8 +3,10 @@ package de.dytanic.cloudnet.conf;
 import de.dytanic.cloudnet.driver.network.HostAndPort;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkCluster;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNode;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
 
 import java.util.Collection;
+import java.util.Map;
 
 public interface IConfiguration {
 
@@ -26,6 +28,12 @@ public interface IConfiguration {
 
     Collection<HostAndPort> getHttpListeners();
 
+    /**
+     * Returns the compression of the packet frames for the network listeners of this node, by the port of the listener.
+     * The channels of listeners without an entry are not compressed
+     */
+    Map<Integer, PacketCompressionConfiguration> getListenerPacketCompression();
+
     ConfigurationOptionSSL getClientSslConfig();
 
     ConfigurationOptionSSL getServerSslConfig();
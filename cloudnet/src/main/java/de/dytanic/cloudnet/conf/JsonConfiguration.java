@@ -3,11 +3,13 @@ package de.dytanic.cloudnet.conf;
 import com.google.gson.reflect.TypeToken;
 import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.common.unsafe.CPUUsageResolver;
 import de.dytanic.cloudnet.driver.network.HostAndPort;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkCluster;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNode;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -22,6 +24,7 @@ import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -36,6 +39,8 @@ public final class JsonConfiguration implements IConfiguration {
         COLLECTION_STRING = new TypeToken<Collection<String>>() {
         }.getType(),
         HOST_AND_PORT_COLLECTION = new TypeToken<Collection<HostAndPort>>() {
+        }.getType(),
+        PACKET_COMPRESSION_MAP = new TypeToken<Map<Integer, PacketCompressionConfiguration>>() {
         }.getType();
 
     private static final Path CONFIG_FILE_PATH = Paths.get(System.getProperty("cloudnet.config.json.path", "config.json"));
@@ -60,6 +65,8 @@ public final class JsonConfiguration implements IConfiguration {
 
     private Collection<HostAndPort> httpListeners;
 
+    private Map<Integer, PacketCompressionConfiguration> listenerPacketCompression;
+
     private ConfigurationOptionSSL clientSslConfig, serverSslConfig, webSslConfig;
 
     private String jVMCommand;
@@ -153,6 +160,8 @@ public final class JsonConfiguration implements IConfiguration {
         this.hostAddress = this.document.getString("hostAddress", address);
         this.httpListeners = this.document.get("httpListeners", HOST_AND_PORT_COLLECTION, Collections.singletonList(new HostAndPort("0.0.0.0", 2812)));
 
+        this.listenerPacketCompression = this.document.get("listenerPacketCompression", PACKET_COMPRESSION_MAP, Maps.newHashMap());
+
         ConfigurationOptionSSL fallback = new ConfigurationOptionSSL(
             false,
             false,
@@ -190,6 +199,7 @@ public final class JsonConfiguration implements IConfiguration {
             .append("cluster", this.clusterConfig)
             .append("hostAddress", this.hostAddress)
             .append("httpListeners", this.httpListeners)
+            .append("listenerPacketCompression", this.listenerPacketCompression)
             .append("clientSslConfig", this.clientSslConfig)
             .append("serverSslConfig", this.serverSslConfig)
             .append("webSslConfig", this.webSslConfig)
@@ -12,6 +12,13 @@ public abstract class AbstractDatabaseProvider implements INameable, AutoCloseab
     @Setter
     protected IDatabaseHandler databaseHandler;
 
+    /**
+     * The count of rows, which the streams of the databases fetch at once from the cursor of the query
+     */
+    @Getter
+    @Setter
+    protected int fetchSize = Integer.getInteger("cloudnet.database.fetchSize", 500);
+
     public abstract boolean init() throws Exception;
 
     public abstract IDatabase getDatabase(String name);
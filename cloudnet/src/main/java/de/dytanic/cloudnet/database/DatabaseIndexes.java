@@ -0,0 +1,98 @@
+package de.dytanic.cloudnet.database;
+
+import com.google.gson.JsonElement;
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+
+import java.util.Map;
+
+/**
+ * The shared parts of the secondary indexes of the sql databases. An index of a database is an auxiliary table
+ * "[database]__INDEX" with the columns FieldName, FieldValue and Name, which contains the compact json value of every
+ * indexed top level field of every document. The indexed fields of all databases are declared in the table "CLOUDNET__INDEXES"
+ */
+public final class DatabaseIndexes {
+
+    public static final String INDEX_TABLE_SUFFIX = "__INDEX", INDEX_DECLARATION_TABLE = "CLOUDNET__INDEXES";
+
+    public static final String COLUMN_FIELD = "FieldName", COLUMN_VALUE = "FieldValue", COLUMN_DATABASE = "DatabaseName";
+
+    /**
+     * The max length of an indexed value. Longer values aren't indexed, the queries for them scan the table like before
+     */
+    public static final int MAX_VALUE_LENGTH = 255, MAX_FIELD_LENGTH = 128;
+
+    private DatabaseIndexes()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    public static String getIndexTable(String database)
+    {
+        Validate.checkNotNull(database);
+
+        return database + INDEX_TABLE_SUFFIX;
+    }
+
+    /**
+     * Returns true, if the table is an index table or the declaration table and not a database
+     */
+    public static boolean isIndexTable(String table)
+    {
+        return table != null && (table.toUpperCase().endsWith(INDEX_TABLE_SUFFIX) || table.equalsIgnoreCase(INDEX_DECLARATION_TABLE));
+    }
+
+    /**
+     * Returns the value of a top level field of the document in the form, in that it's saved in the index, or null, if
+     * the document doesn't contain the field or the value is too long for the index
+     */
+    public static String getIndexValue(JsonDocument document, String fieldName)
+    {
+        Validate.checkNotNull(document);
+        Validate.checkNotNull(fieldName);
+
+        JsonElement jsonElement = document.get(fieldName);
+
+        return jsonElement == null || jsonElement.isJsonNull() ? null : checkLength(jsonElement.toString());
+    }
+
+    /**
+     * Returns the value of a query in the form of the index, or null, if it's too long for the index
+     */
+    public static String toIndexValue(Object value)
+    {
+        Validate.checkNotNull(value);
+
+        if (value instanceof JsonElement && ((JsonElement) value).isJsonNull()) return null;
+
+        return checkLength((value instanceof JsonElement ? (JsonElement) value : JsonDocument.GSON.toJsonTree(value)).toString());
+    }
+
+    /**
+     * Checks the values of the indexed fields of a loaded document, so a document, whose index entry is outdated,
+     * because the index was built while the document was updated, is never returned for a wrong value
+     *
+     * @param indexFilters the index values, mapped by their field names
+     */
+    public static boolean matches(JsonDocument document, Map<String, String> indexFilters)
+    {
+        Validate.checkNotNull(document);
+        Validate.checkNotNull(indexFilters);
+
+        for (Map.Entry<String, String> entry : indexFilters.entrySet())
+            if (!entry.getValue().equals(getIndexValue(document, entry.getKey())))
+                return false;
+
+        return true;
+    }
+
+    public static boolean isValidFieldName(String fieldName)
+    {
+        return fieldName != null && !fieldName.isEmpty() && fieldName.length() <= MAX_FIELD_LENGTH;
+    }
+
+    private static String checkLength(String value)
+    {
+        return value.length() <= MAX_VALUE_LENGTH ? value : null;
+    }
+}
@@ -0,0 +1,133 @@
+package de.dytanic.cloudnet.database;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The default batch of the sql databases. The operations are recorded in their order for the database handler and
+ * merged by their keys for the execution, so every key is written only once, with the result of its last operation
+ */
+public final class DefaultDatabaseBatch implements IDatabaseBatch {
+
+    @Getter
+    private final List<Operation> operations = Iterables.newArrayList();
+
+    //Map<Key, Document>, a null document deletes the key
+    private final Map<String, JsonDocument> changes = new LinkedHashMap<>();
+
+    @Getter
+    private boolean clearing;
+
+    @Override
+    public IDatabaseBatch insert(String key, JsonDocument document)
+    {
+        Validate.checkNotNull(key);
+        Validate.checkNotNull(document);
+
+        return this.add(new Operation(OperationType.INSERT, key, document));
+    }
+
+    @Override
+    public IDatabaseBatch update(String key, JsonDocument document)
+    {
+        Validate.checkNotNull(key);
+        Validate.checkNotNull(document);
+
+        return this.add(new Operation(OperationType.UPDATE, key, document));
+    }
+
+    @Override
+    public IDatabaseBatch delete(String key)
+    {
+        Validate.checkNotNull(key);
+
+        return this.add(new Operation(OperationType.DELETE, key, null));
+    }
+
+    @Override
+    public IDatabaseBatch clear()
+    {
+        this.changes.clear();
+        this.clearing = true;
+
+        this.operations.add(new Operation(OperationType.CLEAR, null, null));
+        return this;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.operations.size();
+    }
+
+    /**
+     * Returns the final state of every written key, a null document means, that the key is deleted.
+     * The changes don't contain the keys, which were written before the last clear operation
+     */
+    public Map<String, JsonDocument> getChanges()
+    {
+        return this.changes;
+    }
+
+    /**
+     * Calls the database handler for every operation in the order of the batch, like the single operations of the database
+     */
+    public void handle(IDatabase database, IDatabaseHandler databaseHandler)
+    {
+        Validate.checkNotNull(database);
+        Validate.checkNotNull(databaseHandler);
+
+        for (Operation operation : this.operations)
+            switch (operation.getType())
+            {
+                case INSERT:
+                    databaseHandler.handleInsert(database, operation.getKey(), operation.getDocument());
+                    break;
+                case UPDATE:
+                    databaseHandler.handleUpdate(database, operation.getKey(), operation.getDocument());
+                    break;
+                case DELETE:
+                    databaseHandler.handleDelete(database, operation.getKey());
+                    break;
+                case CLEAR:
+                    databaseHandler.handleClear(database);
+                    break;
+            }
+    }
+
+    private IDatabaseBatch add(Operation operation)
+    {
+        //The insert and update operations of the databases both replace an existing document
+        this.changes.remove(operation.getKey());
+        this.changes.put(operation.getKey(), operation.getDocument());
+
+        this.operations.add(operation);
+        return this;
+    }
+
+    public enum OperationType {
+        INSERT,
+        UPDATE,
+        DELETE,
+        CLEAR
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Operation {
+
+        private final OperationType type;
+
+        private final String key;
+
+        private final JsonDocument document;
+
+    }
+}
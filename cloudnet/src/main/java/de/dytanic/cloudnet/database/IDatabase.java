@@ -9,6 +9,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface IDatabase extends INameable, AutoCloseable {
 
@@ -30,6 +32,14 @@ public interface IDatabase extends INameable, AutoCloseable {
 
     Collection<String> keys();
 
+    /**
+     * Returns a page of the keys of the database, which are sorted in their natural order
+     *
+     * @param offset the count of keys, which are skipped
+     * @param limit  the max count of keys in the page
+     */
+    Collection<String> keys(int offset, int limit);
+
     Collection<JsonDocument> documents();
 
     Map<String, JsonDocument> entries();
@@ -40,6 +50,75 @@ public interface IDatabase extends INameable, AutoCloseable {
 
     void clear();
 
+    /**
+     * Returns a stream of all entries of the database, which reads the rows with a cursor in pages of the fetch size of
+     * the provider, instead of loading the complete table. The document of an entry is parsed on the first call of
+     * getValue. The stream holds the resources of the query, until it's closed or completely consumed, so it should
+     * be used in a try-with-resources statement
+     */
+    Stream<Map.Entry<String, JsonDocument>> stream();
+
+    Stream<String> keyStream();
+
+    /**
+     * Creates a secondary index for a top level field of the documents. The index is maintained on every insert, update
+     * and delete and used by get(fieldName, fieldValue) and get(filters), which compare the complete value of an indexed
+     * field instead of searching it in the json text of every document
+     *
+     * @param fieldName the name of the top level field
+     * @return true, if the index was created, false if it exists already
+     */
+    boolean createIndex(String fieldName);
+
+    boolean dropIndex(String fieldName);
+
+    Collection<String> getIndexes();
+
+    /**
+     * Executes all operations, which are added to the batch by the consumer, with JDBC batches in one transaction.
+     * If one operation fails, none of the operations is applied
+     *
+     * @param consumer the consumer, which adds the operations to the batch
+     * @return true, if the transaction was committed
+     */
+    boolean batch(Consumer<IDatabaseBatch> consumer);
+
+    default boolean insertAll(Map<String, JsonDocument> documents)
+    {
+        return this.batch(new Consumer<IDatabaseBatch>() {
+            @Override
+            public void accept(IDatabaseBatch batch)
+            {
+                for (Map.Entry<String, JsonDocument> entry : documents.entrySet())
+                    batch.insert(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    default boolean updateAll(Map<String, JsonDocument> documents)
+    {
+        return this.batch(new Consumer<IDatabaseBatch>() {
+            @Override
+            public void accept(IDatabaseBatch batch)
+            {
+                for (Map.Entry<String, JsonDocument> entry : documents.entrySet())
+                    batch.update(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    default boolean deleteAll(Collection<String> keys)
+    {
+        return this.batch(new Consumer<IDatabaseBatch>() {
+            @Override
+            public void accept(IDatabaseBatch batch)
+            {
+                for (String key : keys)
+                    batch.delete(key);
+            }
+        });
+    }
+
     /*= ----------------------------------------------------------- =*/
 
     ITask<Boolean> insertAsync(String key, JsonDocument document);
@@ -66,6 +145,8 @@ public interface IDatabase extends INameable, AutoCloseable {
 
     ITask<Void> clearAsync();
 
+    ITask<Boolean> batchAsync(Consumer<IDatabaseBatch> consumer);
+
     /*= ----------------------------------------------------------- =*/
 
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package de.dytanic.cloudnet.database;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+
+/**
+ * A collection of write operations on one database, which are executed together with JDBC batches in one transaction.
+ * The operations are only recorded by this interface and executed after the consumer of IDatabase.batch returns
+ */
+public interface IDatabaseBatch {
+
+    IDatabaseBatch insert(String key, JsonDocument document);
+
+    IDatabaseBatch update(String key, JsonDocument document);
+
+    IDatabaseBatch delete(String key);
+
+    /**
+     * Removes all documents of the database, which aren't inserted or updated by a later operation of the batch
+     */
+    IDatabaseBatch clear();
+
+    int size();
+
+}
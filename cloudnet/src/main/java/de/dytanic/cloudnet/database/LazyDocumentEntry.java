@@ -0,0 +1,49 @@
+package de.dytanic.cloudnet.database;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * An entry of a database stream, which holds the json text of the document and parses it on the first call of
+ * getValue, so the entries, which are skipped by their keys, are never parsed
+ */
+public final class LazyDocumentEntry implements Map.Entry<String, JsonDocument> {
+
+    @Getter
+    private final String key;
+
+    //The json text, until the document is parsed
+    private String json;
+
+    private JsonDocument document;
+
+    public LazyDocumentEntry(String key, String json)
+    {
+        Validate.checkNotNull(key);
+        Validate.checkNotNull(json);
+
+        this.key = key;
+        this.json = json;
+    }
+
+    @Override
+    public JsonDocument getValue()
+    {
+        if (this.document == null)
+        {
+            this.document = JsonDocument.newDocument(this.json);
+            this.json = null;
+        }
+
+        return this.document;
+    }
+
+    @Override
+    public JsonDocument setValue(JsonDocument value)
+    {
+        throw new UnsupportedOperationException("The entries of a database stream are read only");
+    }
+}
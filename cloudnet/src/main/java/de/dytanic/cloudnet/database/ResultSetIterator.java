@@ -0,0 +1,118 @@
+package de.dytanic.cloudnet.database;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
+
+import java.sql.ResultSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An iterator, which maps the rows of an open result set one by one. The result set and the resources of the query are
+ * closed, if the iterator is closed or the last row was read
+ */
+public final class ResultSetIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final ResultSet resultSet;
+
+    private final IThrowableCallback<ResultSet, T> mapper;
+
+    //The resources, which are closed after the result set in the reversed order, for example the statement and the connection
+    private final AutoCloseable[] resources;
+
+    private boolean fetched, available, closed;
+
+    public ResultSetIterator(ResultSet resultSet, IThrowableCallback<ResultSet, T> mapper, AutoCloseable... resources)
+    {
+        Validate.checkNotNull(resultSet);
+        Validate.checkNotNull(mapper);
+        Validate.checkNotNull(resources);
+
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+        this.resources = resources;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (this.closed) return false;
+
+        if (!this.fetched)
+        {
+            try
+            {
+                this.available = this.resultSet.next();
+            } catch (Exception exception)
+            {
+                this.close();
+                throw new IllegalStateException("Cannot read the next row of the result set", exception);
+            }
+
+            this.fetched = true;
+
+            if (!this.available) this.close();
+        }
+
+        return this.available;
+    }
+
+    @Override
+    public T next()
+    {
+        if (!this.hasNext()) throw new NoSuchElementException();
+
+        this.fetched = false;
+
+        try
+        {
+            return this.mapper.call(this.resultSet);
+        } catch (Throwable throwable)
+        {
+            this.close();
+            throw new IllegalStateException("Cannot map the row of the result set", throwable);
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (this.closed) return;
+
+        this.closed = true;
+        closeQuietly(this.resultSet);
+
+        for (int i = this.resources.length - 1; i >= 0; i--)
+            closeQuietly(this.resources[i]);
+    }
+
+    /**
+     * Returns a sequential stream of the rows, which closes this iterator, if the stream is closed
+     */
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(new Runnable() {
+            @Override
+            public void run()
+            {
+                close();
+            }
+        });
+    }
+
+    public static void closeQuietly(AutoCloseable closeable)
+    {
+        if (closeable != null)
+            try
+            {
+                closeable.close();
+            } catch (Exception exception)
+            {
+                exception.printStackTrace();
+            }
+    }
+}
@@ -0,0 +1,687 @@
+package de.dytanic.cloudnet.database.cache;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.database.DefaultDatabaseBatch;
+import de.dytanic.cloudnet.database.IDatabase;
+import de.dytanic.cloudnet.database.IDatabaseBatch;
+import de.dytanic.cloudnet.driver.CloudNetDriver;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A database, which caches the recently used documents of the wrapped database by their keys. The documents are copied
+ * into and out of the cache, so a change of a returned document never changes the cache. The queries over the complete
+ * database are executed by the wrapped database, after the pending writes are flushed
+ */
+public final class CachedDatabase implements IDatabase {
+
+    @Getter
+    private final CachedDatabaseProvider databaseProvider;
+
+    @Getter
+    private final String name;
+
+    //The least recently used documents are evicted first, guarded by itself
+    private final LinkedHashMap<String, JsonDocument> cache;
+
+    //The updates, which aren't written to the wrapped database yet, guarded by itself
+    private final Map<String, JsonDocument> pendingWrites = new LinkedHashMap<>();
+
+    //Held by a flush and by the other writes, so a flushed update can't overwrite a later insert, delete or clear
+    private final Object flushLock = new Object();
+
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), evictions = new AtomicLong(), coalescedWrites = new AtomicLong();
+
+    /**
+     * Counts the invalidations and writes, so a document, which was loaded before a change of its key, isn't put into the
+     * cache
+     */
+    private long generation;
+
+    CachedDatabase(CachedDatabaseProvider databaseProvider, String name)
+    {
+        this.databaseProvider = databaseProvider;
+        this.name = name;
+
+        this.cache = new LinkedHashMap<String, JsonDocument>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JsonDocument> eldest)
+            {
+                if (size() <= databaseProvider.getMaxSize()) return false;
+
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        this.flush();
+    }
+
+    @Override
+    public boolean insert(String key, JsonDocument document)
+    {
+        Validate.checkNotNull(key);
+        Validate.checkNotNull(document);
+
+        synchronized (this.flushLock)
+        {
+            this.removePendingWrite(key);
+
+            boolean success = this.getWrappedDatabase().insert(key, document);
+
+            if (success) this.cache(key, document);
+            else this.invalidate(key);
+
+            return success;
+        }
+    }
+
+    @Override
+    public boolean update(String key, JsonDocument document)
+    {
+        Validate.checkNotNull(key);
+        Validate.checkNotNull(document);
+
+        if (this.databaseProvider.getWriteBehindDelay() <= 0)
+        {
+            boolean success = this.getWrappedDatabase().update(key, document);
+
+            if (success) this.cache(key, document);
+            else this.invalidate(key);
+
+            return success;
+        }
+
+        boolean scheduleFlush;
+
+        //The flush lock keeps the key from being deleted between the check and the queued update
+        synchronized (this.flushLock)
+        {
+            //Like the wrapped database, an update of a missing key fails and writes nothing
+            if (!this.contains(key))
+            {
+                this.invalidate(key);
+                return false;
+            }
+
+            synchronized (this.pendingWrites)
+            {
+                scheduleFlush = this.pendingWrites.isEmpty();
+
+                if (this.pendingWrites.put(key, copy(document)) != null) this.coalescedWrites.incrementAndGet();
+            }
+
+            this.cache(key, document);
+        }
+
+        if (scheduleFlush) this.scheduleFlush();
+
+        return true;
+    }
+
+    @Override
+    public boolean contains(String key)
+    {
+        Validate.checkNotNull(key);
+
+        synchronized (this.pendingWrites)
+        {
+            if (this.pendingWrites.containsKey(key)) return true;
+        }
+
+        synchronized (this.cache)
+        {
+            if (this.cache.containsKey(key)) return true;
+        }
+
+        return this.getWrappedDatabase().contains(key);
+    }
+
+    @Override
+    public boolean delete(String key)
+    {
+        Validate.checkNotNull(key);
+
+        synchronized (this.flushLock)
+        {
+            this.removePendingWrite(key);
+            this.invalidate(key);
+
+            return this.getWrappedDatabase().delete(key);
+        }
+    }
+
+    @Override
+    public JsonDocument get(String key)
+    {
+        Validate.checkNotNull(key);
+
+        JsonDocument document;
+
+        synchronized (this.pendingWrites)
+        {
+            document = this.pendingWrites.get(key);
+        }
+
+        long generation;
+
+        synchronized (this.cache)
+        {
+            if (document == null) document = this.cache.get(key);
+            generation = this.generation;
+        }
+
+        if (document != null)
+        {
+            this.hits.incrementAndGet();
+            return copy(document);
+        }
+
+        this.misses.incrementAndGet();
+        document = this.getWrappedDatabase().get(key);
+
+        if (document != null)
+            synchronized (this.cache)
+            {
+                if (this.generation == generation) this.cache.put(key, copy(document));
+            }
+
+        return document;
+    }
+
+    @Override
+    public List<JsonDocument> get(String fieldName, Object fieldValue)
+    {
+        this.flush();
+        return this.getWrappedDatabase().get(fieldName, fieldValue);
+    }
+
+    @Override
+    public List<JsonDocument> get(JsonDocument filters)
+    {
+        this.flush();
+        return this.getWrappedDatabase().get(filters);
+    }
+
+    @Override
+    public Collection<String> keys()
+    {
+        this.flush();
+        return this.getWrappedDatabase().keys();
+    }
+
+    @Override
+    public Collection<String> keys(int offset, int limit)
+    {
+        this.flush();
+        return this.getWrappedDatabase().keys(offset, limit);
+    }
+
+    @Override
+    public Collection<JsonDocument> documents()
+    {
+        this.flush();
+        return this.getWrappedDatabase().documents();
+    }
+
+    @Override
+    public Map<String, JsonDocument> entries()
+    {
+        this.flush();
+        return this.getWrappedDatabase().entries();
+    }
+
+    @Override
+    public Map<String, JsonDocument> filter(BiPredicate<String, JsonDocument> predicate)
+    {
+        this.flush();
+        return this.getWrappedDatabase().filter(predicate);
+    }
+
+    @Override
+    public void iterate(BiConsumer<String, JsonDocument> consumer)
+    {
+        this.flush();
+        this.getWrappedDatabase().iterate(consumer);
+    }
+
+    @Override
+    public void clear()
+    {
+        synchronized (this.flushLock)
+        {
+            synchronized (this.pendingWrites)
+            {
+                this.pendingWrites.clear();
+            }
+
+            this.invalidateAll();
+            this.getWrappedDatabase().clear();
+        }
+    }
+
+    @Override
+    public Stream<Map.Entry<String, JsonDocument>> stream()
+    {
+        this.flush();
+        return this.getWrappedDatabase().stream();
+    }
+
+    @Override
+    public Stream<String> keyStream()
+    {
+        this.flush();
+        return this.getWrappedDatabase().keyStream();
+    }
+
+    @Override
+    public boolean createIndex(String fieldName)
+    {
+        this.flush();
+        return this.getWrappedDatabase().createIndex(fieldName);
+    }
+
+    @Override
+    public boolean dropIndex(String fieldName)
+    {
+        return this.getWrappedDatabase().dropIndex(fieldName);
+    }
+
+    @Override
+    public Collection<String> getIndexes()
+    {
+        return this.getWrappedDatabase().getIndexes();
+    }
+
+    @Override
+    public boolean batch(Consumer<IDatabaseBatch> consumer)
+    {
+        Validate.checkNotNull(consumer);
+
+        DefaultDatabaseBatch batch = new DefaultDatabaseBatch();
+        consumer.accept(batch);
+
+        synchronized (this.flushLock)
+        {
+            return this.batch0(batch);
+        }
+    }
+
+    private boolean batch0(DefaultDatabaseBatch batch)
+    {
+        //The pending writes of the keys are replaced by the batch, the other ones are written before it
+        for (String key : batch.getChanges().keySet())
+            this.removePendingWrite(key);
+
+        if (batch.isClearing())
+            synchronized (this.pendingWrites)
+            {
+                this.pendingWrites.clear();
+            }
+
+        this.flush();
+
+        boolean success = this.getWrappedDatabase().batch(new Consumer<IDatabaseBatch>() {
+            @Override
+            public void accept(IDatabaseBatch wrappedBatch)
+            {
+                for (DefaultDatabaseBatch.Operation operation : batch.getOperations())
+                    switch (operation.getType())
+                    {
+                        case INSERT:
+                            wrappedBatch.insert(operation.getKey(), operation.getDocument());
+                            break;
+                        case UPDATE:
+                            wrappedBatch.update(operation.getKey(), operation.getDocument());
+                            break;
+                        case DELETE:
+                            wrappedBatch.delete(operation.getKey());
+                            break;
+                        case CLEAR:
+                            wrappedBatch.clear();
+                            break;
+                    }
+            }
+        });
+
+        if (batch.isClearing()) this.invalidateAll();
+
+        for (Map.Entry<String, JsonDocument> entry : batch.getChanges().entrySet())
+            if (success && entry.getValue() != null) this.cache(entry.getKey(), entry.getValue());
+            else this.invalidate(entry.getKey());
+
+        return success;
+    }
+
+    /**
+     * Writes all pending updates in one batch into the wrapped database. If the batch fails, the updates are queued
+     * again, if there isn't a newer update of the key, and written by the next flush
+     */
+    public void flush()
+    {
+        synchronized (this.flushLock)
+        {
+            Map<String, JsonDocument> documents;
+
+            synchronized (this.pendingWrites)
+            {
+                if (this.pendingWrites.isEmpty()) return;
+
+                documents = new LinkedHashMap<>(this.pendingWrites);
+                this.pendingWrites.clear();
+            }
+
+            if (this.getWrappedDatabase().updateAll(documents)) return;
+
+            synchronized (this.pendingWrites)
+            {
+                for (Map.Entry<String, JsonDocument> entry : documents.entrySet())
+                    this.pendingWrites.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+
+            if (CloudNetDriver.getInstance() != null && CloudNetDriver.getInstance().getLogger() != null)
+                CloudNetDriver.getInstance().getLogger().warning(
+                    "The " + documents.size() + " pending updates of the database " + this.name + " couldn't be written, " +
+                        "the next try is in " + this.databaseProvider.getWriteBehindDelay() + "ms"
+                );
+
+            if (this.databaseProvider.getWriteBehindDelay() > 0) this.scheduleFlush();
+        }
+    }
+
+    public void invalidate(String key)
+    {
+        Validate.checkNotNull(key);
+
+        synchronized (this.cache)
+        {
+            this.cache.remove(key);
+            this.generation++;
+        }
+    }
+
+    /**
+     * Removes the cached documents and the pending updates, without writing them to the wrapped database
+     */
+    void discard()
+    {
+        synchronized (this.pendingWrites)
+        {
+            this.pendingWrites.clear();
+        }
+
+        this.invalidateAll();
+    }
+
+    public void invalidateAll()
+    {
+        synchronized (this.cache)
+        {
+            this.cache.clear();
+            this.generation++;
+        }
+    }
+
+    public int getSize()
+    {
+        synchronized (this.cache)
+        {
+            return this.cache.size();
+        }
+    }
+
+    public int getPendingWrites()
+    {
+        synchronized (this.pendingWrites)
+        {
+            return this.pendingWrites.size();
+        }
+    }
+
+    public long getHits()
+    {
+        return this.hits.get();
+    }
+
+    public long getMisses()
+    {
+        return this.misses.get();
+    }
+
+    public long getEvictions()
+    {
+        return this.evictions.get();
+    }
+
+    public long getCoalescedWrites()
+    {
+        return this.coalescedWrites.get();
+    }
+
+    /**
+     * Returns the current database of the wrapped provider, because the providers may replace their database instances
+     */
+    public IDatabase getWrappedDatabase()
+    {
+        return this.databaseProvider.getDatabaseProvider().getDatabase(this.name);
+    }
+
+    /*= ----------------------------------------------------------- =*/
+
+    @Override
+    public ITask<Boolean> insertAsync(String key, JsonDocument document)
+    {
+        return schedule(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception
+            {
+                return insert(key, document);
+            }
+        });
+    }
+
+    @Override
+    public ITask<Boolean> containsAsync(String key)
+    {
+        return schedule(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception
+            {
+                return contains(key);
+            }
+        });
+    }
+
+    @Override
+    public ITask<Boolean> deleteAsync(String key)
+    {
+        return schedule(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception
+            {
+                return delete(key);
+            }
+        });
+    }
+
+    @Override
+    public ITask<JsonDocument> getAsync(String key)
+    {
+        return schedule(new Callable<JsonDocument>() {
+            @Override
+            public JsonDocument call() throws Exception
+            {
+                return get(key);
+            }
+        });
+    }
+
+    @Override
+    public ITask<List<JsonDocument>> getAsync(String fieldName, Object fieldValue)
+    {
+        return schedule(new Callable<List<JsonDocument>>() {
+            @Override
+            public List<JsonDocument> call() throws Exception
+            {
+                return get(fieldName, fieldValue);
+            }
+        });
+    }
+
+    @Override
+    public ITask<List<JsonDocument>> getAsync(JsonDocument filters)
+    {
+        return schedule(new Callable<List<JsonDocument>>() {
+            @Override
+            public List<JsonDocument> call() throws Exception
+            {
+                return get(filters);
+            }
+        });
+    }
+
+    @Override
+    public ITask<Collection<String>> keysAsync()
+    {
+        return schedule(new Callable<Collection<String>>() {
+            @Override
+            public Collection<String> call() throws Exception
+            {
+                return keys();
+            }
+        });
+    }
+
+    @Override
+    public ITask<Collection<JsonDocument>> documentsAsync()
+    {
+        return schedule(new Callable<Collection<JsonDocument>>() {
+            @Override
+            public Collection<JsonDocument> call() throws Exception
+            {
+                return documents();
+            }
+        });
+    }
+
+    @Override
+    public ITask<Map<String, JsonDocument>> entriesAsync()
+    {
+        return schedule(new Callable<Map<String, JsonDocument>>() {
+            @Override
+            public Map<String, JsonDocument> call() throws Exception
+            {
+                return entries();
+            }
+        });
+    }
+
+    @Override
+    public ITask<Map<String, JsonDocument>> filterAsync(BiPredicate<String, JsonDocument> predicate)
+    {
+        return schedule(new Callable<Map<String, JsonDocument>>() {
+            @Override
+            public Map<String, JsonDocument> call() throws Exception
+            {
+                return filter(predicate);
+            }
+        });
+    }
+
+    @Override
+    public ITask<Void> iterateAsync(BiConsumer<String, JsonDocument> consumer)
+    {
+        return schedule(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception
+            {
+                iterate(consumer);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ITask<Void> clearAsync()
+    {
+        return schedule(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception
+            {
+                clear();
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ITask<Boolean> batchAsync(Consumer<IDatabaseBatch> consumer)
+    {
+        return schedule(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception
+            {
+                return batch(consumer);
+            }
+        });
+    }
+
+    /*= ----------------------------------------------------------- =*/
+
+    private void cache(String key, JsonDocument document)
+    {
+        synchronized (this.cache)
+        {
+            this.cache.put(key, copy(document));
+
+            //A miss, which has loaded the document before this write, mustn't replace it with the old document
+            this.generation++;
+        }
+    }
+
+    private void scheduleFlush()
+    {
+        this.databaseProvider.getTaskScheduler().schedule(new Runnable() {
+            @Override
+            public void run()
+            {
+                flush();
+            }
+        }, this.databaseProvider.getWriteBehindDelay(), TimeUnit.MILLISECONDS);
+    }
+
+    private void removePendingWrite(String key)
+    {
+        synchronized (this.pendingWrites)
+        {
+            this.pendingWrites.remove(key);
+        }
+    }
+
+    private <T> ITask<T> schedule(Callable<T> callable)
+    {
+        return this.databaseProvider.getTaskScheduler().schedule(callable);
+    }
+
+    private static JsonDocument copy(JsonDocument document)
+    {
+        return new JsonDocument(document.toJsonObject().deepCopy());
+    }
+}
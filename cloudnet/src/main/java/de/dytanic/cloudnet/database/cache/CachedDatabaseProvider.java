@@ -0,0 +1,257 @@
+package de.dytanic.cloudnet.database.cache;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
+import de.dytanic.cloudnet.database.AbstractDatabaseProvider;
+import de.dytanic.cloudnet.database.IDatabaseHandler;
+import de.dytanic.cloudnet.driver.event.EventListener;
+import de.dytanic.cloudnet.driver.event.IEventManager;
+import de.dytanic.cloudnet.event.database.DatabaseClearEntriesEvent;
+import de.dytanic.cloudnet.event.database.DatabaseDeleteEntryEvent;
+import de.dytanic.cloudnet.event.database.DatabaseInsertEntryEvent;
+import de.dytanic.cloudnet.event.database.DatabaseUpdateEntryEvent;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A provider, which wraps an other database provider and caches the recently used documents of every database. The
+ * cached documents are invalidated by the database events, which are called for the writes of this node and for the
+ * writes of the other nodes, which are received with the cluster packets of the h2 databases
+ */
+public final class CachedDatabaseProvider extends AbstractDatabaseProvider {
+
+    @Getter
+    private final AbstractDatabaseProvider databaseProvider;
+
+    /**
+     * The max count of cached documents per database
+     */
+    @Getter
+    private final int maxSize;
+
+    /**
+     * The delay in milliseconds, after that the updates are written to the wrapped database. The repeated updates of a
+     * key in this time are written only once. The updates are written directly, if the delay is 0
+     */
+    @Getter
+    private final long writeBehindDelay;
+
+    @Getter
+    private final ITaskScheduler taskScheduler;
+
+    private final IEventManager eventManager;
+
+    private final Object invalidationListener = new InvalidationListener();
+
+    private final Map<String, CachedDatabase> databases = Maps.newConcurrentHashMap();
+
+    public CachedDatabaseProvider(AbstractDatabaseProvider databaseProvider, int maxSize, long writeBehindDelay, ITaskScheduler taskScheduler, IEventManager eventManager)
+    {
+        Validate.checkNotNull(databaseProvider);
+        Validate.checkNotNull(taskScheduler);
+
+        if (maxSize <= 0) throw new IllegalArgumentException("The max size of the cache must be positive");
+
+        this.databaseProvider = databaseProvider;
+        this.maxSize = maxSize;
+        this.writeBehindDelay = writeBehindDelay;
+        this.taskScheduler = taskScheduler;
+        this.eventManager = eventManager;
+
+        if (eventManager != null) eventManager.registerListener(this.invalidationListener);
+    }
+
+    @Override
+    public boolean init() throws Exception
+    {
+        return this.databaseProvider.init();
+    }
+
+    @Override
+    public CachedDatabase getDatabase(String name)
+    {
+        Validate.checkNotNull(name);
+
+        return this.databases.computeIfAbsent(name, new Function<String, CachedDatabase>() {
+            @Override
+            public CachedDatabase apply(String name)
+            {
+                return new CachedDatabase(CachedDatabaseProvider.this, name);
+            }
+        });
+    }
+
+    @Override
+    public boolean containsDatabase(String name)
+    {
+        return this.databaseProvider.containsDatabase(name);
+    }
+
+    @Override
+    public boolean deleteDatabase(String name)
+    {
+        Validate.checkNotNull(name);
+
+        CachedDatabase database = this.databases.remove(name);
+        if (database != null) database.discard();
+
+        this.invalidate(name);
+
+        return this.databaseProvider.deleteDatabase(name);
+    }
+
+    @Override
+    public Collection<String> getDatabaseNames()
+    {
+        return this.databaseProvider.getDatabaseNames();
+    }
+
+    @Override
+    public String getName()
+    {
+        return this.databaseProvider.getName();
+    }
+
+    @Override
+    public IDatabaseHandler getDatabaseHandler()
+    {
+        return this.databaseProvider.getDatabaseHandler();
+    }
+
+    @Override
+    public void setDatabaseHandler(IDatabaseHandler databaseHandler)
+    {
+        this.databaseProvider.setDatabaseHandler(databaseHandler);
+    }
+
+    @Override
+    public int getFetchSize()
+    {
+        return this.databaseProvider.getFetchSize();
+    }
+
+    @Override
+    public void setFetchSize(int fetchSize)
+    {
+        this.databaseProvider.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        this.flush();
+
+        if (this.eventManager != null) this.eventManager.unregisterListener(this.invalidationListener);
+
+        this.databaseProvider.close();
+    }
+
+    /**
+     * Writes the pending updates of all databases
+     */
+    public void flush()
+    {
+        for (CachedDatabase database : this.databases.values())
+            database.flush();
+    }
+
+    /**
+     * Removes all cached documents of a database. The names are compared case insensitive, like the tables of the sql databases
+     */
+    public void invalidate(String name)
+    {
+        Validate.checkNotNull(name);
+
+        for (CachedDatabase database : this.databases.values())
+            if (database.getName().equalsIgnoreCase(name))
+                database.invalidateAll();
+    }
+
+    public void invalidate(String name, String key)
+    {
+        Validate.checkNotNull(name);
+        Validate.checkNotNull(key);
+
+        for (CachedDatabase database : this.databases.values())
+            if (database.getName().equalsIgnoreCase(name))
+                database.invalidate(key);
+    }
+
+    public long getHits()
+    {
+        long hits = 0;
+
+        for (CachedDatabase database : this.databases.values())
+            hits += database.getHits();
+
+        return hits;
+    }
+
+    public long getMisses()
+    {
+        long misses = 0;
+
+        for (CachedDatabase database : this.databases.values())
+            misses += database.getMisses();
+
+        return misses;
+    }
+
+    public long getEvictions()
+    {
+        long evictions = 0;
+
+        for (CachedDatabase database : this.databases.values())
+            evictions += database.getEvictions();
+
+        return evictions;
+    }
+
+    public long getCoalescedWrites()
+    {
+        long coalescedWrites = 0;
+
+        for (CachedDatabase database : this.databases.values())
+            coalescedWrites += database.getCoalescedWrites();
+
+        return coalescedWrites;
+    }
+
+    public Collection<CachedDatabase> getCachedDatabases()
+    {
+        return this.databases.values();
+    }
+
+    /*= ------------------------------------------------------------ =*/
+
+    private final class InvalidationListener {
+
+        @EventListener
+        public void handle(DatabaseInsertEntryEvent event)
+        {
+            invalidate(event.getDatabase().getName(), event.getKey());
+        }
+
+        @EventListener
+        public void handle(DatabaseUpdateEntryEvent event)
+        {
+            invalidate(event.getDatabase().getName(), event.getKey());
+        }
+
+        @EventListener
+        public void handle(DatabaseDeleteEntryEvent event)
+        {
+            invalidate(event.getDatabase().getName(), event.getKey());
+        }
+
+        @EventListener
+        public void handle(DatabaseClearEntriesEvent event)
+        {
+            invalidate(event.getDatabase().getName());
+        }
+    }
+}
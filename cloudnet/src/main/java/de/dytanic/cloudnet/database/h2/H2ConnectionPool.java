@@ -0,0 +1,290 @@
+package de.dytanic.cloudnet.database.h2;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
+import de.dytanic.cloudnet.database.ResultSetIterator;
+import lombok.Getter;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed size pool of connections to the embedded h2 database. The connections are opened on demand up to the pool
+ * size, a thread waits for a free connection, if all connections are used by other threads. If no connection is
+ * released in the borrow timeout, for example because a connection is leaked, the call fails with an SQLException.
+ * <p>
+ * Every connection keeps the prepared statements of the recently executed queries, so the same sql string is
+ * parsed only once per connection and not for every call.
+ * <p>
+ * The pool is reentrant, a thread, which executes a callback in the callback of an other one, gets the same connection
+ * again, like the single connection, which was shared before
+ */
+public final class H2ConnectionPool implements AutoCloseable {
+
+    public static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 30000;
+
+    //The interval, in that a waiting thread checks, whether the pool was closed or a connection can be opened
+    private static final long WAIT_INTERVAL_MILLIS = 100;
+
+    @Getter
+    private final String jdbcUrl;
+
+    @Getter
+    private final int poolSize, statementCacheSize;
+
+    @Getter
+    private final long borrowTimeoutMillis;
+
+    private final BlockingQueue<PooledConnection> idleConnections;
+
+    private final AtomicInteger openedConnections = new AtomicInteger();
+
+    private final ThreadLocal<PooledConnection> currentConnection = new ThreadLocal<>();
+
+    private final AtomicLong statementHits = new AtomicLong(), statementMisses = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public H2ConnectionPool(String jdbcUrl, int poolSize, int statementCacheSize)
+    {
+        this(jdbcUrl, poolSize, statementCacheSize, DEFAULT_BORROW_TIMEOUT_MILLIS);
+    }
+
+    public H2ConnectionPool(String jdbcUrl, int poolSize, int statementCacheSize, long borrowTimeoutMillis)
+    {
+        Validate.checkNotNull(jdbcUrl);
+
+        if (poolSize <= 0) throw new IllegalArgumentException("The size of the connection pool must be positive");
+        if (borrowTimeoutMillis <= 0) throw new IllegalArgumentException("The borrow timeout of the connection pool must be positive");
+
+        this.jdbcUrl = jdbcUrl;
+        this.poolSize = poolSize;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleConnections = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * Executes the callback with a connection of the pool, which is used exclusively by the current thread, until the
+     * callback is completed. The prepared statements of the connection mustn't be closed by the callback
+     */
+    public <T> T execute(IThrowableCallback<PooledConnection, T> callback) throws Throwable
+    {
+        Validate.checkNotNull(callback);
+
+        PooledConnection connection = this.currentConnection.get();
+        boolean borrowed = connection == null;
+
+        if (borrowed)
+        {
+            connection = this.borrow();
+            this.currentConnection.set(connection);
+        }
+
+        connection.depth++;
+
+        try
+        {
+            return callback.call(connection);
+        } finally
+        {
+            connection.depth--;
+
+            if (borrowed)
+            {
+                this.currentConnection.remove();
+                this.release(connection);
+            }
+        }
+    }
+
+    public int getOpenedConnections()
+    {
+        return this.openedConnections.get();
+    }
+
+    public int getIdleConnections()
+    {
+        return this.idleConnections.size();
+    }
+
+    public long getStatementHits()
+    {
+        return this.statementHits.get();
+    }
+
+    public long getStatementMisses()
+    {
+        return this.statementMisses.get();
+    }
+
+    @Override
+    public void close()
+    {
+        this.closed = true;
+
+        PooledConnection connection;
+        while ((connection = this.idleConnections.poll()) != null)
+            connection.close();
+    }
+
+    /*= ------------------------------------------------------------ =*/
+
+    private PooledConnection borrow() throws SQLException, InterruptedException
+    {
+        if (this.closed) throw new SQLException("The connection pool is closed");
+
+        PooledConnection connection = this.idleConnections.poll();
+        if (connection != null) return connection;
+
+        long deadline = System.currentTimeMillis() + this.borrowTimeoutMillis;
+
+        while (true)
+        {
+            int opened = this.openedConnections.get();
+
+            if (opened < this.poolSize)
+            {
+                if (this.openedConnections.compareAndSet(opened, opened + 1))
+                    try
+                    {
+                        return new PooledConnection(DriverManager.getConnection(this.jdbcUrl));
+                    } catch (SQLException ex)
+                    {
+                        this.openedConnections.decrementAndGet();
+                        throw ex;
+                    }
+
+                continue;
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+
+            if (remaining <= 0)
+                throw new SQLException("No connection of the pool was released in " + this.borrowTimeoutMillis + "ms, a connection may be leaked");
+
+            //A broken connection isn't put back, so the waiting thread opens a new one after the interval
+            connection = this.idleConnections.poll(Math.min(remaining, WAIT_INTERVAL_MILLIS), TimeUnit.MILLISECONDS);
+
+            if (this.closed)
+            {
+                if (connection != null)
+                {
+                    connection.close();
+                    this.openedConnections.decrementAndGet();
+                }
+
+                throw new SQLException("The connection pool is closed");
+            }
+
+            if (connection != null) return connection;
+        }
+    }
+
+    private void release(PooledConnection connection)
+    {
+        boolean valid;
+
+        try
+        {
+            valid = !connection.connection.isClosed() && connection.connection.getAutoCommit();
+        } catch (SQLException ex)
+        {
+            valid = false;
+        }
+
+        //A broken connection is replaced by a new one on the next demand
+        if (this.closed || !valid || !this.idleConnections.offer(connection))
+        {
+            connection.close();
+            this.openedConnections.decrementAndGet();
+        }
+    }
+
+    /*= ------------------------------------------------------------ =*/
+
+    /**
+     * A connection of the pool with its cache of prepared statements
+     */
+    public final class PooledConnection {
+
+        @Getter
+        private final Connection connection;
+
+        //The least recently used statement is closed, if the cache is full
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75F, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest)
+            {
+                if (size() <= statementCacheSize) return false;
+
+                ResultSetIterator.closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+
+        //The count of the running callbacks of the current thread
+        private int depth;
+
+        private PooledConnection(Connection connection)
+        {
+            this.connection = connection;
+        }
+
+        /**
+         * Returns the cached prepared statement of the query without parameters or prepares and caches it, if it is
+         * not cached yet. The nested callbacks get own statements, because a cached statement can be used by the
+         * outer callback at the moment
+         */
+        public PreparedStatement prepareStatement(String query) throws SQLException
+        {
+            Validate.checkNotNull(query);
+
+            if (this.depth > 1) return this.connection.prepareStatement(query);
+
+            PreparedStatement preparedStatement = this.statements.get(query);
+
+            if (preparedStatement != null && !preparedStatement.isClosed())
+            {
+                statementHits.incrementAndGet();
+                preparedStatement.clearParameters();
+
+                return preparedStatement;
+            }
+
+            statementMisses.incrementAndGet();
+            preparedStatement = this.connection.prepareStatement(query);
+
+            if (statementCacheSize > 0) this.statements.put(query, preparedStatement);
+
+            return preparedStatement;
+        }
+
+        /**
+         * Closes the statement of the query, if it isn't cached
+         */
+        public void releaseStatement(String query, PreparedStatement preparedStatement)
+        {
+            if (this.statements.get(query) != preparedStatement) ResultSetIterator.closeQuietly(preparedStatement);
+        }
+
+        private void close()
+        {
+            for (PreparedStatement preparedStatement : this.statements.values())
+                ResultSetIterator.closeQuietly(preparedStatement);
+
+            this.statements.clear();
+            ResultSetIterator.closeQuietly(this.connection);
+        }
+    }
+}
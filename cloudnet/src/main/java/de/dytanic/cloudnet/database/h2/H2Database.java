@@ -6,26 +6,48 @@ import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.database.DatabaseIndexes;
+import de.dytanic.cloudnet.database.DefaultDatabaseBatch;
 import de.dytanic.cloudnet.database.IDatabase;
+import de.dytanic.cloudnet.database.IDatabaseBatch;
+import de.dytanic.cloudnet.database.LazyDocumentEntry;
+import lombok.AccessLevel;
 import lombok.Getter;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Getter
 public final class H2Database implements IDatabase {
 
     private static final String TABLE_COLUMN_KEY = "Name", TABLE_COLUMN_VALUE = "Document";
 
+    //The count of index entries, which are sent in one batch, while an index is built
+    private static final int INDEX_BATCH_SIZE = 1000;
+
     private final H2DatabaseProvider databaseProvider;
 
-    private final String name;
+    private final String name, indexTable;
+
+    //The indexed fields, the indexes are maintained on every change of the database
+    private final Collection<String> indexes = Iterables.newCopyOnWriteArrayList();
+
+    //The indexes, which are built at the moment and aren't used by the queries yet
+    @Getter(AccessLevel.NONE)
+    private final Collection<String> buildingIndexes = Iterables.newCopyOnWriteArrayList();
 
     public H2Database(H2DatabaseProvider databaseProvider, String name)
     {
@@ -34,8 +56,13 @@ public final class H2Database implements IDatabase {
 
         this.databaseProvider = databaseProvider;
         this.name = name;
+        this.indexTable = DatabaseIndexes.getIndexTable(name);
 
         databaseProvider.executeUpdate("CREATE TABLE IF NOT EXISTS " + name + "(" + TABLE_COLUMN_KEY + " VARCHAR(1024), " + TABLE_COLUMN_VALUE + " TEXT);");
+        //All operations and the indexed queries select the documents by their keys
+        databaseProvider.executeUpdate("CREATE INDEX IF NOT EXISTS " + name + "__KEY ON " + name + "(" + TABLE_COLUMN_KEY + ");");
+
+        this.loadIndexes();
     }
 
     @Override
@@ -61,11 +88,14 @@ public final class H2Database implements IDatabase {
         Validate.checkNotNull(key);
         Validate.checkNotNull(document);
 
-        return !contains(key) ?
-            databaseProvider.executeUpdate(
-                "INSERT INTO " + name + "(" + TABLE_COLUMN_KEY + "," + TABLE_COLUMN_VALUE + ") VALUES (?, ?);",
-                key, document.toString()
-            ) != -1 : update0(key, document);
+        if (contains(key)) return update0(key, document);
+
+        if (!this.indexes.isEmpty()) return this.writeWithIndexEntries(key, document);
+
+        return databaseProvider.executeUpdate(
+            "INSERT INTO " + name + "(" + TABLE_COLUMN_KEY + "," + TABLE_COLUMN_VALUE + ") VALUES (?, ?);",
+            key, document.toString()
+        ) != -1;
     }
 
     @Override
@@ -82,6 +112,8 @@ public final class H2Database implements IDatabase {
 
     public boolean update0(String key, JsonDocument document)
     {
+        if (!this.indexes.isEmpty()) return this.writeWithIndexEntries(key, document);
+
         return databaseProvider.executeUpdate(
             "UPDATE " + name + " SET " + TABLE_COLUMN_VALUE + "=? WHERE " + TABLE_COLUMN_KEY + "=?",
             document.toString(), key
@@ -120,6 +152,8 @@ public final class H2Database implements IDatabase {
 
     public boolean delete0(String key)
     {
+        if (!this.indexes.isEmpty()) return this.writeWithIndexEntries(key, null);
+
         return databaseProvider.executeUpdate(
             "DELETE FROM " + name + " WHERE " + TABLE_COLUMN_KEY + "=?",
             key
@@ -150,6 +184,21 @@ public final class H2Database implements IDatabase {
         Validate.checkNotNull(fieldName);
         Validate.checkNotNull(fieldValue);
 
+        String indexValue = this.getIndexValue(fieldName, fieldValue);
+
+        if (indexValue != null)
+            return databaseProvider.executeQuery(
+                "SELECT " + TABLE_COLUMN_VALUE + " FROM " + name + " WHERE " + this.getIndexCondition(),
+                new IThrowableCallback<ResultSet, List<JsonDocument>>() {
+                    @Override
+                    public List<JsonDocument> call(ResultSet resultSet) throws Throwable
+                    {
+                        return readDocuments(resultSet, Collections.singletonMap(fieldName, indexValue));
+                    }
+                },
+                fieldName, indexValue
+            );
+
         return databaseProvider.executeQuery(
             "SELECT " + TABLE_COLUMN_VALUE + " FROM " + name + " WHERE " + TABLE_COLUMN_VALUE + " LIKE ?",
             new IThrowableCallback<ResultSet, List<JsonDocument>>() {
@@ -176,6 +225,7 @@ public final class H2Database implements IDatabase {
         StringBuilder stringBuilder = new StringBuilder("SELECT ").append(TABLE_COLUMN_VALUE).append(" FROM ").append(name);
 
         Collection<String> collection = Iterables.newArrayList();
+        Map<String, String> indexFilters = Maps.newHashMap();
 
         if (filters.size() > 0)
         {
@@ -188,8 +238,19 @@ public final class H2Database implements IDatabase {
             {
                 item = iterator.next();
 
-                stringBuilder.append(TABLE_COLUMN_VALUE).append(" LIKE ?");
-                collection.add("%\"" + item + "\":" + filters.get(item).toString() + "%");
+                String indexValue = this.getIndexValue(item, filters.get(item));
+
+                if (indexValue != null)
+                {
+                    stringBuilder.append(this.getIndexCondition());
+                    collection.add(item);
+                    collection.add(indexValue);
+                    indexFilters.put(item, indexValue);
+                } else
+                {
+                    stringBuilder.append(TABLE_COLUMN_VALUE).append(" LIKE ?");
+                    collection.add("%\"" + item + "\":" + filters.get(item).toString() + "%");
+                }
 
                 if (iterator.hasNext()) stringBuilder.append(" and ");
             }
@@ -201,12 +262,7 @@ public final class H2Database implements IDatabase {
                 @Override
                 public List<JsonDocument> call(ResultSet resultSet) throws Throwable
                 {
-                    List<JsonDocument> jsonDocuments = Iterables.newArrayList();
-
-                    while (resultSet.next())
-                        jsonDocuments.add(JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE)));
-
-                    return jsonDocuments;
+                    return readDocuments(resultSet, indexFilters);
                 }
             },
             collection.toArray()
@@ -233,6 +289,58 @@ public final class H2Database implements IDatabase {
         );
     }
 
+    @Override
+    public Collection<String> keys(int offset, int limit)
+    {
+        if (offset < 0 || limit < 0) throw new IllegalArgumentException("The offset and the limit must not be negative");
+
+        return databaseProvider.executeQuery(
+            "SELECT " + TABLE_COLUMN_KEY + " FROM " + name + " ORDER BY " + TABLE_COLUMN_KEY + " LIMIT " + limit + " OFFSET " + offset,
+            new IThrowableCallback<ResultSet, Collection<String>>() {
+                @Override
+                public Collection<String> call(ResultSet resultSet) throws Throwable
+                {
+                    Collection<String> keys = Iterables.newArrayList();
+
+                    while (resultSet.next())
+                        keys.add(resultSet.getString(TABLE_COLUMN_KEY));
+
+                    return keys;
+                }
+            }
+        );
+    }
+
+    @Override
+    public Stream<Map.Entry<String, JsonDocument>> stream()
+    {
+        return databaseProvider.executeStream(
+            "SELECT * FROM " + name,
+            new IThrowableCallback<ResultSet, Map.Entry<String, JsonDocument>>() {
+                @Override
+                public Map.Entry<String, JsonDocument> call(ResultSet resultSet) throws Throwable
+                {
+                    return new LazyDocumentEntry(resultSet.getString(TABLE_COLUMN_KEY), resultSet.getString(TABLE_COLUMN_VALUE));
+                }
+            }
+        );
+    }
+
+    @Override
+    public Stream<String> keyStream()
+    {
+        return databaseProvider.executeStream(
+            "SELECT " + TABLE_COLUMN_KEY + " FROM " + name,
+            new IThrowableCallback<ResultSet, String>() {
+                @Override
+                public String call(ResultSet resultSet) throws Throwable
+                {
+                    return resultSet.getString(TABLE_COLUMN_KEY);
+                }
+            }
+        );
+    }
+
     @Override
     public Collection<JsonDocument> documents()
     {
@@ -278,26 +386,17 @@ public final class H2Database implements IDatabase {
     {
         Validate.checkNotNull(predicate);
 
-        return databaseProvider.executeQuery(
-            "SELECT * FROM " + name,
-            new IThrowableCallback<ResultSet, Map<String, JsonDocument>>() {
-                @Override
-                public Map<String, JsonDocument> call(ResultSet resultSet) throws Throwable
-                {
-                    Map<String, JsonDocument> map = Maps.newHashMap();
-
-                    while (resultSet.next())
-                    {
-                        String key = resultSet.getString(TABLE_COLUMN_KEY);
-                        JsonDocument document = JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE));
-
-                        if (predicate.test(key, document)) map.put(key, document);
-                    }
+        Map<String, JsonDocument> map = Maps.newHashMap();
 
-                    return map;
-                }
+        iterate(new BiConsumer<String, JsonDocument>() {
+            @Override
+            public void accept(String key, JsonDocument document)
+            {
+                if (predicate.test(key, document)) map.put(key, document);
             }
-        );
+        });
+
+        return map;
     }
 
     @Override
@@ -305,23 +404,16 @@ public final class H2Database implements IDatabase {
     {
         Validate.checkNotNull(consumer);
 
-        databaseProvider.executeQuery(
-            "SELECT * FROM " + name,
-            new IThrowableCallback<ResultSet, Void>() {
+        try (Stream<Map.Entry<String, JsonDocument>> stream = this.stream())
+        {
+            stream.forEach(new Consumer<Map.Entry<String, JsonDocument>>() {
                 @Override
-                public Void call(ResultSet resultSet) throws Throwable
+                public void accept(Map.Entry<String, JsonDocument> entry)
                 {
-                    while (resultSet.next())
-                    {
-                        String key = resultSet.getString(TABLE_COLUMN_KEY);
-                        JsonDocument document = JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE));
-                        consumer.accept(key, document);
-                    }
-
-                    return null;
+                    consumer.accept(entry.getKey(), entry.getValue());
                 }
-            }
-        );
+            });
+        }
     }
 
     @Override
@@ -469,6 +561,129 @@ public final class H2Database implements IDatabase {
     public void clear0()
     {
         databaseProvider.executeUpdate("TRUNCATE TABLE " + name);
+
+        if (!this.indexes.isEmpty()) databaseProvider.executeUpdate("TRUNCATE TABLE " + this.indexTable);
+    }
+
+    @Override
+    public boolean createIndex(String fieldName)
+    {
+        Validate.checkNotNull(fieldName);
+
+        if (!DatabaseIndexes.isValidFieldName(fieldName))
+            throw new IllegalArgumentException("Invalid field name " + fieldName + " for an index");
+
+        synchronized (this.indexes)
+        {
+            if (this.indexes.contains(fieldName)) return false;
+
+            this.createIndexTable();
+
+            databaseProvider.executeUpdate(
+                "INSERT INTO " + DatabaseIndexes.INDEX_DECLARATION_TABLE + "(" + DatabaseIndexes.COLUMN_DATABASE + "," + DatabaseIndexes.COLUMN_FIELD + ") VALUES (?, ?);",
+                name.toUpperCase(), fieldName
+            );
+            databaseProvider.executeUpdate("DELETE FROM " + this.indexTable + " WHERE " + DatabaseIndexes.COLUMN_FIELD + "=?", fieldName);
+
+            //The changes from now on are indexed, the existing documents are indexed afterwards
+            this.buildingIndexes.add(fieldName);
+            this.indexes.add(fieldName);
+        }
+
+        Boolean success;
+
+        try
+        {
+            success = databaseProvider.executeTransaction(new IThrowableCallback<Connection, Boolean>() {
+                @Override
+                public Boolean call(Connection connection) throws Throwable
+                {
+                    addIndexEntries(connection, fieldName);
+                    return true;
+                }
+            });
+        } finally
+        {
+            this.buildingIndexes.remove(fieldName);
+        }
+
+        //The entries of a failed build are rolled back, so the index would miss the existing documents
+        if (success == null)
+        {
+            this.dropIndex(fieldName);
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean dropIndex(String fieldName)
+    {
+        Validate.checkNotNull(fieldName);
+
+        synchronized (this.indexes)
+        {
+            if (!this.indexes.remove(fieldName)) return false;
+
+            databaseProvider.executeUpdate(
+                "DELETE FROM " + DatabaseIndexes.INDEX_DECLARATION_TABLE + " WHERE " + DatabaseIndexes.COLUMN_DATABASE + "=? AND " + DatabaseIndexes.COLUMN_FIELD + "=?",
+                name.toUpperCase(), fieldName
+            );
+            databaseProvider.executeUpdate("DELETE FROM " + this.indexTable + " WHERE " + DatabaseIndexes.COLUMN_FIELD + "=?", fieldName);
+        }
+
+        return true;
+    }
+
+    @Override
+    public Collection<String> getIndexes()
+    {
+        return Collections.unmodifiableCollection(this.indexes);
+    }
+
+    @Override
+    public boolean batch(Consumer<IDatabaseBatch> consumer)
+    {
+        Validate.checkNotNull(consumer);
+
+        DefaultDatabaseBatch batch = new DefaultDatabaseBatch();
+        consumer.accept(batch);
+
+        if (databaseProvider.getDatabaseHandler() != null)
+            batch.handle(this, databaseProvider.getDatabaseHandler());
+
+        return batch0(batch);
+    }
+
+    public boolean batch0(DefaultDatabaseBatch batch)
+    {
+        Validate.checkNotNull(batch);
+
+        if (batch.size() == 0) return true;
+
+        Boolean success = databaseProvider.executeTransaction(new IThrowableCallback<Connection, Boolean>() {
+            @Override
+            public Boolean call(Connection connection) throws Throwable
+            {
+                executeBatch(connection, batch);
+                return true;
+            }
+        });
+
+        return success != null && success;
+    }
+
+    @Override
+    public ITask<Boolean> batchAsync(Consumer<IDatabaseBatch> consumer)
+    {
+        return schedule(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception
+            {
+                return batch(consumer);
+            }
+        });
     }
 
     @Override
@@ -486,8 +701,201 @@ public final class H2Database implements IDatabase {
 
     /*= -------------------------------------------------------- =*/
 
+    private void loadIndexes()
+    {
+        Collection<String> indexes = databaseProvider.executeQuery(
+            "SELECT " + DatabaseIndexes.COLUMN_FIELD + " FROM " + DatabaseIndexes.INDEX_DECLARATION_TABLE + " WHERE " + DatabaseIndexes.COLUMN_DATABASE + "=?",
+            new IThrowableCallback<ResultSet, Collection<String>>() {
+                @Override
+                public Collection<String> call(ResultSet resultSet) throws Throwable
+                {
+                    Collection<String> indexes = Iterables.newArrayList();
+
+                    while (resultSet.next())
+                        indexes.add(resultSet.getString(DatabaseIndexes.COLUMN_FIELD));
+
+                    return indexes;
+                }
+            },
+            name.toUpperCase()
+        );
+
+        if (indexes == null || indexes.isEmpty()) return;
+
+        this.createIndexTable();
+        this.indexes.addAll(indexes);
+    }
+
+    private void createIndexTable()
+    {
+        databaseProvider.executeUpdate("CREATE TABLE IF NOT EXISTS " + this.indexTable + "(" + DatabaseIndexes.COLUMN_FIELD + " VARCHAR(" + DatabaseIndexes.MAX_FIELD_LENGTH + "), " +
+            DatabaseIndexes.COLUMN_VALUE + " VARCHAR(" + DatabaseIndexes.MAX_VALUE_LENGTH + "), " + TABLE_COLUMN_KEY + " VARCHAR(1024));");
+        databaseProvider.executeUpdate("CREATE INDEX IF NOT EXISTS " + this.indexTable + "_VALUE ON " + this.indexTable + "(" + DatabaseIndexes.COLUMN_FIELD + ", " + DatabaseIndexes.COLUMN_VALUE + ");");
+        databaseProvider.executeUpdate("CREATE INDEX IF NOT EXISTS " + this.indexTable + "_KEY ON " + this.indexTable + "(" + TABLE_COLUMN_KEY + ");");
+    }
+
+    private String getIndexCondition()
+    {
+        return TABLE_COLUMN_KEY + " IN (SELECT " + TABLE_COLUMN_KEY + " FROM " + this.indexTable + " WHERE " + DatabaseIndexes.COLUMN_FIELD + "=? AND " + DatabaseIndexes.COLUMN_VALUE + "=?)";
+    }
+
+    /**
+     * Returns the value of the query in the form of the index, or null, if the field has no usable index
+     */
+    private String getIndexValue(String fieldName, Object fieldValue)
+    {
+        return this.indexes.contains(fieldName) && !this.buildingIndexes.contains(fieldName) ? DatabaseIndexes.toIndexValue(fieldValue) : null;
+    }
+
+    /**
+     * Writes the document or deletes it, if the document is null, together with its index entries in one transaction,
+     * so a failed statement can't leave a document without its index entries
+     */
+    private boolean writeWithIndexEntries(String key, JsonDocument document)
+    {
+        DefaultDatabaseBatch batch = new DefaultDatabaseBatch();
+
+        if (document != null)
+            batch.update(key, document);
+        else
+            batch.delete(key);
+
+        return this.batch0(batch);
+    }
+
+    /**
+     * Writes the index entries of the existing documents in batches. The documents are read lazily, so the table is
+     * never loaded completely into the memory
+     */
+    private void addIndexEntries(Connection connection, String fieldName) throws Exception
+    {
+        try (
+            Stream<Map.Entry<String, JsonDocument>> stream = databaseProvider.executeStream0(
+                "SELECT * FROM " + name,
+                new IThrowableCallback<ResultSet, Map.Entry<String, JsonDocument>>() {
+                    @Override
+                    public Map.Entry<String, JsonDocument> call(ResultSet resultSet) throws Throwable
+                    {
+                        return new LazyDocumentEntry(resultSet.getString(TABLE_COLUMN_KEY), resultSet.getString(TABLE_COLUMN_VALUE));
+                    }
+                }
+            );
+            PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO " + this.indexTable + "(" + DatabaseIndexes.COLUMN_FIELD + "," +
+                DatabaseIndexes.COLUMN_VALUE + "," + TABLE_COLUMN_KEY + ") VALUES (?, ?, ?);"))
+        {
+            int batchSize = 0;
+            Iterator<Map.Entry<String, JsonDocument>> iterator = stream.iterator();
+
+            while (iterator.hasNext())
+            {
+                Map.Entry<String, JsonDocument> entry = iterator.next();
+                String value = DatabaseIndexes.getIndexValue(entry.getValue(), fieldName);
+
+                if (value == null) continue;
+
+                insertStatement.setString(1, fieldName);
+                insertStatement.setString(2, value);
+                insertStatement.setString(3, entry.getKey());
+                insertStatement.addBatch();
+
+                if (++batchSize == INDEX_BATCH_SIZE)
+                {
+                    insertStatement.executeBatch();
+                    batchSize = 0;
+                }
+            }
+
+            if (batchSize > 0) insertStatement.executeBatch();
+        }
+    }
+
+    private void executeBatch(Connection connection, DefaultDatabaseBatch batch) throws SQLException
+    {
+        Collection<String> indexes = Iterables.newArrayList(this.indexes);
+
+        //TRUNCATE would commit the transaction
+        if (batch.isClearing())
+            try (Statement statement = connection.createStatement())
+            {
+                statement.executeUpdate("DELETE FROM " + name);
+                if (!indexes.isEmpty()) statement.executeUpdate("DELETE FROM " + this.indexTable);
+            }
+
+        try (
+            PreparedStatement deleteStatement = connection.prepareStatement("DELETE FROM " + name + " WHERE " + TABLE_COLUMN_KEY + "=?");
+            PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO " + name + "(" + TABLE_COLUMN_KEY + "," + TABLE_COLUMN_VALUE + ") VALUES (?, ?);"))
+        {
+            for (Map.Entry<String, JsonDocument> entry : batch.getChanges().entrySet())
+            {
+                //An insert or an update replaces the existing document, so every written key is deleted first
+                if (!batch.isClearing())
+                {
+                    deleteStatement.setString(1, entry.getKey());
+                    deleteStatement.addBatch();
+                }
+
+                if (entry.getValue() != null)
+                {
+                    insertStatement.setString(1, entry.getKey());
+                    insertStatement.setString(2, entry.getValue().toString());
+                    insertStatement.addBatch();
+                }
+            }
+
+            deleteStatement.executeBatch();
+            insertStatement.executeBatch();
+        }
+
+        if (indexes.isEmpty()) return;
+
+        try (
+            PreparedStatement deleteStatement = connection.prepareStatement("DELETE FROM " + this.indexTable + " WHERE " + TABLE_COLUMN_KEY + "=?");
+            PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO " + this.indexTable + "(" + DatabaseIndexes.COLUMN_FIELD + "," +
+                DatabaseIndexes.COLUMN_VALUE + "," + TABLE_COLUMN_KEY + ") VALUES (?, ?, ?);"))
+        {
+            for (Map.Entry<String, JsonDocument> entry : batch.getChanges().entrySet())
+            {
+                if (!batch.isClearing())
+                {
+                    deleteStatement.setString(1, entry.getKey());
+                    deleteStatement.addBatch();
+                }
+
+                if (entry.getValue() != null)
+                    for (String fieldName : indexes)
+                    {
+                        String value = DatabaseIndexes.getIndexValue(entry.getValue(), fieldName);
+
+                        if (value == null) continue;
+
+                        insertStatement.setString(1, fieldName);
+                        insertStatement.setString(2, value);
+                        insertStatement.setString(3, entry.getKey());
+                        insertStatement.addBatch();
+                    }
+            }
+
+            deleteStatement.executeBatch();
+            insertStatement.executeBatch();
+        }
+    }
+
+    private List<JsonDocument> readDocuments(ResultSet resultSet, Map<String, String> indexFilters) throws Exception
+    {
+        List<JsonDocument> jsonDocuments = Iterables.newArrayList();
+
+        while (resultSet.next())
+        {
+            JsonDocument document = JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE));
+
+            if (DatabaseIndexes.matches(document, indexFilters)) jsonDocuments.add(document);
+        }
+
+        return jsonDocuments;
+    }
+
     private <T> ITask<T> schedule(Callable<T> callable)
     {
-        return schedule(callable);
+        return databaseProvider.getTaskScheduler().schedule(callable);
     }
 }
\ No newline at end of file
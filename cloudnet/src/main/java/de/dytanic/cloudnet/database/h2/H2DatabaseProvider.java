@@ -4,30 +4,68 @@ import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.collection.NetorHashMap;
 import de.dytanic.cloudnet.common.collection.Pair;
-import de.dytanic.cloudnet.common.concurrent.DefaultTaskScheduler;
+import de.dytanic.cloudnet.common.concurrent.QueuedTaskScheduler;
 import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
 import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
 import de.dytanic.cloudnet.database.AbstractDatabaseProvider;
+import de.dytanic.cloudnet.database.DatabaseIndexes;
+import de.dytanic.cloudnet.database.ResultSetIterator;
+import lombok.Getter;
 import org.h2.Driver;
 
 import java.io.File;
 import java.sql.*;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 public final class H2DatabaseProvider extends AbstractDatabaseProvider {
 
     private static final long NEW_CREATION_DELAY = 600000;
 
+    /**
+     * The max count of cached prepared statements per connection
+     */
+    public static final int STATEMENT_CACHE_SIZE = Integer.getInteger("cloudnet.database.h2.statementCacheSize", 64);
+
+    /**
+     * The max time in milliseconds, that a call waits for a free connection of the pool
+     */
+    public static final long CONNECTION_TIMEOUT_MILLIS = Long.getLong("cloudnet.database.h2.connectionTimeout", H2ConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS);
+
+    /**
+     * The max count of streams, which are open at the same time. Every stream uses an own connection outside of the
+     * connection pool, until it is closed
+     */
+    public static final int MAX_OPEN_STREAMS = Integer.getInteger("cloudnet.database.h2.maxOpenStreams", 16);
+
+    private static final long OPEN_STREAM_TIMEOUT_MILLIS = 10000;
+
     protected final NetorHashMap<String, Long, H2Database> cachedDatabaseInstances = new NetorHashMap<>();
 
+    protected final Semaphore openStreamPermits = new Semaphore(MAX_OPEN_STREAMS);
+
+    //The streams, which aren't closed yet, they are closed with the provider
+    protected final Collection<ResultSetIterator<?>> openStreams = Iterables.newConcurrentLinkedQueue();
+
+    @Getter
     protected final ITaskScheduler taskScheduler;
 
     protected final boolean autoShutdownTaskScheduler;
 
     protected final File h2dbFile;
 
-    protected Connection connection;
+    /**
+     * The count of connections. A pool size of 1 uses a single connection for all threads like before, a bigger pool
+     * opens the database in the multi threaded mode of h2, so the queries of different connections run in parallel
+     */
+    @Getter
+    protected final int poolSize;
+
+    @Getter
+    protected H2ConnectionPool connectionPool;
 
     static
     {
@@ -41,26 +79,45 @@ public final class H2DatabaseProvider extends AbstractDatabaseProvider {
 
     public H2DatabaseProvider(String h2File, ITaskScheduler taskScheduler)
     {
+        this(h2File, taskScheduler, 1);
+    }
+
+    /**
+     * Creates a provider with an own task scheduler for the asynchronous methods, which has a worker for every
+     * connection of the pool
+     */
+    public H2DatabaseProvider(String h2File, int poolSize)
+    {
+        this(h2File, null, poolSize);
+    }
+
+    public H2DatabaseProvider(String h2File, ITaskScheduler taskScheduler, int poolSize)
+    {
+        if (poolSize <= 0) throw new IllegalArgumentException("The size of the connection pool must be positive");
+
         if (taskScheduler != null)
         {
             this.taskScheduler = taskScheduler;
             autoShutdownTaskScheduler = false;
         } else
         {
-            this.taskScheduler = new DefaultTaskScheduler(1);
+            this.taskScheduler = new QueuedTaskScheduler(poolSize);
             autoShutdownTaskScheduler = true;
         }
 
         this.h2dbFile = new File(h2File);
+        this.poolSize = poolSize;
     }
 
     @Override
     public boolean init() throws Exception
     {
         this.h2dbFile.getParentFile().mkdirs();
-        this.connection = DriverManager.getConnection("jdbc:h2:" + h2dbFile.getAbsolutePath());
+        this.connectionPool = new H2ConnectionPool(this.getJdbcUrl(), this.poolSize, STATEMENT_CACHE_SIZE, CONNECTION_TIMEOUT_MILLIS);
 
-        return this.connection != null;
+        //The first connection is opened by the first statement, it fails, if the database file is broken
+        return this.executeUpdate("CREATE TABLE IF NOT EXISTS " + DatabaseIndexes.INDEX_DECLARATION_TABLE + "(" +
+            DatabaseIndexes.COLUMN_DATABASE + " VARCHAR(1024), " + DatabaseIndexes.COLUMN_FIELD + " VARCHAR(" + DatabaseIndexes.MAX_FIELD_LENGTH + "));") != -1;
     }
 
     @Override
@@ -96,15 +153,10 @@ public final class H2DatabaseProvider extends AbstractDatabaseProvider {
 
         cachedDatabaseInstances.remove(name);
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement("DROP TABLE " + name))
-        {
-            return preparedStatement.executeUpdate() != -1;
-        } catch (SQLException e)
-        {
-            e.printStackTrace();
-        }
+        this.executeUpdate("DROP TABLE IF EXISTS " + DatabaseIndexes.getIndexTable(name));
+        this.executeUpdate("DELETE FROM " + DatabaseIndexes.INDEX_DECLARATION_TABLE + " WHERE " + DatabaseIndexes.COLUMN_DATABASE + "=?", name.toUpperCase());
 
-        return false;
+        return this.executeUpdate("DROP TABLE " + name) != -1;
     }
 
     @Override
@@ -117,7 +169,13 @@ public final class H2DatabaseProvider extends AbstractDatabaseProvider {
                 public Collection<String> call(ResultSet resultSet) throws Throwable
                 {
                     Collection<String> collection = Iterables.newArrayList();
-                    while (resultSet.next()) collection.add(resultSet.getString("table_name"));
+                    while (resultSet.next())
+                    {
+                        String table = resultSet.getString("table_name");
+
+                        //The auxiliary tables of the indexes aren't databases
+                        if (!DatabaseIndexes.isIndexTable(table)) collection.add(table);
+                    }
 
                     return collection;
                 }
@@ -136,7 +194,10 @@ public final class H2DatabaseProvider extends AbstractDatabaseProvider {
     {
         if (autoShutdownTaskScheduler) taskScheduler.shutdown();
 
-        if (connection != null) connection.close();
+        for (ResultSetIterator<?> resultSetIterator : openStreams)
+            resultSetIterator.close();
+
+        if (connectionPool != null) connectionPool.close();
     }
 
     /*= ------------------------------------------------------------ =*/
@@ -146,15 +207,29 @@ public final class H2DatabaseProvider extends AbstractDatabaseProvider {
         Validate.checkNotNull(query);
         Validate.checkNotNull(objects);
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query))
+        try
         {
-            int i = 1;
-            for (Object object : objects)
-                preparedStatement.setString(i++, object.toString());
-
-            return preparedStatement.executeUpdate();
+            return this.connectionPool.execute(new IThrowableCallback<H2ConnectionPool.PooledConnection, Integer>() {
+                @Override
+                public Integer call(H2ConnectionPool.PooledConnection connection) throws Throwable
+                {
+                    PreparedStatement preparedStatement = connection.prepareStatement(query);
+
+                    try
+                    {
+                        int i = 1;
+                        for (Object object : objects)
+                            preparedStatement.setString(i++, object.toString());
+
+                        return preparedStatement.executeUpdate();
+                    } finally
+                    {
+                        connection.releaseStatement(query, preparedStatement);
+                    }
+                }
+            });
 
-        } catch (SQLException e)
+        } catch (Throwable e)
         {
             e.printStackTrace();
         }
@@ -168,16 +243,74 @@ public final class H2DatabaseProvider extends AbstractDatabaseProvider {
         Validate.checkNotNull(callback);
         Validate.checkNotNull(objects);
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query))
+        try
         {
-            int i = 1;
-            for (Object object : objects)
-                preparedStatement.setString(i++, object.toString());
+            return this.connectionPool.execute(new IThrowableCallback<H2ConnectionPool.PooledConnection, T>() {
+                @Override
+                public T call(H2ConnectionPool.PooledConnection connection) throws Throwable
+                {
+                    PreparedStatement preparedStatement = connection.prepareStatement(query);
+
+                    try
+                    {
+                        int i = 1;
+                        for (Object object : objects)
+                            preparedStatement.setString(i++, object.toString());
+
+                        try (ResultSet resultSet = preparedStatement.executeQuery())
+                        {
+                            return callback.call(resultSet);
+                        }
+                    } finally
+                    {
+                        connection.releaseStatement(query, preparedStatement);
+                    }
+                }
+            });
 
-            try (ResultSet resultSet = preparedStatement.executeQuery())
-            {
-                return callback.call(resultSet);
-            }
+        } catch (Throwable e)
+        {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    /**
+     * Executes the callback in a transaction on a connection of the pool, which isn't used by other threads meanwhile,
+     * so their statements never become a part of the transaction. The transaction is rolled back, if the callback fails
+     *
+     * @return the result of the callback or null, if the transaction failed
+     */
+    public <T> T executeTransaction(IThrowableCallback<Connection, T> callback)
+    {
+        Validate.checkNotNull(callback);
+
+        try
+        {
+            return this.connectionPool.execute(new IThrowableCallback<H2ConnectionPool.PooledConnection, T>() {
+                @Override
+                public T call(H2ConnectionPool.PooledConnection pooledConnection) throws Throwable
+                {
+                    Connection connection = pooledConnection.getConnection();
+                    connection.setAutoCommit(false);
+
+                    try
+                    {
+                        T result = callback.call(connection);
+                        connection.commit();
+
+                        return result;
+                    } catch (Throwable throwable)
+                    {
+                        connection.rollback();
+                        throw throwable;
+                    } finally
+                    {
+                        connection.setAutoCommit(true);
+                    }
+                }
+            });
 
         } catch (Throwable e)
         {
@@ -187,12 +320,114 @@ public final class H2DatabaseProvider extends AbstractDatabaseProvider {
         return null;
     }
 
+    /**
+     * Executes the query lazily on an own connection, so the rows are read from the cursor of H2 in pages of the fetch
+     * size, while the stream is consumed, instead of loading the complete result into the memory.
+     * <p>
+     * The connection isn't part of the connection pool and stays open, until the stream is closed or read completely.
+     * At most {@link #MAX_OPEN_STREAMS} streams are open at the same time, a further call waits for the close of an
+     * other stream. The streams, which are still open, are closed with the provider
+     *
+     * @return a stream of the mapped rows, which must be closed, or an empty stream, if the query failed or no stream
+     * was closed in time
+     */
+    public <T> Stream<T> executeStream(String query, IThrowableCallback<ResultSet, T> mapper, Object... objects)
+    {
+        try
+        {
+            return this.executeStream0(query, mapper, objects);
+        } catch (Throwable e)
+        {
+            e.printStackTrace();
+        }
+
+        return Stream.empty();
+    }
+
+    /**
+     * Executes the query lazily like {@link #executeStream(String, IThrowableCallback, Object...)}, but throws the
+     * failure of the query, so an empty stream always means an empty result
+     */
+    <T> Stream<T> executeStream0(String query, IThrowableCallback<ResultSet, T> mapper, Object... objects) throws SQLException, InterruptedException
+    {
+        Validate.checkNotNull(query);
+        Validate.checkNotNull(mapper);
+        Validate.checkNotNull(objects);
+
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        boolean permitted = false;
+
+        try
+        {
+            permitted = this.openStreamPermits.tryAcquire(OPEN_STREAM_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+            if (!permitted)
+                throw new SQLException("All " + MAX_OPEN_STREAMS + " streams of the database are open, an unclosed stream may leak its connection");
+
+            connection = DriverManager.getConnection(this.getJdbcUrl());
+
+            try (Statement statement = connection.createStatement())
+            {
+                statement.execute("SET LAZY_QUERY_EXECUTION 1");
+            }
+
+            preparedStatement = connection.prepareStatement(query);
+            preparedStatement.setFetchSize(this.fetchSize);
+
+            int i = 1;
+            for (Object object : objects)
+                preparedStatement.setString(i++, object.toString());
+
+            StreamPermit streamPermit = new StreamPermit();
+            ResultSetIterator<T> resultSetIterator = new ResultSetIterator<>(preparedStatement.executeQuery(), mapper, streamPermit, connection, preparedStatement);
+
+            streamPermit.resultSetIterator = resultSetIterator;
+            this.openStreams.add(resultSetIterator);
+
+            return resultSetIterator.stream();
+
+        } catch (SQLException | InterruptedException | RuntimeException e)
+        {
+            ResultSetIterator.closeQuietly(preparedStatement);
+            ResultSetIterator.closeQuietly(connection);
+
+            if (permitted) this.openStreamPermits.release();
+
+            throw e;
+        }
+    }
+
     /*= ------------------------------------------------------------ =*/
 
+    private String getJdbcUrl()
+    {
+        //All connections of the embedded database must be opened with the same settings
+        return "jdbc:h2:" + h2dbFile.getAbsolutePath() + (this.poolSize > 1 ? ";MULTI_THREADED=1" : "");
+    }
+
     private void removedOutdatedEntries()
     {
         for (Map.Entry<String, Pair<Long, H2Database>> entry : cachedDatabaseInstances.entrySet())
             if (entry.getValue().getFirst() < System.currentTimeMillis())
                 cachedDatabaseInstances.remove(entry.getKey());
     }
-}
\ No newline at end of file
+
+    /*= ------------------------------------------------------------ =*/
+
+    /**
+     * Releases the permit of a stream, after its connection is closed
+     */
+    private final class StreamPermit implements AutoCloseable {
+
+        private ResultSetIterator<?> resultSetIterator;
+
+        @Override
+        public void close()
+        {
+            if (this.resultSetIterator != null) openStreams.remove(this.resultSetIterator);
+
+            openStreamPermits.release();
+        }
+    }
+}
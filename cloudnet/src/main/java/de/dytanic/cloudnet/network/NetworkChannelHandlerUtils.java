@@ -2,7 +2,6 @@ package de.dytanic.cloudnet.network;
 
 import de.dytanic.cloudnet.CloudNet;
 import de.dytanic.cloudnet.cluster.IClusterNodeServer;
-import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.language.LanguageManager;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.event.events.network.ChannelType;
@@ -10,11 +9,8 @@ import de.dytanic.cloudnet.driver.event.events.network.NetworkChannelInitEvent;
 import de.dytanic.cloudnet.driver.event.events.service.CloudServiceUnregisterEvent;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
-import de.dytanic.cloudnet.driver.network.protocol.Packet;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
-import de.dytanic.cloudnet.service.ICloudService;
 
-import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
 
@@ -55,21 +51,14 @@ final class NetworkChannelHandlerUtils {
             e.printStackTrace();
         }
 
-        Collection<Packet> removed = Iterables.newArrayList();
-
         for (Map.Entry<UUID, ServiceInfoSnapshot> entry : CloudNet.getInstance().getCloudServiceManager().getGlobalServiceInfoSnapshots().entrySet())
             if (entry.getValue().getServiceId().getNodeUniqueId().equalsIgnoreCase(clusterNodeServer.getNodeInfo().getUniqueId()))
             {
                 CloudNet.getInstance().getCloudServiceManager().getGlobalServiceInfoSnapshots().remove(entry.getKey());
-                removed.add(new PacketClientServerServiceInfoPublisher(entry.getValue(), PacketClientServerServiceInfoPublisher.PublisherType.UNREGISTER));
+                CloudNet.getInstance().publishServiceInfoSnapshotToCloudServices(entry.getValue(), PacketClientServerServiceInfoPublisher.PublisherType.UNREGISTER);
                 CloudNet.getInstance().getEventManager().callEvent(new CloudServiceUnregisterEvent(entry.getValue()));
             }
 
-        for (ICloudService cloudService : CloudNet.getInstance().getCloudServiceManager().getCloudServices().values())
-            if (cloudService.getNetworkChannel() != null)
-                for (Packet packet : removed)
-                    cloudService.getNetworkChannel().sendPacket(packet);
-
         System.out.println(LanguageManager.getMessage("cluster-server-networking-disconnected")
             .replace("%id%", clusterNodeServer.getNodeInfo().getUniqueId() + "")
             .replace("%serverAddress%", channel.getServerAddress().getHost() + ":" + channel.getServerAddress().getPort())
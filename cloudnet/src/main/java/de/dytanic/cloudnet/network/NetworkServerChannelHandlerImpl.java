@@ -89,7 +89,7 @@ public final class NetworkServerChannelHandlerImpl implements INetworkChannelHan
             .replace("%clientAddress%", channel.getClientAddress().getHost() + ":" + channel.getClientAddress().getPort())
         );
 
-        CloudNet.getInstance().sendAll(new PacketClientServerServiceInfoPublisher(cloudService.getServiceInfoSnapshot(), PacketClientServerServiceInfoPublisher.PublisherType.DISCONNECTED));
+        CloudNet.getInstance().publishServiceInfoSnapshot(cloudService.getServiceInfoSnapshot(), PacketClientServerServiceInfoPublisher.PublisherType.DISCONNECTED);
     }
 
     private boolean inWhitelist(INetworkChannel channel)
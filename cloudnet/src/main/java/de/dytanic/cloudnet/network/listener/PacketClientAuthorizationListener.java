@@ -12,7 +12,12 @@ import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.def.packet.PacketClientAuthorization;
 import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketHeaderCodec;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
+import de.dytanic.cloudnet.driver.network.protocol.PacketHeaderCodecs;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
+import de.dytanic.cloudnet.driver.network.rpc.RPCPacketListener;
 import de.dytanic.cloudnet.driver.permission.DefaultJsonFilePermissionManagement;
 import de.dytanic.cloudnet.driver.service.ServiceId;
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
@@ -21,9 +26,10 @@ import de.dytanic.cloudnet.event.network.NetworkChannelAuthCloudServiceSuccessEv
 import de.dytanic.cloudnet.network.packet.*;
 import de.dytanic.cloudnet.permission.DefaultDatabasePermissionManagement;
 import de.dytanic.cloudnet.service.ICloudService;
-import de.dytanic.cloudnet.template.ITemplateStorage;
 import de.dytanic.cloudnet.template.LocalTemplateStorage;
+import de.dytanic.cloudnet.template.LocalTemplateStorageUtil;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public final class PacketClientAuthorizationListener implements IPacketListener {
@@ -62,6 +68,7 @@ public final class PacketClientAuthorizationListener implements IPacketListener
                                 channel.getPacketRegistry().addListener(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new PacketServerConsoleLogEntryReceiveListener());
                                 //
                                 channel.getPacketRegistry().addListener(PacketConstants.INTERNAL_PACKET_CLUSTER_MESSAGE_CHANNEL, new PacketServerClusterChannelMessageListener());
+                                channel.getPacketRegistry().addListener(PacketConstants.INTERNAL_CHUNKED_PACKET_CHANNEL, new PacketServerDeployLocalTemplateChunkListener());
 
                                 channel.getPacketRegistry().addListener(PacketConstants.INTERNAL_CALLABLE_CHANNEL, new PacketClientCallablePacketReceiveListener());
                                 channel.getPacketRegistry().addListener(PacketConstants.INTERNAL_CALLABLE_CHANNEL, new PacketClientSyncAPIPacketListener());
@@ -71,7 +78,7 @@ public final class PacketClientAuthorizationListener implements IPacketListener
                                 channel.getPacketRegistry().addListener(PacketConstants.INTERNAL_H2_DATABASE_UPDATE_MODULE, new PacketServerSetH2DatabaseDataListener());
                                 //-
 
-                                channel.sendPacket(new PacketServerAuthorizationResponse(true, "successful"));
+                                this.sendSuccessfulAuthorizationResponse(channel, packet);
 
                                 clusterNodeServer.setChannel(channel);
                                 CloudNetDriver.getInstance().getEventManager().callEvent(new NetworkChannelAuthClusterNodeSuccessEvent(clusterNodeServer, channel));
@@ -83,7 +90,7 @@ public final class PacketClientAuthorizationListener implements IPacketListener
                                         .replace("%clientAddress%", channel.getClientAddress().getHost() + ":" + channel.getClientAddress().getPort())
                                 );
 
-                                this.sendSetupInformationPackets(channel,
+                                this.sendSetupInformationPackets(channel, clusterNodeServer,
                                     credentials.contains("secondNodeConnection") && credentials.getBoolean("secondNodeConnection"));
                                 return;
                             }
@@ -108,9 +115,10 @@ public final class PacketClientAuthorizationListener implements IPacketListener
 
                             channel.getPacketRegistry().addListener(PacketConstants.INTERNAL_CALLABLE_CHANNEL, new PacketClientCallablePacketReceiveListener());
                             channel.getPacketRegistry().addListener(PacketConstants.INTERNAL_CALLABLE_CHANNEL, new PacketClientSyncAPIPacketListener());
+                            channel.getPacketRegistry().addListener(PacketConstants.INTERNAL_RPC_CHANNEL, new RPCPacketListener(getCloudNet().getRpcServiceRegistry(), getCloudNet().getRpcClient()));
                             //-
 
-                            channel.sendPacket(new PacketServerAuthorizationResponse(true, "successful"));
+                            this.sendSuccessfulAuthorizationResponse(channel, packet);
 
                             cloudService.setNetworkChannel(channel);
                             cloudService.getServiceInfoSnapshot().setConnected(true);
@@ -124,10 +132,8 @@ public final class PacketClientAuthorizationListener implements IPacketListener
                                 .replace("%clientAddress%", channel.getClientAddress().getHost() + ":" + channel.getClientAddress().getPort())
                             );
 
-                            getCloudNet().getNetworkClient().sendPacket(
-                                new PacketClientServerServiceInfoPublisher(cloudService.getServiceInfoSnapshot(), PacketClientServerServiceInfoPublisher.PublisherType.CONNECTED));
-                            getCloudNet().getNetworkServer().sendPacket(
-                                new PacketClientServerServiceInfoPublisher(cloudService.getServiceInfoSnapshot(), PacketClientServerServiceInfoPublisher.PublisherType.CONNECTED));
+                            //The cloud services get the update with the replication sequence, like all other changes of the services
+                            getCloudNet().publishServiceInfoSnapshot(cloudService.getServiceInfoSnapshot(), PacketClientServerServiceInfoPublisher.PublisherType.CONNECTED);
                             return;
                         }
                     }
@@ -139,7 +145,29 @@ public final class PacketClientAuthorizationListener implements IPacketListener
         }
     }
 
-    private void sendSetupInformationPackets(INetworkChannel channel, boolean secondNodeConnection)
+    private void sendSuccessfulAuthorizationResponse(INetworkChannel channel, IPacket packet)
+    {
+        IPacketHeaderCodec headerCodec = PacketHeaderCodecs.negotiate(packet.getHeader().get("headerCodecs", new TypeToken<Collection<String>>() {
+        }.getType()));
+
+        int wireVersion = PacketWireVersion.negotiate(packet.getHeader().getInt("wireVersion"));
+
+        PacketCompressionConfiguration packetCompression = wireVersion >= PacketWireVersion.COMPRESSED_FRAMES ?
+            channel.getListenerPacketCompression() : null;
+
+        //The response is written with the previous settings, all following packets with the negotiated ones
+        channel.sendPacket(new PacketServerAuthorizationResponse(true, "successful", headerCodec, wireVersion, packetCompression), new Runnable() {
+            @Override
+            public void run()
+            {
+                channel.setPacketHeaderCodec(headerCodec);
+                channel.setPacketWireVersion(wireVersion);
+                channel.setPacketCompression(packetCompression);
+            }
+        });
+    }
+
+    private void sendSetupInformationPackets(INetworkChannel channel, IClusterNodeServer clusterNodeServer, boolean secondNodeConnection)
     {
         channel.sendPacket(new PacketServerSetGlobalServiceInfoList(getCloudNet().getCloudServiceManager().getGlobalServiceInfoSnapshots().values()));
 
@@ -159,14 +187,10 @@ public final class PacketClientAuthorizationListener implements IPacketListener
                     getCloudNet().getPermissionManagement().getGroups()
                 ));
 
-            ITemplateStorage templateStorage = CloudNetDriver.getInstance().getServicesRegistry().getService(ITemplateStorage.class, LocalTemplateStorage.LOCAL_TEMPLATE_STORAGE);
+            LocalTemplateStorage templateStorage = LocalTemplateStorageUtil.getLocalTemplateStorage();
 
-            byte[] bytes;
             for (ServiceTemplate serviceTemplate : templateStorage.getTemplates())
-            {
-                bytes = templateStorage.toZipByteArray(serviceTemplate);
-                channel.sendPacket(new PacketServerDeployLocalTemplate(serviceTemplate, bytes));
-            }
+                clusterNodeServer.deployTemplateInCluster(serviceTemplate, templateStorage.getTemplateDirectory(serviceTemplate).toPath());
 
             CloudNet.getInstance().publishH2DatabaseDataToCluster(channel);
             CloudNet.getInstance().publishH2DatabaseDataToCluster(channel);
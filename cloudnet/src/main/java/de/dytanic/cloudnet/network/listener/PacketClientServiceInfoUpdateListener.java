@@ -31,10 +31,7 @@ public final class PacketClientServiceInfoUpdateListener implements IPacketListe
 
                 CloudNetDriver.getInstance().getEventManager().callEvent(new CloudServiceInfoUpdateEvent(serviceInfoSnapshot));
 
-                CloudNet.getInstance().getNetworkClient()
-                    .sendPacket(new PacketClientServerServiceInfoPublisher(serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.UPDATE));
-                CloudNet.getInstance().getNetworkServer()
-                    .sendPacket(new PacketClientServerServiceInfoPublisher(serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.UPDATE));
+                CloudNet.getInstance().publishServiceInfoSnapshot(serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.UPDATE);
             }
         }
     }
@@ -10,7 +10,11 @@ import de.dytanic.cloudnet.driver.network.HostAndPort;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNode;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketHeaderCodec;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
+import de.dytanic.cloudnet.driver.network.protocol.PacketHeaderCodecs;
+import de.dytanic.cloudnet.driver.network.protocol.PacketWireVersion;
 import de.dytanic.cloudnet.event.cluster.NetworkChannelAuthClusterNodeSuccessEvent;
 
 import java.util.function.Predicate;
@@ -24,6 +28,17 @@ public final class PacketServerAuthorizationResponseListener implements IPacketL
         {
             if (packet.getHeader().getBoolean("access"))
             {
+                IPacketHeaderCodec headerCodec = PacketHeaderCodecs.getCodec(packet.getHeader().getString("headerCodec"));
+
+                if (headerCodec != null)
+                    channel.setPacketHeaderCodec(headerCodec);
+
+                if (packet.getHeader().contains("wireVersion"))
+                    channel.setPacketWireVersion(PacketWireVersion.negotiate(packet.getHeader().getInt("wireVersion")));
+
+                if (packet.getHeader().contains("packetCompression"))
+                    channel.setPacketCompression(packet.getHeader().get("packetCompression", PacketCompressionConfiguration.class));
+
                 for (NetworkClusterNode node : CloudNet.getInstance().getConfig().getClusterConfig().getNodes())
                 {
                     for (HostAndPort hostAndPort : node.getListeners())
@@ -8,7 +8,6 @@ import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerChannelMe
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
-import de.dytanic.cloudnet.service.ICloudService;
 
 public final class PacketServerChannelMessageNodeListener implements IPacketListener {
 
@@ -23,9 +22,7 @@ public final class PacketServerChannelMessageNodeListener implements IPacketList
                 packet.getHeader().getDocument("data")
             );
 
-            for (ICloudService cloudService : CloudNet.getInstance().getCloudServiceManager().getCloudServices().values())
-                if (cloudService.getNetworkChannel() != null)
-                    cloudService.getNetworkChannel().sendPacket(packetClientServerChannelMessage);
+            CloudNet.getInstance().sendAllCloudServices(packetClientServerChannelMessage);
 
             CloudNetDriver.getInstance().getEventManager().callEvent(
                 new ChannelMessageReceiveEvent(
@@ -8,9 +8,7 @@ import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
-import de.dytanic.cloudnet.driver.network.protocol.Packet;
 import de.dytanic.cloudnet.network.packet.PacketServerClusterNodeInfoUpdate;
-import de.dytanic.cloudnet.service.ICloudService;
 
 public final class PacketServerClusterNodeInfoUpdateListener implements IPacketListener {
 
@@ -25,10 +23,7 @@ public final class PacketServerClusterNodeInfoUpdateListener implements IPacketL
             clusterNodeServer.setNodeInfoSnapshot(snapshot);
             CloudNetDriver.getInstance().getEventManager().callEvent(new NetworkClusterNodeInfoUpdateEvent(channel, snapshot));
 
-            Packet packet1 = new PacketServerClusterNodeInfoUpdate(snapshot);
-            for (ICloudService cloudService : CloudNet.getInstance().getCloudServiceManager().getCloudServices().values())
-                if (cloudService.getNetworkChannel() != null)
-                    cloudService.getNetworkChannel().sendPacket(packet1);
+            CloudNet.getInstance().sendAllCloudServices(new PacketServerClusterNodeInfoUpdate(snapshot));
         }
     }
 }
\ No newline at end of file
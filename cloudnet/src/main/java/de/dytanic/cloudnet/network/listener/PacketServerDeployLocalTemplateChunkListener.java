@@ -0,0 +1,88 @@
+package de.dytanic.cloudnet.network.listener;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.driver.CloudNetDriver;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.ChunkedPacketListener;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import de.dytanic.cloudnet.template.ITemplateStorage;
+import de.dytanic.cloudnet.template.LocalTemplateStorage;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Receives the zip archive of a template as chunked transfer into a temporary file and extracts it into the local template
+ * storage, after the transfer is complete
+ */
+public final class PacketServerDeployLocalTemplateChunkListener extends ChunkedPacketListener {
+
+    @Override
+    protected OutputStream createOutputStream(INetworkChannel channel, JsonDocument header) throws IOException
+    {
+        if (!header.contains("command") || !header.getString("command").equalsIgnoreCase("deploy_template") ||
+            !header.contains("serviceTemplate"))
+            return null;
+
+        Path zipFile = Files.createTempFile("cloudnet-template-", ".zip");
+
+        return new TemplateZipOutputStream(zipFile, header.get("serviceTemplate", ServiceTemplate.class));
+    }
+
+    @Override
+    protected void handleComplete(INetworkChannel channel, JsonDocument header, OutputStream outputStream) throws IOException
+    {
+        TemplateZipOutputStream templateZipOutputStream = (TemplateZipOutputStream) outputStream;
+
+        try
+        {
+            ITemplateStorage storage = CloudNetDriver.getInstance().getServicesRegistry().getService(ITemplateStorage.class, LocalTemplateStorage.LOCAL_TEMPLATE_STORAGE);
+
+            if (storage instanceof LocalTemplateStorage)
+                FileUtils.extract(templateZipOutputStream.zipFile,
+                    new File(((LocalTemplateStorage) storage).getStorageDirectory(), templateZipOutputStream.serviceTemplate.getTemplatePath()).toPath());
+
+        } finally
+        {
+            Files.deleteIfExists(templateZipOutputStream.zipFile);
+        }
+    }
+
+    @Override
+    protected void handleAbort(INetworkChannel channel, JsonDocument header, OutputStream outputStream)
+    {
+        try
+        {
+            Files.deleteIfExists(((TemplateZipOutputStream) outputStream).zipFile);
+        } catch (IOException ex)
+        {
+            ex.printStackTrace();
+        }
+    }
+
+    private static final class TemplateZipOutputStream extends FilterOutputStream {
+
+        private final Path zipFile;
+
+        private final ServiceTemplate serviceTemplate;
+
+        private TemplateZipOutputStream(Path zipFile, ServiceTemplate serviceTemplate) throws IOException
+        {
+            super(Files.newOutputStream(zipFile));
+
+            this.zipFile = zipFile;
+            this.serviceTemplate = serviceTemplate;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            this.out.write(b, off, len);
+        }
+    }
+}
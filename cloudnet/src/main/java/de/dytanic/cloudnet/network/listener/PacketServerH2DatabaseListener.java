@@ -1,9 +1,12 @@
 package de.dytanic.cloudnet.network.listener;
 
 import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.database.AbstractDatabaseProvider;
+import de.dytanic.cloudnet.database.cache.CachedDatabaseProvider;
 import de.dytanic.cloudnet.database.h2.H2Database;
-import de.dytanic.cloudnet.database.h2.H2DatabaseProvider;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
+import de.dytanic.cloudnet.driver.event.IEventManager;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
@@ -19,44 +22,64 @@ public final class PacketServerH2DatabaseListener implements IPacketListener {
     public void handle(INetworkChannel channel, IPacket packet) throws Exception
     {
         if (packet.getHeader().contains("operationType") && packet.getHeader().contains("name"))
-            if (CloudNet.getInstance().getDatabaseProvider() instanceof H2DatabaseProvider)
-            {
-                H2Database database = (H2Database) CloudNet.getInstance().getDatabaseProvider().getDatabase(packet.getHeader().getString("name"));
+            if (CloudNet.getInstance().getH2DatabaseProvider() != null)
+                apply(
+                    CloudNet.getInstance().getH2DatabaseProvider().getDatabase(packet.getHeader().getString("name")),
+                    CloudNet.getInstance().getDatabaseProvider(),
+                    CloudNetDriver.getInstance().getEventManager(),
+                    packet.getHeader()
+                );
+    }
+
+    /**
+     * Writes the operation of the header into the h2 database. The cached documents of the node are invalidated after
+     * the write, because a read between the database event and the write would cache the old document again
+     */
+    static void apply(H2Database database, AbstractDatabaseProvider databaseProvider, IEventManager eventManager, JsonDocument header)
+    {
+        switch (header.get("operationType", PacketServerH2Database.OperationType.class))
+        {
+            case INSERT:
+                if (header.contains("key") && header.contains("document"))
+                {
+                    eventManager.callEvent(new DatabaseInsertEntryEvent(database, header.getString("key"), header.getDocument("document")));
+                    database.insert0(header.getString("key"), header.getDocument("document"));
+
+                    invalidate(databaseProvider, database.getName(), header.getString("key"));
+                }
+                break;
+            case UPDATE:
+                if (header.contains("key") && header.contains("document"))
+                {
+                    eventManager.callEvent(new DatabaseUpdateEntryEvent(database, header.getString("key"), header.getDocument("document")));
+                    database.update0(header.getString("key"), header.getDocument("document"));
 
-                switch (packet.getHeader().get("operationType", PacketServerH2Database.OperationType.class))
+                    invalidate(databaseProvider, database.getName(), header.getString("key"));
+                }
+                break;
+            case DELETE:
+                if (header.contains("key"))
                 {
-                    case INSERT:
-                        if (packet.getHeader().contains("key") && packet.getHeader().contains("document"))
-                        {
-                            CloudNetDriver.getInstance().getEventManager().callEvent(
-                                new DatabaseInsertEntryEvent(database, packet.getHeader().getString("key"), packet.getHeader().getDocument("document"))
-                            );
-                            database.insert0(packet.getHeader().getString("key"), packet.getHeader().getDocument("document"));
-                        }
-                        break;
-                    case UPDATE:
-                        if (packet.getHeader().contains("key") && packet.getHeader().contains("document"))
-                        {
-                            CloudNetDriver.getInstance().getEventManager().callEvent(
-                                new DatabaseUpdateEntryEvent(database, packet.getHeader().getString("key"), packet.getHeader().getDocument("document"))
-                            );
-                            database.update0(packet.getHeader().getString("key"), packet.getHeader().getDocument("document"));
-                        }
-                        break;
-                    case DELETE:
-                        if (packet.getHeader().contains("key"))
-                        {
-                            CloudNetDriver.getInstance().getEventManager().callEvent(
-                                new DatabaseDeleteEntryEvent(database, packet.getHeader().getString("key"))
-                            );
-                            database.delete0(packet.getHeader().getString("key"));
-                        }
-                        break;
-                    case CLEAR:
-                        CloudNetDriver.getInstance().getEventManager().callEvent(new DatabaseClearEntriesEvent(database));
-                        database.clear0();
-                        break;
+                    eventManager.callEvent(new DatabaseDeleteEntryEvent(database, header.getString("key")));
+                    database.delete0(header.getString("key"));
+
+                    invalidate(databaseProvider, database.getName(), header.getString("key"));
                 }
-            }
+                break;
+            case CLEAR:
+                eventManager.callEvent(new DatabaseClearEntriesEvent(database));
+                database.clear0();
+
+                invalidate(databaseProvider, database.getName(), null);
+                break;
+        }
+    }
+
+    private static void invalidate(AbstractDatabaseProvider databaseProvider, String name, String key)
+    {
+        if (!(databaseProvider instanceof CachedDatabaseProvider)) return;
+
+        if (key != null) ((CachedDatabaseProvider) databaseProvider).invalidate(name, key);
+        else ((CachedDatabaseProvider) databaseProvider).invalidate(name);
     }
-}
\ No newline at end of file
+}
@@ -9,7 +9,6 @@ import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceIn
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
-import de.dytanic.cloudnet.service.ICloudService;
 
 import java.util.Map;
 import java.util.UUID;
@@ -74,8 +73,6 @@ public final class PacketServerServiceInfoPublisherListener implements IPacketLi
 
     private void sendUpdateToAllServices(ServiceInfoSnapshot serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType type)
     {
-        for (ICloudService cloudService : CloudNet.getInstance().getCloudServiceManager().getCloudServices().values())
-            if (cloudService.getNetworkChannel() != null)
-                cloudService.getNetworkChannel().sendPacket(new PacketClientServerServiceInfoPublisher(serviceInfoSnapshot, type));
+        CloudNet.getInstance().publishServiceInfoSnapshotToCloudServices(serviceInfoSnapshot, type);
     }
 }
\ No newline at end of file
@@ -3,12 +3,16 @@ package de.dytanic.cloudnet.network.listener;
 import com.google.gson.reflect.TypeToken;
 import de.dytanic.cloudnet.CloudNet;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
 
 public final class PacketServerSetGlobalServiceInfoListListener implements IPacketListener {
 
@@ -20,10 +24,35 @@ public final class PacketServerSetGlobalServiceInfoListListener implements IPack
             Collection<ServiceInfoSnapshot> serviceInfoSnapshots = packet.getHeader().get("serviceInfoList", new TypeToken<List<ServiceInfoSnapshot>>() {
             }.getType());
 
-            for (ServiceInfoSnapshot serviceInfoSnapshot : serviceInfoSnapshots)
-                if (serviceInfoSnapshot != null)
-                    CloudNet.getInstance().getCloudServiceManager().getGlobalServiceInfoSnapshots()
-                        .put(serviceInfoSnapshot.getServiceId().getUniqueId(), serviceInfoSnapshot);
+            apply(
+                serviceInfoSnapshots,
+                CloudNet.getInstance().getCloudServiceManager().getGlobalServiceInfoSnapshots(),
+                new BiConsumer<ServiceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType>() {
+                    @Override
+                    public void accept(ServiceInfoSnapshot serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType publisherType)
+                    {
+                        CloudNet.getInstance().publishServiceInfoSnapshotToCloudServices(serviceInfoSnapshot, publisherType);
+                    }
+                }
+            );
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Puts the services of an other node into the global services and publishes every service with the next replication
+     * sequence to the cloud services of this node, so their replicated services contain the services of the other node
+     */
+    static void apply(Collection<ServiceInfoSnapshot> serviceInfoSnapshots, Map<UUID, ServiceInfoSnapshot> globalServiceInfoSnapshots,
+                      BiConsumer<ServiceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType> publisher)
+    {
+        for (ServiceInfoSnapshot serviceInfoSnapshot : serviceInfoSnapshots)
+            if (serviceInfoSnapshot != null)
+            {
+                ServiceInfoSnapshot previous = globalServiceInfoSnapshots.put(serviceInfoSnapshot.getServiceId().getUniqueId(), serviceInfoSnapshot);
+
+                publisher.accept(serviceInfoSnapshot, previous == null ?
+                    PacketClientServerServiceInfoPublisher.PublisherType.REGISTER :
+                    PacketClientServerServiceInfoPublisher.PublisherType.UPDATE);
+            }
+    }
+}
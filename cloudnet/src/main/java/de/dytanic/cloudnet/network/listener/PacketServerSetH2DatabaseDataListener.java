@@ -3,6 +3,9 @@ package de.dytanic.cloudnet.network.listener;
 import com.google.gson.reflect.TypeToken;
 import de.dytanic.cloudnet.CloudNet;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.database.AbstractDatabaseProvider;
+import de.dytanic.cloudnet.database.DefaultDatabaseBatch;
+import de.dytanic.cloudnet.database.cache.CachedDatabaseProvider;
 import de.dytanic.cloudnet.database.h2.H2Database;
 import de.dytanic.cloudnet.database.h2.H2DatabaseProvider;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
@@ -10,57 +13,88 @@ import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
 
 import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.TreeSet;
 
 public final class PacketServerSetH2DatabaseDataListener implements IPacketListener {
 
     private static final Type TYPE = new TypeToken<Map<String, Map<String, JsonDocument>>>() {
     }.getType();
 
+    private static final Type NAMES_TYPE = new TypeToken<Collection<String>>() {
+    }.getType();
+
     @Override
     public void handle(INetworkChannel channel, IPacket packet) throws Exception
     {
-        if (CloudNet.getInstance().getDatabaseProvider() instanceof H2DatabaseProvider && packet.getHeader().contains("set_h2db"))
+        if (getH2DatabaseProvider() != null && packet.getHeader().contains("set_h2db"))
+            apply(getH2DatabaseProvider(), CloudNet.getInstance().getDatabaseProvider(), packet.getHeader());
+    }
+
+    /**
+     * Writes the documents of one packet of a synchronization into the h2 databases. A packet without the cleared
+     * databases is sent by a node with the legacy format, which sends all databases in one packet, so all of them are
+     * cleared and the databases, which aren't contained, are deleted
+     *
+     * @param databaseProvider the provider of the node, with that the databases are deleted and the cache is invalidated
+     */
+    static void apply(H2DatabaseProvider h2DatabaseProvider, AbstractDatabaseProvider databaseProvider, JsonDocument header)
+    {
+        Map<String, Map<String, JsonDocument>> documents = header.get("documents", TYPE);
+
+        if (documents == null) return;
+
+        Collection<String> clearedDatabases, databases;
+
+        if (header.contains("clearedDatabases"))
         {
-            Map<String, Map<String, JsonDocument>> documents = packet.getHeader().get("documents", TYPE);
+            clearedDatabases = header.get("clearedDatabases", NAMES_TYPE);
 
-            H2DatabaseProvider databaseProvider = getH2DatabaseProvider();
+            //Only the first packet of a synchronization contains the names of all databases
+            databases = header.contains("databases") ? header.get("databases", NAMES_TYPE) : null;
+        } else
+            clearedDatabases = databases = new HashSet<>(documents.keySet());
 
-            for (String name : databaseProvider.getDatabaseNames())
-            {
-                if (!documents.containsKey(name))
-                {
-                    databaseProvider.deleteDatabase(name);
-                    continue;
-                }
+        //The databases are deleted with the provider of the node, which also removes them from the cache
+        if (databases != null)
+        {
+            //The h2 database returns the names of the tables in upper case
+            Collection<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            names.addAll(databases);
 
-                H2Database database = databaseProvider.getDatabase(name);
+            for (String name : h2DatabaseProvider.getDatabaseNames())
+                if (!names.contains(name))
+                    databaseProvider.deleteDatabase(name);
+        }
 
-                try
-                {
-                    database.clear0();
-                } catch (Exception ignored)
-                {
-                }
-            }
+        for (Map.Entry<String, Map<String, JsonDocument>> db : documents.entrySet())
+        {
+            H2Database database = h2DatabaseProvider.getDatabase(db.getKey());
 
-            for (Map.Entry<String, Map<String, JsonDocument>> db : documents.entrySet())
-            {
-                H2Database database = databaseProvider.getDatabase(db.getKey());
+            //The part of the database in this packet is written in one transaction
+            DefaultDatabaseBatch batch = new DefaultDatabaseBatch();
+            if (clearedDatabases.contains(db.getKey())) batch.clear();
 
-                for (Map.Entry<String, JsonDocument> entry : documents.get(db.getKey()).entrySet())
-                    database.insert0(entry.getKey(), entry.getValue());
-            }
+            for (Map.Entry<String, JsonDocument> entry : db.getValue().entrySet())
+                batch.insert(entry.getKey(), entry.getValue());
 
-            for (Map.Entry<String, Map<String, JsonDocument>> entry : documents.entrySet())
-                entry.getValue().clear();
+            database.batch0(batch);
 
-            documents.clear();
+            //The batch is written without the database events, which invalidate the cached documents otherwise
+            if (databaseProvider instanceof CachedDatabaseProvider)
+                ((CachedDatabaseProvider) databaseProvider).invalidate(db.getKey());
         }
+
+        for (Map.Entry<String, Map<String, JsonDocument>> entry : documents.entrySet())
+            entry.getValue().clear();
+
+        documents.clear();
     }
 
     public H2DatabaseProvider getH2DatabaseProvider()
     {
-        return (H2DatabaseProvider) CloudNet.getInstance().getDatabaseProvider();
+        return CloudNet.getInstance().getH2DatabaseProvider();
     }
 }
\ No newline at end of file
@@ -12,7 +12,6 @@ import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
 import de.dytanic.cloudnet.driver.permission.IPermissionManagement;
 import de.dytanic.cloudnet.driver.permission.PermissionGroup;
 import de.dytanic.cloudnet.driver.permission.PermissionUser;
-import de.dytanic.cloudnet.service.ICloudService;
 
 import java.lang.reflect.Type;
 import java.util.Collection;
@@ -72,8 +71,6 @@ public final class PacketServerUpdatePermissionsListener implements IPacketListe
 
     private void sendUpdateToAllServices(IPacket packet)
     {
-        for (ICloudService cloudService : CloudNet.getInstance().getCloudServiceManager().getCloudServices().values())
-            if (cloudService.getNetworkChannel() != null)
-                cloudService.getNetworkChannel().sendPacket(packet);
+        CloudNet.getInstance().sendAllCloudServices(packet);
     }
 }
\ No newline at end of file
@@ -2,7 +2,9 @@ package de.dytanic.cloudnet.network.packet;
 
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketHeaderCodec;
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.network.protocol.PacketCompressionConfiguration;
 
 public final class PacketServerAuthorizationResponse extends Packet {
 
@@ -10,4 +12,22 @@ public final class PacketServerAuthorizationResponse extends Packet {
     {
         super(PacketConstants.INTERNAL_AUTHORIZATION_CHANNEL, new JsonDocument("access", access).append("text", text), Packet.EMPTY_PACKET_BYTE_ARRAY);
     }
+
+    public PacketServerAuthorizationResponse(boolean access, String text, IPacketHeaderCodec headerCodec, int wireVersion)
+    {
+        this(access, text);
+
+        this.header
+            .append("headerCodec", headerCodec.getName())
+            .append("wireVersion", wireVersion);
+    }
+
+    public PacketServerAuthorizationResponse(boolean access, String text, IPacketHeaderCodec headerCodec, int wireVersion,
+                                             PacketCompressionConfiguration packetCompression)
+    {
+        this(access, text, headerCodec, wireVersion);
+
+        if (packetCompression != null)
+            this.header.append("packetCompression", packetCompression);
+    }
 }
\ No newline at end of file
@@ -4,12 +4,39 @@ import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
 
+import java.util.Collection;
 import java.util.Map;
 
 public final class PacketServerSetH2DatabaseData extends Packet {
 
+    /**
+     * The legacy synchronization of the h2 databases in one packet, for nodes which can't receive multiple packets
+     *
+     * @param documents the documents of all databases, mapped by the names of their databases
+     */
     public PacketServerSetH2DatabaseData(Map<String, Map<String, JsonDocument>> documents)
     {
         super(PacketConstants.INTERNAL_H2_DATABASE_UPDATE_MODULE, new JsonDocument("set_h2db", true).append("documents", documents), new byte[0]);
     }
+
+    /**
+     * A packet of the synchronization of the h2 databases, which is sent in multiple packets
+     *
+     * @param documents        the documents of this packet, mapped by the names of their databases
+     * @param clearedDatabases the databases, whose documents start in this packet and which are cleared before
+     * @param databases        the names of all databases, which are only contained by the first packet of a synchronization
+     */
+    public PacketServerSetH2DatabaseData(Map<String, Map<String, JsonDocument>> documents, Collection<String> clearedDatabases, Collection<String> databases)
+    {
+        super(PacketConstants.INTERNAL_H2_DATABASE_UPDATE_MODULE, createHeader(documents, clearedDatabases, databases), new byte[0]);
+    }
+
+    private static JsonDocument createHeader(Map<String, Map<String, JsonDocument>> documents, Collection<String> clearedDatabases, Collection<String> databases)
+    {
+        JsonDocument header = new JsonDocument("set_h2db", true).append("documents", documents).append("clearedDatabases", clearedDatabases);
+
+        if (databases != null) header.append("databases", databases);
+
+        return header;
+    }
 }
\ No newline at end of file
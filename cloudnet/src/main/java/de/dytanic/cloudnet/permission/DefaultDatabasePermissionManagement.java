@@ -7,6 +7,7 @@ import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.database.AbstractDatabaseProvider;
 import de.dytanic.cloudnet.database.IDatabase;
+import de.dytanic.cloudnet.database.IDatabaseBatch;
 import de.dytanic.cloudnet.driver.permission.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -15,6 +16,7 @@ import java.io.File;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public final class DefaultDatabasePermissionManagement implements IPermissionManagement {
@@ -155,11 +157,17 @@ public final class DefaultDatabasePermissionManagement implements IPermissionMan
     {
         Validate.checkNotNull(users);
 
-        getDatabase().clear();
+        getDatabase().batch(new Consumer<IDatabaseBatch>() {
+            @Override
+            public void accept(IDatabaseBatch batch)
+            {
+                batch.clear();
 
-        for (IPermissionUser permissionUser : users)
-            if (permissionUser != null)
-                getDatabase().insert(permissionUser.getUniqueId().toString(), new JsonDocument(permissionUser));
+                for (IPermissionUser permissionUser : users)
+                    if (permissionUser != null)
+                        batch.insert(permissionUser.getUniqueId().toString(), new JsonDocument(permissionUser));
+            }
+        });
     }
 
     @Override
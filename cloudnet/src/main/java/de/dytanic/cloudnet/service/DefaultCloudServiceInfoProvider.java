@@ -0,0 +1,137 @@
+package de.dytanic.cloudnet.service;
+
+import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
+import de.dytanic.cloudnet.driver.service.*;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * The RPC service of the node for the queries of the wrappers. The queries are answered in the thread of the call,
+ * so the tasks are already completed, when they are returned and the response is sent without a further thread change
+ */
+@RequiredArgsConstructor
+public final class DefaultCloudServiceInfoProvider implements ICloudServiceInfoProvider {
+
+    private final CloudNet cloudNet;
+
+    @Override
+    public ITask<Collection<UUID>> getServicesAsUniqueIdAsync()
+    {
+        return completedTask(this.cloudNet.getServicesAsUniqueId());
+    }
+
+    @Override
+    public ITask<ServiceInfoSnapshot> getCloudServiceByNameAsync(String name)
+    {
+        return completedTask(this.cloudNet.getCloudServiceByName(name));
+    }
+
+    @Override
+    public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync()
+    {
+        return completedTask(this.cloudNet.getCloudServices());
+    }
+
+    @Override
+    public ITask<Collection<ServiceInfoSnapshot>> getStartedCloudServiceInfoSnapshotsAsync()
+    {
+        return completedTask(this.cloudNet.getStartedCloudServices());
+    }
+
+    @Override
+    public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync(String taskName)
+    {
+        return completedTask(this.cloudNet.getCloudService(taskName));
+    }
+
+    @Override
+    public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesByGroupAsync(String group)
+    {
+        return completedTask(this.cloudNet.getCloudServiceByGroup(group));
+    }
+
+    @Override
+    public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync(ServiceEnvironmentType environment)
+    {
+        return completedTask(this.cloudNet.getCloudServices(environment));
+    }
+
+    @Override
+    public ITask<ServiceInfoSnapshot> getCloudServicesAsync(UUID uniqueId)
+    {
+        return completedTask(this.cloudNet.getCloudService(uniqueId));
+    }
+
+    @Override
+    public ITask<Integer> getServicesCountAsync()
+    {
+        return completedTask(this.cloudNet.getServicesCount());
+    }
+
+    @Override
+    public ITask<Integer> getServicesCountByGroupAsync(String group)
+    {
+        return completedTask(this.cloudNet.getServicesCountByGroup(group));
+    }
+
+    @Override
+    public ITask<Integer> getServicesCountByTaskAsync(String taskName)
+    {
+        return completedTask(this.cloudNet.getServicesCountByTask(taskName));
+    }
+
+    @Override
+    public ITask<Collection<ServiceTask>> getPermanentServiceTasksAsync()
+    {
+        return completedTask(this.cloudNet.getPermanentServiceTasks());
+    }
+
+    @Override
+    public ITask<ServiceTask> getServiceTaskAsync(String name)
+    {
+        return completedTask(this.cloudNet.getServiceTask(name));
+    }
+
+    @Override
+    public ITask<Boolean> isServiceTaskPresentAsync(String name)
+    {
+        return completedTask(this.cloudNet.isServiceTaskPresent(name));
+    }
+
+    @Override
+    public ITask<Collection<GroupConfiguration>> getGroupConfigurationsAsync()
+    {
+        return completedTask(this.cloudNet.getGroupConfigurations());
+    }
+
+    @Override
+    public ITask<GroupConfiguration> getGroupConfigurationAsync(String name)
+    {
+        return completedTask(this.cloudNet.getGroupConfiguration(name));
+    }
+
+    @Override
+    public ITask<Boolean> isGroupConfigurationPresentAsync(String name)
+    {
+        return completedTask(this.cloudNet.isGroupConfigurationPresent(name));
+    }
+
+    private static <T> ITask<T> completedTask(T value)
+    {
+        ListenableTask<T> task = new ListenableTask<>(new Callable<T>() {
+            @Override
+            public T call() throws Exception
+            {
+                return value;
+            }
+        });
+
+        task.call();
+        return task;
+    }
+}
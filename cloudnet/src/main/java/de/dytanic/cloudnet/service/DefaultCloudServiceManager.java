@@ -88,6 +88,7 @@ public final class DefaultCloudServiceManager implements ICloudServiceManager {
     {
         this.config.getTasks().clear();
         this.config.save();
+        CloudNet.getInstance().publishServiceTasksToCloudServices();
     }
 
     @Override
@@ -119,6 +120,7 @@ public final class DefaultCloudServiceManager implements ICloudServiceManager {
         this.config.getTasks().clear();
         this.config.getTasks().addAll(tasks);
         this.config.save();
+        CloudNet.getInstance().publishServiceTasksToCloudServices();
     }
 
     @Override
@@ -198,6 +200,7 @@ public final class DefaultCloudServiceManager implements ICloudServiceManager {
         this.config.getGroups().clear();
         this.config.getGroups().addAll(groupConfigurations);
         this.config.save();
+        CloudNet.getInstance().publishGroupConfigurationsToCloudServices();
     }
 
     @Override
@@ -247,10 +250,7 @@ public final class DefaultCloudServiceManager implements ICloudServiceManager {
             this.cloudServices.put(cloudService.getServiceId().getUniqueId(), cloudService);
             this.globalServiceInfoSnapshots.put(cloudService.getServiceId().getUniqueId(), cloudService.getServiceInfoSnapshot());
 
-            CloudNet.getInstance().getNetworkClient()
-                .sendPacket(new PacketClientServerServiceInfoPublisher(cloudService.getServiceInfoSnapshot(), PacketClientServerServiceInfoPublisher.PublisherType.REGISTER));
-            CloudNet.getInstance().getNetworkServer()
-                .sendPacket(new PacketClientServerServiceInfoPublisher(cloudService.getServiceInfoSnapshot(), PacketClientServerServiceInfoPublisher.PublisherType.REGISTER));
+            CloudNet.getInstance().publishServiceInfoSnapshot(cloudService.getServiceInfoSnapshot(), PacketClientServerServiceInfoPublisher.PublisherType.REGISTER);
 
             CloudNet.getInstance().publishNetworkClusterNodeInfoSnapshotUpdate();
         }
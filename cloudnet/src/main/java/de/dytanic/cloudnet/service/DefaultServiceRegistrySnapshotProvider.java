@@ -0,0 +1,23 @@
+package de.dytanic.cloudnet.service;
+
+import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
+import de.dytanic.cloudnet.driver.service.IServiceRegistrySnapshotProvider;
+import de.dytanic.cloudnet.driver.service.ServiceRegistrySnapshot;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The RPC service of the node, from that the wrappers bootstrap their replicated services, tasks and groups
+ */
+@RequiredArgsConstructor
+public final class DefaultServiceRegistrySnapshotProvider implements IServiceRegistrySnapshotProvider {
+
+    private final CloudNet cloudNet;
+
+    @Override
+    public ITask<ServiceRegistrySnapshot> getServiceRegistrySnapshotAsync()
+    {
+        return ListenableTask.completedTask(this.cloudNet.createServiceRegistrySnapshot());
+    }
+}
@@ -300,7 +300,7 @@ final class JVMCloudService implements ICloudService {
 
             serviceInfoSnapshot.setLifeCycle(ServiceLifeCycle.PREPARED);
             cloudServiceManager.getGlobalServiceInfoSnapshots().put(serviceId.getUniqueId(), serviceInfoSnapshot);
-            CloudNet.getInstance().sendAll(new PacketClientServerServiceInfoPublisher(serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.REGISTER));
+            CloudNet.getInstance().publishServiceInfoSnapshot(serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.REGISTER);
 
             System.out.println(LanguageManager.getMessage("cloud-service-post-prepared-message")
                 .replace("%task%", this.serviceId.getTaskName())
@@ -368,7 +368,7 @@ final class JVMCloudService implements ICloudService {
                 .replace("%id%", this.serviceId.getUniqueId().toString()));
 
             this.serviceInfoSnapshot.setLifeCycle(ServiceLifeCycle.RUNNING);
-            CloudNet.getInstance().sendAll(new PacketClientServerServiceInfoPublisher(this.serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.STARTED));
+            CloudNet.getInstance().publishServiceInfoSnapshot(this.serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.STARTED);
         }
     }
 
@@ -603,7 +603,7 @@ final class JVMCloudService implements ICloudService {
                     this.deployments.remove(deployment);
 
                     if (storage instanceof LocalTemplateStorage)
-                        CloudNet.getInstance().deployTemplateInCluster(deployment.getTemplate(), storage.toZipByteArray(deployment.getTemplate()));
+                        CloudNet.getInstance().deployTemplateInCluster(deployment.getTemplate(), ((LocalTemplateStorage) storage).getTemplateDirectory(deployment.getTemplate()).toPath());
                 }
     }
 
@@ -917,7 +917,7 @@ final class JVMCloudService implements ICloudService {
 
             this.serviceInfoSnapshot = createServiceInfoSnapshot(ServiceLifeCycle.STOPPED);
 
-            CloudNet.getInstance().sendAll(new PacketClientServerServiceInfoPublisher(this.serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.STOPPED));
+            CloudNet.getInstance().publishServiceInfoSnapshot(this.serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.STOPPED);
             return exitValue;
         }
 
@@ -992,7 +992,7 @@ final class JVMCloudService implements ICloudService {
 
         this.serviceInfoSnapshot.setLifeCycle(ServiceLifeCycle.DELETED);
         CloudNet.getInstance().publishNetworkClusterNodeInfoSnapshotUpdate();
-        CloudNet.getInstance().sendAll(new PacketClientServerServiceInfoPublisher(this.serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.UNREGISTER));
+        CloudNet.getInstance().publishServiceInfoSnapshot(this.serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.UNREGISTER);
     }
 
     private ITemplateStorage getStorage(String storageName)
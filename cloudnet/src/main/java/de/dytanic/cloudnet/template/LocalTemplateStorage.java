@@ -170,10 +170,20 @@ public final class LocalTemplateStorage implements ITemplateStorage {
     @Override
     public byte[] toZipByteArray(ServiceTemplate template)
     {
-        File directory = new File(storageDirectory, template.getTemplatePath());
+        File directory = this.getTemplateDirectory(template);
         return directory.exists() ? FileUtils.convert(new Path[]{directory.toPath()}) : null;
     }
 
+    /**
+     * Returns the directory of the template in this storage. The directory doesn't have to exist
+     */
+    public File getTemplateDirectory(ServiceTemplate template)
+    {
+        Validate.checkNotNull(template);
+
+        return new File(this.storageDirectory, template.getTemplatePath());
+    }
+
     @Override
     public boolean delete(ServiceTemplate template)
     {
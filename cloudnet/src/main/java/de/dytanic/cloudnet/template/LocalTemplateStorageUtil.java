@@ -281,7 +281,7 @@ public final class LocalTemplateStorageUtil {
                 break;
             }
 
-            CloudNet.getInstance().deployTemplateInCluster(serviceTemplate, storage.toZipByteArray(serviceTemplate));
+            CloudNet.getInstance().deployTemplateInCluster(serviceTemplate, getLocalTemplateStorage().getTemplateDirectory(serviceTemplate).toPath());
             return true;
         } else
             return false;
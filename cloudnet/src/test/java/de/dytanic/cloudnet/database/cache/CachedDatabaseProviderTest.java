@@ -0,0 +1,131 @@
+package de.dytanic.cloudnet.database.cache;
+
+import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
+import de.dytanic.cloudnet.common.concurrent.QueuedTaskScheduler;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.database.IDatabase;
+import de.dytanic.cloudnet.database.h2.H2DatabaseProvider;
+import de.dytanic.cloudnet.driver.event.DefaultEventManager;
+import de.dytanic.cloudnet.driver.event.IEventManager;
+import de.dytanic.cloudnet.event.database.DatabaseUpdateEntryEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class CachedDatabaseProviderTest {
+
+    @Test
+    public void testCache() throws Exception
+    {
+        ITaskScheduler taskScheduler = new QueuedTaskScheduler(1);
+        IEventManager eventManager = new DefaultEventManager();
+
+        H2DatabaseProvider h2DatabaseProvider = new H2DatabaseProvider("build/h2database_cache", taskScheduler);
+        CachedDatabaseProvider databaseProvider = new CachedDatabaseProvider(h2DatabaseProvider, 2, 0, taskScheduler, eventManager);
+        Assert.assertTrue(databaseProvider.init());
+
+        databaseProvider.deleteDatabase("cache");
+        CachedDatabase database = databaseProvider.getDatabase("cache");
+        IDatabase wrappedDatabase = h2DatabaseProvider.getDatabase("cache");
+
+        Assert.assertTrue(database.insert("1", new JsonDocument("value", 1)));
+        Assert.assertEquals(1, database.get("1").getInt("value"));
+        Assert.assertEquals(1, database.getHits());
+
+        //A change of a returned document doesn't change the cache
+        database.get("1").append("value", 100);
+        Assert.assertEquals(1, database.get("1").getInt("value"));
+
+        //A write, which bypasses the cache, is only seen after the invalidation by the event
+        wrappedDatabase.update("1", new JsonDocument("value", 2));
+        Assert.assertEquals(1, database.get("1").getInt("value"));
+
+        eventManager.callEvent(new DatabaseUpdateEntryEvent(wrappedDatabase, "1", new JsonDocument("value", 2)));
+        Assert.assertEquals(2, database.get("1").getInt("value"));
+        Assert.assertEquals(1, database.getMisses());
+
+        //The least recently used document is evicted
+        database.insert("2", new JsonDocument("value", 2));
+        database.insert("3", new JsonDocument("value", 3));
+        Assert.assertEquals(2, database.getSize());
+        Assert.assertEquals(1, database.getEvictions());
+
+        Assert.assertTrue(database.delete("3"));
+        Assert.assertNull(database.get("3"));
+        Assert.assertFalse(database.contains("3"));
+
+        databaseProvider.close();
+    }
+
+    @Test
+    public void testWriteBehind() throws Exception
+    {
+        ITaskScheduler taskScheduler = new QueuedTaskScheduler(1);
+
+        H2DatabaseProvider h2DatabaseProvider = new H2DatabaseProvider("build/h2database_cache_write_behind", taskScheduler);
+        CachedDatabaseProvider databaseProvider = new CachedDatabaseProvider(h2DatabaseProvider, 16, 60000, taskScheduler, null);
+        Assert.assertTrue(databaseProvider.init());
+
+        databaseProvider.deleteDatabase("writeBehind");
+        CachedDatabase database = databaseProvider.getDatabase("writeBehind");
+        IDatabase wrappedDatabase = h2DatabaseProvider.getDatabase("writeBehind");
+
+        //An update of a missing key fails and isn't written by the flush
+        Assert.assertFalse(database.update("player", new JsonDocument("logins", -1)));
+        Assert.assertEquals(0, database.getPendingWrites());
+
+        database.flush();
+        Assert.assertFalse(database.contains("player"));
+        Assert.assertNull(wrappedDatabase.get("player"));
+
+        Assert.assertTrue(database.insert("player", new JsonDocument("logins", -1)));
+
+        for (int i = 0; i < 10; i++)
+            Assert.assertTrue(database.update("player", new JsonDocument("logins", i)));
+
+        //The repeated updates are coalesced and not written yet
+        Assert.assertEquals(9, database.getCoalescedWrites());
+        Assert.assertEquals(1, database.getPendingWrites());
+        Assert.assertEquals(-1, wrappedDatabase.get("player").getInt("logins"));
+        Assert.assertEquals(9, database.get("player").getInt("logins"));
+
+        //A query over the database writes the pending updates first
+        Assert.assertEquals(1, database.get("logins", 9).size());
+        Assert.assertEquals(0, database.getPendingWrites());
+        Assert.assertEquals(9, wrappedDatabase.get("player").getInt("logins"));
+
+        Assert.assertTrue(database.update("player", new JsonDocument("logins", 10)));
+        Assert.assertTrue(database.delete("player"));
+
+        database.flush();
+        Assert.assertNull(wrappedDatabase.get("player"));
+
+        //A failed flush keeps the pending updates for the next one
+        Assert.assertTrue(database.insert("player", new JsonDocument("logins", 0)));
+        Assert.assertTrue(database.createIndex("logins"));
+        h2DatabaseProvider.executeUpdate("DROP TABLE writeBehind__INDEX");
+
+        Assert.assertTrue(database.update("player", new JsonDocument("logins", 10)));
+        database.flush();
+
+        Assert.assertEquals(1, database.getPendingWrites());
+        Assert.assertEquals(0, wrappedDatabase.get("player").getInt("logins"));
+
+        Assert.assertTrue(database.dropIndex("logins"));
+        database.flush();
+
+        Assert.assertEquals(0, database.getPendingWrites());
+        Assert.assertEquals(10, wrappedDatabase.get("player").getInt("logins"));
+
+        Assert.assertTrue(database.update("player", new JsonDocument("logins", 11)));
+        databaseProvider.close();
+
+        //The pending updates are written on the close
+        h2DatabaseProvider = new H2DatabaseProvider("build/h2database_cache_write_behind");
+        Assert.assertTrue(h2DatabaseProvider.init());
+        Assert.assertEquals(11, h2DatabaseProvider.getDatabase("writeBehind").get("player").getInt("logins"));
+
+        Assert.assertTrue(h2DatabaseProvider.deleteDatabase("writeBehind"));
+        h2DatabaseProvider.close();
+        taskScheduler.shutdown();
+    }
+}
@@ -1,20 +1,40 @@
 package de.dytanic.cloudnet.database.h2;
 
+import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.database.AbstractDatabaseProvider;
 import de.dytanic.cloudnet.database.IDatabase;
+import de.dytanic.cloudnet.database.IDatabaseBatch;
 import de.dytanic.cloudnet.database.IDatabaseHandler;
 import org.junit.Assert;
+import org.junit.Ignore;
 import org.junit.Test;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 public final class H2DatabaseProviderTest implements IDatabaseHandler {
 
+    private static final int BATCH_DOCUMENTS = 200;
+
     protected String resultString;
 
     protected boolean value, geh, cleared;
@@ -91,6 +111,384 @@ public final class H2DatabaseProviderTest implements IDatabaseHandler {
         databaseProvider.close();
     }
 
+    @Test
+    public void testIndexes() throws Exception
+    {
+        H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database_indexes");
+        Assert.assertTrue(databaseProvider.init());
+
+        databaseProvider.deleteDatabase("players");
+        IDatabase database = databaseProvider.getDatabase("players");
+
+        for (int i = 0; i < 100; i++)
+            database.insert(i + "", new JsonDocument("name", "Player" + i).append("age", i % 10).append("description", "\"name\":\"Player1\""));
+
+        Assert.assertTrue(database.createIndex("name"));
+        Assert.assertFalse(database.createIndex("name"));
+        Assert.assertTrue(database.createIndex("age"));
+
+        //The index compares the complete value, not a part of the json text
+        Assert.assertEquals(1, database.get("name", "Player1").size());
+        Assert.assertEquals(10, database.get("age", 3).size());
+        Assert.assertEquals(1, database.get(new JsonDocument("name", "Player13").append("age", 3)).size());
+        Assert.assertEquals(0, database.get(new JsonDocument("name", "Player13").append("age", 4)).size());
+
+        String plan = databaseProvider.executeQuery(
+            "EXPLAIN SELECT Document FROM players WHERE Name IN (SELECT Name FROM players__INDEX WHERE FieldName=? AND FieldValue=?)",
+            new IThrowableCallback<ResultSet, String>() {
+                @Override
+                public String call(ResultSet resultSet) throws Throwable
+                {
+                    return resultSet.next() ? resultSet.getString(1) : null;
+                }
+            },
+            "name", "\"Player1\""
+        );
+        Assert.assertTrue(plan, plan.toUpperCase().contains("PLAYERS__INDEX_VALUE"));
+        Assert.assertFalse(databaseProvider.getDatabaseNames().contains("PLAYERS__INDEX"));
+
+        //The index is maintained on every change
+        Assert.assertTrue(database.update("1", new JsonDocument("name", "Renamed").append("age", 1)));
+        Assert.assertEquals(0, database.get("name", "Player1").size());
+        Assert.assertEquals(1, database.get("name", "Renamed").size());
+
+        Assert.assertTrue(database.delete("1"));
+        Assert.assertEquals(0, database.get("name", "Renamed").size());
+
+        Assert.assertTrue(database.dropIndex("age"));
+        Assert.assertEquals(10, database.get("age", 5).size());
+
+        databaseProvider.close();
+
+        //The declared indexes are loaded again
+        databaseProvider = new H2DatabaseProvider("build/h2database_indexes");
+        Assert.assertTrue(databaseProvider.init());
+
+        database = databaseProvider.getDatabase("players");
+        Assert.assertEquals(Collections.singletonList("name"), Iterables.newArrayList(database.getIndexes()));
+        Assert.assertEquals(1, database.get("name", "Player2").size());
+
+        //The document and its index entries are written in one transaction
+        databaseProvider.executeUpdate("DROP TABLE players__INDEX");
+
+        Assert.assertFalse(database.update("2", new JsonDocument("name", "Renamed")));
+        Assert.assertEquals("Player2", database.get("2").getString("name"));
+
+        databaseProvider.close();
+        databaseProvider = new H2DatabaseProvider("build/h2database_indexes");
+        Assert.assertTrue(databaseProvider.init());
+
+        database = databaseProvider.getDatabase("players");
+        database.clear();
+        Assert.assertEquals(0, database.get("name", "Player2").size());
+
+        Assert.assertTrue(databaseProvider.deleteDatabase("players"));
+        databaseProvider.close();
+    }
+
+    @Test
+    public void testBatch() throws Exception
+    {
+        H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database_batch");
+        Assert.assertTrue(databaseProvider.init());
+
+        databaseProvider.deleteDatabase("batch");
+        IDatabase database = databaseProvider.getDatabase("batch");
+        database.createIndex("group");
+
+        Assert.assertTrue(database.batch(new Consumer<IDatabaseBatch>() {
+            @Override
+            public void accept(IDatabaseBatch batch)
+            {
+                batch.insert("1", new JsonDocument("group", "Admin"))
+                    .insert("2", new JsonDocument("group", "Default"))
+                    .update("2", new JsonDocument("group", "Admin"))
+                    .insert("3", new JsonDocument("group", "Default"))
+                    .delete("3");
+            }
+        }));
+
+        Assert.assertEquals(2, database.documents().size());
+        Assert.assertEquals(2, database.get("group", "Admin").size());
+        Assert.assertFalse(database.contains("3"));
+
+        Map<String, JsonDocument> documents = Maps.newHashMap();
+        for (int i = 0; i < 10; i++)
+            documents.put("user" + i, new JsonDocument("group", "Default"));
+
+        Assert.assertTrue(database.insertAll(documents));
+        Assert.assertEquals(10, database.get("group", "Default").size());
+
+        Assert.assertTrue(database.deleteAll(documents.keySet()));
+        Assert.assertEquals(0, database.get("group", "Default").size());
+
+        Assert.assertTrue(database.batch(new Consumer<IDatabaseBatch>() {
+            @Override
+            public void accept(IDatabaseBatch batch)
+            {
+                batch.clear().insert("4", new JsonDocument("group", "Default"));
+            }
+        }));
+        Assert.assertEquals(Collections.singletonList("4"), Iterables.newArrayList(database.keys()));
+        Assert.assertEquals(1, database.get("group", "Default").size());
+
+        //A failed statement rolls back the complete batch
+        databaseProvider.executeUpdate("DROP TABLE batch__INDEX");
+
+        Assert.assertFalse(database.updateAll(Collections.singletonMap("4", new JsonDocument("group", "Admin"))));
+        Assert.assertEquals("Default", database.get("4").getString("group"));
+
+        Assert.assertTrue(databaseProvider.deleteDatabase("batch"));
+        databaseProvider.close();
+    }
+
+    @Test
+    public void testInsertAll() throws Exception
+    {
+        H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database_insert_all");
+        Assert.assertTrue(databaseProvider.init());
+
+        databaseProvider.deleteDatabase("insertAll");
+        IDatabase database = databaseProvider.getDatabase("insertAll");
+
+        Map<String, JsonDocument> documents = Maps.newHashMap();
+        for (int i = 0; i < BATCH_DOCUMENTS; i++)
+            documents.put("player" + i, new JsonDocument("name", "Player" + i).append("group", "Default").append("permissions", i));
+
+        Assert.assertTrue(database.insertAll(documents));
+
+        Assert.assertEquals(BATCH_DOCUMENTS, database.keys().size());
+        Assert.assertEquals("Player42", database.get("player42").getString("name"));
+        Assert.assertEquals(BATCH_DOCUMENTS, database.get("group", "Default").size());
+
+        //The index entries of the existing documents are written in batches
+        Assert.assertTrue(database.createIndex("name"));
+        Assert.assertEquals(1, database.get("name", "Player" + (BATCH_DOCUMENTS - 1)).size());
+
+        Assert.assertTrue(databaseProvider.deleteDatabase("insertAll"));
+        databaseProvider.close();
+    }
+
+    /**
+     * Compares the single inserts with one insertAll batch against an in-process H2 database. It only prints the
+     * timings, so it is ignored in the normal test runs
+     */
+    @Test
+    @Ignore("Throughput benchmark, run it manually")
+    public void testBatchThroughput() throws Exception
+    {
+        final int documentCount = 2000;
+
+        H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database_batch_throughput");
+        Assert.assertTrue(databaseProvider.init());
+
+        databaseProvider.deleteDatabase("throughput");
+        IDatabase database = databaseProvider.getDatabase("throughput");
+
+        Map<String, JsonDocument> documents = Maps.newHashMap();
+        for (int i = 0; i < documentCount; i++)
+            documents.put(UUID.randomUUID().toString(), new JsonDocument("name", "Player" + i).append("group", "Default").append("permissions", i));
+
+        for (int round = 0; round < 3; round++)
+        {
+            database.clear();
+            long time = System.nanoTime();
+
+            for (Map.Entry<String, JsonDocument> entry : documents.entrySet())
+                database.insert(entry.getKey(), entry.getValue());
+
+            long singleTime = System.nanoTime() - time;
+
+            database.clear();
+            time = System.nanoTime();
+
+            database.insertAll(documents);
+
+            long batchTime = System.nanoTime() - time;
+
+            System.out.println("Inserted " + documentCount + " documents one by one in " + TimeUnit.NANOSECONDS.toMillis(singleTime) + "ms (" +
+                (documentCount * 1000000000L / Math.max(singleTime, 1)) + " documents/s) and in one batch in " + TimeUnit.NANOSECONDS.toMillis(batchTime) + "ms (" +
+                (documentCount * 1000000000L / Math.max(batchTime, 1)) + " documents/s)");
+        }
+
+        databaseProvider.deleteDatabase("throughput");
+        databaseProvider.close();
+    }
+
+    @Test
+    public void testStream() throws Exception
+    {
+        H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database_stream");
+        Assert.assertTrue(databaseProvider.init());
+
+        databaseProvider.setFetchSize(16);
+        databaseProvider.deleteDatabase("stream");
+        IDatabase database = databaseProvider.getDatabase("stream");
+
+        Map<String, JsonDocument> documents = Maps.newHashMap();
+        for (int i = 0; i < 100; i++)
+            documents.put(String.format("key%03d", i), new JsonDocument("value", i));
+
+        Assert.assertTrue(database.insertAll(documents));
+
+        try (Stream<Map.Entry<String, JsonDocument>> stream = database.stream())
+        {
+            Assert.assertEquals(4950, stream.mapToInt(new ToIntFunction<Map.Entry<String, JsonDocument>>() {
+                @Override
+                public int applyAsInt(Map.Entry<String, JsonDocument> entry)
+                {
+                    return entry.getValue().getInt("value");
+                }
+            }).sum());
+        }
+
+        try (Stream<String> stream = database.keyStream())
+        {
+            Assert.assertEquals(100, stream.count());
+        }
+
+        //A stream, which is closed early, releases its cursor
+        try (Stream<Map.Entry<String, JsonDocument>> stream = database.stream())
+        {
+            Iterator<Map.Entry<String, JsonDocument>> iterator = stream.iterator();
+
+            Assert.assertTrue(iterator.hasNext());
+            Assert.assertNotNull(iterator.next().getKey());
+        }
+
+        List<String> page = Iterables.newArrayList(database.keys(10, 5));
+        Assert.assertEquals(Iterables.newArrayList(new String[]{"key010", "key011", "key012", "key013", "key014"}), page);
+        Assert.assertEquals(0, database.keys(100, 5).size());
+
+        //The database can be changed, while it's iterated
+        database.iterate(new BiConsumer<String, JsonDocument>() {
+            @Override
+            public void accept(String key, JsonDocument document)
+            {
+                if (document.getInt("value") % 2 == 0) database.delete(key);
+            }
+        });
+
+        try (Stream<String> stream = database.keyStream())
+        {
+            Assert.assertEquals(50, stream.collect(Collectors.toList()).size());
+        }
+
+        Assert.assertEquals(25, database.filter(new BiPredicate<String, JsonDocument>() {
+            @Override
+            public boolean test(String key, JsonDocument document)
+            {
+                return document.getInt("value") % 4 == 1;
+            }
+        }).size());
+
+        Assert.assertEquals(0, databaseProvider.openStreams.size());
+
+        //A stream, which isn't closed, is closed with the provider
+        Assert.assertTrue(database.keyStream().iterator().hasNext());
+        Assert.assertEquals(1, databaseProvider.openStreams.size());
+
+        databaseProvider.close();
+        Assert.assertEquals(0, databaseProvider.openStreams.size());
+
+        databaseProvider = new H2DatabaseProvider("build/h2database_stream");
+        Assert.assertTrue(databaseProvider.init());
+
+        Assert.assertTrue(databaseProvider.deleteDatabase("stream"));
+        databaseProvider.close();
+    }
+
+    @Test
+    public void testConnectionPool() throws Exception
+    {
+        H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database_pool", 4);
+        Assert.assertTrue(databaseProvider.init());
+
+        databaseProvider.deleteDatabase("pool");
+        IDatabase database = databaseProvider.getDatabase("pool");
+
+        Map<String, JsonDocument> documents = Maps.newHashMap();
+        for (int i = 0; i < 100; i++)
+            documents.put("key" + i, new JsonDocument("value", i));
+
+        Assert.assertTrue(database.insertAll(documents));
+
+        //The index is built with nested statements on the connection of the current thread
+        Assert.assertTrue(database.createIndex("value"));
+
+        List<ITask<JsonDocument>> tasks = Iterables.newArrayList();
+        for (int i = 0; i < 400; i++)
+            tasks.add(database.getAsync("key" + (i % 100)));
+
+        for (int i = 0; i < tasks.size(); i++)
+            Assert.assertEquals(i % 100, tasks.get(i).get(5, TimeUnit.SECONDS).getInt("value"));
+
+        Assert.assertEquals(1, database.getAsync("value", 42).get(5, TimeUnit.SECONDS).size());
+
+        H2ConnectionPool connectionPool = databaseProvider.getConnectionPool();
+        Assert.assertTrue(connectionPool.getOpenedConnections() <= 4);
+        Assert.assertTrue(connectionPool.getStatementHits() > connectionPool.getStatementMisses());
+
+        Assert.assertTrue(databaseProvider.deleteDatabase("pool"));
+        databaseProvider.close();
+
+        Assert.assertEquals(0, connectionPool.getIdleConnections());
+    }
+
+    @Test
+    public void testConnectionPoolTimeout() throws Exception
+    {
+        H2ConnectionPool connectionPool = new H2ConnectionPool("jdbc:h2:mem:pool_timeout", 1, 0, 200);
+
+        CountDownLatch borrowed = new CountDownLatch(1), release = new CountDownLatch(1);
+
+        //The only connection is held by an other thread, like a leaked connection
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    connectionPool.execute(new IThrowableCallback<H2ConnectionPool.PooledConnection, Void>() {
+                        @Override
+                        public Void call(H2ConnectionPool.PooledConnection connection) throws Throwable
+                        {
+                            borrowed.countDown();
+                            release.await();
+                            return null;
+                        }
+                    });
+                } catch (Throwable throwable)
+                {
+                    throwable.printStackTrace();
+                }
+            }
+        });
+        thread.start();
+
+        Assert.assertTrue(borrowed.await(5, TimeUnit.SECONDS));
+
+        try
+        {
+            connectionPool.execute(new IThrowableCallback<H2ConnectionPool.PooledConnection, Void>() {
+                @Override
+                public Void call(H2ConnectionPool.PooledConnection connection)
+                {
+                    return null;
+                }
+            });
+            Assert.fail("The pool should have no free connection");
+        } catch (SQLException ignored)
+        {
+        }
+
+        release.countDown();
+        thread.join(5000);
+
+        Assert.assertEquals(1, connectionPool.getIdleConnections());
+        connectionPool.close();
+    }
+
     @Override
     public void handleInsert(IDatabase database, String key, JsonDocument document)
     {
@@ -0,0 +1,73 @@
+package de.dytanic.cloudnet.network.listener;
+
+import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
+import de.dytanic.cloudnet.common.concurrent.QueuedTaskScheduler;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.database.cache.CachedDatabase;
+import de.dytanic.cloudnet.database.cache.CachedDatabaseProvider;
+import de.dytanic.cloudnet.database.h2.H2DatabaseProvider;
+import de.dytanic.cloudnet.driver.event.DefaultEventManager;
+import de.dytanic.cloudnet.driver.event.EventListener;
+import de.dytanic.cloudnet.driver.event.EventPriority;
+import de.dytanic.cloudnet.driver.event.IEventManager;
+import de.dytanic.cloudnet.event.database.DatabaseClearEntriesEvent;
+import de.dytanic.cloudnet.event.database.DatabaseUpdateEntryEvent;
+import de.dytanic.cloudnet.network.packet.PacketServerH2Database;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class PacketServerH2DatabaseListenerTest {
+
+    @Test
+    public void testInvalidationAfterWrite() throws Exception
+    {
+        ITaskScheduler taskScheduler = new QueuedTaskScheduler(1);
+        IEventManager eventManager = new DefaultEventManager();
+
+        H2DatabaseProvider h2DatabaseProvider = new H2DatabaseProvider("build/h2database_cluster_listener", taskScheduler);
+        CachedDatabaseProvider databaseProvider = new CachedDatabaseProvider(h2DatabaseProvider, 16, 0, taskScheduler, eventManager);
+        Assert.assertTrue(databaseProvider.init());
+
+        databaseProvider.deleteDatabase("cluster");
+        CachedDatabase database = databaseProvider.getDatabase("cluster");
+        Assert.assertTrue(database.insert("1", new JsonDocument("value", 1)));
+
+        //A read between the database event and the write of the other node caches the old document
+        eventManager.registerListener(new Object() {
+
+            @EventListener(priority = EventPriority.LOWEST)
+            public void handle(DatabaseUpdateEntryEvent event)
+            {
+                Assert.assertEquals(1, database.get("1").getInt("value"));
+            }
+
+            @EventListener(priority = EventPriority.LOWEST)
+            public void handle(DatabaseClearEntriesEvent event)
+            {
+                Assert.assertEquals(2, database.get("1").getInt("value"));
+            }
+        });
+
+        PacketServerH2DatabaseListener.apply(
+            h2DatabaseProvider.getDatabase("cluster"),
+            databaseProvider,
+            eventManager,
+            new PacketServerH2Database(PacketServerH2Database.OperationType.UPDATE, "cluster", "1", new JsonDocument("value", 2)).getHeader()
+        );
+
+        Assert.assertEquals(2, database.get("1").getInt("value"));
+
+        PacketServerH2DatabaseListener.apply(
+            h2DatabaseProvider.getDatabase("cluster"),
+            databaseProvider,
+            eventManager,
+            new PacketServerH2Database(PacketServerH2Database.OperationType.CLEAR, "cluster", null, null).getHeader()
+        );
+
+        Assert.assertNull(database.get("1"));
+
+        Assert.assertTrue(databaseProvider.deleteDatabase("cluster"));
+        databaseProvider.close();
+        taskScheduler.shutdown();
+    }
+}
@@ -0,0 +1,79 @@
+package de.dytanic.cloudnet.network.listener;
+
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
+import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
+import de.dytanic.cloudnet.driver.service.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+public final class PacketServerSetGlobalServiceInfoListListenerTest {
+
+    @Test
+    public void testNodeJoin()
+    {
+        ServiceInfoSnapshot lobby = createServiceInfoSnapshot("Node-1", "Lobby"),
+            proxy = createServiceInfoSnapshot("Node-2", "Proxy"), server = createServiceInfoSnapshot("Node-2", "Server");
+
+        Map<UUID, ServiceInfoSnapshot> globalServiceInfoSnapshots = Maps.newConcurrentHashMap();
+        globalServiceInfoSnapshots.put(lobby.getServiceId().getUniqueId(), lobby);
+
+        AtomicLong replicationSequence = new AtomicLong(5);
+
+        ReplicatedServiceRegistry registry = new ReplicatedServiceRegistry(new Supplier<ITask<ServiceRegistrySnapshot>>() {
+            @Override
+            public ITask<ServiceRegistrySnapshot> get()
+            {
+                ListenableTask<ServiceRegistrySnapshot> task = new ListenableTask<>();
+                task.complete(new ServiceRegistrySnapshot(replicationSequence.get(), Collections.singletonList(lobby), null, null));
+
+                return task;
+            }
+        });
+
+        registry.resync();
+        Assert.assertTrue(registry.isAvailable());
+        Assert.assertEquals(1, registry.getServicesCount());
+
+        //The other node joins the cluster and sends its services, which are published to the cloud services of this node
+        PacketServerSetGlobalServiceInfoListListener.apply(
+            Arrays.asList(lobby, proxy, server),
+            globalServiceInfoSnapshots,
+            new BiConsumer<ServiceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType>() {
+                @Override
+                public void accept(ServiceInfoSnapshot serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType publisherType)
+                {
+                    registry.handleServiceInfoSnapshot(replicationSequence.incrementAndGet(), serviceInfoSnapshot, publisherType);
+                }
+            }
+        );
+
+        Assert.assertEquals(3, globalServiceInfoSnapshots.size());
+        Assert.assertEquals(8, registry.getSequence());
+        Assert.assertEquals(3, registry.getServicesCount());
+        Assert.assertEquals(2, registry.getCloudServices("Proxy").size() + registry.getCloudServices("Server").size());
+        Assert.assertEquals(1, registry.getResyncCount());
+    }
+
+    private static ServiceInfoSnapshot createServiceInfoSnapshot(String nodeUniqueId, String taskName)
+    {
+        return new ServiceInfoSnapshot(
+            System.currentTimeMillis(),
+            new ServiceId(UUID.randomUUID(), nodeUniqueId, taskName, 1, ServiceEnvironmentType.MINECRAFT_SERVER),
+            null,
+            true,
+            ServiceLifeCycle.RUNNING,
+            null,
+            null
+        );
+    }
+}
@@ -0,0 +1,78 @@
+package de.dytanic.cloudnet.network.listener;
+
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
+import de.dytanic.cloudnet.common.concurrent.QueuedTaskScheduler;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.database.cache.CachedDatabaseProvider;
+import de.dytanic.cloudnet.database.h2.H2DatabaseProvider;
+import de.dytanic.cloudnet.driver.event.DefaultEventManager;
+import de.dytanic.cloudnet.network.packet.PacketServerSetH2DatabaseData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+public final class PacketServerSetH2DatabaseDataListenerTest {
+
+    @Test
+    public void testLegacySynchronization() throws Exception
+    {
+        ITaskScheduler taskScheduler = new QueuedTaskScheduler(1);
+
+        H2DatabaseProvider h2DatabaseProvider = new H2DatabaseProvider("build/h2database_set_data_listener", taskScheduler);
+        CachedDatabaseProvider databaseProvider = new CachedDatabaseProvider(h2DatabaseProvider, 16, 0, taskScheduler, new DefaultEventManager());
+        Assert.assertTrue(databaseProvider.init());
+
+        for (String name : h2DatabaseProvider.getDatabaseNames())
+            databaseProvider.deleteDatabase(name);
+
+        Assert.assertTrue(databaseProvider.getDatabase("kept").insert("old", new JsonDocument("value", 1)));
+        Assert.assertTrue(databaseProvider.getDatabase("removed").insert("old", new JsonDocument("value", 1)));
+
+        Map<String, Map<String, JsonDocument>> documents = Maps.newHashMap();
+        documents.put("kept", document("new", new JsonDocument("value", 2)));
+
+        //A node with the legacy format sends all databases in one packet without the cleared databases
+        PacketServerSetH2DatabaseDataListener.apply(h2DatabaseProvider, databaseProvider, new PacketServerSetH2DatabaseData(documents).getHeader());
+
+        Assert.assertTrue(h2DatabaseProvider.containsDatabase("kept"));
+        Assert.assertFalse(h2DatabaseProvider.containsDatabase("removed"));
+        Assert.assertNull(databaseProvider.getDatabase("kept").get("old"));
+        Assert.assertEquals(2, databaseProvider.getDatabase("kept").get("new").getInt("value"));
+
+        //A following packet of the chunked format only appends the documents
+        documents = Maps.newHashMap();
+        documents.put("kept", document("next", new JsonDocument("value", 3)));
+
+        PacketServerSetH2DatabaseDataListener.apply(h2DatabaseProvider, databaseProvider,
+            new PacketServerSetH2DatabaseData(documents, Collections.<String>emptyList(), null).getHeader());
+
+        Assert.assertEquals(2, databaseProvider.getDatabase("kept").get("new").getInt("value"));
+        Assert.assertEquals(3, databaseProvider.getDatabase("kept").get("next").getInt("value"));
+
+        //The first packet of the chunked format clears its databases and deletes the others
+        documents = Maps.newHashMap();
+        documents.put("kept", document("last", new JsonDocument("value", 4)));
+
+        PacketServerSetH2DatabaseDataListener.apply(h2DatabaseProvider, databaseProvider,
+            new PacketServerSetH2DatabaseData(documents, Collections.singletonList("kept"), Arrays.asList("kept")).getHeader());
+
+        Assert.assertEquals(1, h2DatabaseProvider.getDatabaseNames().size());
+        Assert.assertNull(databaseProvider.getDatabase("kept").get("new"));
+        Assert.assertEquals(4, databaseProvider.getDatabase("kept").get("last").getInt("value"));
+
+        Assert.assertTrue(databaseProvider.deleteDatabase("kept"));
+        databaseProvider.close();
+        taskScheduler.shutdown();
+    }
+
+    private static Map<String, JsonDocument> document(String key, JsonDocument document)
+    {
+        Map<String, JsonDocument> documents = Maps.newHashMap();
+        documents.put(key, document);
+        return documents;
+    }
+}